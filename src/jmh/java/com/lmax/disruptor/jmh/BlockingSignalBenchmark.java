@@ -0,0 +1,123 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.jmh;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.lmax.disruptor.BatchEventProcessor;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.RingBuffer;
+
+/**
+ * Publish cost against idle CPU for the blocking strategies, with busy spin as the baseline.
+ * <p>
+ * <code>publish</code> is the cost of publishing an event to a consumer that is keeping up, which for a blocking
+ * strategy includes signalling it.  <code>idle</code> leaves the ring buffer empty for a millisecond at a time and
+ * reports the CPU time the consumer used while idle as the <code>consumerCpuNanos</code> counter, the total for each
+ * iteration.  Dividing it by the iteration time gives the share of a core the idle consumer keeps busy.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BlockingSignalBenchmark
+{
+    private static final int BUFFER_SIZE = 1024;
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    @Param({"BLOCKING", "LITE_BLOCKING", "SIGNAL_ELIDING_BLOCKING", "BUSY_SPIN"})
+    public WaitStrategyType waitStrategyType;
+
+    private RingBuffer<SimpleEvent> ringBuffer;
+    private BatchEventProcessor<SimpleEvent> processor;
+    private Thread consumer;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class ConsumerCpu
+    {
+        public long consumerCpuNanos;
+
+        @Setup(Level.Iteration)
+        public void reset()
+        {
+            consumerCpuNanos = 0;
+        }
+    }
+
+    @Setup
+    public void setUp()
+    {
+        ringBuffer = RingBuffer.createSingleProducer(SimpleEvent.FACTORY, BUFFER_SIZE, waitStrategyType.newWaitStrategy());
+        processor = new BatchEventProcessor<SimpleEvent>(ringBuffer, ringBuffer.newBarrier(), new EventHandler<SimpleEvent>()
+        {
+            @Override
+            public void onEvent(final SimpleEvent event, final long sequence, final boolean endOfBatch)
+            {
+            }
+        });
+        ringBuffer.addGatingSequences(processor.getSequence());
+
+        consumer = new Thread(processor);
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException
+    {
+        processor.halt();
+        consumer.join();
+    }
+
+    @Benchmark
+    public long publish()
+    {
+        final long sequence = ringBuffer.next();
+        ringBuffer.get(sequence).setValue(sequence);
+        ringBuffer.publish(sequence);
+        return sequence;
+    }
+
+    @Benchmark
+    public void idle(final ConsumerCpu consumerCpu)
+    {
+        final long start = THREAD_MX_BEAN.getThreadCpuTime(consumer.getId());
+        LockSupport.parkNanos(IDLE_NANOS);
+        consumerCpu.consumerCpuNanos += THREAD_MX_BEAN.getThreadCpuTime(consumer.getId()) - start;
+    }
+}
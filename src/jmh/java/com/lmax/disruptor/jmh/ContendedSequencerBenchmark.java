@@ -0,0 +1,81 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.lmax.disruptor.BusySpinWaitStrategy;
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.Sequencer;
+
+/**
+ * Cost of a claim and publish when several publishers share one multi producer sequencer.  Run with
+ * <code>-t</code> to change the number of publishers.  Each publisher moves the shared gating sequence
+ * forward after publishing, so publishers only wait on each other.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class ContendedSequencerBenchmark
+{
+    private static final int BUFFER_SIZE = 1024 * 64;
+
+    @Param({"MULTI", "FETCH_ADD"})
+    public SequencerType sequencerType;
+
+    private Sequencer sequencer;
+    private final Sequence gatingSequence = new Sequence();
+
+    @Setup
+    public void setUp()
+    {
+        sequencer = sequencerType.newSequencer(BUFFER_SIZE, new BusySpinWaitStrategy());
+        sequencer.addGatingSequences(gatingSequence);
+    }
+
+    @Benchmark
+    public long claimAndPublish()
+    {
+        final long sequence = sequencer.next();
+        sequencer.publish(sequence);
+
+        // 多个发布者并发推进，只需保证序号不回退太远
+        final long gating = gatingSequence.get();
+        if (sequence > gating)
+        {
+            gatingSequence.compareAndSet(gating, sequence);
+        }
+
+        return sequence;
+    }
+}
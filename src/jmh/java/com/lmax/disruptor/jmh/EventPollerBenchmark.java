@@ -0,0 +1,94 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.lmax.disruptor.BusySpinWaitStrategy;
+import com.lmax.disruptor.EventPoller;
+import com.lmax.disruptor.RingBuffer;
+
+/**
+ * Cost of draining a batch of events with {@link EventPoller#poll}.  Each invocation publishes
+ * <code>batchSize</code> events and then polls until they have all been handled.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EventPollerBenchmark
+{
+    private static final int BUFFER_SIZE = 1024;
+
+    @Param({"1", "10", "100"})
+    public int batchSize;
+
+    private RingBuffer<SimpleEvent> ringBuffer;
+    private EventPoller<SimpleEvent> poller;
+    private final SumHandler handler = new SumHandler();
+    private Long[] values;
+
+    @Setup
+    public void setUp()
+    {
+        ringBuffer = RingBuffer.createSingleProducer(SimpleEvent.FACTORY, BUFFER_SIZE, new BusySpinWaitStrategy());
+        poller = ringBuffer.newPoller();
+        ringBuffer.addGatingSequences(poller.getSequence());
+
+        values = new Long[batchSize];
+        for (int i = 0; i < batchSize; i++)
+        {
+            values[i] = Long.valueOf(i);
+        }
+    }
+
+    @Benchmark
+    public long publishAndPoll() throws Exception
+    {
+        ringBuffer.publishEvents(SimpleEvent.TRANSLATOR, values);
+
+        // 处理器始终返回true，一次poll即可处理完所有已发布事件
+        poller.poll(handler);
+
+        return handler.sum;
+    }
+
+    private static final class SumHandler implements EventPoller.Handler<SimpleEvent>
+    {
+        private long sum;
+
+        @Override
+        public boolean onEvent(final SimpleEvent event, final long sequence, final boolean endOfBatch)
+        {
+            sum += event.getValue();
+            return true;
+        }
+    }
+}
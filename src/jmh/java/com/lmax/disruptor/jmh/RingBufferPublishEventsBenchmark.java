@@ -0,0 +1,100 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.lmax.disruptor.BusySpinWaitStrategy;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.Sequence;
+
+/**
+ * Cost of publishing a batch of events with {@link RingBuffer#publishEvents}, compared with publishing the same
+ * events one at a time.  Results are per batch; divide by <code>batchSize</code> for the cost per event.  The
+ * benchmark thread advances the gating sequence itself so publishing never waits for a consumer.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RingBufferPublishEventsBenchmark
+{
+    private static final int BUFFER_SIZE = 1024;
+
+    @Param({"SINGLE", "MULTI"})
+    public String producerType;
+
+    @Param({"1", "10", "100"})
+    public int batchSize;
+
+    private RingBuffer<SimpleEvent> ringBuffer;
+    private final Sequence gatingSequence = new Sequence();
+    private Long[] values;
+
+    @Setup
+    public void setUp()
+    {
+        ringBuffer = "SINGLE".equals(producerType) ?
+            RingBuffer.createSingleProducer(SimpleEvent.FACTORY, BUFFER_SIZE, new BusySpinWaitStrategy()) :
+            RingBuffer.createMultiProducer(SimpleEvent.FACTORY, BUFFER_SIZE, new BusySpinWaitStrategy());
+        ringBuffer.addGatingSequences(gatingSequence);
+
+        values = new Long[batchSize];
+        for (int i = 0; i < batchSize; i++)
+        {
+            values[i] = Long.valueOf(i);
+        }
+    }
+
+    @Benchmark
+    public long publishEvents()
+    {
+        ringBuffer.publishEvents(SimpleEvent.TRANSLATOR, values);
+        return consume();
+    }
+
+    @Benchmark
+    public long publishEventOneAtATime()
+    {
+        for (int i = 0; i < values.length; i++)
+        {
+            ringBuffer.publishEvent(SimpleEvent.TRANSLATOR, values[i]);
+        }
+        return consume();
+    }
+
+    private long consume()
+    {
+        final long cursor = ringBuffer.getCursor();
+        gatingSequence.set(cursor);
+
+        return cursor;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.lmax.disruptor.BusySpinWaitStrategy;
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.Sequencer;
+
+/**
+ * Cost of an uncontended claim and publish on each sequencer.  The benchmark thread advances the gating
+ * sequence itself so the claim never has to wait for a consumer.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SequencerBenchmark
+{
+    private static final int BUFFER_SIZE = 1024;
+
+    @Param({"SINGLE", "MULTI", "FETCH_ADD"})
+    public SequencerType sequencerType;
+
+    @Param({"1", "16"})
+    public int batchSize;
+
+    private Sequencer sequencer;
+    private final Sequence gatingSequence = new Sequence();
+
+    @Setup
+    public void setUp()
+    {
+        sequencer = sequencerType.newSequencer(BUFFER_SIZE, new BusySpinWaitStrategy());
+        sequencer.addGatingSequences(gatingSequence);
+    }
+
+    @Benchmark
+    public long claimAndPublish()
+    {
+        final long hi = sequencer.next(batchSize);
+        sequencer.publish(hi - (batchSize - 1), hi);
+        gatingSequence.set(hi);
+
+        return hi;
+    }
+}
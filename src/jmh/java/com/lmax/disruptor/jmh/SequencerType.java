@@ -0,0 +1,55 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.jmh;
+
+import com.lmax.disruptor.FetchAddMultiProducerSequencer;
+import com.lmax.disruptor.MultiProducerSequencer;
+import com.lmax.disruptor.Sequencer;
+import com.lmax.disruptor.SingleProducerSequencer;
+import com.lmax.disruptor.WaitStrategy;
+
+/**
+ * The sequencers a benchmark can be parameterised over.
+ */
+public enum SequencerType
+{
+    SINGLE
+    {
+        @Override
+        Sequencer newSequencer(final int bufferSize, final WaitStrategy waitStrategy)
+        {
+            return new SingleProducerSequencer(bufferSize, waitStrategy);
+        }
+    },
+    MULTI
+    {
+        @Override
+        Sequencer newSequencer(final int bufferSize, final WaitStrategy waitStrategy)
+        {
+            return new MultiProducerSequencer(bufferSize, waitStrategy);
+        }
+    },
+    FETCH_ADD
+    {
+        @Override
+        Sequencer newSequencer(final int bufferSize, final WaitStrategy waitStrategy)
+        {
+            return new FetchAddMultiProducerSequencer(bufferSize, waitStrategy);
+        }
+    };
+
+    abstract Sequencer newSequencer(int bufferSize, WaitStrategy waitStrategy);
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.jmh;
+
+import com.lmax.disruptor.EventFactory;
+import com.lmax.disruptor.EventTranslatorOneArg;
+
+public final class SimpleEvent
+{
+    public static final EventFactory<SimpleEvent> FACTORY = new EventFactory<SimpleEvent>()
+    {
+        @Override
+        public SimpleEvent newInstance()
+        {
+            return new SimpleEvent();
+        }
+    };
+
+    public static final EventTranslatorOneArg<SimpleEvent, Long> TRANSLATOR = new EventTranslatorOneArg<SimpleEvent, Long>()
+    {
+        @Override
+        public void translateTo(final SimpleEvent event, final long sequence, final Long value)
+        {
+            event.value = value;
+        }
+    };
+
+    private long value;
+
+    public long getValue()
+    {
+        return value;
+    }
+
+    public void setValue(final long value)
+    {
+        this.value = value;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.YieldingWaitStrategy;
+import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.ProducerType;
+import com.lmax.disruptor.util.DaemonThreadFactory;
+
+/**
+ * Sustained publishing into a running Disruptor built with the DSL.  Once the ring buffer is full the
+ * publisher is held back by the slowest handler, so the result reflects the end-to-end throughput of the
+ * topology rather than just the cost of publishing.
+ * <pre>
+ * UNICAST:  P1 -&gt; A
+ * PIPELINE: P1 -&gt; A -&gt; B -&gt; C
+ * DIAMOND:  P1 -&gt; (A, B) -&gt; C
+ * </pre>
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TopologyBenchmark
+{
+    private static final int BUFFER_SIZE = 1024 * 64;
+
+    @Param({"UNICAST", "PIPELINE", "DIAMOND"})
+    public String topology;
+
+    private Disruptor<SimpleEvent> disruptor;
+    private RingBuffer<SimpleEvent> ringBuffer;
+    private long value;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp()
+    {
+        disruptor = new Disruptor<SimpleEvent>(
+            SimpleEvent.FACTORY, BUFFER_SIZE, DaemonThreadFactory.INSTANCE, ProducerType.SINGLE, new YieldingWaitStrategy());
+
+        if ("UNICAST".equals(topology))
+        {
+            disruptor.handleEventsWith(new SumHandler());
+        }
+        else if ("PIPELINE".equals(topology))
+        {
+            disruptor.handleEventsWith(new SumHandler()).then(new SumHandler()).then(new SumHandler());
+        }
+        else if ("DIAMOND".equals(topology))
+        {
+            disruptor.handleEventsWith(new SumHandler(), new SumHandler()).then(new SumHandler());
+        }
+        else
+        {
+            throw new IllegalArgumentException(topology);
+        }
+
+        ringBuffer = disruptor.start();
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        disruptor.halt();
+    }
+
+    @Benchmark
+    public void publishEvent()
+    {
+        final long sequence = ringBuffer.next();
+        ringBuffer.get(sequence).setValue(value++);
+        ringBuffer.publish(sequence);
+    }
+
+    private static final class SumHandler implements EventHandler<SimpleEvent>
+    {
+        private long sum;
+
+        @Override
+        public void onEvent(final SimpleEvent event, final long sequence, final boolean endOfBatch)
+        {
+            sum += event.getValue();
+        }
+
+        @Override
+        public String toString()
+        {
+            return "SumHandler{sum=" + sum + '}';
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.lmax.disruptor.BatchEventProcessor;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.WaitStrategy;
+import com.lmax.disruptor.util.ThreadHints;
+
+/**
+ * Signal and wake paths of each wait strategy.
+ * <p>
+ * <code>signal</code> is the cost a publisher pays on every publish when no consumer is waiting.
+ * <code>publishAndWake</code> publishes a single event and spins until a consumer that was waiting on the
+ * strategy has processed it, so it includes the time taken to wake the consumer.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WaitStrategyBenchmark
+{
+    private static final int BUFFER_SIZE = 1024;
+
+    @Param({"BLOCKING", "LITE_BLOCKING", "SIGNAL_ELIDING_BLOCKING", "TIMEOUT_BLOCKING", "LITE_TIMEOUT_BLOCKING", "PHASED_BACKOFF", "ADAPTIVE", "TARGETED_WAKEUP", "SLEEPING", "YIELDING", "BUSY_SPIN"})
+    public WaitStrategyType waitStrategyType;
+
+    private WaitStrategy waitStrategy;
+    private RingBuffer<SimpleEvent> ringBuffer;
+    private BatchEventProcessor<SimpleEvent> processor;
+    private Thread consumer;
+
+    @Setup
+    public void setUp()
+    {
+        waitStrategy = waitStrategyType.newWaitStrategy();
+        ringBuffer = RingBuffer.createSingleProducer(SimpleEvent.FACTORY, BUFFER_SIZE, waitStrategy);
+        processor = new BatchEventProcessor<SimpleEvent>(ringBuffer, ringBuffer.newBarrier(), new EventHandler<SimpleEvent>()
+        {
+            @Override
+            public void onEvent(final SimpleEvent event, final long sequence, final boolean endOfBatch)
+            {
+            }
+        });
+        ringBuffer.addGatingSequences(processor.getSequence());
+
+        consumer = new Thread(processor);
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException
+    {
+        processor.halt();
+        consumer.join();
+    }
+
+    @Benchmark
+    public void signal()
+    {
+        waitStrategy.signalAllWhenBlocking();
+    }
+
+    @Benchmark
+    public long publishAndWake()
+    {
+        final long sequence = ringBuffer.next();
+        ringBuffer.get(sequence).setValue(sequence);
+        ringBuffer.publish(sequence);
+
+        while (processor.getSequence().get() < sequence)
+        {
+            ThreadHints.onSpinWait();
+        }
+
+        return sequence;
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import com.lmax.disruptor.AdaptiveWaitStrategy;
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.BusySpinWaitStrategy;
+import com.lmax.disruptor.LiteBlockingWaitStrategy;
+import com.lmax.disruptor.LiteTimeoutBlockingWaitStrategy;
+import com.lmax.disruptor.PhasedBackoffWaitStrategy;
+import com.lmax.disruptor.SignalElidingBlockingWaitStrategy;
+import com.lmax.disruptor.SleepingWaitStrategy;
+import com.lmax.disruptor.TargetedWakeupWaitStrategy;
+import com.lmax.disruptor.TimeoutBlockingWaitStrategy;
+import com.lmax.disruptor.WaitStrategy;
+import com.lmax.disruptor.YieldingWaitStrategy;
+
+/**
+ * The wait strategies a benchmark can be parameterised over.
+ */
+public enum WaitStrategyType
+{
+    BLOCKING
+    {
+        @Override
+        WaitStrategy newWaitStrategy()
+        {
+            return new BlockingWaitStrategy();
+        }
+    },
+    LITE_BLOCKING
+    {
+        @Override
+        WaitStrategy newWaitStrategy()
+        {
+            return new LiteBlockingWaitStrategy();
+        }
+    },
+    SIGNAL_ELIDING_BLOCKING
+    {
+        @Override
+        WaitStrategy newWaitStrategy()
+        {
+            return new SignalElidingBlockingWaitStrategy();
+        }
+    },
+    TIMEOUT_BLOCKING
+    {
+        @Override
+        WaitStrategy newWaitStrategy()
+        {
+            return new TimeoutBlockingWaitStrategy(1, TimeUnit.SECONDS);
+        }
+    },
+    LITE_TIMEOUT_BLOCKING
+    {
+        @Override
+        WaitStrategy newWaitStrategy()
+        {
+            return new LiteTimeoutBlockingWaitStrategy(1, TimeUnit.SECONDS);
+        }
+    },
+    PHASED_BACKOFF
+    {
+        @Override
+        WaitStrategy newWaitStrategy()
+        {
+            return PhasedBackoffWaitStrategy.withLiteLock(1, 1000, TimeUnit.MICROSECONDS);
+        }
+    },
+    ADAPTIVE
+    {
+        @Override
+        WaitStrategy newWaitStrategy()
+        {
+            return AdaptiveWaitStrategy.withLiteLock(50, 1000, TimeUnit.MICROSECONDS);
+        }
+    },
+    TARGETED_WAKEUP
+    {
+        @Override
+        WaitStrategy newWaitStrategy()
+        {
+            return new TargetedWakeupWaitStrategy();
+        }
+    },
+    SLEEPING
+    {
+        @Override
+        WaitStrategy newWaitStrategy()
+        {
+            return new SleepingWaitStrategy();
+        }
+    },
+    YIELDING
+    {
+        @Override
+        WaitStrategy newWaitStrategy()
+        {
+            return new YieldingWaitStrategy();
+        }
+    },
+    BUSY_SPIN
+    {
+        @Override
+        WaitStrategy newWaitStrategy()
+        {
+            return new BusySpinWaitStrategy();
+        }
+    };
+
+    abstract WaitStrategy newWaitStrategy();
+}
@@ -0,0 +1,314 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import sun.misc.Unsafe;
+
+import com.lmax.disruptor.util.Util;
+
+
+/**
+ * <p>Base for sequencers that are safe to use from multiple publisher threads.  Tracks which slots have been
+ * published in an availability buffer, leaving the claim strategy used by {@link Sequencer#next(int)} to
+ * the subclass.</p>
+ *
+ * @see MultiProducerSequencer
+ * @see FetchAddMultiProducerSequencer
+ */
+abstract class AbstractMultiProducerSequencer extends AbstractSequencer
+{
+    private static final Unsafe UNSAFE = Util.getUnsafe();
+    private static final long BASE = UNSAFE.arrayBaseOffset(int[].class);
+    private static final long SCALE = UNSAFE.arrayIndexScale(int[].class);
+
+    final Sequence gatingSequenceCache = new Sequence(Sequencer.INITIAL_CURSOR_VALUE);
+    // 已确认连续发布的最高序号，供消费者跳过已扫描过的区间
+    private final Sequence publishedWatermark = new Sequence(Sequencer.INITIAL_CURSOR_VALUE);
+
+    // availableBuffer tracks the state of each ringbuffer slot
+    // see below for more details on the approach
+    // 只在静止时由resize替换
+    private int[] availableBuffer;
+    private int indexMask;
+    private int indexShift;
+
+    AbstractMultiProducerSequencer(
+        int bufferSize, final WaitStrategy waitStrategy, final ProducerWaitStrategy producerWaitStrategy)
+    {
+        super(bufferSize, waitStrategy, producerWaitStrategy);
+        availableBuffer = new int[bufferSize];
+        indexMask = bufferSize - 1;
+        indexShift = Util.log2(bufferSize);
+        initialiseAvailableBuffer();
+    }
+
+    /**
+     * @see Sequencer#hasAvailableCapacity(int)
+     */
+    @Override
+    public boolean hasAvailableCapacity(final int requiredCapacity)
+    {
+        return hasAvailableCapacity(gatingSequences, requiredCapacity, cursor.get());
+    }
+
+    private boolean hasAvailableCapacity(Sequence[] gatingSequences, final int requiredCapacity, long cursorValue)
+    {
+        long wrapPoint = (cursorValue + requiredCapacity) - bufferSize;
+        long cachedGatingSequence = gatingSequenceCache.get();
+
+        if (wrapPoint > cachedGatingSequence || cachedGatingSequence > cursorValue)
+        {
+            long minSequence = Util.getMinimumSequence(gatingSequences, cursorValue);
+            gatingSequenceCache.set(minSequence);
+
+            if (wrapPoint > minSequence)
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @see Sequencer#claim(long)
+     */
+    @Override
+    public void claim(long sequence)
+    {
+        cursor.set(sequence);
+        publishedWatermark.set(Sequencer.INITIAL_CURSOR_VALUE);
+    }
+
+    /**
+     * @see Sequencer#next()
+     */
+    @Override
+    public long next()
+    {
+        return next(1);
+    }
+
+    /**
+     * @see Sequencer#tryNext()
+     */
+    @Override
+    public long tryNext() throws InsufficientCapacityException
+    {
+        return tryNext(1);
+    }
+
+    /**
+     * @see Sequencer#tryNext(int)
+     */
+    @Override
+    public long tryNext(int n) throws InsufficientCapacityException
+    {
+        if (n < 1)
+        {
+            throw new IllegalArgumentException("n must be > 0");
+        }
+
+        long current;
+        long next;
+
+        do
+        {
+            current = cursor.get();
+            next = current + n;
+
+            if (!hasAvailableCapacity(gatingSequences, n, current))
+            {
+                throw InsufficientCapacityException.INSTANCE;
+            }
+        }
+        while (!cursor.compareAndSet(current, next));
+
+        return next;
+    }
+
+    /**
+     * @see Sequencer#remainingCapacity()
+     */
+    @Override
+    public long remainingCapacity()
+    {
+        long consumed = Util.getMinimumSequence(gatingSequences, cursor.get());
+        long produced = cursor.get();
+        return getBufferSize() - (produced - consumed);
+    }
+
+    private void initialiseAvailableBuffer()
+    {
+        for (int i = availableBuffer.length - 1; i != 0; i--)
+        {
+            setAvailableBufferValue(i, -1);
+        }
+
+        setAvailableBufferValue(0, -1);
+    }
+
+    @Override
+    void resize(final int newBufferSize)
+    {
+        checkBufferSize(newBufferSize);
+
+        final long current = cursor.get();
+        if (scanAvailableBuffer(Math.max(0L, current - bufferSize + 1), current) != current)
+        {
+            throw new IllegalStateException("Claimed sequences must be published before resizing");
+        }
+        checkDrained(current);
+
+        availableBuffer = new int[newBufferSize];
+        indexMask = newBufferSize - 1;
+        indexShift = Util.log2(newBufferSize);
+        bufferSize = newBufferSize;
+        initialiseAvailableBuffer();
+
+        // 按新的容量重新标记最近一圈已发布的序号
+        for (long sequence = Math.max(0L, current - newBufferSize + 1); sequence <= current; sequence++)
+        {
+            setAvailable(sequence);
+        }
+    }
+
+    /**
+     * @see Sequencer#publish(long)
+     */
+    @Override
+    public void publish(final long sequence)
+    {
+        setAvailable(sequence);
+        waitStrategy.signalAllWhenBlocking();
+    }
+
+    /**
+     * @see Sequencer#publish(long, long)
+     */
+    @Override
+    public void publish(long lo, long hi)
+    {
+        for (long l = lo; l <= hi; l++)
+        {
+            setAvailable(l);
+        }
+        waitStrategy.signalAllWhenBlocking();
+    }
+
+    /**
+     * The below methods work on the availableBuffer flag.
+     * <p>
+     * The prime reason is to avoid a shared sequence object between publisher threads.
+     * (Keeping single pointers tracking start and end would require coordination
+     * between the threads).
+     * <p>
+     * --  Firstly we have the constraint that the delta between the cursor and minimum
+     * gating sequence will never be larger than the buffer size (the code in
+     * next/tryNext in the Sequence takes care of that).
+     * -- Given that; take the sequence value and mask off the lower portion of the
+     * sequence as the index into the buffer (indexMask). (aka modulo operator)
+     * -- The upper portion of the sequence becomes the value to check for availability.
+     * ie: it tells us how many times around the ring buffer we've been (aka division)
+     * -- Because we can't wrap without the gating sequences moving forward (i.e. the
+     * minimum gating sequence is effectively our last available position in the
+     * buffer), when we have new data and successfully claimed a slot we can simply
+     * write over the top.
+     */
+    private void setAvailable(final long sequence)
+    {
+        setAvailableBufferValue(calculateIndex(sequence), calculateAvailabilityFlag(sequence));
+    }
+
+    private void setAvailableBufferValue(int index, int flag)
+    {
+        long bufferAddress = (index * SCALE) + BASE;
+        UNSAFE.putOrderedInt(availableBuffer, bufferAddress, flag);
+    }
+
+    /**
+     * @see Sequencer#isAvailable(long)
+     */
+    @Override
+    public boolean isAvailable(long sequence)
+    {
+        int index = calculateIndex(sequence);
+        int flag = calculateAvailabilityFlag(sequence);
+        long bufferAddress = (index * SCALE) + BASE;
+        return UNSAFE.getIntVolatile(availableBuffer, bufferAddress) == flag;
+    }
+
+    /**
+     * Every sequence up to the published watermark is known to have been published, so only the flags beyond
+     * it need to be checked.  The watermark is shared by all consumers, so once one consumer has scanned a
+     * range the others do not scan it again.
+     * <p>
+     * The watermark is only a lower bound and may be stale or even move backwards under a race, either of which
+     * just means more flags are checked.  A sequence at or above a consumer's <code>lowerBound</code> cannot be
+     * overwritten while that consumer gates the producers, so the watermark stays valid for it.
+     *
+     * @see Sequencer#getHighestPublishedSequence(long, long)
+     */
+    @Override
+    public long getHighestPublishedSequence(long lowerBound, long availableSequence)
+    {
+        final long watermark = publishedWatermark.get();
+        if (watermark >= availableSequence)
+        {
+            return availableSequence;
+        }
+
+        final long highestPublished = scanAvailableBuffer(Math.max(lowerBound, watermark + 1), availableSequence);
+        if (highestPublished > watermark && highestPublished >= lowerBound)
+        {
+            publishedWatermark.set(highestPublished);
+        }
+
+        return highestPublished;
+    }
+
+    private long scanAvailableBuffer(final long lowerBound, final long availableSequence)
+    {
+        int index = calculateIndex(lowerBound);
+        int flag = calculateAvailabilityFlag(lowerBound);
+
+        for (long sequence = lowerBound; sequence <= availableSequence; sequence++)
+        {
+            if (UNSAFE.getIntVolatile(availableBuffer, (index * SCALE) + BASE) != flag)
+            {
+                return sequence - 1;
+            }
+
+            if (++index == bufferSize)
+            {
+                index = 0;
+                flag++;
+            }
+        }
+
+        return availableSequence;
+    }
+
+    private int calculateAvailabilityFlag(final long sequence)
+    {
+        return (int) (sequence >>> indexShift);
+    }
+
+    private int calculateIndex(final long sequence)
+    {
+        return ((int) sequence) & indexMask;
+    }
+}
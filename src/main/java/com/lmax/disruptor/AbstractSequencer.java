@@ -31,12 +31,17 @@ public abstract class AbstractSequencer implements Sequencer
     private static final AtomicReferenceFieldUpdater<AbstractSequencer, Sequence[]> SEQUENCE_UPDATER =
         AtomicReferenceFieldUpdater.newUpdater(AbstractSequencer.class, Sequence[].class, "gatingSequences");
 
-    protected final int bufferSize;
+    // 只在静止时由resize修改
+    protected int bufferSize;
     protected final WaitStrategy waitStrategy;
+    protected final ProducerWaitStrategy producerWaitStrategy;
     // 生产者序列
     protected final Sequence cursor = new Sequence(Sequencer.INITIAL_CURSOR_VALUE);
     // 消费者序列数组
     protected volatile Sequence[] gatingSequences = new Sequence[0];
+    // 发布者因容量不足被阻塞的次数及累计时长
+    private final Sequence gatedCount = new Sequence(0);
+    private final Sequence gatedNanos = new Sequence(0);
 
     /**
      * Create with the specified buffer size and wait strategy.
@@ -45,6 +50,27 @@ public abstract class AbstractSequencer implements Sequencer
      * @param waitStrategy The wait strategy used by this sequencer
      */
     public AbstractSequencer(int bufferSize, WaitStrategy waitStrategy)
+    {
+        this(bufferSize, waitStrategy, new ParkingProducerWaitStrategy());
+    }
+
+    /**
+     * Create with the specified buffer size, wait strategy and producer wait strategy.
+     *
+     * @param bufferSize           The total number of entries, must be a positive power of 2.
+     * @param waitStrategy         The wait strategy used by this sequencer
+     * @param producerWaitStrategy The strategy used by publishers waiting for the gating sequences
+     */
+    public AbstractSequencer(int bufferSize, WaitStrategy waitStrategy, ProducerWaitStrategy producerWaitStrategy)
+    {
+        checkBufferSize(bufferSize);
+
+        this.bufferSize = bufferSize;
+        this.waitStrategy = waitStrategy;
+        this.producerWaitStrategy = producerWaitStrategy;
+    }
+
+    static void checkBufferSize(final int bufferSize)
     {
         if (bufferSize < 1)
         {
@@ -55,9 +81,6 @@ public abstract class AbstractSequencer implements Sequencer
         {
             throw new IllegalArgumentException("bufferSize must be a power of 2");
         }
-
-        this.bufferSize = bufferSize;
-        this.waitStrategy = waitStrategy;
     }
 
     /**
@@ -111,7 +134,71 @@ public abstract class AbstractSequencer implements Sequencer
     @Override
     public SequenceBarrier newBarrier(Sequence... sequencesToTrack)
     {
-        return new ProcessingSequenceBarrier(this, waitStrategy, cursor, sequencesToTrack);
+        return new ProcessingSequenceBarrier(this, waitStrategy, producerWaitStrategy, cursor, sequencesToTrack);
+    }
+
+    /**
+     * Get the number of times a publisher has had to wait for the gating sequences.
+     *
+     * @return the number of waits so far.
+     */
+    public long getGatedCount()
+    {
+        return gatedCount.get();
+    }
+
+    /**
+     * Get the total time publishers have spent waiting for the gating sequences.
+     *
+     * @return the time waited so far in nanoseconds.
+     */
+    public long getGatedNanos()
+    {
+        return gatedNanos.get();
+    }
+
+    /**
+     * Wait for the gating sequences to reach the wrap point using the producer wait strategy, recording
+     * the wait in the gating metrics.
+     *
+     * @param wrapPoint the sequence the slowest consumer must have reached.
+     * @return the minimum gating sequence.
+     */
+    protected final long waitForCapacity(final long wrapPoint)
+    {
+        final long start = System.nanoTime();
+        final long minSequence = producerWaitStrategy.waitForCapacity(wrapPoint, this);
+
+        gatedCount.incrementAndGet();
+        gatedNanos.addAndGet(System.nanoTime() - start);
+
+        return minSequence;
+    }
+
+    /**
+     * Change the buffer size while every claimed sequence has been published and passed by all of the gating
+     * sequences, so that no slot holds an event still to be handled.  Used by {@link RingBuffer#resize(int)}.
+     *
+     * @param newBufferSize the new size of the buffer, must be a positive power of 2.
+     * @throws IllegalStateException if a claimed sequence has not yet been published or handled.
+     */
+    void resize(final int newBufferSize)
+    {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " can not be resized");
+    }
+
+    /**
+     * Check that all of the gating sequences have reached a claimed sequence.
+     *
+     * @param claimedSequence the highest sequence claimed by publishers.
+     * @throws IllegalStateException if a gating sequence is behind the claimed sequence.
+     */
+    final void checkDrained(final long claimedSequence)
+    {
+        if (Util.getMinimumSequence(gatingSequences, claimedSequence) < claimedSequence)
+        {
+            throw new IllegalStateException("All published events must be handled before resizing");
+        }
     }
 
     /**
@@ -133,6 +220,7 @@ public abstract class AbstractSequencer implements Sequencer
     {
         return "AbstractSequencer{" +
             "waitStrategy=" + waitStrategy +
+            ", producerWaitStrategy=" + producerWaitStrategy +
             ", cursor=" + cursor +
             ", gatingSequences=" + Arrays.toString(gatingSequences) +
             '}';
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import java.util.concurrent.TimeUnit;
+
+import com.lmax.disruptor.util.ThreadHints;
+
+/**
+ * <p>Adaptive wait strategy for waiting {@link EventProcessor}s on a barrier.</p>
+ *
+ * <p>Like {@link PhasedBackoffWaitStrategy} this busy spins, then spins with {@link ThreadHints#onSpinWait()},
+ * then yields and finally waits using the fallback WaitStrategy, but the time spent in each phase is not fixed.
+ * Each waiting thread keeps a moving average of how long it has had to wait for events, and the phases are sized
+ * from it:</p>
+ * <ul>
+ * <li>when events arrive in bursts the expected wait is short, so the thread spins long enough to catch the next
+ * event without being descheduled;</li>
+ * <li>when the expected wait is longer than the spin limit the thread only spins briefly and then yields;</li>
+ * <li>when the expected wait is longer than the spin and yield limits together the thread goes almost straight to
+ * the fallback strategy, so a quiet ring buffer costs next to no CPU.</li>
+ * </ul>
+ *
+ * <p>Each event processor waits on its own thread, so the statistics are kept per thread rather than shared
+ * between the consumers of a ring buffer.  They are only looked up and updated when the thread actually has to
+ * wait, so a consumer that is keeping up pays nothing for them.</p>
+ */
+public final class AdaptiveWaitStrategy implements WaitStrategy
+{
+    private static final int BUSY_SPIN_TRIES = 100;
+    private static final int CHECK_INTERVAL_MASK = 63;
+    private static final long MIN_SPIN_NANOS = 1000L;
+    private static final int AVERAGE_SHIFT = 3;
+
+    private final long maxSpinNanos;
+    private final long maxYieldNanos;
+    private final WaitStrategy fallbackStrategy;
+    private final ThreadLocal<WaitStatistics> statistics = new ThreadLocal<WaitStatistics>()
+    {
+        @Override
+        protected WaitStatistics initialValue()
+        {
+            return new WaitStatistics();
+        }
+    };
+
+    /**
+     * @param maxSpinTimeout   The most time to spin for when waits are expected to be short.
+     * @param maxYieldTimeout  The most time to yield for before falling back.
+     * @param units            Time units used for the timeout values.
+     * @param fallbackStrategy to wait with once spinning and yielding have given up.
+     */
+    public AdaptiveWaitStrategy(
+        final long maxSpinTimeout,
+        final long maxYieldTimeout,
+        final TimeUnit units,
+        final WaitStrategy fallbackStrategy)
+    {
+        this.maxSpinNanos = units.toNanos(maxSpinTimeout);
+        this.maxYieldNanos = units.toNanos(maxYieldTimeout);
+        this.fallbackStrategy = fallbackStrategy;
+    }
+
+    /**
+     * Construct {@link AdaptiveWaitStrategy} with fallback to {@link BlockingWaitStrategy}
+     *
+     * @param maxSpinTimeout  The most time to spin for when waits are expected to be short.
+     * @param maxYieldTimeout The most time to yield for before falling back.
+     * @param units           Time units used for the timeout values.
+     * @return The constructed wait strategy.
+     */
+    public static AdaptiveWaitStrategy withLock(
+        final long maxSpinTimeout,
+        final long maxYieldTimeout,
+        final TimeUnit units)
+    {
+        return new AdaptiveWaitStrategy(maxSpinTimeout, maxYieldTimeout, units, new BlockingWaitStrategy());
+    }
+
+    /**
+     * Construct {@link AdaptiveWaitStrategy} with fallback to {@link LiteBlockingWaitStrategy}
+     *
+     * @param maxSpinTimeout  The most time to spin for when waits are expected to be short.
+     * @param maxYieldTimeout The most time to yield for before falling back.
+     * @param units           Time units used for the timeout values.
+     * @return The constructed wait strategy.
+     */
+    public static AdaptiveWaitStrategy withLiteLock(
+        final long maxSpinTimeout,
+        final long maxYieldTimeout,
+        final TimeUnit units)
+    {
+        return new AdaptiveWaitStrategy(maxSpinTimeout, maxYieldTimeout, units, new LiteBlockingWaitStrategy());
+    }
+
+    @Override
+    public long waitFor(final long sequence, final Sequence cursor, final Sequence dependentSequence, final SequenceBarrier barrier)
+        throws AlertException, InterruptedException, TimeoutException
+    {
+        // 事件已可用时直接返回，不查找线程的统计信息
+        long availableSequence;
+        if ((availableSequence = dependentSequence.get()) >= sequence)
+        {
+            return availableSequence;
+        }
+
+        final WaitStatistics waitStatistics = statistics.get();
+        final long averageWaitNanos = waitStatistics.averageWaitNanos;
+        final long spinNanos = spinBudgetNanos(averageWaitNanos, maxSpinNanos);
+        final long backoffNanos = spinNanos + yieldBudgetNanos(averageWaitNanos, maxSpinNanos, maxYieldNanos);
+        final long startTime = System.nanoTime();
+        boolean yielding = false;
+        int counter = 0;
+
+        while ((availableSequence = dependentSequence.get()) < sequence)
+        {
+            barrier.checkAlert();
+
+            // 先紧密自旋若干次，然后定期检查耗时以决定进入哪个阶段
+            if (++counter < BUSY_SPIN_TRIES)
+            {
+                continue;
+            }
+
+            if (0 == (counter & CHECK_INTERVAL_MASK))
+            {
+                final long elapsedNanos = System.nanoTime() - startTime;
+                if (elapsedNanos > backoffNanos)
+                {
+                    availableSequence = fallbackStrategy.waitFor(sequence, cursor, dependentSequence, barrier);
+                    break;
+                }
+                yielding = elapsedNanos > spinNanos;
+            }
+
+            if (yielding)
+            {
+                Thread.yield();
+            }
+            else
+            {
+                ThreadHints.onSpinWait();
+            }
+        }
+
+        waitStatistics.record(System.nanoTime() - startTime, maxSpinNanos + maxYieldNanos);
+        return availableSequence;
+    }
+
+    @Override
+    public void signalAllWhenBlocking()
+    {
+        fallbackStrategy.signalAllWhenBlocking();
+    }
+
+    /**
+     * Time to spin for given the average wait, leaving headroom of twice the average so that a typical wait is
+     * caught while spinning.
+     */
+    static long spinBudgetNanos(final long averageWaitNanos, final long maxSpinNanos)
+    {
+        final long minSpinNanos = Math.min(MIN_SPIN_NANOS, maxSpinNanos);
+        final long expectedNanos = averageWaitNanos << 1;
+
+        return expectedNanos <= maxSpinNanos ? Math.max(expectedNanos, minSpinNanos) : minSpinNanos;
+    }
+
+    /**
+     * Time to yield for after spinning given the average wait, none when the wait is expected to outlast both phases.
+     */
+    static long yieldBudgetNanos(final long averageWaitNanos, final long maxSpinNanos, final long maxYieldNanos)
+    {
+        final long expectedNanos = averageWaitNanos << 1;
+
+        return expectedNanos <= maxSpinNanos + maxYieldNanos ? maxYieldNanos : 0L;
+    }
+
+    long getAverageWaitNanos()
+    {
+        return statistics.get().averageWaitNanos;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "AdaptiveWaitStrategy{" +
+            "maxSpinNanos=" + maxSpinNanos +
+            ", maxYieldNanos=" + maxYieldNanos +
+            ", fallbackStrategy=" + fallbackStrategy +
+            '}';
+    }
+
+    private static final class WaitStatistics
+    {
+        private long averageWaitNanos = 0L;
+
+        // 指数移动平均，超过所有退避阶段的等待按上限计算，以便流量恢复时能较快回到自旋
+        void record(final long waitNanos, final long maxWaitNanos)
+        {
+            final long sample = Math.min(waitNanos, maxWaitNanos);
+            averageWaitNanos += (sample - averageWaitNanos) >> AVERAGE_SHIFT;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import com.lmax.disruptor.util.ThreadHints;
+
+/**
+ * <p>Idle strategy that spins, then yields, then parks for a period that doubles on each idle cycle up to a
+ * maximum.  Any cycle that does work starts the back off again from spinning.</p>
+ *
+ * <p>This strategy is not thread safe, each polling thread needs its own instance.</p>
+ */
+public final class BackoffIdleStrategy implements IdleStrategy
+{
+    private static final int DEFAULT_SPINS = 100;
+    private static final int DEFAULT_YIELDS = 100;
+
+    private final int maxSpins;
+    private final int maxYields;
+    private final long minParkNanos;
+    private final long maxParkNanos;
+    private int spins;
+    private int yields;
+    private long parkNanos;
+
+    /**
+     * Back off from parking for a microsecond to parking for a millisecond.
+     */
+    public BackoffIdleStrategy()
+    {
+        this(DEFAULT_SPINS, DEFAULT_YIELDS, 1, 1000, TimeUnit.MICROSECONDS);
+    }
+
+    /**
+     * @param maxSpins   number of idle cycles to busy spin for.
+     * @param maxYields  number of idle cycles to yield for once spinning is done.
+     * @param minPark    first park period once yielding is done.
+     * @param maxPark    longest park period.
+     * @param units      time units of the park periods.
+     * @throws IllegalArgumentException if a count or period is negative, or minPark is greater than maxPark.
+     */
+    public BackoffIdleStrategy(
+        final int maxSpins,
+        final int maxYields,
+        final long minPark,
+        final long maxPark,
+        final TimeUnit units)
+    {
+        if (maxSpins < 0 || maxYields < 0 || minPark < 1 || maxPark < minPark)
+        {
+            throw new IllegalArgumentException("Invalid back off: spins=" + maxSpins + ", yields=" + maxYields +
+                ", minPark=" + minPark + ", maxPark=" + maxPark);
+        }
+
+        this.maxSpins = maxSpins;
+        this.maxYields = maxYields;
+        this.minParkNanos = units.toNanos(minPark);
+        this.maxParkNanos = units.toNanos(maxPark);
+        this.parkNanos = minParkNanos;
+    }
+
+    @Override
+    public void idle(final int workCount)
+    {
+        if (workCount > 0)
+        {
+            spins = 0;
+            yields = 0;
+            parkNanos = minParkNanos;
+        }
+        else if (spins < maxSpins)
+        {
+            spins++;
+            ThreadHints.onSpinWait();
+        }
+        else if (yields < maxYields)
+        {
+            yields++;
+            Thread.yield();
+        }
+        else
+        {
+            LockSupport.parkNanos(parkNanos);
+            parkNanos = Math.min(parkNanos << 1, maxParkNanos);
+        }
+    }
+}
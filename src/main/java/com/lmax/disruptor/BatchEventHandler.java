@@ -0,0 +1,43 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+/**
+ * Callback interface to be implemented for processing all of the events available in the {@link RingBuffer}
+ * with a single call, instead of one {@link EventHandler#onEvent(Object, long, boolean)} call per event.
+ * <p>
+ * The handler may also implement {@link LifecycleAware}, {@link BatchStartAware} and {@link TimeoutHandler}.
+ *
+ * @param <T> event implementation storing the data for sharing during exchange or parallel coordination of an event.
+ * @see BatchEventProcessor#BatchEventProcessor(DataProvider, SequenceBarrier, BatchEventHandler)
+ */
+public interface BatchEventHandler<T>
+{
+    /**
+     * Called with every event that has been published and not yet processed, from <code>lo</code> to
+     * <code>hi</code> inclusive.  Events are read with <code>events.get(sequence)</code> for each sequence
+     * in the range.  The range is never empty.
+     * <p>
+     * If this method throws, the exception is passed to the processor's {@link ExceptionHandler} with the
+     * sequence <code>hi</code> and a <code>null</code> event, and the whole batch is treated as processed.
+     *
+     * @param events from which to read the events of the batch.
+     * @param lo     first sequence of the batch.
+     * @param hi     last sequence of the batch.
+     * @throws Exception if the BatchEventHandler would like the exception handled further up the chain.
+     */
+    void onBatch(DataProvider<? extends T> events, long lo, long hi) throws Exception;
+}
@@ -24,6 +24,9 @@ import java.util.concurrent.atomic.AtomicInteger;
  * <p>
  * If the {@link EventHandler} also implements {@link LifecycleAware} it will be notified just after the thread
  * is started and just before the thread is shutdown.
+ * <p>
+ * Alternatively the available events can be delegated to a {@link BatchEventHandler} which receives each batch
+ * as a range of sequences in a single call.
  *
  * @param <T> event implementation storing the data for sharing during exchange or parallel coordination of an event.
  */
@@ -43,10 +46,17 @@ public final class BatchEventProcessor<T>
     private final SequenceBarrier sequenceBarrier;
     // 时间处理句柄
     private final EventHandler<? super T> eventHandler;
+    // 批量处理句柄，与eventHandler二选一
+    private final BatchEventHandler<? super T> batchEventHandler;
+    private final Object handler;
     // 每个消费者，维护一个读下标序列
-    private final Sequence sequence = new Sequence(Sequencer.INITIAL_CURSOR_VALUE);
+    private final Sequence sequence;
     private final TimeoutHandler timeoutHandler;
     private final BatchStartAware batchStartAware;
+    // 单批最大处理数量，达到后更新读下标再继续
+    private int maxBatchSize = Integer.MAX_VALUE;
+    // 未启用时为null，不做任何统计
+    private ProcessorMetrics metrics;
 
     /**
      * Construct a {@link EventProcessor} that will automatically track the progress by updating its sequence when
@@ -61,19 +71,88 @@ public final class BatchEventProcessor<T>
         final SequenceBarrier sequenceBarrier,
         final EventHandler<? super T> eventHandler)
     {
-        this.dataProvider = dataProvider;
-        this.sequenceBarrier = sequenceBarrier;
-        this.eventHandler = eventHandler;
+        this(dataProvider, sequenceBarrier, eventHandler, new Sequence(Sequencer.INITIAL_CURSOR_VALUE));
+    }
+
+    /**
+     * Construct a {@link EventProcessor} that tracks its progress in the supplied {@link Sequence}.  Processing
+     * resumes from the sequence after its current value, so a sequence that outlives the processor (e.g. one held
+     * in persistent storage) allows a replacement processor to carry on where the previous one stopped.
+     *
+     * @param dataProvider    to which events are published.
+     * @param sequenceBarrier on which it is waiting.
+     * @param eventHandler    is the delegate to which events are dispatched.
+     * @param sequence        in which to record the last processed sequence.
+     */
+    public BatchEventProcessor(
+        final DataProvider<T> dataProvider,
+        final SequenceBarrier sequenceBarrier,
+        final EventHandler<? super T> eventHandler,
+        final Sequence sequence)
+    {
+        this(dataProvider, sequenceBarrier, eventHandler, eventHandler, null, sequence);
 
         if (eventHandler instanceof SequenceReportingEventHandler)
         {
             ((SequenceReportingEventHandler<?>) eventHandler).setSequenceCallback(sequence);
         }
+    }
+
+    /**
+     * Construct a {@link EventProcessor} that passes each batch of available events to a {@link BatchEventHandler}
+     * in a single call and updates its sequence when {@link BatchEventHandler#onBatch(DataProvider, long, long)}
+     * returns.
+     *
+     * @param dataProvider      to which events are published.
+     * @param sequenceBarrier   on which it is waiting.
+     * @param batchEventHandler is the delegate to which batches of events are dispatched.
+     */
+    public BatchEventProcessor(
+        final DataProvider<T> dataProvider,
+        final SequenceBarrier sequenceBarrier,
+        final BatchEventHandler<? super T> batchEventHandler)
+    {
+        this(dataProvider, sequenceBarrier, batchEventHandler, new Sequence(Sequencer.INITIAL_CURSOR_VALUE));
+    }
+
+    /**
+     * Construct a {@link EventProcessor} that passes each batch of available events to a {@link BatchEventHandler}
+     * and tracks its progress in the supplied {@link Sequence}.
+     *
+     * @param dataProvider      to which events are published.
+     * @param sequenceBarrier   on which it is waiting.
+     * @param batchEventHandler is the delegate to which batches of events are dispatched.
+     * @param sequence          in which to record the last processed sequence.
+     * @see #BatchEventProcessor(DataProvider, SequenceBarrier, EventHandler, Sequence)
+     */
+    public BatchEventProcessor(
+        final DataProvider<T> dataProvider,
+        final SequenceBarrier sequenceBarrier,
+        final BatchEventHandler<? super T> batchEventHandler,
+        final Sequence sequence)
+    {
+        this(dataProvider, sequenceBarrier, batchEventHandler, null, batchEventHandler, sequence);
+    }
+
+    private BatchEventProcessor(
+        final DataProvider<T> dataProvider,
+        final SequenceBarrier sequenceBarrier,
+        final Object handler,
+        final EventHandler<? super T> eventHandler,
+        final BatchEventHandler<? super T> batchEventHandler,
+        final Sequence sequence)
+    {
+        this.dataProvider = dataProvider;
+        this.sequence = sequence;
+        this.sequenceBarrier = sequenceBarrier;
+        this.handler = handler;
+        this.eventHandler = eventHandler;
+        this.batchEventHandler = batchEventHandler;
 
         batchStartAware =
-            (eventHandler instanceof BatchStartAware) ? (BatchStartAware) eventHandler : null;
+            (handler instanceof BatchStartAware) ? (BatchStartAware) handler : null;
         timeoutHandler =
-            (eventHandler instanceof TimeoutHandler) ? (TimeoutHandler) eventHandler : null;
+            (handler instanceof TimeoutHandler) ? (TimeoutHandler) handler : null;
     }
 
     @Override
@@ -110,6 +189,62 @@ public final class BatchEventProcessor<T>
         this.exceptionHandler = exceptionHandler;
     }
 
+    /**
+     * Limit the number of events processed before the processor's sequence is updated.  By default a processor
+     * that has fallen behind processes everything available before reporting progress, which holds back
+     * producers and any dependent processors until the backlog is cleared.  With a limit the backlog is
+     * processed in smaller batches, each followed by a sequence update.
+     * <p>
+     * Must be called before the processor is started.
+     *
+     * @param maxBatchSize the maximum number of events in a batch, must be positive.
+     * @throws IllegalArgumentException if maxBatchSize is less than 1.
+     */
+    public void setMaxBatchSize(final int maxBatchSize)
+    {
+        if (maxBatchSize < 1)
+        {
+            throw new IllegalArgumentException("maxBatchSize must be greater than 0");
+        }
+
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Start recording {@link ProcessorMetrics} for this processor.  Recording reads the clock twice per batch.
+     * The lag is measured behind the ring buffer's cursor when the data provider is a {@link Cursored}
+     * ring buffer, otherwise behind the sequences the barrier waits on.
+     * <p>
+     * Must be called before the processor is started.
+     *
+     * @return the metrics of this processor, the same instance if they are already enabled.
+     */
+    public ProcessorMetrics enableMetrics()
+    {
+        if (null == metrics)
+        {
+            final Cursored cursor = dataProvider instanceof Cursored ? (Cursored) dataProvider : new Cursored()
+            {
+                @Override
+                public long getCursor()
+                {
+                    return sequenceBarrier.getCursor();
+                }
+            };
+            metrics = new ProcessorMetrics(sequence, cursor);
+        }
+
+        return metrics;
+    }
+
+    /**
+     * @return the metrics of this processor, or <code>null</code> if they have not been enabled.
+     */
+    public ProcessorMetrics getMetrics()
+    {
+        return metrics;
+    }
+
     /**
      * It is ok to have another thread rerun this method after a halt().
      *
@@ -129,7 +264,14 @@ public final class BatchEventProcessor<T>
             {
                 if (running.get() == RUNNING)
                 {
-                    processEvents();
+                    if (batchEventHandler != null)
+                    {
+                        processBatches();
+                    }
+                    else
+                    {
+                        processEvents();
+                    }
                 }
             }
             finally
@@ -157,6 +299,7 @@ public final class BatchEventProcessor<T>
 
     private void processEvents()
     {
+        final ProcessorMetrics metrics = this.metrics;
         T event = null;
         // 渎下标从0开始
         long nextSequence = sequence.get() + 1L;
@@ -165,12 +308,17 @@ public final class BatchEventProcessor<T>
         {
             try
             {
+                final long startTime = null != metrics ? System.nanoTime() : 0L;
+                final boolean waiting = null != metrics && sequenceBarrier.getCursor() < nextSequence;
+
                 // 获取写下标
-                final long availableSequence = sequenceBarrier.waitFor(nextSequence);
-                if (batchStartAware != null && availableSequence >= nextSequence)
+                final long availableSequence = endOfBatch(nextSequence, sequenceBarrier.waitFor(nextSequence));
+                final long batchSize = availableSequence - nextSequence + 1;
+                final long handleStartTime = null != metrics ? recordWait(metrics, startTime, waiting) : 0L;
+                if (batchStartAware != null && batchSize > 0)
                 {
                     // 回调批量开始
-                    batchStartAware.onBatchStart(availableSequence - nextSequence + 1);
+                    batchStartAware.onBatchStart(batchSize);
                 }
 
                 while (nextSequence <= availableSequence)
@@ -184,6 +332,11 @@ public final class BatchEventProcessor<T>
 
                 // 消费者维护写下标
                 sequence.set(availableSequence);
+
+                if (null != metrics && batchSize > 0)
+                {
+                    recordBatch(metrics, batchSize, handleStartTime);
+                }
             }
             catch (final TimeoutException e)
             {
@@ -205,6 +358,79 @@ public final class BatchEventProcessor<T>
         }
     }
 
+    private void processBatches()
+    {
+        final ProcessorMetrics metrics = this.metrics;
+        long nextSequence = sequence.get() + 1L;
+        long availableSequence = nextSequence - 1L;
+
+        while (true)
+        {
+            try
+            {
+                final long startTime = null != metrics ? System.nanoTime() : 0L;
+                final boolean waiting = null != metrics && sequenceBarrier.getCursor() < nextSequence;
+
+                availableSequence = endOfBatch(nextSequence, sequenceBarrier.waitFor(nextSequence));
+                final long batchSize = availableSequence - nextSequence + 1;
+                final long handleStartTime = null != metrics ? recordWait(metrics, startTime, waiting) : 0L;
+                if (batchSize > 0)
+                {
+                    if (batchStartAware != null)
+                    {
+                        batchStartAware.onBatchStart(batchSize);
+                    }
+
+                    // 整批交给处理句柄
+                    batchEventHandler.onBatch(dataProvider, nextSequence, availableSequence);
+                    nextSequence = availableSequence + 1L;
+                }
+
+                sequence.set(availableSequence);
+
+                if (null != metrics && batchSize > 0)
+                {
+                    recordBatch(metrics, batchSize, handleStartTime);
+                }
+            }
+            catch (final TimeoutException e)
+            {
+                notifyTimeout(sequence.get());
+            }
+            catch (final AlertException ex)
+            {
+                if (running.get() != RUNNING)
+                {
+                    break;
+                }
+            }
+            catch (final Throwable ex)
+            {
+                exceptionHandler.handleEventException(ex, availableSequence, null);
+                sequence.set(availableSequence);
+                nextSequence = availableSequence + 1L;
+            }
+        }
+    }
+
+    private static long recordWait(final ProcessorMetrics metrics, final long startTime, final boolean waiting)
+    {
+        final long now = System.nanoTime();
+        metrics.recordWait(now - startTime, waiting);
+        return now;
+    }
+
+    private static void recordBatch(final ProcessorMetrics metrics, final long batchSize, final long handleStartTime)
+    {
+        metrics.recordBatch(batchSize);
+        metrics.recordEvents(batchSize, System.nanoTime() - handleStartTime);
+    }
+
+    private long endOfBatch(final long nextSequence, final long availableSequence)
+    {
+        return Math.min(availableSequence, nextSequence + maxBatchSize - 1L);
+    }
+
     private void earlyExit()
     {
         notifyStart();
@@ -231,11 +457,11 @@ public final class BatchEventProcessor<T>
      */
     private void notifyStart()
     {
-        if (eventHandler instanceof LifecycleAware)
+        if (handler instanceof LifecycleAware)
         {
             try
             {
-                ((LifecycleAware) eventHandler).onStart();
+                ((LifecycleAware) handler).onStart();
             }
             catch (final Throwable ex)
             {
@@ -249,11 +475,11 @@ public final class BatchEventProcessor<T>
      */
     private void notifyShutdown()
     {
-        if (eventHandler instanceof LifecycleAware)
+        if (handler instanceof LifecycleAware)
         {
             try
             {
-                ((LifecycleAware) eventHandler).onShutdown();
+                ((LifecycleAware) handler).onShutdown();
             }
             catch (final Throwable ex)
             {
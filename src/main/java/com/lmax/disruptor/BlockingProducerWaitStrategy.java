@@ -0,0 +1,120 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Blocking strategy that uses a lock and condition variable for publishers waiting on the gating sequences.
+ * <p>
+ * Consumers signal the condition through their {@link SequenceBarrier} each time they ask for the next batch,
+ * and only take the lock when a publisher is actually waiting.  Gating sequences that are not advanced by a
+ * barrier, such as those of an {@link EventPoller}, are not signalled, so waiting publishers also wake up
+ * after a timeout to check the gating sequences again.
+ * <p>
+ * This strategy can be used when throughput and low-latency are not as important as CPU resource.
+ */
+public final class BlockingProducerWaitStrategy implements ProducerWaitStrategy
+{
+    private final Lock lock = new ReentrantLock();
+    private final Condition capacityAvailable = lock.newCondition();
+    private final AtomicInteger waiters = new AtomicInteger();
+    private final long timeoutNanos;
+
+    public BlockingProducerWaitStrategy()
+    {
+        this(1, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param timeout  upper bound on how long a publisher waits before checking the gating sequences again.
+     * @param timeUnit of the timeout.
+     */
+    public BlockingProducerWaitStrategy(final long timeout, final TimeUnit timeUnit)
+    {
+        this.timeoutNanos = timeUnit.toNanos(timeout);
+        if (timeoutNanos < 1)
+        {
+            throw new IllegalArgumentException("timeout must be > 0");
+        }
+    }
+
+    @Override
+    public long waitForCapacity(final long wrapPoint, final Sequencer sequencer)
+    {
+        long minSequence;
+        boolean interrupted = false;
+
+        waiters.incrementAndGet();
+        lock.lock();
+        try
+        {
+            while (wrapPoint > (minSequence = sequencer.getMinimumSequence()))
+            {
+                try
+                {
+                    capacityAvailable.awaitNanos(timeoutNanos);
+                }
+                catch (final InterruptedException e)
+                {
+                    // 发布者不能中途放弃已开始的申领，记录中断并继续等待
+                    interrupted = true;
+                }
+            }
+        }
+        finally
+        {
+            lock.unlock();
+            waiters.decrementAndGet();
+        }
+
+        if (interrupted)
+        {
+            Thread.currentThread().interrupt();
+        }
+
+        return minSequence;
+    }
+
+    @Override
+    public void signalAllWhenBlocking()
+    {
+        if (0 != waiters.get())
+        {
+            lock.lock();
+            try
+            {
+                capacityAvailable.signalAll();
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "BlockingProducerWaitStrategy{" +
+            "timeoutNanos=" + timeoutNanos +
+            '}';
+    }
+}
@@ -0,0 +1,310 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>{@link EventProcessor} that shares a scheduler, such as an {@link java.util.concurrent.ExecutorService},
+ * a {@link java.util.concurrent.ForkJoinPool} or a virtual thread executor, instead of owning a thread.</p>
+ *
+ * <p>Each task submitted to the scheduler handles the events available at that point, up to the max batch size,
+ * and returns.  The processor is resubmitted straight away if more events are available, so other tasks get the
+ * carrier thread in between batches.  Otherwise it parks without holding a thread and the
+ * {@link CooperativeWaitStrategy} of the ring buffer resubmits it when a sequence is published, or when a
+ * cooperative processor it depends on advances.  Thousands of mostly idle ring buffers can be hosted this way
+ * without a spinning or blocked thread for each of their processors.</p>
+ *
+ * <p>The ring buffer must use the {@link CooperativeWaitStrategy} passed to this processor.  A processor that
+ * depends on a processor of another kind is only resubmitted on the next publish once it has caught up with it.
+ * Calling {@link #run()} starts the processor by submitting its first task to the scheduler, so it may be started
+ * by the {@link com.lmax.disruptor.dsl.Disruptor} like any other processor, e.g. from an
+ * {@link com.lmax.disruptor.dsl.EventProcessorFactory}.</p>
+ *
+ * @param <T> event implementation storing the data for sharing during exchange or parallel coordination of an event.
+ */
+public final class CooperativeEventProcessor<T> implements EventProcessor
+{
+    private static final int IDLE = 0;
+    private static final int HALTED = IDLE + 1;
+    // 已提交到调度器或正在处理
+    private static final int SCHEDULED = HALTED + 1;
+    // 没有可处理的事件，不占用线程
+    private static final int PARKED = SCHEDULED + 1;
+
+    private final AtomicInteger state = new AtomicInteger(IDLE);
+    private ExceptionHandler<? super T> exceptionHandler = new FatalExceptionHandler();
+    private final DataProvider<T> dataProvider;
+    private final Sequencer sequencer;
+    private final SequenceBarrier sequenceBarrier;
+    private final CooperativeWaitStrategy waitStrategy;
+    private final Executor scheduler;
+    private final EventHandler<? super T> eventHandler;
+    private final Sequence sequence = new Sequence(Sequencer.INITIAL_CURSOR_VALUE);
+    private final BatchStartAware batchStartAware;
+    private final Runnable task = new Runnable()
+    {
+        @Override
+        public void run()
+        {
+            processAvailable();
+        }
+    };
+    private int maxBatchSize = Integer.MAX_VALUE;
+
+    /**
+     * Construct a CooperativeEventProcessor that will automatically track the progress by updating its sequence
+     * when the {@link EventHandler#onEvent(Object, long, boolean)} method returns.
+     *
+     * @param ringBuffer         to which events are published, created with <code>waitStrategy</code>.
+     * @param waitStrategy       the wait strategy of the ring buffer.
+     * @param scheduler          to run the processor's tasks on.
+     * @param eventHandler       is the delegate to which events are dispatched.
+     * @param dependentSequences the sequences of the processors this processor must follow, if any.
+     */
+    public CooperativeEventProcessor(
+        final RingBuffer<T> ringBuffer,
+        final CooperativeWaitStrategy waitStrategy,
+        final Executor scheduler,
+        final EventHandler<? super T> eventHandler,
+        final Sequence... dependentSequences)
+    {
+        this.dataProvider = ringBuffer;
+        this.sequencer = ringBuffer.sequencer;
+        this.sequenceBarrier = ringBuffer.newBarrier(dependentSequences);
+        this.waitStrategy = waitStrategy;
+        this.scheduler = scheduler;
+        this.eventHandler = eventHandler;
+
+        batchStartAware =
+            (eventHandler instanceof BatchStartAware) ? (BatchStartAware) eventHandler : null;
+    }
+
+    @Override
+    public Sequence getSequence()
+    {
+        return sequence;
+    }
+
+    @Override
+    public void halt()
+    {
+        int currentState;
+        do
+        {
+            currentState = state.get();
+            if (IDLE == currentState || HALTED == currentState)
+            {
+                return;
+            }
+        }
+        while (!state.compareAndSet(currentState, HALTED));
+
+        // 停放的处理器没有任务在运行，提交一个任务来完成关闭
+        if (PARKED == currentState)
+        {
+            scheduler.execute(task);
+        }
+    }
+
+    @Override
+    public boolean isRunning()
+    {
+        return state.get() != IDLE;
+    }
+
+    /**
+     * Set a new {@link ExceptionHandler} for handling exceptions propagated out of the {@link CooperativeEventProcessor}
+     *
+     * @param exceptionHandler to replace the existing exceptionHandler.
+     */
+    public void setExceptionHandler(final ExceptionHandler<? super T> exceptionHandler)
+    {
+        if (null == exceptionHandler)
+        {
+            throw new NullPointerException();
+        }
+
+        this.exceptionHandler = exceptionHandler;
+    }
+
+    /**
+     * Limit the number of events handled by each task, so that a processor with a backlog gives up the carrier
+     * thread to other tasks of the scheduler between batches.
+     * <p>
+     * Must be called before the processor is started.
+     *
+     * @param maxBatchSize the maximum number of events in a batch, must be positive.
+     * @throws IllegalArgumentException if maxBatchSize is less than 1.
+     */
+    public void setMaxBatchSize(final int maxBatchSize)
+    {
+        if (maxBatchSize < 1)
+        {
+            throw new IllegalArgumentException("maxBatchSize must be greater than 0");
+        }
+
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Start the processor by submitting its first task to the scheduler.  Returns without waiting for events.
+     *
+     * @throws IllegalStateException if this processor is already running
+     */
+    @Override
+    public void run()
+    {
+        if (!state.compareAndSet(IDLE, SCHEDULED))
+        {
+            throw new IllegalStateException("Processor is already running");
+        }
+
+        waitStrategy.addProcessor(this);
+        notifyStart();
+        scheduler.execute(task);
+    }
+
+    /**
+     * Resubmit this processor if it is parked and has events to handle.
+     */
+    void wakeIfAvailable()
+    {
+        if (state.get() == PARKED && hasAvailable() && state.compareAndSet(PARKED, SCHEDULED))
+        {
+            scheduler.execute(task);
+        }
+    }
+
+    private void processAvailable()
+    {
+        if (state.get() == HALTED)
+        {
+            shutdown();
+            return;
+        }
+
+        final long nextSequence = sequence.get() + 1L;
+        final long availableSequence = sequencer.getHighestPublishedSequence(nextSequence, sequenceBarrier.getCursor());
+        if (nextSequence <= availableSequence)
+        {
+            try
+            {
+                processEvents(nextSequence, Math.min(availableSequence, nextSequence + maxBatchSize - 1L));
+            }
+            catch (final Throwable ex)
+            {
+                // 异常处理器抛出的异常结束处理器，与BatchEventProcessor一致
+                shutdown();
+                throw ex;
+            }
+            // 唤醒依赖本处理器的处理器
+            waitStrategy.wakeProcessors();
+        }
+
+        if (hasAvailable())
+        {
+            // 让出载体线程，稍后继续处理
+            scheduler.execute(task);
+        }
+        else if (state.compareAndSet(SCHEDULED, PARKED))
+        {
+            // 检查与停放之间可能有新发布的事件，再检查一次以免丢失唤醒
+            wakeIfAvailable();
+        }
+        else
+        {
+            shutdown();
+        }
+    }
+
+    private void processEvents(final long nextSequence, final long endOfBatch)
+    {
+        T event = null;
+        long sequence = nextSequence;
+        try
+        {
+            if (batchStartAware != null)
+            {
+                batchStartAware.onBatchStart(endOfBatch - nextSequence + 1);
+            }
+
+            while (sequence <= endOfBatch)
+            {
+                event = dataProvider.get(sequence);
+                eventHandler.onEvent(event, sequence, sequence == endOfBatch);
+                sequence++;
+            }
+
+            this.sequence.set(endOfBatch);
+        }
+        catch (final Throwable ex)
+        {
+            exceptionHandler.handleEventException(ex, sequence, event);
+            this.sequence.set(sequence);
+        }
+    }
+
+    private boolean hasAvailable()
+    {
+        final long nextSequence = sequence.get() + 1L;
+        return sequencer.getHighestPublishedSequence(nextSequence, sequenceBarrier.getCursor()) >= nextSequence;
+    }
+
+    private void shutdown()
+    {
+        waitStrategy.removeProcessor(this);
+        notifyShutdown();
+        state.set(IDLE);
+    }
+
+    /**
+     * Notifies the EventHandler when this processor is starting up
+     */
+    private void notifyStart()
+    {
+        if (eventHandler instanceof LifecycleAware)
+        {
+            try
+            {
+                ((LifecycleAware) eventHandler).onStart();
+            }
+            catch (final Throwable ex)
+            {
+                exceptionHandler.handleOnStartException(ex);
+            }
+        }
+    }
+
+    /**
+     * Notifies the EventHandler immediately prior to this processor shutting down
+     */
+    private void notifyShutdown()
+    {
+        if (eventHandler instanceof LifecycleAware)
+        {
+            try
+            {
+                ((LifecycleAware) eventHandler).onShutdown();
+            }
+            catch (final Throwable ex)
+            {
+                exceptionHandler.handleOnShutdownException(ex);
+            }
+        }
+    }
+}
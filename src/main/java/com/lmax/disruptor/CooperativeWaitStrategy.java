@@ -0,0 +1,134 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import com.lmax.disruptor.util.Util;
+
+/**
+ * <p>Wait strategy for ring buffers consumed by {@link CooperativeEventProcessor}s.  When a sequence is published
+ * each parked cooperative processor is resubmitted to its scheduler, instead of a dedicated thread being woken.</p>
+ *
+ * <p>Any thread that does wait on a barrier of the ring buffer, such as a {@link BatchEventProcessor}, is handled by
+ * the delegate strategy.  The default delegate only takes a lock on publish when such a thread is asleep, so a ring
+ * buffer with only cooperative processors costs publishers a volatile read per parked processor.</p>
+ */
+public final class CooperativeWaitStrategy implements WaitStrategy
+{
+    private static final CooperativeEventProcessor<?>[] NO_PROCESSORS = new CooperativeEventProcessor<?>[0];
+    // 字段更新器无法使用通配符数组类型
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<CooperativeWaitStrategy, CooperativeEventProcessor[]> PROCESSORS_UPDATER =
+        AtomicReferenceFieldUpdater.newUpdater(CooperativeWaitStrategy.class, CooperativeEventProcessor[].class, "processors");
+
+    private final WaitStrategy delegate;
+    private volatile CooperativeEventProcessor<?>[] processors = NO_PROCESSORS;
+
+    public CooperativeWaitStrategy()
+    {
+        this(new SignalElidingBlockingWaitStrategy());
+    }
+
+    /**
+     * @param delegate strategy for threads that wait on a barrier of the ring buffer.
+     */
+    public CooperativeWaitStrategy(final WaitStrategy delegate)
+    {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public long waitFor(final long sequence, final Sequence cursor, final Sequence dependentSequence, final SequenceBarrier barrier)
+        throws AlertException, InterruptedException, TimeoutException
+    {
+        return delegate.waitFor(sequence, cursor, dependentSequence, barrier);
+    }
+
+    @Override
+    public void signalAllWhenBlocking()
+    {
+        delegate.signalAllWhenBlocking();
+        wakeProcessors();
+    }
+
+    /**
+     * Resubmit the parked processors that have events to handle, called when a sequence is published
+     * and when a processor has advanced its own sequence.
+     */
+    void wakeProcessors()
+    {
+        // 游标和序号是有序写入的，读取处理器状态前需要完整的屏障，
+        // 否则处理器可能在停放后的复查中看不到事件，而这里仍读到SCHEDULED而不重新提交
+        Util.fullFence();
+        for (final CooperativeEventProcessor<?> processor : processors)
+        {
+            processor.wakeIfAvailable();
+        }
+    }
+
+    void addProcessor(final CooperativeEventProcessor<?> processor)
+    {
+        CooperativeEventProcessor<?>[] currentProcessors;
+        CooperativeEventProcessor<?>[] updatedProcessors;
+        do
+        {
+            currentProcessors = processors;
+            updatedProcessors = Arrays.copyOf(currentProcessors, currentProcessors.length + 1);
+            updatedProcessors[currentProcessors.length] = processor;
+        }
+        while (!PROCESSORS_UPDATER.compareAndSet(this, currentProcessors, updatedProcessors));
+    }
+
+    void removeProcessor(final CooperativeEventProcessor<?> processor)
+    {
+        CooperativeEventProcessor<?>[] currentProcessors;
+        CooperativeEventProcessor<?>[] updatedProcessors;
+        do
+        {
+            currentProcessors = processors;
+            final int index = indexOf(currentProcessors, processor);
+            if (-1 == index)
+            {
+                return;
+            }
+
+            updatedProcessors = new CooperativeEventProcessor<?>[currentProcessors.length - 1];
+            System.arraycopy(currentProcessors, 0, updatedProcessors, 0, index);
+            System.arraycopy(currentProcessors, index + 1, updatedProcessors, index, updatedProcessors.length - index);
+        }
+        while (!PROCESSORS_UPDATER.compareAndSet(this, currentProcessors, updatedProcessors));
+    }
+
+    private static int indexOf(final CooperativeEventProcessor<?>[] processors, final CooperativeEventProcessor<?> processor)
+    {
+        for (int i = 0; i < processors.length; i++)
+        {
+            if (processors[i] == processor)
+            {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    int getProcessorCount()
+    {
+        return processors.length;
+    }
+}
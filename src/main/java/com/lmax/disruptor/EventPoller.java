@@ -9,6 +9,8 @@ public class EventPoller<T>
     private final Sequencer sequencer;
     private final Sequence sequence;
     private final Sequence gatingSequence;
+    // 未启用时为null，不做任何统计
+    private ProcessorMetrics metrics;
 
     public interface Handler<T>
     {
@@ -42,6 +44,7 @@ public class EventPoller<T>
         {
             boolean processNextEvent;
             long processedSequence = currentSequence;
+            final long startTime = null != metrics ? System.nanoTime() : 0L;
 
             try
             {
@@ -58,11 +61,22 @@ public class EventPoller<T>
             finally
             {
                 sequence.set(processedSequence);
+
+                if (null != metrics)
+                {
+                    recordPoll(processedSequence - currentSequence, startTime);
+                }
             }
 
             return PollState.PROCESSING;
         }
-        else if (sequencer.getCursor() >= nextSequence)
+
+        if (null != metrics)
+        {
+            metrics.recordWait(0L, true);
+        }
+
+        if (sequencer.getCursor() >= nextSequence)
         {
             return PollState.GATING;
         }
@@ -72,6 +86,12 @@ public class EventPoller<T>
         }
     }
 
+    private void recordPoll(final long batchSize, final long startTime)
+    {
+        metrics.recordBatch(batchSize);
+        metrics.recordEvents(batchSize, System.nanoTime() - startTime);
+    }
+
     public static <T> EventPoller<T> newInstance(
         final DataProvider<T> dataProvider,
         final Sequencer sequencer,
@@ -100,4 +120,28 @@ public class EventPoller<T>
     {
         return sequence;
     }
+
+    /**
+     * Start recording {@link ProcessorMetrics} for this poller.  Each poll that handles events is recorded as a
+     * batch, and a poll that finds nothing to handle as a wait.  Must be called before the poller is used.
+     *
+     * @return the metrics of this poller, the same instance if they are already enabled.
+     */
+    public ProcessorMetrics enableMetrics()
+    {
+        if (null == metrics)
+        {
+            metrics = new ProcessorMetrics(sequence, sequencer);
+        }
+
+        return metrics;
+    }
+
+    /**
+     * @return the metrics of this poller, or <code>null</code> if they have not been enabled.
+     */
+    public ProcessorMetrics getMetrics()
+    {
+        return metrics;
+    }
 }
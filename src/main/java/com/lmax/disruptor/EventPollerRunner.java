@@ -0,0 +1,245 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>Runs many {@link EventPoller}s on a single thread, so that a large number of mostly idle ring buffers do not
+ * each need a thread of their own.</p>
+ *
+ * <p>Each duty cycle polls every poller once, handling at most its work budget of events, and passes the total
+ * number of events handled to the {@link IdleStrategy}, which backs off when all of the ring buffers are empty.
+ * A ring buffer with a backlog can not starve the others: it gets its budget each cycle, and the poller polled
+ * first moves round by one on every cycle.</p>
+ *
+ * <p>The sequence of each poller must be added to the gating sequences of its ring buffer, as for any other
+ * event processor.  An exception thrown by a handler is passed to the exception handler and the event is skipped.</p>
+ */
+public final class EventPollerRunner implements Runnable
+{
+    private static final int IDLE = 0;
+    private static final int HALTED = IDLE + 1;
+    private static final int RUNNING = HALTED + 1;
+
+    private final AtomicInteger running = new AtomicInteger(IDLE);
+    private final IdleStrategy idleStrategy;
+    private ExceptionHandler<Object> exceptionHandler = new FatalExceptionHandler();
+    private PollerEntry<?>[] entries = new PollerEntry<?>[0];
+    // 每轮最先轮询的下标，轮流前移以保证公平
+    private int firstEntry;
+
+    /**
+     * @param idleStrategy used when a duty cycle finds no events to handle.
+     */
+    public EventPollerRunner(final IdleStrategy idleStrategy)
+    {
+        this.idleStrategy = idleStrategy;
+    }
+
+    /**
+     * Add a poller to run.  Must be called before the runner is started.
+     *
+     * @param <T>          the type of event polled.
+     * @param poller       to poll for events.
+     * @param eventHandler to which the events are dispatched.
+     * @param workBudget   maximum number of events to handle from this poller in each duty cycle.
+     * @throws IllegalArgumentException if workBudget is less than 1.
+     * @throws IllegalStateException    if the runner has been started.
+     */
+    public <T> void add(final EventPoller<T> poller, final EventHandler<? super T> eventHandler, final int workBudget)
+    {
+        if (workBudget < 1)
+        {
+            throw new IllegalArgumentException("workBudget must be greater than 0");
+        }
+        if (running.get() != IDLE)
+        {
+            throw new IllegalStateException("Pollers must be added before the runner is started");
+        }
+
+        entries = Arrays.copyOf(entries, entries.length + 1);
+        entries[entries.length - 1] = new PollerEntry<T>(poller, eventHandler, workBudget);
+    }
+
+    /**
+     * Set a new {@link ExceptionHandler} for handling exceptions propagated out of the event handlers.
+     *
+     * @param exceptionHandler to replace the existing exceptionHandler.
+     */
+    public void setExceptionHandler(final ExceptionHandler<Object> exceptionHandler)
+    {
+        if (null == exceptionHandler)
+        {
+            throw new NullPointerException();
+        }
+
+        this.exceptionHandler = exceptionHandler;
+    }
+
+    /**
+     * Stop the runner once the current duty cycle has completed.
+     */
+    public void halt()
+    {
+        running.compareAndSet(RUNNING, HALTED);
+    }
+
+    /**
+     * @return <code>true</code> if the runner has been started and not yet stopped.
+     */
+    public boolean isRunning()
+    {
+        return running.get() != IDLE;
+    }
+
+    /**
+     * Run duty cycles until halted.
+     *
+     * @throws IllegalStateException if this runner is already running
+     */
+    @Override
+    public void run()
+    {
+        if (!running.compareAndSet(IDLE, RUNNING))
+        {
+            throw new IllegalStateException("Runner is already running");
+        }
+
+        notifyStart();
+        try
+        {
+            while (running.get() == RUNNING)
+            {
+                idleStrategy.idle(doDutyCycle());
+            }
+        }
+        finally
+        {
+            notifyShutdown();
+            running.set(IDLE);
+        }
+    }
+
+    /**
+     * Poll each poller once.
+     *
+     * @return the number of events handled.
+     */
+    int doDutyCycle()
+    {
+        final PollerEntry<?>[] entries = this.entries;
+        final int first = firstEntry;
+        int workCount = 0;
+        for (int i = 0; i < entries.length; i++)
+        {
+            final int index = first + i < entries.length ? first + i : first + i - entries.length;
+            workCount += entries[index].poll();
+        }
+
+        firstEntry = first + 1 < entries.length ? first + 1 : 0;
+        return workCount;
+    }
+
+    private void notifyStart()
+    {
+        for (final PollerEntry<?> entry : entries)
+        {
+            if (entry.eventHandler instanceof LifecycleAware)
+            {
+                try
+                {
+                    ((LifecycleAware) entry.eventHandler).onStart();
+                }
+                catch (final Throwable ex)
+                {
+                    exceptionHandler.handleOnStartException(ex);
+                }
+            }
+        }
+    }
+
+    private void notifyShutdown()
+    {
+        for (final PollerEntry<?> entry : entries)
+        {
+            if (entry.eventHandler instanceof LifecycleAware)
+            {
+                try
+                {
+                    ((LifecycleAware) entry.eventHandler).onShutdown();
+                }
+                catch (final Throwable ex)
+                {
+                    exceptionHandler.handleOnShutdownException(ex);
+                }
+            }
+        }
+    }
+
+    private final class PollerEntry<T> implements EventPoller.Handler<T>
+    {
+        private final EventPoller<T> poller;
+        private final EventHandler<? super T> eventHandler;
+        private final int workBudget;
+        private int workCount;
+
+        PollerEntry(final EventPoller<T> poller, final EventHandler<? super T> eventHandler, final int workBudget)
+        {
+            this.poller = poller;
+            this.eventHandler = eventHandler;
+            this.workBudget = workBudget;
+        }
+
+        int poll()
+        {
+            workCount = 0;
+            try
+            {
+                poller.poll(this);
+            }
+            catch (final RuntimeException ex)
+            {
+                throw ex;
+            }
+            catch (final Exception ex)
+            {
+                // onEvent已把处理器的异常交给异常处理器，这里不会发生
+                throw new IllegalStateException(ex);
+            }
+
+            return workCount;
+        }
+
+        @Override
+        public boolean onEvent(final T event, final long sequence, final boolean endOfBatch)
+        {
+            workCount++;
+            final boolean withinBudget = workCount < workBudget;
+            try
+            {
+                eventHandler.onEvent(event, sequence, endOfBatch || !withinBudget);
+            }
+            catch (final Throwable ex)
+            {
+                exceptionHandler.handleEventException(ex, sequence, event);
+            }
+
+            return withinBudget;
+        }
+    }
+}
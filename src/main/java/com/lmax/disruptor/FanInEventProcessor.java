@@ -0,0 +1,361 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>Consumes the events of several ring buffers on one thread and dispatches them to a single handler, so that
+ * sharded publishers can each use a single producer ring buffer instead of contending on a
+ * {@link MultiProducerSequencer}.</p>
+ *
+ * <p>The ring buffers are either interleaved fairly, handling a batch of up to the max batch size from each ring
+ * buffer in turn, or merged in the order of an {@link OrderingKeyExtractor}.  An ordered merge handles the events
+ * available in all of the ring buffers lowest key first, ties going to the ring buffer given first.  A ring buffer
+ * that is empty is not waited for, so an event published after a higher keyed event from another ring buffer has
+ * been handled is handled late.</p>
+ *
+ * <p>The sequence of each ring buffer is only updated once its events in a batch have been handled.  The sequences
+ * from {@link #getSequences()} must be added to the gating sequences of their ring buffers.  When no ring buffer
+ * has events the {@link IdleStrategy} is used.  An exception thrown by the handler is passed to the exception
+ * handler and the event is skipped.</p>
+ *
+ * @param <T> event implementation storing the data for sharing during exchange or parallel coordination of an event.
+ */
+public final class FanInEventProcessor<T> implements Runnable
+{
+    private static final int IDLE = 0;
+    private static final int HALTED = IDLE + 1;
+    private static final int RUNNING = HALTED + 1;
+
+    private final AtomicInteger running = new AtomicInteger(IDLE);
+    private ExceptionHandler<? super T> exceptionHandler = new FatalExceptionHandler();
+    private final DataProvider<T>[] dataProviders;
+    private final Sequencer[] sequencers;
+    private final SequenceBarrier[] sequenceBarriers;
+    private final Sequence[] sequences;
+    private final EventHandler<? super T> eventHandler;
+    private final BatchStartAware batchStartAware;
+    private final IdleStrategy idleStrategy;
+    // 为null时公平交替处理，否则按键合并
+    private final OrderingKeyExtractor<? super T> orderingKeyExtractor;
+    private final long[] nextSequences;
+    private final long[] endSequences;
+    private final long[] headKeys;
+    private int firstSource;
+    private int maxBatchSize = Integer.MAX_VALUE;
+
+    /**
+     * Construct a processor that interleaves the events of the ring buffers fairly.
+     *
+     * @param ringBuffers  to consume the events of.
+     * @param eventHandler is the delegate to which events are dispatched.
+     * @param idleStrategy used when no ring buffer has events.
+     */
+    public FanInEventProcessor(
+        final RingBuffer<T>[] ringBuffers,
+        final EventHandler<? super T> eventHandler,
+        final IdleStrategy idleStrategy)
+    {
+        this(ringBuffers, eventHandler, idleStrategy, null);
+    }
+
+    /**
+     * Construct a processor that merges the events of the ring buffers in key order.
+     *
+     * @param ringBuffers          to consume the events of.
+     * @param eventHandler         is the delegate to which events are dispatched.
+     * @param idleStrategy         used when no ring buffer has events.
+     * @param orderingKeyExtractor to order the events by, or <code>null</code> to interleave them.
+     */
+    @SuppressWarnings("unchecked")
+    public FanInEventProcessor(
+        final RingBuffer<T>[] ringBuffers,
+        final EventHandler<? super T> eventHandler,
+        final IdleStrategy idleStrategy,
+        final OrderingKeyExtractor<? super T> orderingKeyExtractor)
+    {
+        if (0 == ringBuffers.length)
+        {
+            throw new IllegalArgumentException("At least one ring buffer must be given");
+        }
+
+        final int sources = ringBuffers.length;
+        this.dataProviders = (DataProvider<T>[]) new DataProvider<?>[sources];
+        this.sequencers = new Sequencer[sources];
+        this.sequenceBarriers = new SequenceBarrier[sources];
+        this.sequences = new Sequence[sources];
+        for (int i = 0; i < sources; i++)
+        {
+            dataProviders[i] = ringBuffers[i];
+            sequencers[i] = ringBuffers[i].sequencer;
+            sequenceBarriers[i] = ringBuffers[i].newBarrier();
+            sequences[i] = new Sequence(Sequencer.INITIAL_CURSOR_VALUE);
+        }
+        this.eventHandler = eventHandler;
+        this.idleStrategy = idleStrategy;
+        this.orderingKeyExtractor = orderingKeyExtractor;
+        this.nextSequences = new long[sources];
+        this.endSequences = new long[sources];
+        this.headKeys = new long[sources];
+
+        batchStartAware =
+            (eventHandler instanceof BatchStartAware) ? (BatchStartAware) eventHandler : null;
+    }
+
+    /**
+     * @return the sequence of each ring buffer, in the order the ring buffers were given.
+     */
+    public Sequence[] getSequences()
+    {
+        return sequences.clone();
+    }
+
+    /**
+     * Set a new {@link ExceptionHandler} for handling exceptions propagated out of the {@link FanInEventProcessor}
+     *
+     * @param exceptionHandler to replace the existing exceptionHandler.
+     */
+    public void setExceptionHandler(final ExceptionHandler<? super T> exceptionHandler)
+    {
+        if (null == exceptionHandler)
+        {
+            throw new NullPointerException();
+        }
+
+        this.exceptionHandler = exceptionHandler;
+    }
+
+    /**
+     * Limit the number of events handled from each ring buffer before its sequence is updated.
+     * <p>
+     * Must be called before the processor is started.
+     *
+     * @param maxBatchSize the maximum number of events in a batch, must be positive.
+     * @throws IllegalArgumentException if maxBatchSize is less than 1.
+     */
+    public void setMaxBatchSize(final int maxBatchSize)
+    {
+        if (maxBatchSize < 1)
+        {
+            throw new IllegalArgumentException("maxBatchSize must be greater than 0");
+        }
+
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Stop the processor once the current batch has been handled.
+     */
+    public void halt()
+    {
+        running.compareAndSet(RUNNING, HALTED);
+    }
+
+    /**
+     * @return <code>true</code> if the processor has been started and not yet stopped.
+     */
+    public boolean isRunning()
+    {
+        return running.get() != IDLE;
+    }
+
+    /**
+     * Handle events until halted.
+     *
+     * @throws IllegalStateException if this processor is already running
+     */
+    @Override
+    public void run()
+    {
+        if (!running.compareAndSet(IDLE, RUNNING))
+        {
+            throw new IllegalStateException("Processor is already running");
+        }
+
+        notifyStart();
+        try
+        {
+            while (running.get() == RUNNING)
+            {
+                idleStrategy.idle(processAvailable());
+            }
+        }
+        finally
+        {
+            notifyShutdown();
+            running.set(IDLE);
+        }
+    }
+
+    /**
+     * Handle the events available in all of the ring buffers.
+     *
+     * @return the number of events handled.
+     */
+    int processAvailable()
+    {
+        return null == orderingKeyExtractor ? interleave() : merge();
+    }
+
+    private int interleave()
+    {
+        final int sources = sequences.length;
+        final int first = firstSource;
+        int workCount = 0;
+        for (int i = 0; i < sources; i++)
+        {
+            final int source = first + i < sources ? first + i : first + i - sources;
+            final long nextSequence = sequences[source].get() + 1L;
+            final long endOfBatch = endOfBatch(source, nextSequence);
+            if (nextSequence > endOfBatch)
+            {
+                continue;
+            }
+
+            if (batchStartAware != null)
+            {
+                batchStartAware.onBatchStart(endOfBatch - nextSequence + 1);
+            }
+
+            final DataProvider<T> dataProvider = dataProviders[source];
+            for (long sequence = nextSequence; sequence <= endOfBatch; sequence++)
+            {
+                handle(dataProvider.get(sequence), sequence, sequence == endOfBatch);
+            }
+
+            sequences[source].set(endOfBatch);
+            workCount += (int) (endOfBatch - nextSequence + 1);
+        }
+
+        // 每轮从下一个环形缓冲区开始，避免总是优先处理同一个
+        firstSource = first + 1 < sources ? first + 1 : 0;
+        return workCount;
+    }
+
+    private int merge()
+    {
+        final int sources = sequences.length;
+        long remaining = 0;
+        for (int source = 0; source < sources; source++)
+        {
+            final long nextSequence = sequences[source].get() + 1L;
+            final long endOfBatch = endOfBatch(source, nextSequence);
+            nextSequences[source] = nextSequence;
+            endSequences[source] = endOfBatch;
+            if (nextSequence <= endOfBatch)
+            {
+                headKeys[source] = orderingKeyExtractor.getOrderingKey(dataProviders[source].get(nextSequence));
+                remaining += endOfBatch - nextSequence + 1;
+            }
+        }
+
+        if (0 == remaining)
+        {
+            return 0;
+        }
+
+        if (batchStartAware != null)
+        {
+            batchStartAware.onBatchStart(remaining);
+        }
+
+        final int workCount = (int) remaining;
+        while (remaining > 0)
+        {
+            int lowest = -1;
+            for (int source = 0; source < sources; source++)
+            {
+                if (nextSequences[source] <= endSequences[source] && (-1 == lowest || headKeys[source] < headKeys[lowest]))
+                {
+                    lowest = source;
+                }
+            }
+
+            final long sequence = nextSequences[lowest];
+            handle(dataProviders[lowest].get(sequence), sequence, 1 == remaining);
+            remaining--;
+
+            nextSequences[lowest] = sequence + 1;
+            if (sequence < endSequences[lowest])
+            {
+                headKeys[lowest] = orderingKeyExtractor.getOrderingKey(dataProviders[lowest].get(sequence + 1));
+            }
+        }
+
+        for (int source = 0; source < sources; source++)
+        {
+            sequences[source].set(nextSequences[source] - 1L);
+        }
+
+        return workCount;
+    }
+
+    private long endOfBatch(final int source, final long nextSequence)
+    {
+        final long availableSequence =
+            sequencers[source].getHighestPublishedSequence(nextSequence, sequenceBarriers[source].getCursor());
+        return Math.min(availableSequence, nextSequence + maxBatchSize - 1L);
+    }
+
+    private void handle(final T event, final long sequence, final boolean endOfBatch)
+    {
+        try
+        {
+            eventHandler.onEvent(event, sequence, endOfBatch);
+        }
+        catch (final Throwable ex)
+        {
+            exceptionHandler.handleEventException(ex, sequence, event);
+        }
+    }
+
+    /**
+     * Notifies the EventHandler when this processor is starting up
+     */
+    private void notifyStart()
+    {
+        if (eventHandler instanceof LifecycleAware)
+        {
+            try
+            {
+                ((LifecycleAware) eventHandler).onStart();
+            }
+            catch (final Throwable ex)
+            {
+                exceptionHandler.handleOnStartException(ex);
+            }
+        }
+    }
+
+    /**
+     * Notifies the EventHandler immediately prior to this processor shutting down
+     */
+    private void notifyShutdown()
+    {
+        if (eventHandler instanceof LifecycleAware)
+        {
+            try
+            {
+                ((LifecycleAware) eventHandler).onShutdown();
+            }
+            catch (final Throwable ex)
+            {
+                exceptionHandler.handleOnShutdownException(ex);
+            }
+        }
+    }
+}
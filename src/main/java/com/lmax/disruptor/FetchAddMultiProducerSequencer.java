@@ -0,0 +1,90 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import com.lmax.disruptor.util.Util;
+
+
+/**
+ * <p>Multiple publisher sequencer that claims sequences with a single atomic fetch-and-add on the cursor rather
+ * than a compare-and-set retry loop.</p>
+ *
+ * <p>With {@link MultiProducerSequencer} every publisher that loses the race for the cursor has to re-read it and
+ * try again, so the cost of a claim grows with the number of publishers.  Here every claim succeeds first time and
+ * the publisher then waits, if necessary, for the gating sequences to pass the wrap point of its claim.  On JVMs that
+ * implement {@link Sequence#addAndGet(long)} with a hardware instruction this scales considerably better beyond a
+ * handful of publishers.</p>
+ *
+ * <p>Because claims are unconditional the cursor may run ahead of the gating sequences by more than the buffer size
+ * while publishers are waiting, in which case {@link #remainingCapacity()} can be negative.  {@link #tryNext(int)}
+ * still checks capacity before claiming and never over-claims.</p>
+ */
+public final class FetchAddMultiProducerSequencer extends AbstractMultiProducerSequencer
+{
+    /**
+     * Construct a Sequencer with the selected wait strategy and buffer size.
+     *
+     * @param bufferSize   the size of the buffer that this will sequence over.
+     * @param waitStrategy for those waiting on sequences.
+     */
+    public FetchAddMultiProducerSequencer(int bufferSize, final WaitStrategy waitStrategy)
+    {
+        this(bufferSize, waitStrategy, new ParkingProducerWaitStrategy());
+    }
+
+    /**
+     * Construct a Sequencer with the selected wait strategies and buffer size.
+     *
+     * @param bufferSize           the size of the buffer that this will sequence over.
+     * @param waitStrategy         for those waiting on sequences.
+     * @param producerWaitStrategy for publishers waiting on the gating sequences.
+     */
+    public FetchAddMultiProducerSequencer(
+        int bufferSize, final WaitStrategy waitStrategy, final ProducerWaitStrategy producerWaitStrategy)
+    {
+        super(bufferSize, waitStrategy, producerWaitStrategy);
+    }
+
+    /**
+     * @see Sequencer#next(int)
+     */
+    @Override
+    public long next(int n)
+    {
+        if (n < 1 || n > bufferSize)
+        {
+            throw new IllegalArgumentException("n must be > 0 and < bufferSize");
+        }
+
+        final long next = cursor.addAndGet(n);
+        final long current = next - n;
+        final long wrapPoint = next - bufferSize;
+        final long cachedGatingSequence = gatingSequenceCache.get();
+
+        if (wrapPoint > cachedGatingSequence || cachedGatingSequence > current)
+        {
+            long gatingSequence = Util.getMinimumSequence(gatingSequences, current);
+            if (wrapPoint > gatingSequence)
+            {
+                gatingSequence = waitForCapacity(wrapPoint);
+            }
+
+            gatingSequenceCache.set(gatingSequence);
+        }
+
+        return next;
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+/**
+ * Strategy used by a thread that polls for work in a duty cycle, such as the {@link EventPollerRunner}, to decide
+ * what to do when a cycle finds nothing to do.
+ */
+public interface IdleStrategy
+{
+    /**
+     * Called at the end of each duty cycle.  Idles the calling thread if no work was done, and otherwise
+     * resets any back off so that the next idle period starts from the beginning.
+     *
+     * @param workCount the amount of work done in the cycle.
+     */
+    void idle(int workCount);
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+/**
+ * Receives the latencies sampled by a {@link LatencyTracer}, typically to record them in a histogram per stage
+ * such as an HdrHistogram <code>Recorder</code>.
+ * <p>
+ * Called on the thread of the stage that handled the event, so implementations shared between stages must be
+ * thread safe.
+ */
+public interface LatencyRecorder
+{
+    /**
+     * Record the time from an event being published to a stage having handled it.
+     *
+     * @param stage        the event handler of the stage.
+     * @param sequence     of the event.
+     * @param latencyNanos nanoseconds since the event was published.
+     */
+    void recordLatency(Object stage, long sequence, long latencyNanos);
+}
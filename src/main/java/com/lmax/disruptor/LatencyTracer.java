@@ -0,0 +1,137 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+/**
+ * <p>Samples the latency of events through the stages that handle them.  When set on a {@link RingBuffer} with
+ * {@link RingBuffer#setLatencyTracer(LatencyTracer)} the time each sampled event is published is stamped alongside
+ * it, and a {@link TracingEventHandler} in each stage reports the time since publication to a
+ * {@link LatencyRecorder} once the stage has handled it.  The latency reported by the last stage is the end to end
+ * latency; comparing consecutive stages shows which one adds the delay.</p>
+ *
+ * <p>Only one in every <code>sampleInterval</code> sequences is stamped and recorded, which bounds the cost of
+ * tracing.  The timestamps are kept in an array the size of the ring buffer, so events are not changed, and a slot
+ * is not reused until every stage has moved past the sequence it was stamped for.</p>
+ *
+ * @see com.lmax.disruptor.dsl.Disruptor#enableLatencyTracing(int, LatencyRecorder)
+ */
+public final class LatencyTracer
+{
+    // 只在环形缓冲区静止时由resize替换
+    private long[] publishNanos;
+    private int indexMask;
+    private final long sampleMask;
+    private final LatencyRecorder recorder;
+
+    /**
+     * @param bufferSize     of the ring buffer being traced.
+     * @param sampleInterval the number of sequences per sample, must be a power of 2.
+     * @param recorder       to report the sampled latencies to.
+     * @throws IllegalArgumentException if bufferSize or sampleInterval is not a power of 2
+     */
+    public LatencyTracer(final int bufferSize, final int sampleInterval, final LatencyRecorder recorder)
+    {
+        if (Integer.bitCount(bufferSize) != 1)
+        {
+            throw new IllegalArgumentException("bufferSize must be a power of 2");
+        }
+        if (Integer.bitCount(sampleInterval) != 1)
+        {
+            throw new IllegalArgumentException("sampleInterval must be a power of 2");
+        }
+
+        this.publishNanos = new long[bufferSize];
+        this.indexMask = bufferSize - 1;
+        this.sampleMask = sampleInterval - 1;
+        this.recorder = recorder;
+    }
+
+    /**
+     * @return the size of the ring buffer being traced.
+     */
+    public int getBufferSize()
+    {
+        return publishNanos.length;
+    }
+
+    void resize(final int bufferSize)
+    {
+        this.publishNanos = new long[bufferSize];
+        this.indexMask = bufferSize - 1;
+    }
+
+    /**
+     * @param sequence to check.
+     * @return true if the sequence is traced.
+     */
+    public boolean isSampled(final long sequence)
+    {
+        return 0 == (sequence & sampleMask);
+    }
+
+    /**
+     * Stamp the publication time of a sequence if it is sampled.  Must be called before the sequence is published.
+     *
+     * @param sequence being published.
+     */
+    public void stamp(final long sequence)
+    {
+        if (isSampled(sequence))
+        {
+            publishNanos[(int) sequence & indexMask] = System.nanoTime();
+        }
+    }
+
+    /**
+     * Stamp the publication time of the sampled sequences in a range.  Must be called before they are published.
+     *
+     * @param lo first sequence being published.
+     * @param hi last sequence being published.
+     */
+    public void stamp(final long lo, final long hi)
+    {
+        final long now = System.nanoTime();
+        for (long sequence = (lo + sampleMask) & ~sampleMask; sequence <= hi; sequence += sampleMask + 1)
+        {
+            publishNanos[(int) sequence & indexMask] = now;
+        }
+    }
+
+    /**
+     * Report the latency of a sequence to the recorder if it is sampled.  Must be called by the stage while it has
+     * not yet moved its sequence past the event.
+     *
+     * @param stage    that has handled the event.
+     * @param sequence of the event.
+     */
+    public void record(final Object stage, final long sequence)
+    {
+        if (isSampled(sequence))
+        {
+            recorder.recordLatency(stage, sequence, System.nanoTime() - publishNanos[(int) sequence & indexMask]);
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "LatencyTracer{" +
+            "bufferSize=" + getBufferSize() +
+            ", sampleInterval=" + (sampleMask + 1) +
+            ", recorder=" + recorder +
+            '}';
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+/**
+ * Extracts the key that a {@link FanInEventProcessor} merges the events of several ring buffers by, such as a
+ * timestamp or a sequence stamped by the publishers.  Keys must not decrease from one event to the next in
+ * each ring buffer.
+ *
+ * @param <T> event implementation storing the data for sharing during exchange or parallel coordination of an event.
+ */
+public interface OrderingKeyExtractor<T>
+{
+    /**
+     * Get the ordering key of an event.
+     *
+     * @param event to get the key of.
+     * @return the ordering key of the event, lower keys are handled first.
+     */
+    long getOrderingKey(T event);
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Parking strategy for publishers waiting on the gating sequences that parks the thread, doubling the park time
+ * on each attempt from a minimum up to a maximum.
+ * <p>
+ * The default of parking for a single nanosecond on every attempt is the behaviour sequencers have always had
+ * and is what they use when no strategy is supplied.  Backing off to a longer park stops blocked publishers
+ * competing with the consumers for CPU on hosts with more threads than cores.
+ */
+public final class ParkingProducerWaitStrategy implements ProducerWaitStrategy
+{
+    private final long minParkNanos;
+    private final long maxParkNanos;
+
+    public ParkingProducerWaitStrategy()
+    {
+        this(1L, 1L);
+    }
+
+    /**
+     * @param minParkNanos time to park for on the first attempt.
+     * @param maxParkNanos upper bound for the park time as it is doubled on each subsequent attempt.
+     */
+    public ParkingProducerWaitStrategy(final long minParkNanos, final long maxParkNanos)
+    {
+        if (minParkNanos < 1 || maxParkNanos < minParkNanos)
+        {
+            throw new IllegalArgumentException("minParkNanos must be > 0 and <= maxParkNanos");
+        }
+
+        this.minParkNanos = minParkNanos;
+        this.maxParkNanos = maxParkNanos;
+    }
+
+    @Override
+    public long waitForCapacity(final long wrapPoint, final Sequencer sequencer)
+    {
+        long minSequence;
+        long parkNanos = minParkNanos;
+
+        while (wrapPoint > (minSequence = sequencer.getMinimumSequence()))
+        {
+            LockSupport.parkNanos(parkNanos);
+            parkNanos = Math.min(parkNanos << 1, maxParkNanos);
+        }
+
+        return minSequence;
+    }
+
+    @Override
+    public void signalAllWhenBlocking()
+    {
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ParkingProducerWaitStrategy{" +
+            "minParkNanos=" + minParkNanos +
+            ", maxParkNanos=" + maxParkNanos +
+            '}';
+    }
+}
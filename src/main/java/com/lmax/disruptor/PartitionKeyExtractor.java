@@ -0,0 +1,34 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+/**
+ * Extracts the key that decides which partition of a {@link PartitionedEventHandler} group handles an event.
+ * Events with equal keys are always handled by the same handler, in sequence order.
+ *
+ * @param <T> event implementation storing the data for sharing during exchange or parallel coordination of an event.
+ */
+public interface PartitionKeyExtractor<T>
+{
+    /**
+     * Get the partition key of an event.  Keys are assigned to partitions by their {@link Object#hashCode()}, so it must
+     * be consistent for equal keys; a <code>null</code> key is assigned to the first partition.
+     *
+     * @param event to get the key of.
+     * @return the partition key of the event.
+     */
+    Object getPartitionKey(T event);
+}
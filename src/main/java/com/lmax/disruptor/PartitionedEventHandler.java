@@ -0,0 +1,205 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+/**
+ * <p>Wraps an {@link EventHandler} so that it only handles the events whose partition key is assigned to its
+ * partition.  Running one {@link BatchEventProcessor} per partition over the same {@link RingBuffer} keeps the events
+ * for any one key in order while events for different keys are handled in parallel.  Every processor still advances
+ * its sequence past the events of the other partitions.</p>
+ *
+ * <p>The <code>endOfBatch</code> flag passed to the delegate marks the last event of its own partition in the batch,
+ * found by looking ahead in the ring buffer when each batch starts.  A delegate that is {@link BatchStartAware} is told
+ * how many events of the batch are in its partition.</p>
+ *
+ * @param <T> event implementation storing the data for sharing during exchange or parallel coordination of an event.
+ * @see com.lmax.disruptor.dsl.Disruptor#handleEventsWithPartitioned(PartitionKeyExtractor, EventHandler[])
+ */
+public final class PartitionedEventHandler<T>
+    implements SequenceReportingEventHandler<T>, BatchStartAware, LifecycleAware, TimeoutHandler
+{
+    private final DataProvider<? extends T> dataProvider;
+    private final PartitionKeyExtractor<? super T> keyExtractor;
+    private final EventHandler<? super T> delegate;
+    private final int partition;
+    private final int partitionCount;
+
+    // 批次开始时记录批次大小，在批次的第一个事件时计算本分区的最后一个序号
+    private long pendingBatchSize = 0L;
+    private long lastSequenceInPartition = Long.MAX_VALUE;
+
+    /**
+     * @param dataProvider   the ring buffer the events are handled from, used to look ahead within a batch.
+     * @param keyExtractor   to get the partition key of each event.
+     * @param delegate       to handle the events of this partition.
+     * @param partition      handled by this handler, from 0 to <code>partitionCount - 1</code>.
+     * @param partitionCount total number of partitions.
+     * @throws IllegalArgumentException if the partition is not between 0 and partitionCount - 1
+     */
+    public PartitionedEventHandler(
+        final DataProvider<? extends T> dataProvider,
+        final PartitionKeyExtractor<? super T> keyExtractor,
+        final EventHandler<? super T> delegate,
+        final int partition,
+        final int partitionCount)
+    {
+        if (partition < 0 || partition >= partitionCount)
+        {
+            throw new IllegalArgumentException("partition must be >= 0 and < partitionCount");
+        }
+
+        this.dataProvider = dataProvider;
+        this.keyExtractor = keyExtractor;
+        this.delegate = delegate;
+        this.partition = partition;
+        this.partitionCount = partitionCount;
+    }
+
+    /**
+     * Get the partition an event is assigned to.
+     *
+     * @param key            partition key of the event.
+     * @param partitionCount total number of partitions.
+     * @return the partition, from 0 to <code>partitionCount - 1</code>.
+     */
+    public static int partitionFor(final Object key, final int partitionCount)
+    {
+        if (null == key)
+        {
+            return 0;
+        }
+
+        // 混合高位，避免低位相同的hashCode集中到同一个分区
+        final int h = key.hashCode();
+        return ((h ^ (h >>> 16)) & Integer.MAX_VALUE) % partitionCount;
+    }
+
+    public EventHandler<? super T> getDelegate()
+    {
+        return delegate;
+    }
+
+    @Override
+    public void onBatchStart(final long batchSize)
+    {
+        pendingBatchSize = batchSize;
+    }
+
+    @Override
+    public void onEvent(final T event, final long sequence, final boolean endOfBatch) throws Exception
+    {
+        if (0 != pendingBatchSize)
+        {
+            startBatch(sequence, sequence + pendingBatchSize - 1);
+            pendingBatchSize = 0L;
+        }
+
+        if (isInPartition(event))
+        {
+            delegate.onEvent(event, sequence, endOfBatch || sequence >= lastSequenceInPartition);
+        }
+
+        if (endOfBatch)
+        {
+            lastSequenceInPartition = Long.MAX_VALUE;
+        }
+    }
+
+    private void startBatch(final long lo, final long hi)
+    {
+        if (delegate instanceof BatchStartAware)
+        {
+            long count = 0;
+            long last = lo - 1;
+            for (long sequence = lo; sequence <= hi; sequence++)
+            {
+                if (isInPartition(dataProvider.get(sequence)))
+                {
+                    count++;
+                    last = sequence;
+                }
+            }
+
+            lastSequenceInPartition = last;
+            if (0 != count)
+            {
+                ((BatchStartAware) delegate).onBatchStart(count);
+            }
+        }
+        else
+        {
+            // 从批次末尾向前查找，通常只需检查几个事件
+            long last = hi;
+            while (last >= lo && !isInPartition(dataProvider.get(last)))
+            {
+                last--;
+            }
+
+            lastSequenceInPartition = last;
+        }
+    }
+
+    private boolean isInPartition(final T event)
+    {
+        return partitionFor(keyExtractor.getPartitionKey(event), partitionCount) == partition;
+    }
+
+    @Override
+    public void setSequenceCallback(final Sequence sequenceCallback)
+    {
+        if (delegate instanceof SequenceReportingEventHandler)
+        {
+            ((SequenceReportingEventHandler<?>) delegate).setSequenceCallback(sequenceCallback);
+        }
+    }
+
+    @Override
+    public void onStart()
+    {
+        if (delegate instanceof LifecycleAware)
+        {
+            ((LifecycleAware) delegate).onStart();
+        }
+    }
+
+    @Override
+    public void onShutdown()
+    {
+        if (delegate instanceof LifecycleAware)
+        {
+            ((LifecycleAware) delegate).onShutdown();
+        }
+    }
+
+    @Override
+    public void onTimeout(final long sequence) throws Exception
+    {
+        if (delegate instanceof TimeoutHandler)
+        {
+            ((TimeoutHandler) delegate).onTimeout(sequence);
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "PartitionedEventHandler{" +
+            "partition=" + partition +
+            ", partitionCount=" + partitionCount +
+            ", delegate=" + delegate +
+            '}';
+    }
+}
@@ -23,6 +23,8 @@ package com.lmax.disruptor;
 final class ProcessingSequenceBarrier implements SequenceBarrier
 {
     private final WaitStrategy waitStrategy;
+    // 发布者等待策略，可为空
+    private final ProducerWaitStrategy producerWaitStrategy;
     // 依赖序列
     // 1. 单链单元创建消费者，则dependentSequence存储的是生产者消费序列
     // 2. 链式多次创次创建消费者，则dependentSequence存储的是上个链单元创建的消费者序列数组
@@ -38,9 +40,20 @@ final class ProcessingSequenceBarrier implements SequenceBarrier
         final WaitStrategy waitStrategy,
         final Sequence cursorSequence,
         final Sequence[] dependentSequences)
+    {
+        this(sequencer, waitStrategy, null, cursorSequence, dependentSequences);
+    }
+
+    ProcessingSequenceBarrier(
+        final Sequencer sequencer,
+        final WaitStrategy waitStrategy,
+        final ProducerWaitStrategy producerWaitStrategy,
+        final Sequence cursorSequence,
+        final Sequence[] dependentSequences)
     {
         this.sequencer = sequencer;
         this.waitStrategy = waitStrategy;
+        this.producerWaitStrategy = producerWaitStrategy;
         this.cursorSequence = cursorSequence;
         if (0 == dependentSequences.length)
         {
@@ -60,6 +73,12 @@ final class ProcessingSequenceBarrier implements SequenceBarrier
     {
         checkAlert();
 
+        // 消费者请求下一批次前已更新自身序号，唤醒等待容量的发布者
+        if (null != producerWaitStrategy)
+        {
+            producerWaitStrategy.signalAllWhenBlocking();
+        }
+
         long availableSequence = waitStrategy.waitFor(sequence, cursorSequence, dependentSequence, this);
 
         if (availableSequence < sequence)
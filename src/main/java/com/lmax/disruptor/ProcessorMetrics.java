@@ -0,0 +1,177 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>Counters for a single event processor, enabled with <code>enableMetrics()</code> on a
+ * {@link BatchEventProcessor}, {@link WorkProcessor} or {@link EventPoller}.</p>
+ *
+ * <p>The counters are only written by the processor's own thread and are published with ordered stores, so they
+ * can be read from a monitoring thread without locking.  Recording does not allocate.  Values read together are
+ * not an atomic snapshot, e.g. the event count may include a batch that the handle time does not yet.</p>
+ *
+ * <p>Batch sizes are recorded in a histogram of power of two buckets: bucket <code>i</code> counts the batches
+ * of between <code>2^i</code> and <code>2^(i+1) - 1</code> events.</p>
+ */
+public final class ProcessorMetrics
+{
+    /**
+     * Number of buckets in the batch size histogram.
+     */
+    public static final int BATCH_SIZE_BUCKETS = 64;
+
+    private final Sequence sequence;
+    private final Cursored cursor;
+
+    private final Sequence eventCount = new Sequence(0);
+    private final Sequence batchCount = new Sequence(0);
+    private final Sequence handleNanos = new Sequence(0);
+    private final Sequence waitCount = new Sequence(0);
+    private final Sequence waitNanos = new Sequence(0);
+    private final AtomicLongArray batchSizeHistogram = new AtomicLongArray(BATCH_SIZE_BUCKETS);
+
+    /**
+     * @param sequence of the processor being measured.
+     * @param cursor   the processor's lag is measured behind.
+     */
+    ProcessorMetrics(final Sequence sequence, final Cursored cursor)
+    {
+        this.sequence = sequence;
+        this.cursor = cursor;
+    }
+
+    void recordWait(final long nanos, final boolean waited)
+    {
+        if (waited)
+        {
+            waitCount.set(waitCount.get() + 1);
+        }
+        waitNanos.set(waitNanos.get() + nanos);
+    }
+
+    void recordBatch(final long batchSize)
+    {
+        if (batchSize > 0)
+        {
+            final int bucket = 63 - Long.numberOfLeadingZeros(batchSize);
+            batchSizeHistogram.lazySet(bucket, batchSizeHistogram.get(bucket) + 1);
+            batchCount.set(batchCount.get() + 1);
+        }
+    }
+
+    void recordEvents(final long count, final long nanos)
+    {
+        eventCount.set(eventCount.get() + count);
+        handleNanos.set(handleNanos.get() + nanos);
+    }
+
+    /**
+     * @return number of events handled.
+     */
+    public long getEventCount()
+    {
+        return eventCount.get();
+    }
+
+    /**
+     * @return number of batches handled.
+     */
+    public long getBatchCount()
+    {
+        return batchCount.get();
+    }
+
+    /**
+     * @return average number of events per batch, or 0 if no batches have been handled.
+     */
+    public double getAverageBatchSize()
+    {
+        final long batches = getBatchCount();
+        return 0 == batches ? 0 : (double) getEventCount() / batches;
+    }
+
+    /**
+     * @param bucket of the histogram, from 0 to {@link #BATCH_SIZE_BUCKETS} - 1.
+     * @return number of batches of between <code>2^bucket</code> and <code>2^(bucket+1) - 1</code> events.
+     */
+    public long getBatchSizeCount(final int bucket)
+    {
+        return batchSizeHistogram.get(bucket);
+    }
+
+    /**
+     * Copy the batch size histogram without allocating.
+     *
+     * @param counts to copy the histogram into, must hold at least {@link #BATCH_SIZE_BUCKETS} values.
+     */
+    public void getBatchSizeHistogram(final long[] counts)
+    {
+        for (int i = 0; i < BATCH_SIZE_BUCKETS; i++)
+        {
+            counts[i] = batchSizeHistogram.get(i);
+        }
+    }
+
+    /**
+     * @return nanoseconds spent in the event handler.
+     */
+    public long getHandleNanos()
+    {
+        return handleNanos.get();
+    }
+
+    /**
+     * @return nanoseconds spent waiting for events to become available.
+     */
+    public long getWaitNanos()
+    {
+        return waitNanos.get();
+    }
+
+    /**
+     * Number of times no event was available, so that the processor had to wait on its wait strategy.  For an
+     * {@link EventPoller} it is the number of polls that found nothing to handle.
+     *
+     * @return number of waits.
+     */
+    public long getWaitCount()
+    {
+        return waitCount.get();
+    }
+
+    /**
+     * @return number of sequences the processor is behind the cursor.
+     */
+    public long getLag()
+    {
+        return Math.max(0L, cursor.getCursor() - sequence.get());
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ProcessorMetrics{" +
+            "eventCount=" + getEventCount() +
+            ", batchCount=" + getBatchCount() +
+            ", handleNanos=" + getHandleNanos() +
+            ", waitCount=" + getWaitCount() +
+            ", waitNanos=" + getWaitNanos() +
+            ", lag=" + getLag() +
+            '}';
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+
+/**
+ * Strategy employed by a {@link Sequencer} to make publishers wait when claiming a sequence would wrap the
+ * ring buffer past the slowest gating {@link Sequence}.
+ * <p>
+ * Sequencers only call into the strategy on the slow path, once they know that the requested capacity is not
+ * available, and record how often and for how long publishers were held up, see
+ * {@link AbstractSequencer#getGatedCount()} and {@link AbstractSequencer#getGatedNanos()}.
+ */
+public interface ProducerWaitStrategy
+{
+    /**
+     * Wait until the minimum gating sequence of the sequencer has reached the wrap point.
+     *
+     * @param wrapPoint the sequence the slowest consumer must have reached before the claim can proceed.
+     * @param sequencer whose gating sequences are being waited on, see {@link Sequencer#getMinimumSequence()}.
+     * @return the minimum gating sequence, which is greater than or equal to the wrap point.
+     */
+    long waitForCapacity(long wrapPoint, Sequencer sequencer);
+
+    /**
+     * Implementations should signal the waiting publishers that a gating sequence may have advanced.  Called by
+     * the {@link SequenceBarrier}s of the sequencer each time a consumer asks for the next batch.
+     */
+    void signalAllWhenBlocking();
+}
@@ -60,16 +60,22 @@ abstract class RingBufferFields<E> extends RingBufferPad
         REF_ARRAY_BASE = UNSAFE.arrayBaseOffset(Object[].class) + 128;
     }
 
-    private final long indexMask;
-    private final Object[] entries;
-    protected final int bufferSize;
+    // 以下三项只在静止时由resizeEntries替换
+    private long indexMask;
+    private Object[] entries;
+    protected int bufferSize;
     protected final Sequencer sequencer;
+    // 引用传递模式下为null，槽位存放生产者创建的事件
+    protected final EventFactory<E> eventFactory;
+    // 未启用延迟追踪时为null
+    protected LatencyTracer latencyTracer;
 
     RingBufferFields(
         EventFactory<E> eventFactory,
         Sequencer sequencer)
     {
         this.sequencer = sequencer;
+        this.eventFactory = eventFactory;
         this.bufferSize = sequencer.getBufferSize();
 
         if (bufferSize < 1)
@@ -87,7 +93,10 @@ abstract class RingBufferFields<E> extends RingBufferPad
         // 创建数组大小，包含前后各一个BUFFER_PAD,所以在分配空间时多分配BUFFER_PAD×2个空间
         this.entries = new Object[sequencer.getBufferSize() + 2 * BUFFER_PAD];
         // 数组元素在初始化时，一次全部创建，提升缓存命中率；对象循环利用，避免频繁GC
-        fill(eventFactory);
+        if (null != eventFactory)
+        {
+            fill(eventFactory);
+        }
     }
 
     private void fill(EventFactory<E> eventFactory)
@@ -99,6 +108,25 @@ abstract class RingBufferFields<E> extends RingBufferPad
         }
     }
 
+    final void resizeEntries(final int newBufferSize)
+    {
+        final Object[] newEntries = new Object[newBufferSize + 2 * BUFFER_PAD];
+        // 保留已有的事件对象，只为新增的槽位创建事件；引用传递模式下所有事件都已处理，无需保留
+        if (null != eventFactory)
+        {
+            final int retained = Math.min(bufferSize, newBufferSize);
+            System.arraycopy(entries, BUFFER_PAD, newEntries, BUFFER_PAD, retained);
+            for (int i = retained; i < newBufferSize; i++)
+            {
+                newEntries[BUFFER_PAD + i] = eventFactory.newInstance();
+            }
+        }
+
+        this.entries = newEntries;
+        this.indexMask = newBufferSize - 1;
+        this.bufferSize = newBufferSize;
+    }
+
     @SuppressWarnings("unchecked")
     protected final E elementAt(long sequence)
     {
@@ -108,6 +136,12 @@ abstract class RingBufferFields<E> extends RingBufferPad
         // 左移REF_ELEMENT_SHIFT，表示2的REF_ELEMENT_SHIFT幂次方,也就是每个元素指针大小，用左移是为了加速计算
         return (E) UNSAFE.getObject(entries, REF_ARRAY_BASE + ((sequence & indexMask) << REF_ELEMENT_SHIFT));
     }
+
+    protected final void setElementAt(long sequence, E event)
+    {
+        // 普通写入即可，发布序号时的有序写保证消费者可见
+        UNSAFE.putObject(entries, REF_ARRAY_BASE + ((sequence & indexMask) << REF_ELEMENT_SHIFT), event);
+    }
 }
 
 /**
@@ -157,6 +191,29 @@ public final class RingBuffer<E> extends RingBufferFields<E> implements Cursored
         return new RingBuffer<E>(factory, sequencer);
     }
 
+    /**
+     * Create a new multiple producer RingBuffer with the specified wait strategies.
+     *
+     * @param <E> Class of the event stored in the ring buffer.
+     * @param factory              used to create the events within the ring buffer.
+     * @param bufferSize           number of elements to create within the ring buffer.
+     * @param waitStrategy         used to determine how to wait for new elements to become available.
+     * @param producerWaitStrategy used to determine how publishers wait when the ring buffer is full.
+     * @return a constructed ring buffer.
+     * @throws IllegalArgumentException if bufferSize is less than 1 or not a power of 2
+     * @see MultiProducerSequencer
+     */
+    public static <E> RingBuffer<E> createMultiProducer(
+        EventFactory<E> factory,
+        int bufferSize,
+        WaitStrategy waitStrategy,
+        ProducerWaitStrategy producerWaitStrategy)
+    {
+        MultiProducerSequencer sequencer = new MultiProducerSequencer(bufferSize, waitStrategy, producerWaitStrategy);
+
+        return new RingBuffer<E>(factory, sequencer);
+    }
+
     /**
      * Create a new multiple producer RingBuffer using the default wait strategy  {@link BlockingWaitStrategy}.
      *
@@ -172,6 +229,28 @@ public final class RingBuffer<E> extends RingBufferFields<E> implements Cursored
         return createMultiProducer(factory, bufferSize, new BlockingWaitStrategy());
     }
 
+    /**
+     * Create a new multiple producer RingBuffer that claims sequences with an atomic fetch-and-add, which
+     * reduces contention between large numbers of publishers.
+     *
+     * @param <E> Class of the event stored in the ring buffer.
+     * @param factory      used to create the events within the ring buffer.
+     * @param bufferSize   number of elements to create within the ring buffer.
+     * @param waitStrategy used to determine how to wait for new elements to become available.
+     * @return a constructed ring buffer.
+     * @throws IllegalArgumentException if bufferSize is less than 1 or not a power of 2
+     * @see FetchAddMultiProducerSequencer
+     */
+    public static <E> RingBuffer<E> createFetchAddMultiProducer(
+        EventFactory<E> factory,
+        int bufferSize,
+        WaitStrategy waitStrategy)
+    {
+        FetchAddMultiProducerSequencer sequencer = new FetchAddMultiProducerSequencer(bufferSize, waitStrategy);
+
+        return new RingBuffer<E>(factory, sequencer);
+    }
+
     /**
      * Create a new single producer RingBuffer with the specified wait strategy.
      *
@@ -193,6 +272,29 @@ public final class RingBuffer<E> extends RingBufferFields<E> implements Cursored
         return new RingBuffer<E>(factory, sequencer);
     }
 
+    /**
+     * Create a new single producer RingBuffer with the specified wait strategies.
+     *
+     * @param <E> Class of the event stored in the ring buffer.
+     * @param factory              used to create the events within the ring buffer.
+     * @param bufferSize           number of elements to create within the ring buffer.
+     * @param waitStrategy         used to determine how to wait for new elements to become available.
+     * @param producerWaitStrategy used to determine how the publisher waits when the ring buffer is full.
+     * @return a constructed ring buffer.
+     * @throws IllegalArgumentException if bufferSize is less than 1 or not a power of 2
+     * @see SingleProducerSequencer
+     */
+    public static <E> RingBuffer<E> createSingleProducer(
+        EventFactory<E> factory,
+        int bufferSize,
+        WaitStrategy waitStrategy,
+        ProducerWaitStrategy producerWaitStrategy)
+    {
+        SingleProducerSequencer sequencer = new SingleProducerSequencer(bufferSize, waitStrategy, producerWaitStrategy);
+
+        return new RingBuffer<E>(factory, sequencer);
+    }
+
     /**
      * Create a new single producer RingBuffer using the default wait strategy  {@link BlockingWaitStrategy}.
      *
@@ -236,6 +338,79 @@ public final class RingBuffer<E> extends RingBufferFields<E> implements Cursored
         }
     }
 
+    /**
+     * Create a new Ring Buffer with the specified producer type (SINGLE or MULTI) and wait strategies.
+     *
+     * @param <E> Class of the event stored in the ring buffer.
+     * @param producerType         producer type to use {@link ProducerType}.
+     * @param factory              used to create events within the ring buffer.
+     * @param bufferSize           number of elements to create within the ring buffer.
+     * @param waitStrategy         used to determine how to wait for new elements to become available.
+     * @param producerWaitStrategy used to determine how publishers wait when the ring buffer is full.
+     * @return a constructed ring buffer.
+     * @throws IllegalArgumentException if bufferSize is less than 1 or not a power of 2
+     */
+    public static <E> RingBuffer<E> create(
+        ProducerType producerType,
+        EventFactory<E> factory,
+        int bufferSize,
+        WaitStrategy waitStrategy,
+        ProducerWaitStrategy producerWaitStrategy)
+    {
+        switch (producerType)
+        {
+            case SINGLE:
+                return createSingleProducer(factory, bufferSize, waitStrategy, producerWaitStrategy);
+            case MULTI:
+                return createMultiProducer(factory, bufferSize, waitStrategy, producerWaitStrategy);
+            default:
+                throw new IllegalStateException(producerType.toString());
+        }
+    }
+
+    /**
+     * <p>Create a new reference passing Ring Buffer with the specified producer type (SINGLE or MULTI).</p>
+     *
+     * <p>No events are preallocated.  Publishers hand their own, typically immutable, events to
+     * {@link RingBuffer#put(Object)} and event processors receive the same reference from {@link RingBuffer#get(long)}.
+     * Translators are given <code>null</code> events by such a ring buffer, so must not be used to publish to it.</p>
+     *
+     * @param <E> Class of the event stored in the ring buffer.
+     * @param producerType producer type to use {@link ProducerType}.
+     * @param bufferSize   number of events the ring buffer can hold.
+     * @param waitStrategy used to determine how to wait for new elements to become available.
+     * @return a constructed ring buffer.
+     * @throws IllegalArgumentException if bufferSize is less than 1 or not a power of 2
+     */
+    public static <E> RingBuffer<E> createReferencePassing(
+        ProducerType producerType,
+        int bufferSize,
+        WaitStrategy waitStrategy)
+    {
+        return create(producerType, null, bufferSize, waitStrategy);
+    }
+
+    /**
+     * Create a new reference passing Ring Buffer with the specified producer type (SINGLE or MULTI) and wait strategies.
+     *
+     * @param <E> Class of the event stored in the ring buffer.
+     * @param producerType         producer type to use {@link ProducerType}.
+     * @param bufferSize           number of events the ring buffer can hold.
+     * @param waitStrategy         used to determine how to wait for new elements to become available.
+     * @param producerWaitStrategy used to determine how publishers wait when the ring buffer is full.
+     * @return a constructed ring buffer.
+     * @throws IllegalArgumentException if bufferSize is less than 1 or not a power of 2
+     * @see RingBuffer#createReferencePassing(ProducerType, int, WaitStrategy)
+     */
+    public static <E> RingBuffer<E> createReferencePassing(
+        ProducerType producerType,
+        int bufferSize,
+        WaitStrategy waitStrategy,
+        ProducerWaitStrategy producerWaitStrategy)
+    {
+        return create(producerType, null, bufferSize, waitStrategy, producerWaitStrategy);
+    }
+
     /**
      * <p>Get the event for a given sequence in the RingBuffer.</p>
      *
@@ -888,6 +1063,10 @@ public final class RingBuffer<E> extends RingBufferFields<E> implements Cursored
     @Override
     public void publish(long sequence)
     {
+        if (null != latencyTracer)
+        {
+            latencyTracer.stamp(sequence);
+        }
         sequencer.publish(sequence);
     }
 
@@ -902,9 +1081,114 @@ public final class RingBuffer<E> extends RingBufferFields<E> implements Cursored
     @Override
     public void publish(long lo, long hi)
     {
+        if (null != latencyTracer)
+        {
+            latencyTracer.stamp(lo, hi);
+        }
         sequencer.publish(lo, hi);
     }
 
+    /**
+     * @return <code>true</code> if this ring buffer passes references to events created by publishers
+     * rather than preallocating its events.
+     * @see RingBuffer#createReferencePassing(ProducerType, int, WaitStrategy)
+     */
+    public boolean isReferencePassing()
+    {
+        return null == eventFactory;
+    }
+
+    /**
+     * Claim the next sequence, store a reference to <code>event</code> and publish it.
+     *
+     * @param event to publish, which must not be changed once published.
+     * @throws IllegalStateException if this ring buffer preallocates its events.
+     */
+    public void put(E event)
+    {
+        checkReferencePassing();
+        final long sequence = sequencer.next();
+        setElementAt(sequence, event);
+        publish(sequence);
+    }
+
+    /**
+     * Attempt to publish <code>event</code> without blocking.
+     *
+     * @param event to publish, which must not be changed once published.
+     * @return <code>true</code> if the event was published, <code>false</code> if there was insufficient capacity.
+     * @throws IllegalStateException if this ring buffer preallocates its events.
+     */
+    public boolean tryPut(E event)
+    {
+        checkReferencePassing();
+        try
+        {
+            final long sequence = sequencer.tryNext();
+            setElementAt(sequence, event);
+            publish(sequence);
+            return true;
+        }
+        catch (InsufficientCapacityException e)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Publish a batch of events, claiming all of their sequences at once.
+     *
+     * @param events        to publish, which must not be changed once published.
+     * @param batchStartsAt the first element of the array which is within the batch.
+     * @param batchSize     the number of elements in the batch.
+     * @throws IllegalStateException    if this ring buffer preallocates its events.
+     * @throws IllegalArgumentException if the batch is larger than the ring buffer or overruns the array.
+     */
+    public void put(E[] events, int batchStartsAt, int batchSize)
+    {
+        checkReferencePassing();
+        checkBounds(events, batchStartsAt, batchSize);
+        if (batchSize == 0)
+        {
+            return;
+        }
+
+        final long finalSequence = sequencer.next(batchSize);
+        final long initialSequence = finalSequence - (batchSize - 1);
+        for (int i = 0; i < batchSize; i++)
+        {
+            setElementAt(initialSequence + i, events[batchStartsAt + i]);
+        }
+        publish(initialSequence, finalSequence);
+    }
+
+    /**
+     * Store a reference to <code>event</code> for a sequence previously claimed with {@link #next()},
+     * prior to publishing it.
+     *
+     * @param sequence claimed sequence.
+     * @param event    to store, which must not be changed once published.
+     * @throws IllegalStateException if this ring buffer preallocates its events.
+     */
+    public void set(long sequence, E event)
+    {
+        checkReferencePassing();
+        setElementAt(sequence, event);
+    }
+
+    /**
+     * Drop the reference held for a sequence so that the event can be garbage collected before the slot is reused.
+     * Must only be called by the last event processor to handle the sequence, before its sequence moves past it.
+     *
+     * @param sequence of the event that has been handled.
+     * @throws IllegalStateException if this ring buffer preallocates its events.
+     */
+    public void release(long sequence)
+    {
+        checkReferencePassing();
+        setElementAt(sequence, null);
+    }
+
     /**
      * Get the remaining capacity for this ringBuffer.
      *
@@ -915,6 +1199,94 @@ public final class RingBuffer<E> extends RingBufferFields<E> implements Cursored
         return sequencer.remainingCapacity();
     }
 
+    /**
+     * Get the number of times publishers have had to wait for the gating sequences because the
+     * ring buffer was full.
+     *
+     * @return the number of waits so far, or 0 if the sequencer does not record them.
+     */
+    public long getProducerGatedCount()
+    {
+        return sequencer instanceof AbstractSequencer ? ((AbstractSequencer) sequencer).getGatedCount() : 0L;
+    }
+
+    /**
+     * Get the total time publishers have spent waiting for the gating sequences because the
+     * ring buffer was full.
+     *
+     * @return the time waited so far in nanoseconds, or 0 if the sequencer does not record it.
+     */
+    public long getProducerGatedNanos()
+    {
+        return sequencer instanceof AbstractSequencer ? ((AbstractSequencer) sequencer).getGatedNanos() : 0L;
+    }
+
+    /**
+     * <p>Change the capacity of the ring buffer without recreating it, so that the event processors and barriers
+     * already wired to it keep working.  Existing entries are kept, up to the new size, and any further entries are
+     * created with the event factory.</p>
+     *
+     * <p>The ring buffer must be quiescent: publishers must be paused, and every claimed sequence must have been
+     * published and handled by all of the gating sequences.  Event processors may keep running; they only read the
+     * new layout once the next sequence is published after the resize.  Publishers must not claim again until this
+     * method has returned and must be resumed in a way that makes the change visible to them, e.g. by resizing from
+     * the publishing thread or under the lock used to pause them.</p>
+     *
+     * @param newBufferSize the new number of entries, must be a positive power of 2.
+     * @throws IllegalArgumentException      if newBufferSize is less than 1 or not a power of 2
+     * @throws IllegalStateException         if a claimed sequence has not yet been published or handled.
+     * @throws UnsupportedOperationException if the sequencer of this ring buffer can not be resized.
+     * @see com.lmax.disruptor.dsl.Disruptor#resize(int, long, java.util.concurrent.TimeUnit)
+     */
+    public void resize(final int newBufferSize)
+    {
+        if (!(sequencer instanceof AbstractSequencer))
+        {
+            throw new UnsupportedOperationException(sequencer.getClass().getSimpleName() + " can not be resized");
+        }
+
+        ((AbstractSequencer) sequencer).resize(newBufferSize);
+        resizeEntries(newBufferSize);
+        if (null != latencyTracer)
+        {
+            latencyTracer.resize(newBufferSize);
+        }
+    }
+
+    /**
+     * Stamp the time sampled events are published with, so that their latency can be traced through the stages
+     * that handle them.  Must be set before events are published, and the tracer must be the size of this ring buffer.
+     *
+     * @param latencyTracer to stamp sampled events with, or <code>null</code> to stop tracing.
+     * @throws IllegalArgumentException if the tracer is not the size of this ring buffer.
+     * @see TracingEventHandler
+     */
+    public void setLatencyTracer(final LatencyTracer latencyTracer)
+    {
+        if (null != latencyTracer && latencyTracer.getBufferSize() != bufferSize)
+        {
+            throw new IllegalArgumentException("latencyTracer must be the size of the ring buffer");
+        }
+
+        this.latencyTracer = latencyTracer;
+    }
+
+    /**
+     * @return the latency tracer set on this ring buffer, or <code>null</code> if latency is not traced.
+     */
+    public LatencyTracer getLatencyTracer()
+    {
+        return latencyTracer;
+    }
+
+    private void checkReferencePassing()
+    {
+        if (null != eventFactory)
+        {
+            throw new IllegalStateException("Events are preallocated, publish them with a translator");
+        }
+    }
+
     private void checkBounds(final EventTranslator<E>[] translators, final int batchStartsAt, final int batchSize)
     {
         checkBatchSizing(batchStartsAt, batchSize);
@@ -980,7 +1352,7 @@ public final class RingBuffer<E> extends RingBufferFields<E> implements Cursored
         }
         finally
         {
-            sequencer.publish(sequence);
+            publish(sequence);
         }
     }
 
@@ -992,7 +1364,7 @@ public final class RingBuffer<E> extends RingBufferFields<E> implements Cursored
         }
         finally
         {
-            sequencer.publish(sequence);
+            publish(sequence);
         }
     }
 
@@ -1004,7 +1376,7 @@ public final class RingBuffer<E> extends RingBufferFields<E> implements Cursored
         }
         finally
         {
-            sequencer.publish(sequence);
+            publish(sequence);
         }
     }
 
@@ -1018,7 +1390,7 @@ public final class RingBuffer<E> extends RingBufferFields<E> implements Cursored
         }
         finally
         {
-            sequencer.publish(sequence);
+            publish(sequence);
         }
     }
 
@@ -1030,7 +1402,7 @@ public final class RingBuffer<E> extends RingBufferFields<E> implements Cursored
         }
         finally
         {
-            sequencer.publish(sequence);
+            publish(sequence);
         }
     }
 
@@ -1051,7 +1423,7 @@ public final class RingBuffer<E> extends RingBufferFields<E> implements Cursored
         }
         finally
         {
-            sequencer.publish(initialSequence, finalSequence);
+            publish(initialSequence, finalSequence);
         }
     }
 
@@ -1071,7 +1443,7 @@ public final class RingBuffer<E> extends RingBufferFields<E> implements Cursored
         }
         finally
         {
-            sequencer.publish(initialSequence, finalSequence);
+            publish(initialSequence, finalSequence);
         }
     }
 
@@ -1092,7 +1464,7 @@ public final class RingBuffer<E> extends RingBufferFields<E> implements Cursored
         }
         finally
         {
-            sequencer.publish(initialSequence, finalSequence);
+            publish(initialSequence, finalSequence);
         }
     }
 
@@ -1113,7 +1485,7 @@ public final class RingBuffer<E> extends RingBufferFields<E> implements Cursored
         }
         finally
         {
-            sequencer.publish(initialSequence, finalSequence);
+            publish(initialSequence, finalSequence);
         }
     }
 
@@ -1133,7 +1505,7 @@ public final class RingBuffer<E> extends RingBufferFields<E> implements Cursored
         }
         finally
         {
-            sequencer.publish(initialSequence, finalSequence);
+            publish(initialSequence, finalSequence);
         }
     }
 
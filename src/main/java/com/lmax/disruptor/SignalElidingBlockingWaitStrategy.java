@@ -0,0 +1,141 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.lmax.disruptor.util.ThreadHints;
+
+/**
+ * Blocking strategy that uses a lock and condition variable for {@link EventProcessor}s waiting on a barrier, and
+ * counts the waiting threads so that publishers only take the lock when a thread is asleep.
+ * <p>
+ * Publishing costs a single volatile read while the consumers are keeping up, against a lock and
+ * <code>notifyAll</code> for the {@link BlockingWaitStrategy}, and idle consumers use no CPU.
+ * <p>
+ * A waiting thread registers itself with a locked increment and then re-checks the cursor.  A publisher's cursor
+ * store is not fenced before it reads the count, so a publish racing with registration can be missed for as long as
+ * the store takes to become visible.  The first wait after registering is bounded by a short timeout to cover that
+ * window; once it has passed every later publish sees the registration.
+ */
+public final class SignalElidingBlockingWaitStrategy implements WaitStrategy
+{
+    private static final long DEFAULT_RECHECK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final AtomicIntegerFieldUpdater<SignalElidingBlockingWaitStrategy> SLEEPERS_UPDATER =
+        AtomicIntegerFieldUpdater.newUpdater(SignalElidingBlockingWaitStrategy.class, "sleepers");
+
+    private final Lock lock = new ReentrantLock();
+    private final Condition processorNotifyCondition = lock.newCondition();
+    private final long recheckNanos;
+    private volatile int sleepers = 0;
+
+    public SignalElidingBlockingWaitStrategy()
+    {
+        this.recheckNanos = DEFAULT_RECHECK_NANOS;
+    }
+
+    /**
+     * @param recheckTimeout how long the first wait after registering lasts before the cursor is checked again.
+     * @param units          time units of the timeout.
+     */
+    public SignalElidingBlockingWaitStrategy(final long recheckTimeout, final TimeUnit units)
+    {
+        this.recheckNanos = units.toNanos(recheckTimeout);
+    }
+
+    @Override
+    public long waitFor(final long sequence, final Sequence cursorSequence, final Sequence dependentSequence, final SequenceBarrier barrier)
+        throws AlertException, InterruptedException
+    {
+        long availableSequence;
+        if (cursorSequence.get() < sequence)
+        {
+            lock.lock();
+            try
+            {
+                SLEEPERS_UPDATER.incrementAndGet(this);
+                try
+                {
+                    long nanos = recheckNanos;
+                    while (cursorSequence.get() < sequence)
+                    {
+                        barrier.checkAlert();
+                        if (nanos > 0)
+                        {
+                            nanos = processorNotifyCondition.awaitNanos(nanos);
+                        }
+                        else
+                        {
+                            processorNotifyCondition.await();
+                        }
+                    }
+                }
+                finally
+                {
+                    SLEEPERS_UPDATER.decrementAndGet(this);
+                }
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+
+        while ((availableSequence = dependentSequence.get()) < sequence)
+        {
+            barrier.checkAlert();
+            ThreadHints.onSpinWait();
+        }
+
+        return availableSequence;
+    }
+
+    @Override
+    public void signalAllWhenBlocking()
+    {
+        // 没有线程休眠时跳过加锁
+        if (0 != sleepers)
+        {
+            lock.lock();
+            try
+            {
+                processorNotifyCondition.signalAll();
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+    }
+
+    int getSleeperCount()
+    {
+        return sleepers;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "SignalElidingBlockingWaitStrategy{" +
+            "recheckNanos=" + recheckNanos +
+            ", sleepers=" + sleepers +
+            '}';
+    }
+}
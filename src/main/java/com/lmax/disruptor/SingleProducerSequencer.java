@@ -15,8 +15,6 @@
  */
 package com.lmax.disruptor;
 
-import java.util.concurrent.locks.LockSupport;
-
 import com.lmax.disruptor.util.Util;
 
 abstract class SingleProducerSequencerPad extends AbstractSequencer
@@ -24,17 +22,17 @@ abstract class SingleProducerSequencerPad extends AbstractSequencer
     // 左侧填充56字节
     protected long p1, p2, p3, p4, p5, p6, p7;
 
-    SingleProducerSequencerPad(int bufferSize, WaitStrategy waitStrategy)
+    SingleProducerSequencerPad(int bufferSize, WaitStrategy waitStrategy, ProducerWaitStrategy producerWaitStrategy)
     {
-        super(bufferSize, waitStrategy);
+        super(bufferSize, waitStrategy, producerWaitStrategy);
     }
 }
 
 abstract class SingleProducerSequencerFields extends SingleProducerSequencerPad
 {
-    SingleProducerSequencerFields(int bufferSize, WaitStrategy waitStrategy)
+    SingleProducerSequencerFields(int bufferSize, WaitStrategy waitStrategy, ProducerWaitStrategy producerWaitStrategy)
     {
-        super(bufferSize, waitStrategy);
+        super(bufferSize, waitStrategy, producerWaitStrategy);
     }
 
     /**
@@ -66,7 +64,19 @@ public final class SingleProducerSequencer extends SingleProducerSequencerFields
      */
     public SingleProducerSequencer(int bufferSize, WaitStrategy waitStrategy)
     {
-        super(bufferSize, waitStrategy);
+        this(bufferSize, waitStrategy, new ParkingProducerWaitStrategy());
+    }
+
+    /**
+     * Construct a Sequencer with the selected wait strategies and buffer size.
+     *
+     * @param bufferSize           the size of the buffer that this will sequence over.
+     * @param waitStrategy         for those waiting on sequences.
+     * @param producerWaitStrategy for the publisher waiting on the gating sequences.
+     */
+    public SingleProducerSequencer(int bufferSize, WaitStrategy waitStrategy, ProducerWaitStrategy producerWaitStrategy)
+    {
+        super(bufferSize, waitStrategy, producerWaitStrategy);
     }
 
     /**
@@ -142,12 +152,11 @@ public final class SingleProducerSequencer extends SingleProducerSequencerFields
             cursor.setVolatile(nextValue);  // StoreLoad fence
 
             // 最小读下标
-            long minSequence;
-            // 自旋更新读下表，直至最小读下标大于
-            while (wrapPoint > (minSequence = Util.getMinimumSequence(gatingSequences, nextValue)))
+            long minSequence = Util.getMinimumSequence(gatingSequences, nextValue);
+            // 可用单元不够时按发布者等待策略等待，直至最小读下标不小于回退一圈的写下标
+            if (wrapPoint > minSequence)
             {
-                // 挂起线程1纳秒
-                LockSupport.parkNanos(1L); // TODO: Use waitStrategy to spin?
+                minSequence = waitForCapacity(wrapPoint);
             }
 
             // 赋值读下标
@@ -212,6 +221,21 @@ public final class SingleProducerSequencer extends SingleProducerSequencerFields
         this.nextValue = sequence;
     }
 
+    @Override
+    void resize(final int newBufferSize)
+    {
+        checkBufferSize(newBufferSize);
+
+        final long nextValue = this.nextValue;
+        if (cursor.get() != nextValue)
+        {
+            throw new IllegalStateException("Claimed sequences must be published before resizing");
+        }
+        checkDrained(nextValue);
+
+        this.bufferSize = newBufferSize;
+    }
+
     /**
      * @see Sequencer#publish(long)
      */
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+import com.lmax.disruptor.util.ThreadHints;
+
+/**
+ * <p>Parking strategy for {@link EventProcessor}s waiting on a barrier that only wakes the processors that can make
+ * progress.</p>
+ *
+ * <p>Each waiting thread has a slot, registered the first time it parks, in which it records the sequence it needs
+ * and the dependent sequence it is gated on before parking, so parking allocates nothing.  When
+ * the cursor is published, and whenever another processor comes back to wait after advancing its own sequence, the
+ * registered threads whose dependent sequence has reached their target are woken with {@link LockSupport#unpark(Thread)}.
+ * Threads further down a pipeline stay parked until the stage in front of them has handled the event, rather than
+ * all of them being woken by a <code>notifyAll</code> on every publish.  No monitor is used and publishing costs a
+ * single volatile read when no thread is parked.</p>
+ *
+ * <p>Processors that advance their sequence without coming back to wait, such as custom processors or an
+ * {@link EventPoller}, do not wake the threads gated on them.  Parked threads re-check their dependent sequence after
+ * at most the max park time, which bounds the delay in that case.</p>
+ */
+public final class TargetedWakeupWaitStrategy implements WaitStrategy
+{
+    private static final int SPIN_TRIES = 100;
+    private static final Waiter[] NO_WAITERS = new Waiter[0];
+    private static final AtomicReferenceFieldUpdater<TargetedWakeupWaitStrategy, Waiter[]> WAITERS_UPDATER =
+        AtomicReferenceFieldUpdater.newUpdater(TargetedWakeupWaitStrategy.class, Waiter[].class, "waiters");
+
+    private final long maxParkNanos;
+    private final ThreadLocal<Waiter> localWaiter = new ThreadLocal<Waiter>()
+    {
+        @Override
+        protected Waiter initialValue()
+        {
+            final Waiter waiter = new Waiter(Thread.currentThread());
+            addWaiter(waiter);
+            return waiter;
+        }
+    };
+    private volatile Waiter[] waiters = NO_WAITERS;
+
+    public TargetedWakeupWaitStrategy()
+    {
+        this(1, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param maxParkTimeout longest time to park for before re-checking the dependent sequence.
+     * @param units          time units of the timeout.
+     */
+    public TargetedWakeupWaitStrategy(final long maxParkTimeout, final TimeUnit units)
+    {
+        this.maxParkNanos = units.toNanos(maxParkTimeout);
+    }
+
+    @Override
+    public long waitFor(final long sequence, final Sequence cursor, final Sequence dependentSequence, final SequenceBarrier barrier)
+        throws AlertException, InterruptedException
+    {
+        // 调用者在再次等待前已经推进了自己的序列，唤醒依赖它的等待者
+        wakeReachableWaiters();
+
+        long availableSequence;
+        int counter = SPIN_TRIES;
+        while ((availableSequence = dependentSequence.get()) < sequence)
+        {
+            barrier.checkAlert();
+
+            if (counter > 0)
+            {
+                --counter;
+                ThreadHints.onSpinWait();
+            }
+            else
+            {
+                park(sequence, dependentSequence, barrier);
+            }
+        }
+
+        return availableSequence;
+    }
+
+    private void park(final long sequence, final Sequence dependentSequence, final SequenceBarrier barrier)
+        throws InterruptedException
+    {
+        final Waiter waiter = localWaiter.get();
+        waiter.sequence = sequence;
+        waiter.dependentSequence = dependentSequence;
+        waiter.barrier = barrier;
+
+        waiter.parked = true;
+        try
+        {
+            // 标记停放后再检查一次，避免在标记前发生的发布被错过
+            if (!waiter.isReachable())
+            {
+                LockSupport.parkNanos(this, maxParkNanos);
+            }
+        }
+        finally
+        {
+            waiter.parked = false;
+        }
+
+        if (Thread.interrupted())
+        {
+            throw new InterruptedException();
+        }
+    }
+
+    @Override
+    public void signalAllWhenBlocking()
+    {
+        wakeReachableWaiters();
+    }
+
+    private void wakeReachableWaiters()
+    {
+        final Waiter[] currentWaiters = waiters;
+        for (final Waiter waiter : currentWaiters)
+        {
+            if (waiter.parked && waiter.isReachable())
+            {
+                LockSupport.unpark(waiter.thread);
+            }
+        }
+    }
+
+    /**
+     * Register the slot of a thread the first time it parks, dropping the slots of threads that have died.
+     */
+    private void addWaiter(final Waiter waiter)
+    {
+        Waiter[] currentWaiters;
+        Waiter[] updatedWaiters;
+        do
+        {
+            currentWaiters = waiters;
+            updatedWaiters = new Waiter[currentWaiters.length + 1];
+            int size = 0;
+            for (final Waiter current : currentWaiters)
+            {
+                if (current.thread.isAlive())
+                {
+                    updatedWaiters[size++] = current;
+                }
+            }
+            updatedWaiters[size++] = waiter;
+            updatedWaiters = Arrays.copyOf(updatedWaiters, size);
+        }
+        while (!WAITERS_UPDATER.compareAndSet(this, currentWaiters, updatedWaiters));
+    }
+
+    /**
+     * @return the number of threads parked at the moment.
+     */
+    int getWaiterCount()
+    {
+        int count = 0;
+        for (final Waiter waiter : waiters)
+        {
+            if (waiter.parked)
+            {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "TargetedWakeupWaitStrategy{" +
+            "maxParkNanos=" + maxParkNanos +
+            ", waiters=" + getWaiterCount() +
+            '}';
+    }
+
+    private static final class Waiter
+    {
+        private final Thread thread;
+        private long sequence;
+        private Sequence dependentSequence;
+        private SequenceBarrier barrier;
+        // 先写入上面的字段再置位，唤醒方读到true后即可看到它们
+        private volatile boolean parked;
+
+        Waiter(final Thread thread)
+        {
+            this.thread = thread;
+        }
+
+        boolean isReachable()
+        {
+            return dependentSequence.get() >= sequence || barrier.isAlerted();
+        }
+    }
+}
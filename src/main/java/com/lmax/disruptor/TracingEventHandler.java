@@ -0,0 +1,121 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+/**
+ * <p>Wraps an {@link EventHandler} so that the latency of the sampled events it handles is reported by a
+ * {@link LatencyTracer}, under the wrapped handler as the stage.  Only events handled without an exception are
+ * reported.</p>
+ *
+ * <p>{@link BatchStartAware}, {@link LifecycleAware}, {@link TimeoutHandler} and
+ * {@link SequenceReportingEventHandler} calls are forwarded to the wrapped handler when it implements them.</p>
+ *
+ * @param <T> event implementation storing the data for sharing during exchange or parallel coordination of an event.
+ */
+public final class TracingEventHandler<T>
+    implements SequenceReportingEventHandler<T>, BatchStartAware, LifecycleAware, TimeoutHandler
+{
+    private final LatencyTracer latencyTracer;
+    private final EventHandler<? super T> delegate;
+    private final Object stage;
+
+    /**
+     * @param latencyTracer to report the latencies with.
+     * @param delegate      to handle the events.
+     */
+    public TracingEventHandler(final LatencyTracer latencyTracer, final EventHandler<? super T> delegate)
+    {
+        this(latencyTracer, delegate, delegate);
+    }
+
+    /**
+     * @param latencyTracer to report the latencies with.
+     * @param delegate      to handle the events.
+     * @param stage         to report the latencies under.
+     */
+    public TracingEventHandler(final LatencyTracer latencyTracer, final EventHandler<? super T> delegate, final Object stage)
+    {
+        this.latencyTracer = latencyTracer;
+        this.delegate = delegate;
+        this.stage = stage;
+    }
+
+    public EventHandler<? super T> getDelegate()
+    {
+        return delegate;
+    }
+
+    @Override
+    public void onEvent(final T event, final long sequence, final boolean endOfBatch) throws Exception
+    {
+        delegate.onEvent(event, sequence, endOfBatch);
+        latencyTracer.record(stage, sequence);
+    }
+
+    @Override
+    public void onBatchStart(final long batchSize)
+    {
+        if (delegate instanceof BatchStartAware)
+        {
+            ((BatchStartAware) delegate).onBatchStart(batchSize);
+        }
+    }
+
+    @Override
+    public void setSequenceCallback(final Sequence sequenceCallback)
+    {
+        if (delegate instanceof SequenceReportingEventHandler)
+        {
+            ((SequenceReportingEventHandler<?>) delegate).setSequenceCallback(sequenceCallback);
+        }
+    }
+
+    @Override
+    public void onStart()
+    {
+        if (delegate instanceof LifecycleAware)
+        {
+            ((LifecycleAware) delegate).onStart();
+        }
+    }
+
+    @Override
+    public void onShutdown()
+    {
+        if (delegate instanceof LifecycleAware)
+        {
+            ((LifecycleAware) delegate).onShutdown();
+        }
+    }
+
+    @Override
+    public void onTimeout(final long sequence) throws Exception
+    {
+        if (delegate instanceof TimeoutHandler)
+        {
+            ((TimeoutHandler) delegate).onTimeout(sequence);
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "TracingEventHandler{" +
+            "stage=" + stage +
+            ", delegate=" + delegate +
+            '}';
+    }
+}
@@ -46,6 +46,12 @@ public final class WorkProcessor<T>
     };
 
     private final TimeoutHandler timeoutHandler;
+    // 每次CAS申领的序号数量上限
+    private int claimBatchSize = 1;
+    // 自适应模式下按积压量均分给各个worker，0表示固定数量申领
+    private int adaptiveWorkerCount = 0;
+    // 未启用时为null，不做任何统计
+    private ProcessorMetrics metrics;
 
     /**
      * Construct a {@link WorkProcessor}.
@@ -84,6 +90,71 @@ public final class WorkProcessor<T>
         return sequence;
     }
 
+    /**
+     * Claim a fixed block of sequences from the work sequence with each compare-and-set, rather than one at a time.
+     * The block is claimed whether or not it has been published yet, so a worker may wait on the tail of its block
+     * while other workers are idle.  Must be set before the processor is started.
+     *
+     * @param claimBatchSize number of sequences to claim at once, 1 by default.
+     * @throws IllegalArgumentException if claimBatchSize is less than 1
+     */
+    public void setClaimBatchSize(final int claimBatchSize)
+    {
+        if (claimBatchSize < 1)
+        {
+            throw new IllegalArgumentException("claimBatchSize must be > 0");
+        }
+
+        this.claimBatchSize = claimBatchSize;
+        this.adaptiveWorkerCount = 0;
+    }
+
+    /**
+     * Claim blocks of sequences sized to the backlog that this processor last saw published, shared out evenly
+     * between the workers and capped at <code>maxClaimBatchSize</code>.  When the queue is shallow this falls back
+     * to claiming one sequence at a time.  Must be set before the processor is started.
+     *
+     * @param maxClaimBatchSize upper bound on the number of sequences claimed at once.
+     * @param workerCount       number of processors sharing the work sequence.
+     * @throws IllegalArgumentException if either argument is less than 1
+     */
+    public void setAdaptiveClaimBatchSize(final int maxClaimBatchSize, final int workerCount)
+    {
+        if (maxClaimBatchSize < 1 || workerCount < 1)
+        {
+            throw new IllegalArgumentException("maxClaimBatchSize and workerCount must be > 0");
+        }
+
+        this.claimBatchSize = maxClaimBatchSize;
+        this.adaptiveWorkerCount = workerCount;
+    }
+
+    /**
+     * Start recording {@link ProcessorMetrics} for this processor.  Each claimed block of sequences is recorded as a
+     * batch, and recording reads the clock around every event and every wait.
+     * <p>
+     * Must be called before the processor is started.
+     *
+     * @return the metrics of this processor, the same instance if they are already enabled.
+     */
+    public ProcessorMetrics enableMetrics()
+    {
+        if (null == metrics)
+        {
+            metrics = new ProcessorMetrics(sequence, ringBuffer);
+        }
+
+        return metrics;
+    }
+
+    /**
+     * @return the metrics of this processor, or <code>null</code> if they have not been enabled.
+     */
+    public ProcessorMetrics getMetrics()
+    {
+        return metrics;
+    }
+
     @Override
     public void halt()
     {
@@ -121,9 +192,11 @@ public final class WorkProcessor<T>
 
         notifyStart();
 
+        final ProcessorMetrics metrics = this.metrics;
         boolean processedSequence = true;
         long cachedAvailableSequence = Long.MIN_VALUE;
         long nextSequence = sequence.get();
+        long claimedSequence = nextSequence;
         T event = null;
         while (true)
         {
@@ -135,7 +208,14 @@ public final class WorkProcessor<T>
                 // this prevents the sequence getting too far forward if an exception
                 // is thrown from the WorkHandler
 
-                if (processedSequence)
+                if (processedSequence && nextSequence < claimedSequence)
+                {
+                    // 已申领的批次还未处理完，继续处理批次内的下一个序号
+                    processedSequence = false;
+                    sequence.set(nextSequence);
+                    nextSequence++;
+                }
+                else if (processedSequence)
                 {
                     if (!running.get())
                     {
@@ -143,20 +223,44 @@ public final class WorkProcessor<T>
                         sequenceBarrier.checkAlert();
                     }
                     processedSequence = false;
+                    long current;
                     do
                     {
-                        nextSequence = workSequence.get() + 1L;
-                        sequence.set(nextSequence - 1L);
+                        current = workSequence.get();
+                        nextSequence = current + 1L;
+                        claimedSequence = current + claimSize(current, cachedAvailableSequence);
+                        sequence.set(current);
+                    }
+                    while (!workSequence.compareAndSet(current, claimedSequence));
+
+                    if (null != metrics)
+                    {
+                        metrics.recordBatch(claimedSequence - current);
                     }
-                    while (!workSequence.compareAndSet(nextSequence - 1L, nextSequence));
                 }
 
                 if (cachedAvailableSequence >= nextSequence)
                 {
                     event = ringBuffer.get(nextSequence);
-                    workHandler.onEvent(event);
+                    if (null != metrics)
+                    {
+                        final long startTime = System.nanoTime();
+                        workHandler.onEvent(event);
+                        metrics.recordEvents(1, System.nanoTime() - startTime);
+                    }
+                    else
+                    {
+                        workHandler.onEvent(event);
+                    }
                     processedSequence = true;
                 }
+                else if (null != metrics)
+                {
+                    final boolean waiting = sequenceBarrier.getCursor() < nextSequence;
+                    final long startTime = System.nanoTime();
+                    cachedAvailableSequence = sequenceBarrier.waitFor(nextSequence);
+                    metrics.recordWait(System.nanoTime() - startTime, waiting);
+                }
                 else
                 {
                     cachedAvailableSequence = sequenceBarrier.waitFor(nextSequence);
@@ -186,6 +290,18 @@ public final class WorkProcessor<T>
         running.set(false);
     }
 
+    private int claimSize(final long current, final long cachedAvailableSequence)
+    {
+        if (0 == adaptiveWorkerCount)
+        {
+            return claimBatchSize;
+        }
+
+        final long share = (cachedAvailableSequence - current) / adaptiveWorkerCount;
+
+        return share > 1 ? (int) Math.min(share, claimBatchSize) : 1;
+    }
+
     private void notifyTimeout(final long availableSequence)
     {
         try
@@ -0,0 +1,303 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * <p>A {@link WorkStealingProcessor} wraps a single {@link WorkHandler} as one of the workers of a
+ * {@link WorkStealingWorkerPool}.</p>
+ *
+ * <p>Sequences are dealt out to the workers in blocks, round robin, so each worker has its own queue of blocks
+ * and claims from it without contending with the other workers.  When a worker's next block has not been
+ * published yet it steals the oldest published block still waiting in another worker's queue, so a worker held
+ * up by an expensive event does not hold up the events queued behind it.</p>
+ *
+ * @param <T> event implementation storing the details for the work to processed.
+ */
+public final class WorkStealingProcessor<T>
+    implements EventProcessor
+{
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    // 正在处理的块中已处理到的序号，未持有块时为Long.MAX_VALUE
+    private final Sequence sequence = new Sequence(Sequencer.INITIAL_CURSOR_VALUE);
+    // 本worker队列中下一个未被申领的块的起始序号减一，被窃取时由其他worker推进
+    private final Sequence queueSequence = new Sequence(Sequencer.INITIAL_CURSOR_VALUE);
+    private final RingBuffer<T> ringBuffer;
+    private final SequenceBarrier sequenceBarrier;
+    private final WorkHandler<? super T> workHandler;
+    private final ExceptionHandler<? super T> exceptionHandler;
+    private final TimeoutHandler timeoutHandler;
+    private final int blockSize;
+    private final int index;
+    private WorkStealingProcessor<?>[] workers;
+    // 同一worker队列中相邻两个块的距离
+    private long stride;
+
+    WorkStealingProcessor(
+        final RingBuffer<T> ringBuffer,
+        final SequenceBarrier sequenceBarrier,
+        final WorkHandler<? super T> workHandler,
+        final ExceptionHandler<? super T> exceptionHandler,
+        final int blockSize,
+        final int index)
+    {
+        this.ringBuffer = ringBuffer;
+        this.sequenceBarrier = sequenceBarrier;
+        this.workHandler = workHandler;
+        this.exceptionHandler = exceptionHandler;
+        this.blockSize = blockSize;
+        this.index = index;
+
+        timeoutHandler = (workHandler instanceof TimeoutHandler) ? (TimeoutHandler) workHandler : null;
+    }
+
+    void setWorkers(final WorkStealingProcessor<?>[] workers)
+    {
+        this.workers = workers;
+        this.stride = (long) workers.length * blockSize;
+    }
+
+    /**
+     * Deal out the blocks starting after <code>cursor</code>.  Must be called on every worker before any of them are
+     * started.
+     */
+    void reset(final long cursor)
+    {
+        queueSequence.set(cursor + (long) index * blockSize);
+        sequence.set(cursor);
+    }
+
+    /**
+     * The progress of the block this worker is handling.  This does not cover the blocks still queued for the
+     * worker, see {@link #getQueueSequence()}.
+     */
+    @Override
+    public Sequence getSequence()
+    {
+        return sequence;
+    }
+
+    /**
+     * The sequence before the first block still queued for this worker.  It is moved on by whichever worker
+     * claims the block, so the ring buffer must gate on it as well as on {@link #getSequence()}.
+     *
+     * @return the sequence tracking this worker's queue.
+     */
+    public Sequence getQueueSequence()
+    {
+        return queueSequence;
+    }
+
+    @Override
+    public void halt()
+    {
+        running.set(false);
+        sequenceBarrier.alert();
+    }
+
+    @Override
+    public boolean isRunning()
+    {
+        return running.get();
+    }
+
+    /**
+     * It is ok to have another thread re-run this method after a halt().
+     *
+     * @throws IllegalStateException if this processor is already running
+     */
+    @Override
+    public void run()
+    {
+        if (!running.compareAndSet(false, true))
+        {
+            throw new IllegalStateException("Thread is already running");
+        }
+        sequenceBarrier.clearAlert();
+
+        notifyStart();
+
+        long cachedAvailableSequence = Long.MIN_VALUE;
+        // 初始状态下未持有任何块，首次循环即申领
+        long nextSequence = 0L;
+        long claimedSequence = -1L;
+        T event = null;
+        while (true)
+        {
+            try
+            {
+                if (nextSequence > claimedSequence)
+                {
+                    if (!running.get())
+                    {
+                        sequenceBarrier.alert();
+                        sequenceBarrier.checkAlert();
+                    }
+
+                    final long blockStart = claimBlock(cachedAvailableSequence);
+                    if (blockStart < 0)
+                    {
+                        // 没有可申领的块，等待最早未申领的块发布
+                        cachedAvailableSequence = sequenceBarrier.waitFor(oldestUnclaimedSequence());
+                        continue;
+                    }
+
+                    nextSequence = blockStart;
+                    claimedSequence = blockStart + blockSize - 1;
+                }
+
+                if (cachedAvailableSequence >= nextSequence)
+                {
+                    event = ringBuffer.get(nextSequence);
+                    workHandler.onEvent(event);
+                    sequence.set(nextSequence);
+                    nextSequence++;
+                }
+                else
+                {
+                    cachedAvailableSequence = sequenceBarrier.waitFor(nextSequence);
+                }
+            }
+            catch (final TimeoutException e)
+            {
+                notifyTimeout(sequence.get());
+            }
+            catch (final AlertException ex)
+            {
+                if (!running.get())
+                {
+                    break;
+                }
+            }
+            catch (final Throwable ex)
+            {
+                // handle, mark as processed, unless the exception handler threw an exception
+                exceptionHandler.handleEventException(ex, nextSequence, event);
+                sequence.set(nextSequence);
+                nextSequence++;
+            }
+        }
+
+        notifyShutdown();
+
+        running.set(false);
+    }
+
+    /**
+     * Claim the next block from this worker's own queue if it has been published, otherwise steal the oldest
+     * published block from another worker.  The sequence is moved back to cover a block before trying to claim it,
+     * so the block is never left ungated between leaving a queue and being taken by a worker, provided the queue
+     * sequences are read before the worker sequences, see {@link WorkStealingWorkerPool#getWorkerSequences()}.
+     *
+     * @return the first sequence of the claimed block, or -1 if there is no published block to claim.
+     */
+    private long claimBlock(final long availableSequence)
+    {
+        final long ownQueue = queueSequence.get();
+        if (ownQueue < availableSequence)
+        {
+            sequence.set(ownQueue);
+            if (queueSequence.compareAndSet(ownQueue, ownQueue + stride))
+            {
+                return ownQueue + 1;
+            }
+        }
+
+        WorkStealingProcessor<?> victim = null;
+        long victimQueue = Long.MAX_VALUE;
+        for (int i = 1; i < workers.length; i++)
+        {
+            final WorkStealingProcessor<?> worker = workers[(index + i) % workers.length];
+            final long queue = worker.queueSequence.get();
+            if (queue < victimQueue && queue < availableSequence)
+            {
+                victim = worker;
+                victimQueue = queue;
+            }
+        }
+
+        if (null != victim)
+        {
+            sequence.set(victimQueue);
+            if (victim.queueSequence.compareAndSet(victimQueue, victimQueue + stride))
+            {
+                return victimQueue + 1;
+            }
+        }
+
+        // 未持有任何块，由各队列序号负责门控
+        sequence.set(Long.MAX_VALUE);
+
+        return -1L;
+    }
+
+    private long oldestUnclaimedSequence()
+    {
+        long oldestQueue = Long.MAX_VALUE;
+        for (final WorkStealingProcessor<?> worker : workers)
+        {
+            oldestQueue = Math.min(oldestQueue, worker.queueSequence.get());
+        }
+
+        return oldestQueue + 1;
+    }
+
+    private void notifyTimeout(final long availableSequence)
+    {
+        try
+        {
+            if (timeoutHandler != null)
+            {
+                timeoutHandler.onTimeout(availableSequence);
+            }
+        }
+        catch (Throwable e)
+        {
+            exceptionHandler.handleEventException(e, availableSequence, null);
+        }
+    }
+
+    private void notifyStart()
+    {
+        if (workHandler instanceof LifecycleAware)
+        {
+            try
+            {
+                ((LifecycleAware) workHandler).onStart();
+            }
+            catch (final Throwable ex)
+            {
+                exceptionHandler.handleOnStartException(ex);
+            }
+        }
+    }
+
+    private void notifyShutdown()
+    {
+        if (workHandler instanceof LifecycleAware)
+        {
+            try
+            {
+                ((LifecycleAware) workHandler).onShutdown();
+            }
+            catch (final Throwable ex)
+            {
+                exceptionHandler.handleOnShutdownException(ex);
+            }
+        }
+    }
+}
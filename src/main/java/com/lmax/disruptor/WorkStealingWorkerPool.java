@@ -0,0 +1,177 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import com.lmax.disruptor.util.Util;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * WorkStealingWorkerPool contains a pool of {@link WorkStealingProcessor}s that farm jobs out across a pool of
+ * workers like a {@link WorkerPool}, but without a single work sequence that every worker has to compare-and-set.
+ * <p>
+ * Published sequences are dealt out to the workers in blocks of <code>blockSize</code>, round robin.  Each worker
+ * works through its own blocks and, once it has caught up, steals the oldest published block that another worker
+ * has not started yet.  This suits handlers whose cost per event is uneven: a slow event only holds up the rest of
+ * its block, and the blocks queued behind it are picked up by idle workers.
+ * <p>
+ * Events are handled at most once, but blocks may be handled out of order.
+ *
+ * @param <T> event to be processed by a pool of workers
+ */
+public final class WorkStealingWorkerPool<T>
+{
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    private final RingBuffer<T> ringBuffer;
+    // WorkStealingProcessors are created to wrap each of the provided WorkHandlers
+    private final WorkStealingProcessor<?>[] workProcessors;
+
+    /**
+     * Create a work stealing pool to enable an array of {@link WorkHandler}s to consume published sequences.
+     * <p>
+     * This option requires a pre-configured {@link RingBuffer} which must have
+     * {@link RingBuffer#addGatingSequences(Sequence...)} called with {@link #getWorkerSequences()} before the pool
+     * is started.
+     *
+     * @param ringBuffer       of events to be consumed.
+     * @param sequenceBarrier  on which the workers will depend.
+     * @param exceptionHandler to callback when an error occurs which is not handled by the {@link WorkHandler}s.
+     * @param blockSize        number of consecutive sequences dealt to a worker at a time.
+     * @param workHandlers     to distribute the work load across.
+     * @throws IllegalArgumentException if blockSize is less than 1 or no work handlers are supplied
+     */
+    @SafeVarargs
+    public WorkStealingWorkerPool(
+        final RingBuffer<T> ringBuffer,
+        final SequenceBarrier sequenceBarrier,
+        final ExceptionHandler<? super T> exceptionHandler,
+        final int blockSize,
+        final WorkHandler<? super T>... workHandlers)
+    {
+        if (blockSize < 1)
+        {
+            throw new IllegalArgumentException("blockSize must be > 0");
+        }
+        if (0 == workHandlers.length)
+        {
+            throw new IllegalArgumentException("At least one WorkHandler is required");
+        }
+
+        this.ringBuffer = ringBuffer;
+        final int numWorkers = workHandlers.length;
+        workProcessors = new WorkStealingProcessor<?>[numWorkers];
+
+        for (int i = 0; i < numWorkers; i++)
+        {
+            workProcessors[i] = new WorkStealingProcessor<>(
+                ringBuffer,
+                sequenceBarrier,
+                workHandlers[i],
+                exceptionHandler,
+                blockSize,
+                i);
+        }
+
+        for (WorkStealingProcessor<?> processor : workProcessors)
+        {
+            processor.setWorkers(workProcessors);
+        }
+    }
+
+    /**
+     * Get an array of {@link Sequence}s representing the progress of the workers, covering both the blocks they are
+     * handling and the blocks still queued for them.
+     * <p>
+     * The queue sequences come before the worker sequences and the order must be kept when gating on them: a worker
+     * moves its sequence back onto a block before taking the block off a queue, so a minimum read in this order
+     * always sees the block on one or the other.
+     *
+     * @return an array of {@link Sequence}s representing the progress of the workers.
+     */
+    public Sequence[] getWorkerSequences()
+    {
+        final int size = workProcessors.length;
+        final Sequence[] sequences = new Sequence[size * 2];
+        for (int i = 0; i < size; i++)
+        {
+            sequences[i] = workProcessors[i].getQueueSequence();
+            sequences[size + i] = workProcessors[i].getSequence();
+        }
+
+        return sequences;
+    }
+
+    /**
+     * Start the worker pool processing events.
+     *
+     * @param executor providing threads for running the workers.
+     * @return the {@link RingBuffer} used for the work queue.
+     * @throws IllegalStateException if the pool has already been started and not halted yet
+     */
+    public RingBuffer<T> start(final Executor executor)
+    {
+        if (!started.compareAndSet(false, true))
+        {
+            throw new IllegalStateException("WorkStealingWorkerPool has already been started and cannot be restarted until halted.");
+        }
+
+        final long cursor = ringBuffer.getCursor();
+        for (WorkStealingProcessor<?> processor : workProcessors)
+        {
+            processor.reset(cursor);
+        }
+
+        for (WorkStealingProcessor<?> processor : workProcessors)
+        {
+            executor.execute(processor);
+        }
+
+        return ringBuffer;
+    }
+
+    /**
+     * Wait for the {@link RingBuffer} to drain of published events then halt the workers.
+     */
+    public void drainAndHalt()
+    {
+        Sequence[] workerSequences = getWorkerSequences();
+        while (ringBuffer.getCursor() > Util.getMinimumSequence(workerSequences))
+        {
+            Thread.yield();
+        }
+
+        halt();
+    }
+
+    /**
+     * Halt all workers immediately at the end of their current cycle.
+     */
+    public void halt()
+    {
+        for (WorkStealingProcessor<?> processor : workProcessors)
+        {
+            processor.halt();
+        }
+
+        started.set(false);
+    }
+
+    public boolean isRunning()
+    {
+        return started.get();
+    }
+}
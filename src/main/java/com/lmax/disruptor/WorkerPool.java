@@ -117,6 +117,37 @@ public final class WorkerPool<T>
         return sequences;
     }
 
+    /**
+     * Have every worker claim a fixed block of sequences at a time, see {@link WorkProcessor#setClaimBatchSize(int)}.
+     *
+     * @param claimBatchSize number of sequences each worker claims at once.
+     * @throws IllegalStateException if the pool has already been started
+     */
+    public void setClaimBatchSize(final int claimBatchSize)
+    {
+        checkNotStarted();
+        for (WorkProcessor<?> processor : workProcessors)
+        {
+            processor.setClaimBatchSize(claimBatchSize);
+        }
+    }
+
+    /**
+     * Have every worker claim a block of sequences sized to its share of the backlog, see
+     * {@link WorkProcessor#setAdaptiveClaimBatchSize(int, int)}.
+     *
+     * @param maxClaimBatchSize upper bound on the number of sequences each worker claims at once.
+     * @throws IllegalStateException if the pool has already been started
+     */
+    public void setAdaptiveClaimBatchSize(final int maxClaimBatchSize)
+    {
+        checkNotStarted();
+        for (WorkProcessor<?> processor : workProcessors)
+        {
+            processor.setAdaptiveClaimBatchSize(maxClaimBatchSize, workProcessors.length);
+        }
+    }
+
     /**
      * Start the worker pool processing events in sequence.
      *
@@ -179,4 +210,12 @@ public final class WorkerPool<T>
     {
         return started.get();
     }
+
+    private void checkNotStarted()
+    {
+        if (started.get())
+        {
+            throw new IllegalStateException("WorkerPool has already been started.");
+        }
+    }
 }
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.columnar;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>Declares the fields of a columnar event, each of which is stored in its own primitive array by a
+ * {@link ColumnarRingBuffer}.</p>
+ *
+ * <p>Columns are normally declared once as constants alongside the accessors of a {@link ColumnarEvent}
+ * subclass.  A layout can no longer be changed once a ring buffer has been created from it.</p>
+ *
+ * <pre>
+ * public final class TradeEvent extends ColumnarEvent
+ * {
+ *     public static final ColumnLayout LAYOUT = new ColumnLayout();
+ *     private static final LongColumn PRICE = LAYOUT.longColumn("price");
+ *     private static final IntColumn QUANTITY = LAYOUT.intColumn("quantity");
+ *
+ *     public long getPrice()
+ *     {
+ *         return getLong(PRICE);
+ *     }
+ *     ...
+ * }
+ * </pre>
+ */
+public final class ColumnLayout
+{
+    private final List<String> longColumns = new ArrayList<>();
+    private final List<String> intColumns = new ArrayList<>();
+    private final List<String> doubleColumns = new ArrayList<>();
+    private boolean frozen;
+
+    /**
+     * Declare a column of <code>long</code> values.
+     *
+     * @param name of the column, used for diagnostics only.
+     * @return the handle used to access the column.
+     * @throws IllegalStateException if a ring buffer has already been created with this layout.
+     */
+    public synchronized LongColumn longColumn(final String name)
+    {
+        checkNotFrozen();
+        longColumns.add(name);
+        return new LongColumn(longColumns.size() - 1, name);
+    }
+
+    /**
+     * Declare a column of <code>int</code> values.
+     *
+     * @param name of the column, used for diagnostics only.
+     * @return the handle used to access the column.
+     * @throws IllegalStateException if a ring buffer has already been created with this layout.
+     */
+    public synchronized IntColumn intColumn(final String name)
+    {
+        checkNotFrozen();
+        intColumns.add(name);
+        return new IntColumn(intColumns.size() - 1, name);
+    }
+
+    /**
+     * Declare a column of <code>double</code> values.
+     *
+     * @param name of the column, used for diagnostics only.
+     * @return the handle used to access the column.
+     * @throws IllegalStateException if a ring buffer has already been created with this layout.
+     */
+    public synchronized DoubleColumn doubleColumn(final String name)
+    {
+        checkNotFrozen();
+        doubleColumns.add(name);
+        return new DoubleColumn(doubleColumns.size() - 1, name);
+    }
+
+    synchronized void freeze()
+    {
+        frozen = true;
+    }
+
+    synchronized int longColumnCount()
+    {
+        return longColumns.size();
+    }
+
+    synchronized int intColumnCount()
+    {
+        return intColumns.size();
+    }
+
+    synchronized int doubleColumnCount()
+    {
+        return doubleColumns.size();
+    }
+
+    private void checkNotFrozen()
+    {
+        if (frozen)
+        {
+            throw new IllegalStateException("Columns must be declared before creating a ring buffer with this layout");
+        }
+    }
+
+    @Override
+    public synchronized String toString()
+    {
+        return "ColumnLayout{" +
+            "longColumns=" + longColumns +
+            ", intColumns=" + intColumns +
+            ", doubleColumns=" + doubleColumns +
+            '}';
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.columnar;
+
+/**
+ * <p>Flyweight over a single row of a {@link ColumnarRingBuffer}.  It holds no event data itself, each
+ * accessor reads or writes the column array for the sequence the flyweight is currently positioned at.</p>
+ *
+ * <p>Subclass to declare typed accessors for the columns of a {@link ColumnLayout}.  Flyweights are created by
+ * {@link ColumnarRingBuffer#newEvent()} and must not be shared between threads.</p>
+ */
+public class ColumnarEvent
+{
+    private ColumnarRingBuffer<?> ringBuffer;
+    private long[][] longColumns;
+    private int[][] intColumns;
+    private double[][] doubleColumns;
+    private int index;
+    private long sequence = -1L;
+
+    final void bind(final ColumnarRingBuffer<?> ringBuffer)
+    {
+        if (this.ringBuffer != null)
+        {
+            throw new IllegalStateException("Event is already bound to a ring buffer");
+        }
+
+        this.ringBuffer = ringBuffer;
+        this.longColumns = ringBuffer.longColumns;
+        this.intColumns = ringBuffer.intColumns;
+        this.doubleColumns = ringBuffer.doubleColumns;
+    }
+
+    final void moveTo(final long sequence)
+    {
+        this.sequence = sequence;
+        this.index = ringBuffer.indexOf(sequence);
+    }
+
+    final ColumnarRingBuffer<?> getRingBuffer()
+    {
+        return ringBuffer;
+    }
+
+    /**
+     * @return the sequence of the row this flyweight is positioned at.
+     */
+    public final long getSequence()
+    {
+        return sequence;
+    }
+
+    /**
+     * @param column to read.
+     * @return the value of <code>column</code> in the current row.
+     */
+    public final long getLong(final LongColumn column)
+    {
+        return longColumns[column.index][index];
+    }
+
+    /**
+     * @param column to write.
+     * @param value  to store in the current row.
+     */
+    public final void setLong(final LongColumn column, final long value)
+    {
+        longColumns[column.index][index] = value;
+    }
+
+    /**
+     * @param column to read.
+     * @return the value of <code>column</code> in the current row.
+     */
+    public final int getInt(final IntColumn column)
+    {
+        return intColumns[column.index][index];
+    }
+
+    /**
+     * @param column to write.
+     * @param value  to store in the current row.
+     */
+    public final void setInt(final IntColumn column, final int value)
+    {
+        intColumns[column.index][index] = value;
+    }
+
+    /**
+     * @param column to read.
+     * @return the value of <code>column</code> in the current row.
+     */
+    public final double getDouble(final DoubleColumn column)
+    {
+        return doubleColumns[column.index][index];
+    }
+
+    /**
+     * @param column to write.
+     * @param value  to store in the current row.
+     */
+    public final void setDouble(final DoubleColumn column, final double value)
+    {
+        doubleColumns[column.index][index] = value;
+    }
+}
@@ -0,0 +1,445 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.columnar;
+
+import com.lmax.disruptor.BatchEventProcessor;
+import com.lmax.disruptor.Cursored;
+import com.lmax.disruptor.DataProvider;
+import com.lmax.disruptor.EventFactory;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.EventPoller;
+import com.lmax.disruptor.InsufficientCapacityException;
+import com.lmax.disruptor.MultiProducerSequencer;
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.SequenceBarrier;
+import com.lmax.disruptor.Sequenced;
+import com.lmax.disruptor.Sequencer;
+import com.lmax.disruptor.SingleProducerSequencer;
+import com.lmax.disruptor.WaitStrategy;
+import com.lmax.disruptor.dsl.ProducerType;
+
+/**
+ * <p>Ring buffer that stores each field of its events in a separate primitive array (struct of arrays),
+ * as declared by a {@link ColumnLayout}, instead of preallocating an event object per slot.  Handlers that
+ * only read a few fields touch contiguous memory for those fields and nothing else.</p>
+ *
+ * <p>Events are read and written through {@link ColumnarEvent} flyweights, one per thread.  Consumers see
+ * the ring buffer as a {@link DataProvider} of flyweights so the standard {@link BatchEventProcessor}
+ * and {@link EventHandler}s work unchanged, see {@link #newBatchEventProcessor(SequenceBarrier, EventHandler)}.</p>
+ *
+ * <pre>
+ * TradeEvent event = ringBuffer.newEvent();
+ * long sequence = ringBuffer.next();
+ * try {
+ *     ringBuffer.get(event, sequence).setPrice(price);
+ * } finally {
+ *     ringBuffer.publish(sequence);
+ * }
+ * </pre>
+ *
+ * @param <E> type of flyweight used to access rows.
+ */
+public final class ColumnarRingBuffer<E extends ColumnarEvent> implements Cursored, Sequenced
+{
+    /**
+     * Number of elements left empty either side of each column, to prevent false sharing between columns.
+     */
+    private static final int PAD = 32;
+
+    final long[][] longColumns;
+    final int[][] intColumns;
+    final double[][] doubleColumns;
+    private final Sequencer sequencer;
+    private final EventFactory<E> eventFactory;
+    private final ColumnLayout layout;
+    private final int bufferSize;
+    private final int indexMask;
+
+    /**
+     * Construct a ColumnarRingBuffer.
+     *
+     * @param eventFactory to create flyweights for accessing rows.
+     * @param layout       of the columns to store, no further columns may be added to it.
+     * @param sequencer    sequencer to handle the ordering of events moving through the ring buffer.
+     * @throws IllegalArgumentException if bufferSize is less than 1 or not a power of 2
+     */
+    public ColumnarRingBuffer(final EventFactory<E> eventFactory, final ColumnLayout layout, final Sequencer sequencer)
+    {
+        this.sequencer = sequencer;
+        this.eventFactory = eventFactory;
+        this.layout = layout;
+        this.bufferSize = sequencer.getBufferSize();
+
+        if (bufferSize < 1)
+        {
+            throw new IllegalArgumentException("bufferSize must not be less than 1");
+        }
+        if (Integer.bitCount(bufferSize) != 1)
+        {
+            throw new IllegalArgumentException("bufferSize must be a power of 2");
+        }
+
+        this.indexMask = bufferSize - 1;
+
+        layout.freeze();
+        this.longColumns = new long[layout.longColumnCount()][bufferSize + 2 * PAD];
+        this.intColumns = new int[layout.intColumnCount()][bufferSize + 2 * PAD];
+        this.doubleColumns = new double[layout.doubleColumnCount()][bufferSize + 2 * PAD];
+    }
+
+    /**
+     * Create a new ColumnarRingBuffer with the specified producer type (SINGLE or MULTI)
+     *
+     * @param <E>          type of flyweight used to access rows.
+     * @param producerType producer type to use {@link ProducerType}.
+     * @param eventFactory to create flyweights for accessing rows.
+     * @param layout       of the columns to store.
+     * @param bufferSize   number of rows in the ring buffer.
+     * @param waitStrategy used to determine how to wait for new elements to become available.
+     * @return a constructed ring buffer.
+     * @throws IllegalArgumentException if bufferSize is less than 1 or not a power of 2
+     */
+    public static <E extends ColumnarEvent> ColumnarRingBuffer<E> create(
+        final ProducerType producerType,
+        final EventFactory<E> eventFactory,
+        final ColumnLayout layout,
+        final int bufferSize,
+        final WaitStrategy waitStrategy)
+    {
+        switch (producerType)
+        {
+            case SINGLE:
+                return createSingleProducer(eventFactory, layout, bufferSize, waitStrategy);
+            case MULTI:
+                return createMultiProducer(eventFactory, layout, bufferSize, waitStrategy);
+            default:
+                throw new IllegalStateException(producerType.toString());
+        }
+    }
+
+    /**
+     * Create a new single producer ColumnarRingBuffer with the specified wait strategy.
+     *
+     * @param <E>          type of flyweight used to access rows.
+     * @param eventFactory to create flyweights for accessing rows.
+     * @param layout       of the columns to store.
+     * @param bufferSize   number of rows in the ring buffer.
+     * @param waitStrategy used to determine how to wait for new elements to become available.
+     * @return a constructed ring buffer.
+     * @throws IllegalArgumentException if bufferSize is less than 1 or not a power of 2
+     * @see SingleProducerSequencer
+     */
+    public static <E extends ColumnarEvent> ColumnarRingBuffer<E> createSingleProducer(
+        final EventFactory<E> eventFactory,
+        final ColumnLayout layout,
+        final int bufferSize,
+        final WaitStrategy waitStrategy)
+    {
+        return new ColumnarRingBuffer<>(eventFactory, layout, new SingleProducerSequencer(bufferSize, waitStrategy));
+    }
+
+    /**
+     * Create a new multiple producer ColumnarRingBuffer with the specified wait strategy.
+     *
+     * @param <E>          type of flyweight used to access rows.
+     * @param eventFactory to create flyweights for accessing rows.
+     * @param layout       of the columns to store.
+     * @param bufferSize   number of rows in the ring buffer.
+     * @param waitStrategy used to determine how to wait for new elements to become available.
+     * @return a constructed ring buffer.
+     * @throws IllegalArgumentException if bufferSize is less than 1 or not a power of 2
+     * @see MultiProducerSequencer
+     */
+    public static <E extends ColumnarEvent> ColumnarRingBuffer<E> createMultiProducer(
+        final EventFactory<E> eventFactory,
+        final ColumnLayout layout,
+        final int bufferSize,
+        final WaitStrategy waitStrategy)
+    {
+        return new ColumnarRingBuffer<>(eventFactory, layout, new MultiProducerSequencer(bufferSize, waitStrategy));
+    }
+
+    /**
+     * Create a new flyweight for reading or writing rows of this ring buffer.  Each thread
+     * accessing the ring buffer needs its own flyweight.
+     *
+     * @return a new flyweight not yet pointing at any sequence.
+     */
+    public E newEvent()
+    {
+        final E event = eventFactory.newInstance();
+        event.bind(this);
+        return event;
+    }
+
+    /**
+     * Point the supplied flyweight at the row for a given sequence.
+     *
+     * @param event    flyweight created by {@link #newEvent()} on this ring buffer.
+     * @param sequence of the row.
+     * @return the flyweight, positioned at <code>sequence</code>.
+     */
+    public E get(final E event, final long sequence)
+    {
+        if (event.getRingBuffer() != this)
+        {
+            throw new IllegalArgumentException("Flyweight was not created by this ring buffer");
+        }
+
+        event.moveTo(sequence);
+        return event;
+    }
+
+    /**
+     * Create a {@link DataProvider} with its own flyweight, for use by a single consumer thread.
+     *
+     * @return a data provider that positions its flyweight at the requested sequence.
+     */
+    public DataProvider<E> newDataProvider()
+    {
+        return new FlyweightProvider<>(newEvent());
+    }
+
+    /**
+     * Create a {@link BatchEventProcessor} with its own flyweight over this ring buffer.  The processor's
+     * sequence is not added as a gating sequence.
+     *
+     * @param barrier      on which the processor waits.
+     * @param eventHandler to which events are dispatched.
+     * @return a new event processor.
+     */
+    public BatchEventProcessor<E> newBatchEventProcessor(
+        final SequenceBarrier barrier,
+        final EventHandler<? super E> eventHandler)
+    {
+        return new BatchEventProcessor<>(newDataProvider(), barrier, eventHandler);
+    }
+
+    /**
+     * Creates an event poller, with its own flyweight, for this ring buffer gated on the supplied sequences.
+     *
+     * @param gatingSequences to be gated on.
+     * @return A poller that will gate on this ring buffer and the supplied sequences.
+     */
+    public EventPoller<E> newPoller(final Sequence... gatingSequences)
+    {
+        return sequencer.newPoller(newDataProvider(), gatingSequences);
+    }
+
+    /**
+     * Read a single value without a flyweight.
+     *
+     * @param column   to read.
+     * @param sequence of the row.
+     * @return the value of <code>column</code> at <code>sequence</code>.
+     */
+    public long getLong(final LongColumn column, final long sequence)
+    {
+        return longColumns[column.index][indexOf(sequence)];
+    }
+
+    /**
+     * Write a single value, for a claimed sequence, without a flyweight.
+     *
+     * @param column   to write.
+     * @param sequence of the row.
+     * @param value    to store.
+     */
+    public void setLong(final LongColumn column, final long sequence, final long value)
+    {
+        longColumns[column.index][indexOf(sequence)] = value;
+    }
+
+    /**
+     * Read a single value without a flyweight.
+     *
+     * @param column   to read.
+     * @param sequence of the row.
+     * @return the value of <code>column</code> at <code>sequence</code>.
+     */
+    public int getInt(final IntColumn column, final long sequence)
+    {
+        return intColumns[column.index][indexOf(sequence)];
+    }
+
+    /**
+     * Write a single value, for a claimed sequence, without a flyweight.
+     *
+     * @param column   to write.
+     * @param sequence of the row.
+     * @param value    to store.
+     */
+    public void setInt(final IntColumn column, final long sequence, final int value)
+    {
+        intColumns[column.index][indexOf(sequence)] = value;
+    }
+
+    /**
+     * Read a single value without a flyweight.
+     *
+     * @param column   to read.
+     * @param sequence of the row.
+     * @return the value of <code>column</code> at <code>sequence</code>.
+     */
+    public double getDouble(final DoubleColumn column, final long sequence)
+    {
+        return doubleColumns[column.index][indexOf(sequence)];
+    }
+
+    /**
+     * Write a single value, for a claimed sequence, without a flyweight.
+     *
+     * @param column   to write.
+     * @param sequence of the row.
+     * @param value    to store.
+     */
+    public void setDouble(final DoubleColumn column, final long sequence, final double value)
+    {
+        doubleColumns[column.index][indexOf(sequence)] = value;
+    }
+
+    /**
+     * @return the layout of the columns in this ring buffer.
+     */
+    public ColumnLayout getLayout()
+    {
+        return layout;
+    }
+
+    /**
+     * @see com.lmax.disruptor.RingBuffer#addGatingSequences(Sequence...)
+     */
+    public void addGatingSequences(final Sequence... gatingSequences)
+    {
+        sequencer.addGatingSequences(gatingSequences);
+    }
+
+    /**
+     * @see com.lmax.disruptor.RingBuffer#removeGatingSequence(Sequence)
+     */
+    public boolean removeGatingSequence(final Sequence sequence)
+    {
+        return sequencer.removeGatingSequence(sequence);
+    }
+
+    /**
+     * @see com.lmax.disruptor.RingBuffer#getMinimumGatingSequence()
+     */
+    public long getMinimumGatingSequence()
+    {
+        return sequencer.getMinimumSequence();
+    }
+
+    /**
+     * @see com.lmax.disruptor.RingBuffer#newBarrier(Sequence...)
+     */
+    public SequenceBarrier newBarrier(final Sequence... sequencesToTrack)
+    {
+        return sequencer.newBarrier(sequencesToTrack);
+    }
+
+    @Override
+    public long getCursor()
+    {
+        return sequencer.getCursor();
+    }
+
+    @Override
+    public int getBufferSize()
+    {
+        return bufferSize;
+    }
+
+    @Override
+    public boolean hasAvailableCapacity(final int requiredCapacity)
+    {
+        return sequencer.hasAvailableCapacity(requiredCapacity);
+    }
+
+    @Override
+    public long remainingCapacity()
+    {
+        return sequencer.remainingCapacity();
+    }
+
+    @Override
+    public long next()
+    {
+        return sequencer.next();
+    }
+
+    @Override
+    public long next(final int n)
+    {
+        return sequencer.next(n);
+    }
+
+    @Override
+    public long tryNext() throws InsufficientCapacityException
+    {
+        return sequencer.tryNext();
+    }
+
+    @Override
+    public long tryNext(final int n) throws InsufficientCapacityException
+    {
+        return sequencer.tryNext(n);
+    }
+
+    @Override
+    public void publish(final long sequence)
+    {
+        sequencer.publish(sequence);
+    }
+
+    @Override
+    public void publish(final long lo, final long hi)
+    {
+        sequencer.publish(lo, hi);
+    }
+
+    int indexOf(final long sequence)
+    {
+        return PAD + ((int) sequence & indexMask);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ColumnarRingBuffer{" +
+            "bufferSize=" + bufferSize +
+            ", layout=" + layout +
+            ", sequencer=" + sequencer +
+            '}';
+    }
+
+    private static final class FlyweightProvider<E extends ColumnarEvent> implements DataProvider<E>
+    {
+        private final E event;
+
+        FlyweightProvider(final E event)
+        {
+            this.event = event;
+        }
+
+        @Override
+        public E get(final long sequence)
+        {
+            event.moveTo(sequence);
+            return event;
+        }
+    }
+}
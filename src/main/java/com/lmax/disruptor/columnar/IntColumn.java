@@ -0,0 +1,48 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.columnar;
+
+/**
+ * Handle for a column of <code>int</code> values, declared with {@link ColumnLayout#intColumn(String)}.
+ */
+public final class IntColumn
+{
+    final int index;
+    private final String name;
+
+    IntColumn(final int index, final String name)
+    {
+        this.index = index;
+        this.name = name;
+    }
+
+    /**
+     * @return the name the column was declared with.
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "IntColumn{" +
+            "name=" + name +
+            ", index=" + index +
+            '}';
+    }
+}
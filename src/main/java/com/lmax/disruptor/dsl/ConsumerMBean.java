@@ -0,0 +1,130 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.dsl;
+
+import com.lmax.disruptor.BatchEventProcessor;
+import com.lmax.disruptor.Cursored;
+import com.lmax.disruptor.EventProcessor;
+import com.lmax.disruptor.ProcessorMetrics;
+import com.lmax.disruptor.util.Util;
+
+/**
+ * {@link ConsumerMXBean} reading the state of a consumer on each call.
+ */
+final class ConsumerMBean implements ConsumerMXBean
+{
+    private final ConsumerInfo consumerInfo;
+    private final Cursored cursor;
+
+    ConsumerMBean(final ConsumerInfo consumerInfo, final Cursored cursor)
+    {
+        this.consumerInfo = consumerInfo;
+        this.cursor = cursor;
+    }
+
+    @Override
+    public String getName()
+    {
+        if (consumerInfo instanceof EventProcessorInfo)
+        {
+            final EventProcessorInfo<?> eventProcessorInfo = (EventProcessorInfo<?>) consumerInfo;
+            final Object handler = eventProcessorInfo.getHandler();
+            return String.valueOf(null != handler ? handler : eventProcessorInfo.getEventProcessor());
+        }
+
+        return consumerInfo.getClass().getSimpleName();
+    }
+
+    @Override
+    public long getSequence()
+    {
+        return Util.getMinimumSequence(consumerInfo.getSequences());
+    }
+
+    @Override
+    public long getLag()
+    {
+        return Math.max(0L, cursor.getCursor() - getSequence());
+    }
+
+    @Override
+    public boolean isEndOfChain()
+    {
+        return consumerInfo.isEndOfChain();
+    }
+
+    @Override
+    public boolean isRunning()
+    {
+        return consumerInfo.isRunning();
+    }
+
+    @Override
+    public long getEventCount()
+    {
+        final ProcessorMetrics metrics = getMetrics();
+        return null != metrics ? metrics.getEventCount() : -1L;
+    }
+
+    @Override
+    public long getBatchCount()
+    {
+        final ProcessorMetrics metrics = getMetrics();
+        return null != metrics ? metrics.getBatchCount() : -1L;
+    }
+
+    @Override
+    public double getAverageBatchSize()
+    {
+        final ProcessorMetrics metrics = getMetrics();
+        return null != metrics ? metrics.getAverageBatchSize() : -1.0;
+    }
+
+    @Override
+    public long getHandleNanos()
+    {
+        final ProcessorMetrics metrics = getMetrics();
+        return null != metrics ? metrics.getHandleNanos() : -1L;
+    }
+
+    @Override
+    public long getWaitNanos()
+    {
+        final ProcessorMetrics metrics = getMetrics();
+        return null != metrics ? metrics.getWaitNanos() : -1L;
+    }
+
+    @Override
+    public long getWaitCount()
+    {
+        final ProcessorMetrics metrics = getMetrics();
+        return null != metrics ? metrics.getWaitCount() : -1L;
+    }
+
+    private ProcessorMetrics getMetrics()
+    {
+        if (consumerInfo instanceof EventProcessorInfo)
+        {
+            final EventProcessor eventProcessor = ((EventProcessorInfo<?>) consumerInfo).getEventProcessor();
+            if (eventProcessor instanceof BatchEventProcessor)
+            {
+                return ((BatchEventProcessor<?>) eventProcessor).getMetrics();
+            }
+        }
+
+        return null;
+    }
+}
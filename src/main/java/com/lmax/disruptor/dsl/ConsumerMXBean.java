@@ -0,0 +1,63 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.dsl;
+
+/**
+ * Management interface of one consumer of a {@link Disruptor} registered with
+ * {@link Disruptor#registerMBeans(String)}.  A worker pool is registered as a single consumer.
+ * <p>
+ * The event, batch and timing attributes come from the consumer's {@link com.lmax.disruptor.ProcessorMetrics} and
+ * are <code>-1</code> unless metrics have been enabled with {@link Disruptor#enableMetrics()}.
+ */
+public interface ConsumerMXBean
+{
+    /**
+     * @return the handler or processor of the consumer.
+     */
+    String getName();
+
+    /**
+     * @return the last sequence processed, the lowest of the workers for a worker pool.
+     */
+    long getSequence();
+
+    /**
+     * @return the number of sequences the consumer is behind the cursor.
+     */
+    long getLag();
+
+    /**
+     * @return true if no other consumer is waiting on this one.
+     */
+    boolean isEndOfChain();
+
+    /**
+     * @return true if the consumer is running.
+     */
+    boolean isRunning();
+
+    long getEventCount();
+
+    long getBatchCount();
+
+    double getAverageBatchSize();
+
+    long getHandleNanos();
+
+    long getWaitNanos();
+
+    long getWaitCount();
+}
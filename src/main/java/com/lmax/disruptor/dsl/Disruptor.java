@@ -24,20 +24,34 @@ import com.lmax.disruptor.EventTranslatorOneArg;
 import com.lmax.disruptor.EventTranslatorThreeArg;
 import com.lmax.disruptor.EventTranslatorTwoArg;
 import com.lmax.disruptor.ExceptionHandler;
+import com.lmax.disruptor.LatencyRecorder;
+import com.lmax.disruptor.LatencyTracer;
+import com.lmax.disruptor.PartitionKeyExtractor;
+import com.lmax.disruptor.PartitionedEventHandler;
+import com.lmax.disruptor.ProcessorMetrics;
+import com.lmax.disruptor.ProducerWaitStrategy;
 import com.lmax.disruptor.RingBuffer;
 import com.lmax.disruptor.Sequence;
 import com.lmax.disruptor.SequenceBarrier;
 import com.lmax.disruptor.TimeoutException;
+import com.lmax.disruptor.TracingEventHandler;
 import com.lmax.disruptor.WaitStrategy;
 import com.lmax.disruptor.WorkHandler;
 import com.lmax.disruptor.WorkerPool;
 import com.lmax.disruptor.util.Util;
 
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
 /**
  * <p>A DSL-style API for setting up the disruptor pattern around a ring buffer
  * (aka the Builder pattern).</p>
@@ -58,11 +72,18 @@ import java.util.concurrent.atomic.AtomicBoolean;
  */
 public class Disruptor<T>
 {
+    private static final String MBEAN_DOMAIN = "com.lmax.disruptor";
+
     private final RingBuffer<T> ringBuffer;
     private final Executor executor;
     private final ConsumerRepository<T> consumerRepository = new ConsumerRepository<>();
     private final AtomicBoolean started = new AtomicBoolean(false);
     private ExceptionHandler<? super T> exceptionHandler = new ExceptionHandlerWrapper<>();
+    // 已注册的MBean，未注册时mBeanServer为null
+    private final List<ObjectName> mBeanNames = new ArrayList<>();
+    private MBeanServer mBeanServer;
+    // 启用延迟追踪后，新建的事件处理器都会被包装
+    private LatencyTracer latencyTracer;
 
     /**
      * Create a new Disruptor. Will default to {@link com.lmax.disruptor.BlockingWaitStrategy} and
@@ -138,6 +159,50 @@ public class Disruptor<T>
             new BasicExecutor(threadFactory));
     }
 
+    /**
+     * Create a new Disruptor.
+     *
+     * @param eventFactory         the factory to create events in the ring buffer.
+     * @param ringBufferSize       the size of the ring buffer, must be power of 2.
+     * @param threadFactory        a {@link ThreadFactory} to create threads for processors.
+     * @param producerType         the claim strategy to use for the ring buffer.
+     * @param waitStrategy         the wait strategy to use for the ring buffer.
+     * @param producerWaitStrategy the strategy publishers use to wait when the ring buffer is full.
+     */
+    public Disruptor(
+            final EventFactory<T> eventFactory,
+            final int ringBufferSize,
+            final ThreadFactory threadFactory,
+            final ProducerType producerType,
+            final WaitStrategy waitStrategy,
+            final ProducerWaitStrategy producerWaitStrategy)
+    {
+        this(
+            RingBuffer.create(producerType, eventFactory, ringBufferSize, waitStrategy, producerWaitStrategy),
+            new BasicExecutor(threadFactory));
+    }
+
+    /**
+     * Create a new Disruptor whose ring buffer passes references to events created by publishers instead of
+     * preallocating them.  Events are published with {@link #put(Object)}.
+     *
+     * @param ringBufferSize the size of the ring buffer, must be power of 2.
+     * @param threadFactory  a {@link ThreadFactory} to create threads for processors.
+     * @param producerType   the claim strategy to use for the ring buffer.
+     * @param waitStrategy   the wait strategy to use for the ring buffer.
+     * @see RingBuffer#createReferencePassing(ProducerType, int, WaitStrategy)
+     */
+    public Disruptor(
+            final int ringBufferSize,
+            final ThreadFactory threadFactory,
+            final ProducerType producerType,
+            final WaitStrategy waitStrategy)
+    {
+        this(
+            RingBuffer.<T>createReferencePassing(producerType, ringBufferSize, waitStrategy),
+            new BasicExecutor(threadFactory));
+    }
+
     /**
      * Private constructor helper
      */
@@ -167,6 +232,30 @@ public class Disruptor<T>
         return createEventProcessors(new Sequence[0], handlers);
     }
 
+    /**
+     * <p>Set up event handlers that split the events of the ring buffer between them by key. Each event is
+     * given to exactly one handler, chosen by hashing the key returned from <code>keyExtractor</code>, so
+     * events with the same key are always processed in sequence order by the same handler while different
+     * keys are processed in parallel.</p>
+     *
+     * <p>Every handler still observes every sequence, so the group only advances past an event once the
+     * owning handler has processed it and the other handlers have skipped it. <code>endOfBatch</code> is
+     * reported on the last event of a batch that belongs to the handler's own partition.</p>
+     *
+     * <p>This call is additive, but generally should only be called once when setting up the Disruptor instance</p>
+     *
+     * @param keyExtractor extracts the partition key from each event.
+     * @param handlers     the event handlers, one per partition.
+     * @return a {@link EventHandlerGroup} that can be used to chain dependencies.
+     */
+    @SuppressWarnings("varargs")
+    @SafeVarargs
+    public final EventHandlerGroup<T> handleEventsWithPartitioned(
+        final PartitionKeyExtractor<? super T> keyExtractor, final EventHandler<? super T>... handlers)
+    {
+        return createPartitionedEventProcessors(new Sequence[0], keyExtractor, handlers);
+    }
+
     /**
      * <p>Set up custom event processors to handle events from the ring buffer. The Disruptor will
      * automatically start these processors when {@link #start()} is called.</p>
@@ -280,6 +369,27 @@ public class Disruptor<T>
         return new ExceptionHandlerSetting<>(eventHandler, consumerRepository);
     }
 
+    /**
+     * Limit the number of events the processor for a specific handler will process before reporting its progress,
+     * so that dependent handlers and producers can make progress while it catches up with a backlog.
+     * <pre>disruptor.setMaxBatchSize(eventHandler, 64);</pre>
+     *
+     * @param eventHandler the event handler, previously set up with {@link #handleEventsWith(com.lmax.disruptor.EventHandler[])}.
+     * @param maxBatchSize the maximum number of events processed before the processor's sequence is updated.
+     * @see BatchEventProcessor#setMaxBatchSize(int)
+     */
+    public void setMaxBatchSize(final EventHandler<T> eventHandler, final int maxBatchSize)
+    {
+        checkNotStarted();
+        final EventProcessor eventProcessor = consumerRepository.getEventProcessorFor(eventHandler);
+        if (!(eventProcessor instanceof BatchEventProcessor))
+        {
+            throw new IllegalArgumentException(
+                "EventProcessor: " + eventProcessor + " is not a BatchEventProcessor and does not support batch limits");
+        }
+        ((BatchEventProcessor<?>) eventProcessor).setMaxBatchSize(maxBatchSize);
+    }
+
     /**
      * <p>Create a group of event handlers to be used as a dependency.
      * For example if the handler <code>A</code> must process events before handler <code>B</code>:</p>
@@ -316,6 +426,18 @@ public class Disruptor<T>
         return new EventHandlerGroup<>(this, consumerRepository, Util.getSequencesFor(processors));
     }
 
+    /**
+     * Publish an event created by the caller to a reference passing ring buffer.
+     *
+     * @param event to publish, which must not be changed once published.
+     * @throws IllegalStateException if the ring buffer preallocates its events.
+     * @see RingBuffer#put(Object)
+     */
+    public void put(final T event)
+    {
+        ringBuffer.put(event);
+    }
+
     /**
      * Publish an event to the ring buffer.
      *
@@ -461,6 +583,35 @@ public class Disruptor<T>
         halt();
     }
 
+    /**
+     * <p>Waits until all events currently in the disruptor have been processed by all event processors and then
+     * changes the capacity of the ring buffer.  The event processors keep running, so the disruptor does not have
+     * to be rebuilt to size it for a different load.</p>
+     *
+     * <p>Publishers must be paused before calling this method and must not be resumed until it has returned.</p>
+     *
+     * @param newBufferSize the new number of entries, must be a positive power of 2.
+     * @param timeout       the amount of time to wait for all events to be processed. <code>-1</code> will give an infinite timeout
+     * @param timeUnit      the unit the timeOut is specified in
+     * @throws TimeoutException if a timeout occurs before the events have been processed.
+     * @see RingBuffer#resize(int)
+     */
+    public void resize(final int newBufferSize, final long timeout, final TimeUnit timeUnit) throws TimeoutException
+    {
+        final long timeOutAt = System.currentTimeMillis() + timeUnit.toMillis(timeout);
+
+        // 与RingBuffer.resize的检查一致，等待所有门控序号追上游标，包括尚未运行的处理器
+        while (ringBuffer.getMinimumGatingSequence() < ringBuffer.getCursor())
+        {
+            if (timeout >= 0 && System.currentTimeMillis() > timeOutAt)
+            {
+                throw TimeoutException.INSTANCE;
+            }
+            // Busy spin
+        }
+        ringBuffer.resize(newBufferSize);
+    }
+
     /**
      * The {@link RingBuffer} used by this Disruptor.  This is useful for creating custom
      * event processors if the behaviour of {@link BatchEventProcessor} is not suitable.
@@ -528,6 +679,143 @@ public class Disruptor<T>
         return consumerRepository.getSequenceFor(b1).get();
     }
 
+    /**
+     * Enable {@link ProcessorMetrics} on every {@link BatchEventProcessor} set up so far, so that they are reported
+     * by the MBeans registered with {@link #registerMBeans(String)}.  Must be called after the event handlers
+     * have been set up and before {@link #start()}.
+     *
+     * @see BatchEventProcessor#enableMetrics()
+     */
+    public void enableMetrics()
+    {
+        checkNotStarted();
+        for (final ConsumerInfo consumerInfo : consumerRepository)
+        {
+            if (consumerInfo instanceof EventProcessorInfo)
+            {
+                final EventProcessor eventProcessor = ((EventProcessorInfo<?>) consumerInfo).getEventProcessor();
+                if (eventProcessor instanceof BatchEventProcessor)
+                {
+                    ((BatchEventProcessor<?>) eventProcessor).enableMetrics();
+                }
+            }
+        }
+    }
+
+    /**
+     * <p>Trace the latency of one in every <code>sampleInterval</code> events, from being published to each of the
+     * event handlers set up after this call having handled it.  The latencies are reported to the recorder with the
+     * event handler as the stage, so that a histogram kept per stage shows which stage adds to the tail latency.</p>
+     *
+     * <p>Must be called before the event handlers to trace are set up.  Worker pools are not traced.</p>
+     *
+     * @param sampleInterval the number of sequences per sample, must be a power of 2.
+     * @param recorder       to report the sampled latencies to.
+     * @return the tracer set on the ring buffer.
+     * @throws IllegalArgumentException if sampleInterval is not a power of 2
+     * @see LatencyTracer
+     */
+    public LatencyTracer enableLatencyTracing(final int sampleInterval, final LatencyRecorder recorder)
+    {
+        checkNotStarted();
+        latencyTracer = new LatencyTracer(ringBuffer.getBufferSize(), sampleInterval, recorder);
+        ringBuffer.setLatencyTracer(latencyTracer);
+
+        return latencyTracer;
+    }
+
+    /**
+     * Register a {@link DisruptorMXBean} for this Disruptor, and a {@link ConsumerMXBean} for each of its
+     * consumers, with the platform MBean server.
+     *
+     * @param name to register the MBeans under, unique to this Disruptor.
+     * @throws JMException if the MBeans cannot be registered.
+     * @see #registerMBeans(MBeanServer, String)
+     */
+    public void registerMBeans(final String name) throws JMException
+    {
+        registerMBeans(ManagementFactory.getPlatformMBeanServer(), name);
+    }
+
+    /**
+     * <p>Register a {@link DisruptorMXBean} for this Disruptor, and a {@link ConsumerMXBean} for each of its
+     * consumers, so that operators can find the consumer that is holding up a live system.  The MBeans are named
+     * <code>com.lmax.disruptor:type=Disruptor,name=&lt;name&gt;</code> and
+     * <code>com.lmax.disruptor:type=Consumer,disruptor=&lt;name&gt;,index=&lt;n&gt;</code>.</p>
+     *
+     * <p>Must be called after the event handlers have been set up.  Call {@link #unregisterMBeans()} once the
+     * Disruptor has been shut down.</p>
+     *
+     * @param mBeanServer to register the MBeans with.
+     * @param name        to register the MBeans under, unique to this Disruptor.
+     * @throws JMException if the MBeans cannot be registered, in which case none are left registered.
+     * @throws IllegalStateException if the MBeans are already registered.
+     */
+    public void registerMBeans(final MBeanServer mBeanServer, final String name) throws JMException
+    {
+        if (null != this.mBeanServer)
+        {
+            throw new IllegalStateException("MBeans are already registered");
+        }
+        this.mBeanServer = mBeanServer;
+
+        final String quotedName = ObjectName.quote(name);
+        try
+        {
+            registerMBean(
+                new ObjectName(MBEAN_DOMAIN + ":type=Disruptor,name=" + quotedName),
+                new DisruptorMBean(ringBuffer, consumerRepository));
+
+            int index = 0;
+            for (final ConsumerInfo consumerInfo : consumerRepository)
+            {
+                registerMBean(
+                    new ObjectName(MBEAN_DOMAIN + ":type=Consumer,disruptor=" + quotedName + ",index=" + index++),
+                    new ConsumerMBean(consumerInfo, ringBuffer));
+            }
+        }
+        catch (final JMException e)
+        {
+            unregisterMBeans();
+            throw e;
+        }
+    }
+
+    /**
+     * Unregister the MBeans registered with {@link #registerMBeans(MBeanServer, String)}, if any.
+     *
+     * @throws JMException if an MBean cannot be unregistered.
+     */
+    public void unregisterMBeans() throws JMException
+    {
+        if (null == mBeanServer)
+        {
+            return;
+        }
+
+        try
+        {
+            for (final ObjectName mBeanName : mBeanNames)
+            {
+                if (mBeanServer.isRegistered(mBeanName))
+                {
+                    mBeanServer.unregisterMBean(mBeanName);
+                }
+            }
+        }
+        finally
+        {
+            mBeanNames.clear();
+            mBeanServer = null;
+        }
+    }
+
+    private void registerMBean(final ObjectName mBeanName, final Object mBean) throws JMException
+    {
+        mBeanServer.registerMBean(mBean, mBeanName);
+        mBeanNames.add(mBeanName);
+    }
+
     /**
      * Confirms if all messages have been consumed by all event processors
      */
@@ -556,7 +844,7 @@ public class Disruptor<T>
 
             // 创建消费者
             final BatchEventProcessor<T> batchEventProcessor =
-                new BatchEventProcessor<>(ringBuffer, barrier, eventHandler);
+                new BatchEventProcessor<>(ringBuffer, barrier, traced(eventHandler));
 
             // 设置消费者异常处理具柄
             if (exceptionHandler != null)
@@ -577,6 +865,50 @@ public class Disruptor<T>
         return new EventHandlerGroup<>(this, consumerRepository, processorSequences);
     }
 
+    EventHandlerGroup<T> createPartitionedEventProcessors(
+        final Sequence[] barrierSequences,
+        final PartitionKeyExtractor<? super T> keyExtractor,
+        final EventHandler<? super T>[] eventHandlers)
+    {
+        checkNotStarted();
+
+        final Sequence[] processorSequences = new Sequence[eventHandlers.length];
+        final SequenceBarrier barrier = ringBuffer.newBarrier(barrierSequences);
+
+        for (int i = 0, eventHandlersLength = eventHandlers.length; i < eventHandlersLength; i++)
+        {
+            final EventHandler<? super T> eventHandler = eventHandlers[i];
+
+            // 包装用户处理器，只把属于第i个分区的事件交给它；跟踪放在分区过滤之内，只记录本分区的事件
+            final PartitionedEventHandler<T> partitionedHandler = new PartitionedEventHandler<>(
+                ringBuffer, keyExtractor, traced(eventHandler), i, eventHandlersLength);
+            final BatchEventProcessor<T> batchEventProcessor =
+                new BatchEventProcessor<>(ringBuffer, barrier, partitionedHandler);
+
+            if (exceptionHandler != null)
+            {
+                batchEventProcessor.setExceptionHandler(exceptionHandler);
+            }
+            // 以用户处理器注册，这样after()/handleExceptionsFor()等仍可按原处理器查找
+            consumerRepository.add(batchEventProcessor, eventHandler, barrier);
+            processorSequences[i] = batchEventProcessor.getSequence();
+        }
+
+        updateGatingSequencesForNextInChain(barrierSequences, processorSequences);
+
+        return new EventHandlerGroup<>(this, consumerRepository, processorSequences);
+    }
+
+    private EventHandler<? super T> traced(final EventHandler<? super T> eventHandler)
+    {
+        if (null == latencyTracer)
+        {
+            return eventHandler;
+        }
+
+        return new TracingEventHandler<T>(latencyTracer, eventHandler);
+    }
+
     private void updateGatingSequencesForNextInChain(final Sequence[] barrierSequences, final Sequence[] processorSequences)
     {
         if (processorSequences.length > 0)
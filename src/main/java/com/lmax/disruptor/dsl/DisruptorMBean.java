@@ -0,0 +1,81 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.dsl;
+
+import com.lmax.disruptor.RingBuffer;
+
+/**
+ * {@link DisruptorMXBean} reading the state of a ring buffer and its consumers on each call.
+ */
+final class DisruptorMBean implements DisruptorMXBean
+{
+    private final RingBuffer<?> ringBuffer;
+    private final ConsumerRepository<?> consumerRepository;
+
+    DisruptorMBean(final RingBuffer<?> ringBuffer, final ConsumerRepository<?> consumerRepository)
+    {
+        this.ringBuffer = ringBuffer;
+        this.consumerRepository = consumerRepository;
+    }
+
+    @Override
+    public long getBufferSize()
+    {
+        return ringBuffer.getBufferSize();
+    }
+
+    @Override
+    public long getCursor()
+    {
+        return ringBuffer.getCursor();
+    }
+
+    @Override
+    public long getRemainingCapacity()
+    {
+        return ringBuffer.remainingCapacity();
+    }
+
+    @Override
+    public long getProducerGatedCount()
+    {
+        return ringBuffer.getProducerGatedCount();
+    }
+
+    @Override
+    public long getProducerGatedNanos()
+    {
+        return ringBuffer.getProducerGatedNanos();
+    }
+
+    @Override
+    public boolean isBacklogged()
+    {
+        return consumerRepository.hasBacklog(ringBuffer.getCursor(), false);
+    }
+
+    @Override
+    public int getConsumerCount()
+    {
+        int count = 0;
+        for (final ConsumerInfo ignored : consumerRepository)
+        {
+            count++;
+        }
+
+        return count;
+    }
+}
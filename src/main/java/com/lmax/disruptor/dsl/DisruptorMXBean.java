@@ -0,0 +1,58 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.dsl;
+
+/**
+ * Management interface of a {@link Disruptor} registered with {@link Disruptor#registerMBeans(String)}.
+ * Each consumer is registered as a {@link ConsumerMXBean} alongside it.
+ */
+public interface DisruptorMXBean
+{
+    /**
+     * @return the size of the ring buffer.
+     */
+    long getBufferSize();
+
+    /**
+     * @return the value of the producer cursor.
+     */
+    long getCursor();
+
+    /**
+     * @return the number of slots the producers can claim before they are gated by the consumers.
+     */
+    long getRemainingCapacity();
+
+    /**
+     * @return the number of times a producer had to wait for the consumers to free capacity.
+     */
+    long getProducerGatedCount();
+
+    /**
+     * @return the nanoseconds producers have spent waiting for the consumers to free capacity.
+     */
+    long getProducerGatedNanos();
+
+    /**
+     * @return true if the consumers at the end of the chain have not yet processed everything published.
+     */
+    boolean isBacklogged();
+
+    /**
+     * @return the number of consumers.
+     */
+    int getConsumerCount();
+}
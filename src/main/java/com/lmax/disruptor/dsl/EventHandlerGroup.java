@@ -17,6 +17,7 @@ package com.lmax.disruptor.dsl;
 
 import com.lmax.disruptor.EventHandler;
 import com.lmax.disruptor.EventProcessor;
+import com.lmax.disruptor.PartitionKeyExtractor;
 import com.lmax.disruptor.Sequence;
 import com.lmax.disruptor.SequenceBarrier;
 import com.lmax.disruptor.WorkHandler;
@@ -153,6 +154,28 @@ public class EventHandlerGroup<T>
         return disruptor.createEventProcessors(sequences, handlers);
     }
 
+    /**
+     * <p>Set up key-partitioned event handlers to consume events from the ring buffer. Each event is processed
+     * by exactly one of the handlers, after every {@link EventProcessor} in this group has processed it.</p>
+     *
+     * <p>This method is generally used as part of a chain. For example if <code>A</code> must
+     * process events before they are split by key between <code>B</code> and <code>C</code>:</p>
+     *
+     * <pre><code>dw.handleEventsWith(A).thenPartitioned(keyExtractor, B, C);</code></pre>
+     *
+     * @param keyExtractor extracts the partition key from each event.
+     * @param handlers     the event handlers, one per partition.
+     * @return a {@link EventHandlerGroup} that can be used to chain dependencies.
+     * @see Disruptor#handleEventsWithPartitioned(PartitionKeyExtractor, EventHandler[])
+     */
+    @SuppressWarnings("varargs")
+    @SafeVarargs
+    public final EventHandlerGroup<T> thenPartitioned(
+        final PartitionKeyExtractor<? super T> keyExtractor, final EventHandler<? super T>... handlers)
+    {
+        return disruptor.createPartitionedEventProcessors(sequences, keyExtractor, handlers);
+    }
+
     /**
      * <p>Set up custom event processors to handle events from the ring buffer. The Disruptor will
      * automatically start these processors when {@link Disruptor#start()} is called.</p>
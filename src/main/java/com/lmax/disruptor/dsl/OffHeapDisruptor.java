@@ -0,0 +1,301 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.dsl;
+
+import com.lmax.disruptor.BatchEventProcessor;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.ExceptionHandler;
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.SequenceBarrier;
+import com.lmax.disruptor.TimeoutException;
+import com.lmax.disruptor.WaitStrategy;
+import com.lmax.disruptor.offheap.OffHeapEvent;
+import com.lmax.disruptor.offheap.OffHeapRingBuffer;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * <p>A DSL-style API for setting up the disruptor pattern around an {@link OffHeapRingBuffer}.</p>
+ *
+ * <p>Mirrors {@link Disruptor}, except that handlers receive an {@link OffHeapEvent} flyweight owned by
+ * their event processor, so they must not retain it beyond the call to
+ * {@link EventHandler#onEvent(Object, long, boolean)}.</p>
+ * <pre>
+ * <code>OffHeapDisruptor disruptor = new OffHeapDisruptor(1 &lt;&lt; 22, 256, DaemonThreadFactory.INSTANCE);
+ * disruptor.handleEventsWith(journaller).then(decoder);
+ *
+ * OffHeapRingBuffer ringBuffer = disruptor.start();</code>
+ * </pre>
+ */
+public class OffHeapDisruptor
+{
+    private final OffHeapRingBuffer ringBuffer;
+    private final Executor executor;
+    private final ConsumerRepository<OffHeapEvent> consumerRepository = new ConsumerRepository<>();
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    private final ExceptionHandlerWrapper<OffHeapEvent> exceptionHandler = new ExceptionHandlerWrapper<>();
+
+    /**
+     * Create a new OffHeapDisruptor. Will default to {@link com.lmax.disruptor.BlockingWaitStrategy} and
+     * {@link ProducerType}.MULTI
+     *
+     * @param ringBufferSize the number of slots in the ring buffer, must be power of 2.
+     * @param entrySize      the number of bytes in each slot, must be a positive multiple of 8.
+     * @param threadFactory  a {@link ThreadFactory} to create threads for processors.
+     */
+    public OffHeapDisruptor(final int ringBufferSize, final int entrySize, final ThreadFactory threadFactory)
+    {
+        this(OffHeapRingBuffer.createMultiProducer(ringBufferSize, entrySize), new BasicExecutor(threadFactory));
+    }
+
+    /**
+     * Create a new OffHeapDisruptor.
+     *
+     * @param ringBufferSize the number of slots in the ring buffer, must be power of 2.
+     * @param entrySize      the number of bytes in each slot, must be a positive multiple of 8.
+     * @param threadFactory  a {@link ThreadFactory} to create threads for processors.
+     * @param producerType   the claim strategy to use for the ring buffer.
+     * @param waitStrategy   the wait strategy to use for the ring buffer.
+     */
+    public OffHeapDisruptor(
+        final int ringBufferSize,
+        final int entrySize,
+        final ThreadFactory threadFactory,
+        final ProducerType producerType,
+        final WaitStrategy waitStrategy)
+    {
+        this(
+            OffHeapRingBuffer.create(producerType, ringBufferSize, entrySize, waitStrategy),
+            new BasicExecutor(threadFactory));
+    }
+
+    /**
+     * Create a new OffHeapDisruptor around an existing ring buffer.
+     *
+     * @param ringBuffer    the ring buffer to set up processors for.
+     * @param threadFactory a {@link ThreadFactory} to create threads for processors.
+     */
+    public OffHeapDisruptor(final OffHeapRingBuffer ringBuffer, final ThreadFactory threadFactory)
+    {
+        this(ringBuffer, new BasicExecutor(threadFactory));
+    }
+
+    private OffHeapDisruptor(final OffHeapRingBuffer ringBuffer, final Executor executor)
+    {
+        this.ringBuffer = ringBuffer;
+        this.executor = executor;
+    }
+
+    /**
+     * <p>Set up event handlers to handle events from the ring buffer. These handlers will process events
+     * as soon as they become available, in parallel.</p>
+     *
+     * @param handlers the event handlers that will process events.
+     * @return a {@link OffHeapEventHandlerGroup} that can be used to chain dependencies.
+     * @see Disruptor#handleEventsWith(EventHandler[])
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public final OffHeapEventHandlerGroup handleEventsWith(final EventHandler<? super OffHeapEvent>... handlers)
+    {
+        return createEventProcessors(new Sequence[0], handlers);
+    }
+
+    /**
+     * <p>Create a group of event handlers to be used as a dependency.</p>
+     *
+     * @param handlers the event handlers, previously set up with {@link #handleEventsWith(EventHandler[])},
+     *                 that will form the barrier for subsequent handlers.
+     * @return an {@link OffHeapEventHandlerGroup} that can be used to setup a dependency barrier over the
+     * specified event handlers.
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public final OffHeapEventHandlerGroup after(final EventHandler<OffHeapEvent>... handlers)
+    {
+        final Sequence[] sequences = new Sequence[handlers.length];
+        for (int i = 0, handlersLength = handlers.length; i < handlersLength; i++)
+        {
+            sequences[i] = consumerRepository.getSequenceFor(handlers[i]);
+        }
+
+        return new OffHeapEventHandlerGroup(this, sequences);
+    }
+
+    /**
+     * <p>Specify an exception handler to be used for event handlers created by this OffHeapDisruptor.</p>
+     *
+     * @param exceptionHandler the exception handler to use.
+     */
+    public void setDefaultExceptionHandler(final ExceptionHandler<? super OffHeapEvent> exceptionHandler)
+    {
+        checkNotStarted();
+        this.exceptionHandler.switchTo(exceptionHandler);
+    }
+
+    /**
+     * <p>Starts the event processors and returns the fully configured ring buffer.</p>
+     *
+     * <p>This method must only be called once after all event processors have been added.</p>
+     *
+     * @return the configured ring buffer.
+     */
+    public OffHeapRingBuffer start()
+    {
+        if (!started.compareAndSet(false, true))
+        {
+            throw new IllegalStateException("OffHeapDisruptor.start() must only be called once.");
+        }
+
+        for (final ConsumerInfo consumerInfo : consumerRepository)
+        {
+            consumerInfo.start(executor);
+        }
+
+        return ringBuffer;
+    }
+
+    /**
+     * Calls {@link com.lmax.disruptor.EventProcessor#halt()} on all of the event processors created via this disruptor.
+     */
+    public void halt()
+    {
+        for (final ConsumerInfo consumerInfo : consumerRepository)
+        {
+            consumerInfo.halt();
+        }
+    }
+
+    /**
+     * <p>Waits until all events currently in the disruptor have been processed by all event processors
+     * and then halts the processors.</p>
+     *
+     * @param timeout  the amount of time to wait for all events to be processed. <code>-1</code> will give an infinite timeout
+     * @param timeUnit the unit the timeOut is specified in
+     * @throws TimeoutException if a timeout occurs before shutdown completes.
+     * @see Disruptor#shutdown(long, TimeUnit)
+     */
+    public void shutdown(final long timeout, final TimeUnit timeUnit) throws TimeoutException
+    {
+        final long timeOutAt = System.currentTimeMillis() + timeUnit.toMillis(timeout);
+
+        while (consumerRepository.hasBacklog(ringBuffer.getCursor(), false))
+        {
+            if (timeout >= 0 && System.currentTimeMillis() > timeOutAt)
+            {
+                throw TimeoutException.INSTANCE;
+            }
+            // Busy spin
+        }
+
+        halt();
+    }
+
+    /**
+     * @return the ring buffer used by this OffHeapDisruptor.
+     */
+    public OffHeapRingBuffer getRingBuffer()
+    {
+        return ringBuffer;
+    }
+
+    /**
+     * Get the value of the cursor indicating the published sequence.
+     *
+     * @return value of the cursor for events that have been published.
+     */
+    public long getCursor()
+    {
+        return ringBuffer.getCursor();
+    }
+
+    /**
+     * Get the {@link SequenceBarrier} used by a specific handler.
+     *
+     * @param handler the handler to get the barrier for.
+     * @return the SequenceBarrier used by <i>handler</i>.
+     */
+    public SequenceBarrier getBarrierFor(final EventHandler<OffHeapEvent> handler)
+    {
+        return consumerRepository.getBarrierFor(handler);
+    }
+
+    /**
+     * Gets the sequence value for the specified event handler.
+     *
+     * @param handler eventHandler to get the sequence for.
+     * @return eventHandler's sequence
+     */
+    public long getSequenceValueFor(final EventHandler<OffHeapEvent> handler)
+    {
+        return consumerRepository.getSequenceFor(handler).get();
+    }
+
+    OffHeapEventHandlerGroup createEventProcessors(
+        final Sequence[] barrierSequences,
+        final EventHandler<? super OffHeapEvent>[] eventHandlers)
+    {
+        checkNotStarted();
+
+        final Sequence[] processorSequences = new Sequence[eventHandlers.length];
+        final SequenceBarrier barrier = ringBuffer.newBarrier(barrierSequences);
+
+        for (int i = 0, eventHandlersLength = eventHandlers.length; i < eventHandlersLength; i++)
+        {
+            final EventHandler<? super OffHeapEvent> eventHandler = eventHandlers[i];
+
+            final BatchEventProcessor<OffHeapEvent> batchEventProcessor =
+                ringBuffer.newBatchEventProcessor(barrier, eventHandler);
+            batchEventProcessor.setExceptionHandler(exceptionHandler);
+
+            consumerRepository.add(batchEventProcessor, eventHandler, barrier);
+            processorSequences[i] = batchEventProcessor.getSequence();
+        }
+
+        if (processorSequences.length > 0)
+        {
+            ringBuffer.addGatingSequences(processorSequences);
+            for (final Sequence barrierSequence : barrierSequences)
+            {
+                ringBuffer.removeGatingSequence(barrierSequence);
+            }
+            consumerRepository.unMarkEventProcessorsAsEndOfChain(barrierSequences);
+        }
+
+        return new OffHeapEventHandlerGroup(this, processorSequences);
+    }
+
+    private void checkNotStarted()
+    {
+        if (started.get())
+        {
+            throw new IllegalStateException("All event handlers must be added before calling starts.");
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "OffHeapDisruptor{" +
+            "ringBuffer=" + ringBuffer +
+            ", started=" + started +
+            ", executor=" + executor +
+            '}';
+    }
+}
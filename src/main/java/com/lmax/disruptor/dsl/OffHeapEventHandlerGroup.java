@@ -0,0 +1,94 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.dsl;
+
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.SequenceBarrier;
+import com.lmax.disruptor.offheap.OffHeapEvent;
+
+import java.util.Arrays;
+
+/**
+ * A group of event handlers set up via an {@link OffHeapDisruptor}.
+ *
+ * @see EventHandlerGroup
+ */
+public class OffHeapEventHandlerGroup
+{
+    private final OffHeapDisruptor disruptor;
+    private final Sequence[] sequences;
+
+    OffHeapEventHandlerGroup(final OffHeapDisruptor disruptor, final Sequence[] sequences)
+    {
+        this.disruptor = disruptor;
+        this.sequences = Arrays.copyOf(sequences, sequences.length);
+    }
+
+    /**
+     * Create a new event handler group that combines the consumers in this group with <code>otherHandlerGroup</code>.
+     *
+     * @param otherHandlerGroup the event handler group to combine.
+     * @return a new OffHeapEventHandlerGroup combining the existing and new consumers into a single dependency group.
+     */
+    public OffHeapEventHandlerGroup and(final OffHeapEventHandlerGroup otherHandlerGroup)
+    {
+        final Sequence[] combinedSequences = new Sequence[this.sequences.length + otherHandlerGroup.sequences.length];
+        System.arraycopy(this.sequences, 0, combinedSequences, 0, this.sequences.length);
+        System.arraycopy(
+            otherHandlerGroup.sequences, 0,
+            combinedSequences, this.sequences.length, otherHandlerGroup.sequences.length);
+        return new OffHeapEventHandlerGroup(disruptor, combinedSequences);
+    }
+
+    /**
+     * Set up event handlers to consume events from the ring buffer. These handlers will only process events
+     * after every event processor in this group has processed the event.
+     *
+     * @param handlers the event handlers that will process events.
+     * @return a {@link OffHeapEventHandlerGroup} that can be used to set up a event processor barrier over the created event processors.
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public final OffHeapEventHandlerGroup then(final EventHandler<? super OffHeapEvent>... handlers)
+    {
+        return handleEventsWith(handlers);
+    }
+
+    /**
+     * Set up event handlers to handle events from the ring buffer. These handlers will only process events
+     * after every event processor in this group has processed the event.
+     *
+     * @param handlers the event handlers that will process events.
+     * @return a {@link OffHeapEventHandlerGroup} that can be used to set up a event processor barrier over the created event processors.
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public final OffHeapEventHandlerGroup handleEventsWith(final EventHandler<? super OffHeapEvent>... handlers)
+    {
+        return disruptor.createEventProcessors(sequences, handlers);
+    }
+
+    /**
+     * Create a dependency barrier for the processors in this group.
+     *
+     * @return a {@link SequenceBarrier} including all the processors in this group.
+     */
+    public SequenceBarrier asSequenceBarrier()
+    {
+        return disruptor.getRingBuffer().newBarrier(sequences);
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.dsl;
+
+import com.lmax.disruptor.EventProcessor;
+import com.lmax.disruptor.ExceptionHandler;
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.SequenceBarrier;
+import com.lmax.disruptor.TimeoutException;
+import com.lmax.disruptor.primitive.PrimitiveEventProcessor;
+import com.lmax.disruptor.primitive.PrimitiveRingBuffer;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * <p>A DSL-style API for setting up the disruptor pattern around a {@link PrimitiveRingBuffer}, such as a
+ * {@link com.lmax.disruptor.primitive.LongRingBuffer}.</p>
+ * <pre>
+ * <code>PrimitiveDisruptor&lt;LongHandler&gt; disruptor = new PrimitiveDisruptor&lt;&gt;(
+ *     LongRingBuffer.createSingleProducer(1024, new YieldingWaitStrategy()), DaemonThreadFactory.INSTANCE);
+ * disruptor.handleEventsWith(handler1).then(handler2);
+ *
+ * disruptor.start();</code>
+ * </pre>
+ *
+ * @param <H> the type of handler consuming values from the ring buffer.
+ * @see Disruptor
+ */
+public class PrimitiveDisruptor<H>
+{
+    private final PrimitiveRingBuffer<H> ringBuffer;
+    private final Executor executor;
+    private final ConsumerRepository<Object> consumerRepository = new ConsumerRepository<>();
+    private final Map<H, EventProcessor> processorsByHandler = new IdentityHashMap<>();
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    private final ExceptionHandlerWrapper<Object> exceptionHandler = new ExceptionHandlerWrapper<>();
+
+    /**
+     * Create a new PrimitiveDisruptor.
+     *
+     * @param ringBuffer    the ring buffer to set up processors for.
+     * @param threadFactory a {@link ThreadFactory} to create threads for processors.
+     */
+    public PrimitiveDisruptor(final PrimitiveRingBuffer<H> ringBuffer, final ThreadFactory threadFactory)
+    {
+        this.ringBuffer = ringBuffer;
+        this.executor = new BasicExecutor(threadFactory);
+    }
+
+    /**
+     * <p>Set up handlers to handle values from the ring buffer. These handlers will process values
+     * as soon as they become available, in parallel.</p>
+     *
+     * @param handlers the handlers that will process values.
+     * @return a {@link PrimitiveHandlerGroup} that can be used to chain dependencies.
+     * @see Disruptor#handleEventsWith(com.lmax.disruptor.EventHandler[])
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public final PrimitiveHandlerGroup<H> handleEventsWith(final H... handlers)
+    {
+        return createEventProcessors(new Sequence[0], handlers);
+    }
+
+    /**
+     * <p>Create a group of handlers to be used as a dependency.</p>
+     *
+     * @param handlers the handlers, previously set up with {@link #handleEventsWith(Object[])},
+     *                 that will form the barrier for subsequent handlers.
+     * @return a {@link PrimitiveHandlerGroup} that can be used to setup a dependency barrier over the specified handlers.
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public final PrimitiveHandlerGroup<H> after(final H... handlers)
+    {
+        final Sequence[] sequences = new Sequence[handlers.length];
+        for (int i = 0, handlersLength = handlers.length; i < handlersLength; i++)
+        {
+            sequences[i] = getEventProcessorFor(handlers[i]).getSequence();
+        }
+
+        return new PrimitiveHandlerGroup<>(this, sequences);
+    }
+
+    /**
+     * <p>Specify an exception handler to be used for processors created by this PrimitiveDisruptor.</p>
+     *
+     * @param exceptionHandler the exception handler to use, it will be passed boxed values.
+     */
+    public void setDefaultExceptionHandler(final ExceptionHandler<Object> exceptionHandler)
+    {
+        checkNotStarted();
+        this.exceptionHandler.switchTo(exceptionHandler);
+    }
+
+    /**
+     * <p>Starts the event processors and returns the fully configured ring buffer.</p>
+     *
+     * <p>This method must only be called once after all handlers have been added.</p>
+     *
+     * @return the configured ring buffer.
+     */
+    public PrimitiveRingBuffer<H> start()
+    {
+        if (!started.compareAndSet(false, true))
+        {
+            throw new IllegalStateException("PrimitiveDisruptor.start() must only be called once.");
+        }
+
+        for (final ConsumerInfo consumerInfo : consumerRepository)
+        {
+            consumerInfo.start(executor);
+        }
+
+        return ringBuffer;
+    }
+
+    /**
+     * Calls {@link EventProcessor#halt()} on all of the event processors created via this disruptor.
+     */
+    public void halt()
+    {
+        for (final ConsumerInfo consumerInfo : consumerRepository)
+        {
+            consumerInfo.halt();
+        }
+    }
+
+    /**
+     * <p>Waits until all values currently in the ring buffer have been processed by all event processors
+     * and then halts the processors.</p>
+     *
+     * @param timeout  the amount of time to wait for all values to be processed. <code>-1</code> will give an infinite timeout
+     * @param timeUnit the unit the timeOut is specified in
+     * @throws TimeoutException if a timeout occurs before shutdown completes.
+     * @see Disruptor#shutdown(long, TimeUnit)
+     */
+    public void shutdown(final long timeout, final TimeUnit timeUnit) throws TimeoutException
+    {
+        final long timeOutAt = System.currentTimeMillis() + timeUnit.toMillis(timeout);
+
+        while (consumerRepository.hasBacklog(ringBuffer.getCursor(), false))
+        {
+            if (timeout >= 0 && System.currentTimeMillis() > timeOutAt)
+            {
+                throw TimeoutException.INSTANCE;
+            }
+            // Busy spin
+        }
+
+        halt();
+    }
+
+    /**
+     * @return the ring buffer used by this PrimitiveDisruptor.
+     */
+    public PrimitiveRingBuffer<H> getRingBuffer()
+    {
+        return ringBuffer;
+    }
+
+    /**
+     * Get the value of the cursor indicating the published sequence.
+     *
+     * @return value of the cursor for values that have been published.
+     */
+    public long getCursor()
+    {
+        return ringBuffer.getCursor();
+    }
+
+    /**
+     * Gets the sequence value for the specified handler.
+     *
+     * @param handler to get the sequence for.
+     * @return the handler's sequence
+     */
+    public long getSequenceValueFor(final H handler)
+    {
+        return getEventProcessorFor(handler).getSequence().get();
+    }
+
+    PrimitiveHandlerGroup<H> createEventProcessors(final Sequence[] barrierSequences, final H[] handlers)
+    {
+        checkNotStarted();
+
+        final Sequence[] processorSequences = new Sequence[handlers.length];
+        final SequenceBarrier barrier = ringBuffer.newBarrier(barrierSequences);
+
+        for (int i = 0, handlersLength = handlers.length; i < handlersLength; i++)
+        {
+            final PrimitiveEventProcessor processor = ringBuffer.newEventProcessor(barrier, handlers[i]);
+            processor.setExceptionHandler(exceptionHandler);
+
+            consumerRepository.add(processor);
+            processorsByHandler.put(handlers[i], processor);
+            processorSequences[i] = processor.getSequence();
+        }
+
+        if (processorSequences.length > 0)
+        {
+            ringBuffer.addGatingSequences(processorSequences);
+            for (final Sequence barrierSequence : barrierSequences)
+            {
+                ringBuffer.removeGatingSequence(barrierSequence);
+            }
+            consumerRepository.unMarkEventProcessorsAsEndOfChain(barrierSequences);
+        }
+
+        return new PrimitiveHandlerGroup<>(this, processorSequences);
+    }
+
+    private EventProcessor getEventProcessorFor(final H handler)
+    {
+        final EventProcessor processor = processorsByHandler.get(handler);
+        if (processor == null)
+        {
+            throw new IllegalArgumentException("The handler " + handler + " is not processing events.");
+        }
+
+        return processor;
+    }
+
+    private void checkNotStarted()
+    {
+        if (started.get())
+        {
+            throw new IllegalStateException("All event handlers must be added before calling starts.");
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "PrimitiveDisruptor{" +
+            "ringBuffer=" + ringBuffer +
+            ", started=" + started +
+            ", executor=" + executor +
+            '}';
+    }
+}
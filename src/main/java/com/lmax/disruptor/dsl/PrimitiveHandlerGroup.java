@@ -0,0 +1,93 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.dsl;
+
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.SequenceBarrier;
+
+import java.util.Arrays;
+
+/**
+ * A group of handlers set up via a {@link PrimitiveDisruptor}.
+ *
+ * @param <H> the type of handler consuming values from the ring buffer.
+ * @see EventHandlerGroup
+ */
+public class PrimitiveHandlerGroup<H>
+{
+    private final PrimitiveDisruptor<H> disruptor;
+    private final Sequence[] sequences;
+
+    PrimitiveHandlerGroup(final PrimitiveDisruptor<H> disruptor, final Sequence[] sequences)
+    {
+        this.disruptor = disruptor;
+        this.sequences = Arrays.copyOf(sequences, sequences.length);
+    }
+
+    /**
+     * Create a new handler group that combines the consumers in this group with <code>otherHandlerGroup</code>.
+     *
+     * @param otherHandlerGroup the handler group to combine.
+     * @return a new PrimitiveHandlerGroup combining the existing and new consumers into a single dependency group.
+     */
+    public PrimitiveHandlerGroup<H> and(final PrimitiveHandlerGroup<H> otherHandlerGroup)
+    {
+        final Sequence[] combinedSequences = new Sequence[this.sequences.length + otherHandlerGroup.sequences.length];
+        System.arraycopy(this.sequences, 0, combinedSequences, 0, this.sequences.length);
+        System.arraycopy(
+            otherHandlerGroup.sequences, 0,
+            combinedSequences, this.sequences.length, otherHandlerGroup.sequences.length);
+        return new PrimitiveHandlerGroup<>(disruptor, combinedSequences);
+    }
+
+    /**
+     * Set up handlers to consume values from the ring buffer. These handlers will only process values
+     * after every event processor in this group has processed them.
+     *
+     * @param handlers the handlers that will process values.
+     * @return a {@link PrimitiveHandlerGroup} that can be used to set up a event processor barrier over the created event processors.
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public final PrimitiveHandlerGroup<H> then(final H... handlers)
+    {
+        return handleEventsWith(handlers);
+    }
+
+    /**
+     * Set up handlers to handle values from the ring buffer. These handlers will only process values
+     * after every event processor in this group has processed them.
+     *
+     * @param handlers the handlers that will process values.
+     * @return a {@link PrimitiveHandlerGroup} that can be used to set up a event processor barrier over the created event processors.
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public final PrimitiveHandlerGroup<H> handleEventsWith(final H... handlers)
+    {
+        return disruptor.createEventProcessors(sequences, handlers);
+    }
+
+    /**
+     * Create a dependency barrier for the processors in this group.
+     *
+     * @return a {@link SequenceBarrier} including all the processors in this group.
+     */
+    public SequenceBarrier asSequenceBarrier()
+    {
+        return disruptor.getRingBuffer().newBarrier(sequences);
+    }
+}
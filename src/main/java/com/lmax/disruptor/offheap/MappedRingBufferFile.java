@@ -0,0 +1,358 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.offheap;
+
+import com.lmax.disruptor.BatchEventProcessor;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.MultiProducerSequencer;
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.SequenceBarrier;
+import com.lmax.disruptor.Sequencer;
+import com.lmax.disruptor.SingleProducerSequencer;
+import com.lmax.disruptor.WaitStrategy;
+import com.lmax.disruptor.dsl.ProducerType;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * <p>An {@link OffHeapRingBuffer} whose slots, published sequences and consumer sequences live in a memory
+ * mapped file, so events survive a crash of the JVM and processing can resume where it stopped.</p>
+ *
+ * <p>The file holds a fixed number of consumer sequences, all of which gate the producers.  Each one should be
+ * driven by exactly one processor created with {@link #newBatchEventProcessor(int, SequenceBarrier, EventHandler)},
+ * which records its progress directly in the file.  On reopening, the cursor is recovered as the highest
+ * sequence that was contiguously published after the slowest consumer, so unprocessed events are delivered again
+ * and a partially published multi producer batch is discarded.</p>
+ *
+ * <p>Writes reach the operating system's page cache as soon as they are made, which is enough to survive a
+ * process crash.  Call {@link #force()} if they must also survive the loss of the host.</p>
+ *
+ * <p>File layout, all values in native byte order:</p>
+ * <pre>
+ * header              magic, version, bufferSize, entrySize, consumerCount
+ * consumer sequences  consumerCount longs, one per 128 byte line
+ * published stamps    bufferSize longs holding the sequence last published into each slot
+ * slots               bufferSize * entrySize bytes
+ * </pre>
+ */
+public final class MappedRingBufferFile implements Closeable
+{
+    private static final long MAGIC = 0x4C4D41584449534CL;
+    private static final long VERSION = 1L;
+    private static final int LINE_SIZE = 128;
+    private static final int HEADER_SIZE = LINE_SIZE;
+
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 8;
+    private static final int BUFFER_SIZE_OFFSET = 16;
+    private static final int ENTRY_SIZE_OFFSET = 24;
+    private static final int CONSUMER_COUNT_OFFSET = 32;
+
+    private final RandomAccessFile file;
+    private final MappedByteBuffer mappedBuffer;
+    private final OffHeapRingBuffer ringBuffer;
+    private final MappedSequence[] consumerSequences;
+
+    private MappedRingBufferFile(
+        final RandomAccessFile file,
+        final MappedByteBuffer mappedBuffer,
+        final Sequencer sequencer,
+        final int entrySize,
+        final int consumerCount)
+    {
+        this.file = file;
+        this.mappedBuffer = mappedBuffer;
+
+        final int bufferSize = sequencer.getBufferSize();
+        final long baseAddress = OffHeapRingBuffer.addressOf(mappedBuffer);
+        final int stampsOffset = HEADER_SIZE + consumerCount * LINE_SIZE;
+        final int slotsOffset = stampsOffset + align(bufferSize * 8);
+
+        consumerSequences = new MappedSequence[consumerCount];
+        for (int i = 0; i < consumerCount; i++)
+        {
+            consumerSequences[i] = new MappedSequence(baseAddress + HEADER_SIZE + i * LINE_SIZE);
+        }
+
+        final ByteBuffer slots = mappedBuffer.duplicate();
+        slots.position(slotsOffset);
+        ringBuffer = new OffHeapRingBuffer(sequencer, entrySize, slots, baseAddress + stampsOffset);
+    }
+
+    /**
+     * Open an existing ring buffer file, or create a new one if it does not exist.
+     *
+     * @param file          to map.
+     * @param bufferSize    number of slots in the ring buffer, must be a power of 2.
+     * @param entrySize     number of bytes in each slot, must be a positive multiple of 8.
+     * @param consumerCount number of persistent consumer sequences.
+     * @param producerType  producer type to use {@link ProducerType}.
+     * @param waitStrategy  used to determine how to wait for new elements to become available.
+     * @return the mapped ring buffer, with its cursor restored from the file.
+     * @throws IOException              if the file can not be created or mapped.
+     * @throws IllegalArgumentException if an existing file was created with different parameters.
+     */
+    public static MappedRingBufferFile open(
+        final File file,
+        final int bufferSize,
+        final int entrySize,
+        final int consumerCount,
+        final ProducerType producerType,
+        final WaitStrategy waitStrategy) throws IOException
+    {
+        if (consumerCount < 1)
+        {
+            throw new IllegalArgumentException("consumerCount must not be less than 1");
+        }
+
+        final Sequencer sequencer = ProducerType.SINGLE == producerType ?
+            new SingleProducerSequencer(bufferSize, waitStrategy) :
+            new MultiProducerSequencer(bufferSize, waitStrategy);
+
+        final long fileSize =
+            (long) HEADER_SIZE + (long) consumerCount * LINE_SIZE + align(bufferSize * 8L) + (long) bufferSize * entrySize;
+        if (fileSize > Integer.MAX_VALUE)
+        {
+            throw new IllegalArgumentException("Ring buffer file must not exceed " + Integer.MAX_VALUE + " bytes, was " + fileSize);
+        }
+
+        final boolean exists = file.exists() && file.length() > 0;
+        final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try
+        {
+            if (exists && randomAccessFile.length() != fileSize)
+            {
+                throw new IllegalArgumentException(
+                    "File " + file + " is " + randomAccessFile.length() + " bytes, expected " + fileSize);
+            }
+
+            randomAccessFile.setLength(fileSize);
+            final MappedByteBuffer mappedBuffer =
+                randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+            mappedBuffer.order(ByteOrder.nativeOrder());
+
+            if (exists)
+            {
+                verifyHeader(file, mappedBuffer, bufferSize, entrySize, consumerCount);
+            }
+
+            final MappedRingBufferFile ringBufferFile =
+                new MappedRingBufferFile(randomAccessFile, mappedBuffer, sequencer, entrySize, consumerCount);
+            ringBufferFile.recover(exists);
+
+            if (!exists)
+            {
+                writeHeader(mappedBuffer, bufferSize, entrySize, consumerCount);
+            }
+
+            return ringBufferFile;
+        }
+        catch (final IOException | RuntimeException e)
+        {
+            randomAccessFile.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the ring buffer backed by this file.
+     */
+    public OffHeapRingBuffer getRingBuffer()
+    {
+        return ringBuffer;
+    }
+
+    /**
+     * @return the number of persistent consumer sequences in this file.
+     */
+    public int getConsumerCount()
+    {
+        return consumerSequences.length;
+    }
+
+    /**
+     * Get a persistent consumer sequence.  The sequence is already gating the ring buffer.
+     *
+     * @param consumerIndex of the sequence, from 0 to <code>consumerCount - 1</code>.
+     * @return the sequence, holding the last value recorded in the file.
+     */
+    public Sequence getConsumerSequence(final int consumerIndex)
+    {
+        return consumerSequences[consumerIndex];
+    }
+
+    /**
+     * Create a {@link BatchEventProcessor} that records its progress in the persistent consumer sequence at
+     * <code>consumerIndex</code>, resuming after the last event it recorded as processed.
+     *
+     * @param consumerIndex of the persistent sequence to use.
+     * @param barrier       on which the processor waits.
+     * @param eventHandler  to which events are dispatched.
+     * @return a new event processor.
+     */
+    public BatchEventProcessor<OffHeapEvent> newBatchEventProcessor(
+        final int consumerIndex,
+        final SequenceBarrier barrier,
+        final EventHandler<? super OffHeapEvent> eventHandler)
+    {
+        return new BatchEventProcessor<OffHeapEvent>(
+            ringBuffer.newEvent(), barrier, eventHandler, consumerSequences[consumerIndex]);
+    }
+
+    /**
+     * Force all changes to the file out to the storage device.
+     */
+    public void force()
+    {
+        mappedBuffer.force();
+    }
+
+    /**
+     * Force outstanding changes and close the file.  The ring buffer must not be used afterwards.
+     *
+     * @throws IOException if the file can not be closed.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        force();
+        file.close();
+    }
+
+    private void recover(final boolean exists)
+    {
+        final Sequencer sequencer = ringBuffer.getSequencer();
+        final long[] persisted = new long[consumerSequences.length];
+        long minimum = Long.MAX_VALUE;
+        long maximum = Sequencer.INITIAL_CURSOR_VALUE;
+
+        for (int i = 0; i < consumerSequences.length; i++)
+        {
+            if (!exists)
+            {
+                consumerSequences[i].set(Sequencer.INITIAL_CURSOR_VALUE);
+            }
+            persisted[i] = consumerSequences[i].get();
+            minimum = Math.min(minimum, persisted[i]);
+            maximum = Math.max(maximum, persisted[i]);
+        }
+
+        if (!exists)
+        {
+            for (int i = 0, size = ringBuffer.getBufferSize(); i < size; i++)
+            {
+                writeStamp(i, Sequencer.INITIAL_CURSOR_VALUE);
+            }
+        }
+
+        long cursor = minimum;
+        while (cursor - minimum < ringBuffer.getBufferSize() && readStamp(cursor + 1) == cursor + 1)
+        {
+            cursor++;
+        }
+        cursor = Math.max(cursor, maximum);
+
+        if (cursor > Sequencer.INITIAL_CURSOR_VALUE)
+        {
+            sequencer.claim(cursor);
+            sequencer.publish(Math.max(minimum + 1, cursor - ringBuffer.getBufferSize() + 1), cursor);
+        }
+
+        sequencer.addGatingSequences(consumerSequences);
+        for (int i = 0; i < consumerSequences.length; i++)
+        {
+            consumerSequences[i].set(persisted[i]);
+        }
+    }
+
+    private long readStamp(final long sequence)
+    {
+        final int index = (int) (sequence & (ringBuffer.getBufferSize() - 1));
+        return mappedBuffer.getLong(stampsOffset() + index * 8);
+    }
+
+    private void writeStamp(final int index, final long value)
+    {
+        mappedBuffer.putLong(stampsOffset() + index * 8, value);
+    }
+
+    private int stampsOffset()
+    {
+        return HEADER_SIZE + consumerSequences.length * LINE_SIZE;
+    }
+
+    private static void writeHeader(
+        final MappedByteBuffer buffer,
+        final int bufferSize,
+        final int entrySize,
+        final int consumerCount)
+    {
+        buffer.putLong(VERSION_OFFSET, VERSION);
+        buffer.putLong(BUFFER_SIZE_OFFSET, bufferSize);
+        buffer.putLong(ENTRY_SIZE_OFFSET, entrySize);
+        buffer.putLong(CONSUMER_COUNT_OFFSET, consumerCount);
+        buffer.putLong(MAGIC_OFFSET, MAGIC);
+    }
+
+    private static void verifyHeader(
+        final File file,
+        final MappedByteBuffer buffer,
+        final int bufferSize,
+        final int entrySize,
+        final int consumerCount)
+    {
+        if (buffer.getLong(MAGIC_OFFSET) != MAGIC || buffer.getLong(VERSION_OFFSET) != VERSION)
+        {
+            throw new IllegalArgumentException("File " + file + " is not a ring buffer file");
+        }
+
+        if (buffer.getLong(BUFFER_SIZE_OFFSET) != bufferSize ||
+            buffer.getLong(ENTRY_SIZE_OFFSET) != entrySize ||
+            buffer.getLong(CONSUMER_COUNT_OFFSET) != consumerCount)
+        {
+            throw new IllegalArgumentException(
+                "File " + file + " was created with bufferSize " + buffer.getLong(BUFFER_SIZE_OFFSET) +
+                ", entrySize " + buffer.getLong(ENTRY_SIZE_OFFSET) +
+                " and consumerCount " + buffer.getLong(CONSUMER_COUNT_OFFSET));
+        }
+    }
+
+    private static int align(final int size)
+    {
+        return (int) align((long) size);
+    }
+
+    private static long align(final long size)
+    {
+        return (size + LINE_SIZE - 1) & ~(LINE_SIZE - 1);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "MappedRingBufferFile{" +
+            "ringBuffer=" + ringBuffer +
+            ", consumerCount=" + consumerSequences.length +
+            '}';
+    }
+}
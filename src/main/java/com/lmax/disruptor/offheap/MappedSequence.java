@@ -0,0 +1,69 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.offheap;
+
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.util.Util;
+import sun.misc.Unsafe;
+
+/**
+ * {@link Sequence} whose value is held at a fixed address in a memory mapped file rather than in the
+ * object itself, so the last value written survives the JVM.
+ */
+final class MappedSequence extends Sequence
+{
+    private static final Unsafe UNSAFE = Util.getUnsafe();
+
+    private final long address;
+
+    /**
+     * @param address of a naturally aligned long, which must stay mapped for the life of this sequence.
+     */
+    MappedSequence(final long address)
+    {
+        this.address = address;
+    }
+
+    @Override
+    public long get()
+    {
+        return UNSAFE.getLongVolatile(null, address);
+    }
+
+    @Override
+    public void set(final long value)
+    {
+        UNSAFE.putOrderedLong(null, address, value);
+    }
+
+    @Override
+    public void setVolatile(final long value)
+    {
+        UNSAFE.putLongVolatile(null, address, value);
+    }
+
+    @Override
+    public boolean compareAndSet(final long expectedValue, final long newValue)
+    {
+        return UNSAFE.compareAndSwapLong(null, address, expectedValue, newValue);
+    }
+
+    @Override
+    public long addAndGet(final long increment)
+    {
+        return Util.getAndAddLong(null, address, increment) + increment;
+    }
+}
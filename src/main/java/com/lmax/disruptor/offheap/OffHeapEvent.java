@@ -0,0 +1,197 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.offheap;
+
+import com.lmax.disruptor.DataProvider;
+import com.lmax.disruptor.util.Util;
+import sun.misc.Unsafe;
+
+/**
+ * <p>Flyweight over a single slot of an {@link OffHeapRingBuffer}.</p>
+ *
+ * <p>A flyweight is moved between slots by calling {@link #get(long)}, which makes it usable directly as the
+ * {@link DataProvider} of a {@link com.lmax.disruptor.BatchEventProcessor}.  All accessors take an offset
+ * relative to the start of the current slot and use the platform's native byte order.</p>
+ *
+ * <p>Instances are not thread safe, each producer and each event processor must use its own flyweight
+ * obtained from {@link OffHeapRingBuffer#newEvent()}.</p>
+ */
+public final class OffHeapEvent implements DataProvider<OffHeapEvent>
+{
+    private static final Unsafe UNSAFE = Util.getUnsafe();
+    private static final long BYTE_ARRAY_OFFSET = UNSAFE.arrayBaseOffset(byte[].class);
+
+    private final OffHeapRingBuffer ringBuffer;
+    private final long baseAddress;
+    private final int entrySize;
+    private final long indexMask;
+    private long address;
+    private long sequence = -1L;
+
+    OffHeapEvent(final OffHeapRingBuffer ringBuffer, final long baseAddress, final int entrySize, final int bufferSize)
+    {
+        this.ringBuffer = ringBuffer;
+        this.baseAddress = baseAddress;
+        this.entrySize = entrySize;
+        this.indexMask = bufferSize - 1;
+        this.address = baseAddress;
+    }
+
+    /**
+     * Move this flyweight to the slot for the supplied sequence.
+     *
+     * @param sequence of the slot to point at.
+     * @return this flyweight, now pointing at the slot for <code>sequence</code>.
+     */
+    @Override
+    public OffHeapEvent get(final long sequence)
+    {
+        this.sequence = sequence;
+        this.address = baseAddress + (sequence & indexMask) * entrySize;
+        return this;
+    }
+
+    /**
+     * @return the sequence of the slot this flyweight currently points at.
+     */
+    public long getSequence()
+    {
+        return sequence;
+    }
+
+    /**
+     * @return the number of bytes available in each slot.
+     */
+    public int getEntrySize()
+    {
+        return entrySize;
+    }
+
+    /**
+     * @return the ring buffer this flyweight reads from and writes to.
+     */
+    public OffHeapRingBuffer getRingBuffer()
+    {
+        return ringBuffer;
+    }
+
+    public byte getByte(final int offset)
+    {
+        return UNSAFE.getByte(addressOf(offset, 1));
+    }
+
+    public void putByte(final int offset, final byte value)
+    {
+        UNSAFE.putByte(addressOf(offset, 1), value);
+    }
+
+    public short getShort(final int offset)
+    {
+        return UNSAFE.getShort(addressOf(offset, 2));
+    }
+
+    public void putShort(final int offset, final short value)
+    {
+        UNSAFE.putShort(addressOf(offset, 2), value);
+    }
+
+    public int getInt(final int offset)
+    {
+        return UNSAFE.getInt(addressOf(offset, 4));
+    }
+
+    public void putInt(final int offset, final int value)
+    {
+        UNSAFE.putInt(addressOf(offset, 4), value);
+    }
+
+    public long getLong(final int offset)
+    {
+        return UNSAFE.getLong(addressOf(offset, 8));
+    }
+
+    public void putLong(final int offset, final long value)
+    {
+        UNSAFE.putLong(addressOf(offset, 8), value);
+    }
+
+    public double getDouble(final int offset)
+    {
+        return UNSAFE.getDouble(addressOf(offset, 8));
+    }
+
+    public void putDouble(final int offset, final double value)
+    {
+        UNSAFE.putDouble(addressOf(offset, 8), value);
+    }
+
+    /**
+     * Copy bytes out of the current slot.
+     *
+     * @param offset      within the slot to start reading from.
+     * @param destination array to copy into.
+     * @param index       within <code>destination</code> to start writing at.
+     * @param length      number of bytes to copy.
+     */
+    public void getBytes(final int offset, final byte[] destination, final int index, final int length)
+    {
+        checkArrayBounds(destination, index, length);
+        UNSAFE.copyMemory(null, addressOf(offset, length), destination, BYTE_ARRAY_OFFSET + index, length);
+    }
+
+    /**
+     * Copy bytes into the current slot.
+     *
+     * @param offset within the slot to start writing at.
+     * @param source array to copy from.
+     * @param index  within <code>source</code> to start reading from.
+     * @param length number of bytes to copy.
+     */
+    public void putBytes(final int offset, final byte[] source, final int index, final int length)
+    {
+        checkArrayBounds(source, index, length);
+        UNSAFE.copyMemory(source, BYTE_ARRAY_OFFSET + index, null, addressOf(offset, length), length);
+    }
+
+    private long addressOf(final int offset, final int length)
+    {
+        if (offset < 0 || length < 0 || offset > entrySize - length)
+        {
+            throw new IndexOutOfBoundsException(
+                "offset: " + offset + ", length: " + length + ", entrySize: " + entrySize);
+        }
+
+        return address + offset;
+    }
+
+    private static void checkArrayBounds(final byte[] array, final int index, final int length)
+    {
+        if (index < 0 || length < 0 || index > array.length - length)
+        {
+            throw new IndexOutOfBoundsException(
+                "index: " + index + ", length: " + length + ", array length: " + array.length);
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "OffHeapEvent{" +
+            "sequence=" + sequence +
+            ", entrySize=" + entrySize +
+            '}';
+    }
+}
@@ -0,0 +1,455 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.offheap;
+
+import com.lmax.disruptor.BatchEventProcessor;
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.Cursored;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.EventPoller;
+import com.lmax.disruptor.InsufficientCapacityException;
+import com.lmax.disruptor.MultiProducerSequencer;
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.SequenceBarrier;
+import com.lmax.disruptor.Sequenced;
+import com.lmax.disruptor.Sequencer;
+import com.lmax.disruptor.SingleProducerSequencer;
+import com.lmax.disruptor.WaitStrategy;
+import com.lmax.disruptor.dsl.ProducerType;
+import com.lmax.disruptor.util.Util;
+import sun.misc.Unsafe;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+
+/**
+ * <p>Ring based store of fixed size slots held outside of the Java heap in a direct {@link ByteBuffer}.</p>
+ *
+ * <p>Ordering is delegated to a standard {@link Sequencer} so the ring works with either producer type,
+ * any {@link WaitStrategy}, {@link SequenceBarrier}s and {@link BatchEventProcessor}s.  Events are read and
+ * written through {@link OffHeapEvent} flyweights, one per thread, rather than by changing the position
+ * and limit of a shared buffer.</p>
+ *
+ * <pre>
+ * OffHeapEvent event = ringBuffer.newEvent();
+ * long sequence = ringBuffer.next();
+ * try {
+ *     ringBuffer.get(event, sequence).putLong(0, price);
+ * } finally {
+ *     ringBuffer.publish(sequence);
+ * }
+ * </pre>
+ */
+public final class OffHeapRingBuffer implements Cursored, Sequenced
+{
+    private static final Unsafe UNSAFE = Util.getUnsafe();
+    private static final long ADDRESS_OFFSET;
+    private static final long BYTE_ARRAY_OFFSET = UNSAFE.arrayBaseOffset(byte[].class);
+
+    static
+    {
+        try
+        {
+            ADDRESS_OFFSET = UNSAFE.objectFieldOffset(Buffer.class.getDeclaredField("address"));
+        }
+        catch (final NoSuchFieldException e)
+        {
+            throw new IllegalStateException("Unable to locate the address of direct buffers", e);
+        }
+    }
+
+    private final Sequencer sequencer;
+    // Referenced so the memory is not released while the ring buffer is reachable.
+    private final ByteBuffer buffer;
+    private final long address;
+    private final int bufferSize;
+    private final int entrySize;
+    private final long stampAddress;
+
+    /**
+     * Construct an OffHeapRingBuffer allocating a new direct buffer for the slots.
+     *
+     * @param sequencer sequencer to handle the ordering of events moving through the ring buffer.
+     * @param entrySize number of bytes in each slot, must be a positive multiple of 8.
+     * @throws IllegalArgumentException if the entry size is invalid or the total size exceeds 2GB.
+     */
+    public OffHeapRingBuffer(final Sequencer sequencer, final int entrySize)
+    {
+        this(sequencer, entrySize, ByteBuffer.allocateDirect(capacityFor(sequencer.getBufferSize(), entrySize)), 0L);
+    }
+
+    /**
+     * Construct an OffHeapRingBuffer over an existing direct buffer, e.g. a
+     * {@link java.nio.MappedByteBuffer}.  The slots start at the buffer's position.
+     *
+     * @param sequencer sequencer to handle the ordering of events moving through the ring buffer.
+     * @param entrySize number of bytes in each slot, must be a positive multiple of 8.
+     * @param buffer       direct buffer with at least <code>bufferSize * entrySize</code> bytes remaining.
+     * @param stampAddress address of <code>bufferSize</code> longs that record the sequence last published
+     *                     into each slot, or 0 if published sequences are not recorded.
+     * @throws IllegalArgumentException if the buffer is not direct or too small.
+     */
+    OffHeapRingBuffer(final Sequencer sequencer, final int entrySize, final ByteBuffer buffer, final long stampAddress)
+    {
+        this.sequencer = sequencer;
+        this.bufferSize = sequencer.getBufferSize();
+        this.entrySize = entrySize;
+
+        if (Integer.bitCount(bufferSize) != 1)
+        {
+            throw new IllegalArgumentException("bufferSize must be a power of 2");
+        }
+
+        final int capacity = capacityFor(bufferSize, entrySize);
+        if (!buffer.isDirect())
+        {
+            throw new IllegalArgumentException("buffer must be a direct buffer");
+        }
+        if (buffer.remaining() < capacity)
+        {
+            throw new IllegalArgumentException(
+                "buffer has " + buffer.remaining() + " bytes remaining but " + capacity + " are required");
+        }
+
+        this.buffer = buffer;
+        this.address = addressOf(buffer) + buffer.position();
+        this.stampAddress = stampAddress;
+    }
+
+    /**
+     * Create a new multiple producer OffHeapRingBuffer with the specified wait strategy.
+     *
+     * @param bufferSize   number of slots in the ring buffer.
+     * @param entrySize    number of bytes in each slot, must be a positive multiple of 8.
+     * @param waitStrategy used to determine how to wait for new elements to become available.
+     * @return a constructed ring buffer.
+     * @throws IllegalArgumentException if bufferSize is less than 1 or not a power of 2
+     * @see MultiProducerSequencer
+     */
+    public static OffHeapRingBuffer createMultiProducer(
+        final int bufferSize,
+        final int entrySize,
+        final WaitStrategy waitStrategy)
+    {
+        return new OffHeapRingBuffer(new MultiProducerSequencer(bufferSize, waitStrategy), entrySize);
+    }
+
+    /**
+     * Create a new single producer OffHeapRingBuffer with the specified wait strategy.
+     *
+     * @param bufferSize   number of slots in the ring buffer.
+     * @param entrySize    number of bytes in each slot, must be a positive multiple of 8.
+     * @param waitStrategy used to determine how to wait for new elements to become available.
+     * @return a constructed ring buffer.
+     * @throws IllegalArgumentException if bufferSize is less than 1 or not a power of 2
+     * @see SingleProducerSequencer
+     */
+    public static OffHeapRingBuffer createSingleProducer(
+        final int bufferSize,
+        final int entrySize,
+        final WaitStrategy waitStrategy)
+    {
+        return new OffHeapRingBuffer(new SingleProducerSequencer(bufferSize, waitStrategy), entrySize);
+    }
+
+    /**
+     * Create a new OffHeapRingBuffer with the specified producer type (SINGLE or MULTI)
+     *
+     * @param producerType producer type to use {@link ProducerType}.
+     * @param bufferSize   number of slots in the ring buffer.
+     * @param entrySize    number of bytes in each slot, must be a positive multiple of 8.
+     * @param waitStrategy used to determine how to wait for new elements to become available.
+     * @return a constructed ring buffer.
+     * @throws IllegalArgumentException if bufferSize is less than 1 or not a power of 2
+     */
+    public static OffHeapRingBuffer create(
+        final ProducerType producerType,
+        final int bufferSize,
+        final int entrySize,
+        final WaitStrategy waitStrategy)
+    {
+        switch (producerType)
+        {
+            case SINGLE:
+                return createSingleProducer(bufferSize, entrySize, waitStrategy);
+            case MULTI:
+                return createMultiProducer(bufferSize, entrySize, waitStrategy);
+            default:
+                throw new IllegalStateException(producerType.toString());
+        }
+    }
+
+    /**
+     * Create a new multiple producer OffHeapRingBuffer using the default wait strategy {@link BlockingWaitStrategy}.
+     *
+     * @param bufferSize number of slots in the ring buffer.
+     * @param entrySize  number of bytes in each slot, must be a positive multiple of 8.
+     * @return a constructed ring buffer.
+     */
+    public static OffHeapRingBuffer createMultiProducer(final int bufferSize, final int entrySize)
+    {
+        return createMultiProducer(bufferSize, entrySize, new BlockingWaitStrategy());
+    }
+
+    /**
+     * Create a new flyweight for reading or writing slots of this ring buffer.  Each thread
+     * accessing the ring buffer needs its own flyweight.
+     *
+     * @return a new flyweight not yet pointing at any sequence.
+     */
+    public OffHeapEvent newEvent()
+    {
+        return new OffHeapEvent(this, address, entrySize, bufferSize);
+    }
+
+    /**
+     * Point the supplied flyweight at the slot for a given sequence.
+     *
+     * @param event    flyweight created by {@link #newEvent()} on this ring buffer.
+     * @param sequence of the slot.
+     * @return the flyweight, positioned at <code>sequence</code>.
+     */
+    public OffHeapEvent get(final OffHeapEvent event, final long sequence)
+    {
+        if (event.getRingBuffer() != this)
+        {
+            throw new IllegalArgumentException("Flyweight was not created by this ring buffer");
+        }
+
+        return event.get(sequence);
+    }
+
+    /**
+     * Create a {@link BatchEventProcessor} with its own flyweight over this ring buffer.  The processor's
+     * sequence is not added as a gating sequence.
+     *
+     * @param barrier      on which the processor waits.
+     * @param eventHandler to which events are dispatched.
+     * @return a new event processor.
+     */
+    public BatchEventProcessor<OffHeapEvent> newBatchEventProcessor(
+        final SequenceBarrier barrier,
+        final EventHandler<? super OffHeapEvent> eventHandler)
+    {
+        return new BatchEventProcessor<OffHeapEvent>(newEvent(), barrier, eventHandler);
+    }
+
+    /**
+     * Creates an event poller, with its own flyweight, for this ring buffer gated on the supplied sequences.
+     *
+     * @param gatingSequences to be gated on.
+     * @return A poller that will gate on this ring buffer and the supplied sequences.
+     */
+    public EventPoller<OffHeapEvent> newPoller(final Sequence... gatingSequences)
+    {
+        return sequencer.newPoller(newEvent(), gatingSequences);
+    }
+
+    /**
+     * Copy the whole of <code>data</code> into the next slot and publish it.  Safe to call
+     * from multiple threads if the ring buffer was created with a multi producer sequencer.
+     *
+     * @param data to copy, must not be larger than the entry size.
+     */
+    public void put(final byte[] data)
+    {
+        put(data, 0, data.length);
+    }
+
+    /**
+     * Copy a region of <code>data</code> into the next slot and publish it.
+     *
+     * @param data   to copy from.
+     * @param offset within <code>data</code> to start copying from.
+     * @param length number of bytes to copy, must not be larger than the entry size.
+     */
+    public void put(final byte[] data, final int offset, final int length)
+    {
+        if (offset < 0 || length < 0 || offset > data.length - length || length > entrySize)
+        {
+            throw new IndexOutOfBoundsException(
+                "offset: " + offset + ", length: " + length + ", entrySize: " + entrySize);
+        }
+
+        final long sequence = sequencer.next();
+        try
+        {
+            UNSAFE.copyMemory(data, BYTE_ARRAY_OFFSET + offset, null, addressOf(sequence), length);
+        }
+        finally
+        {
+            publish(sequence);
+        }
+    }
+
+    /**
+     * @return the number of bytes in each slot.
+     */
+    public int getEntrySize()
+    {
+        return entrySize;
+    }
+
+    /**
+     * @see com.lmax.disruptor.RingBuffer#addGatingSequences(Sequence...)
+     */
+    public void addGatingSequences(final Sequence... gatingSequences)
+    {
+        sequencer.addGatingSequences(gatingSequences);
+    }
+
+    /**
+     * @see com.lmax.disruptor.RingBuffer#removeGatingSequence(Sequence)
+     */
+    public boolean removeGatingSequence(final Sequence sequence)
+    {
+        return sequencer.removeGatingSequence(sequence);
+    }
+
+    /**
+     * @see com.lmax.disruptor.RingBuffer#getMinimumGatingSequence()
+     */
+    public long getMinimumGatingSequence()
+    {
+        return sequencer.getMinimumSequence();
+    }
+
+    /**
+     * @see com.lmax.disruptor.RingBuffer#newBarrier(Sequence...)
+     */
+    public SequenceBarrier newBarrier(final Sequence... sequencesToTrack)
+    {
+        return sequencer.newBarrier(sequencesToTrack);
+    }
+
+    @Override
+    public long getCursor()
+    {
+        return sequencer.getCursor();
+    }
+
+    @Override
+    public int getBufferSize()
+    {
+        return bufferSize;
+    }
+
+    @Override
+    public boolean hasAvailableCapacity(final int requiredCapacity)
+    {
+        return sequencer.hasAvailableCapacity(requiredCapacity);
+    }
+
+    @Override
+    public long remainingCapacity()
+    {
+        return sequencer.remainingCapacity();
+    }
+
+    @Override
+    public long next()
+    {
+        return sequencer.next();
+    }
+
+    @Override
+    public long next(final int n)
+    {
+        return sequencer.next(n);
+    }
+
+    @Override
+    public long tryNext() throws InsufficientCapacityException
+    {
+        return sequencer.tryNext();
+    }
+
+    @Override
+    public long tryNext(final int n) throws InsufficientCapacityException
+    {
+        return sequencer.tryNext(n);
+    }
+
+    @Override
+    public void publish(final long sequence)
+    {
+        if (0L != stampAddress)
+        {
+            stamp(sequence);
+        }
+        sequencer.publish(sequence);
+    }
+
+    @Override
+    public void publish(final long lo, final long hi)
+    {
+        if (0L != stampAddress)
+        {
+            for (long sequence = lo; sequence <= hi; sequence++)
+            {
+                stamp(sequence);
+            }
+        }
+        sequencer.publish(lo, hi);
+    }
+
+    private void stamp(final long sequence)
+    {
+        UNSAFE.putOrderedLong(null, stampAddress + ((sequence & (bufferSize - 1)) << 3), sequence);
+    }
+
+    private long addressOf(final long sequence)
+    {
+        return address + (sequence & (bufferSize - 1)) * entrySize;
+    }
+
+    static long addressOf(final ByteBuffer buffer)
+    {
+        return UNSAFE.getLong(buffer, ADDRESS_OFFSET);
+    }
+
+    Sequencer getSequencer()
+    {
+        return sequencer;
+    }
+
+    private static int capacityFor(final int bufferSize, final int entrySize)
+    {
+        if (entrySize < 8 || (entrySize & 7) != 0)
+        {
+            throw new IllegalArgumentException("entrySize must be a positive multiple of 8");
+        }
+
+        final long capacity = (long) bufferSize * entrySize;
+        if (capacity > Integer.MAX_VALUE)
+        {
+            throw new IllegalArgumentException(
+                "bufferSize * entrySize must not exceed " + Integer.MAX_VALUE + " bytes, was " + capacity);
+        }
+
+        return (int) capacity;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "OffHeapRingBuffer{" +
+            "bufferSize=" + bufferSize +
+            ", entrySize=" + entrySize +
+            ", sequencer=" + sequencer +
+            '}';
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.primitive;
+
+import com.lmax.disruptor.SequenceBarrier;
+
+/**
+ * Event processor that passes values from an {@link IntRingBuffer} to an {@link IntHandler}.
+ */
+public final class IntEventProcessor extends PrimitiveEventProcessor
+{
+    private final int[] entries;
+    private final int indexMask;
+    private final IntHandler handler;
+
+    /**
+     * @param ringBuffer      from which values are read.
+     * @param sequenceBarrier on which it is waiting.
+     * @param handler         is the delegate to which values are dispatched.
+     */
+    public IntEventProcessor(
+        final IntRingBuffer ringBuffer,
+        final SequenceBarrier sequenceBarrier,
+        final IntHandler handler)
+    {
+        super(sequenceBarrier, handler);
+        this.entries = ringBuffer.entries;
+        this.indexMask = ringBuffer.indexMask;
+        this.handler = handler;
+    }
+
+    @Override
+    void processBatch(final long nextSequence, final long availableSequence)
+    {
+        final int[] entries = this.entries;
+        for (long sequence = nextSequence; sequence <= availableSequence; sequence++)
+        {
+            final int value = entries[IntRingBuffer.PAD + ((int) sequence & indexMask)];
+            try
+            {
+                handler.onEvent(value, sequence, sequence == availableSequence);
+            }
+            catch (final Throwable ex)
+            {
+                handleEventException(ex, sequence, value);
+            }
+        }
+    }
+}
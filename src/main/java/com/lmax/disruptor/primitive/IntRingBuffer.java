@@ -0,0 +1,188 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.primitive;
+
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.InsufficientCapacityException;
+import com.lmax.disruptor.SequenceBarrier;
+import com.lmax.disruptor.Sequencer;
+import com.lmax.disruptor.WaitStrategy;
+import com.lmax.disruptor.dsl.ProducerType;
+
+/**
+ * Ring buffer of <code>int</code> values, consumed by an {@link IntHandler} via an {@link IntEventProcessor}.
+ */
+public final class IntRingBuffer extends PrimitiveRingBuffer<IntHandler>
+{
+    static final int PAD = PAD_BYTES / 4;
+
+    final int[] entries;
+
+    /**
+     * Construct an IntRingBuffer.
+     *
+     * @param sequencer sequencer to handle the ordering of values moving through the ring buffer.
+     * @throws IllegalArgumentException if bufferSize is less than 1 or not a power of 2
+     */
+    public IntRingBuffer(final Sequencer sequencer)
+    {
+        super(sequencer);
+        this.entries = new int[bufferSize + 2 * PAD];
+    }
+
+    /**
+     * Create a new IntRingBuffer with the specified producer type (SINGLE or MULTI)
+     *
+     * @param producerType producer type to use {@link ProducerType}.
+     * @param bufferSize   number of values the ring buffer can hold.
+     * @param waitStrategy used to determine how to wait for new values to become available.
+     * @return a constructed ring buffer.
+     * @throws IllegalArgumentException if bufferSize is less than 1 or not a power of 2
+     */
+    public static IntRingBuffer create(
+        final ProducerType producerType,
+        final int bufferSize,
+        final WaitStrategy waitStrategy)
+    {
+        return new IntRingBuffer(newSequencer(producerType, bufferSize, waitStrategy));
+    }
+
+    /**
+     * Create a new single producer IntRingBuffer with the specified wait strategy.
+     *
+     * @param bufferSize   number of values the ring buffer can hold.
+     * @param waitStrategy used to determine how to wait for new values to become available.
+     * @return a constructed ring buffer.
+     */
+    public static IntRingBuffer createSingleProducer(final int bufferSize, final WaitStrategy waitStrategy)
+    {
+        return create(ProducerType.SINGLE, bufferSize, waitStrategy);
+    }
+
+    /**
+     * Create a new multiple producer IntRingBuffer with the specified wait strategy.
+     *
+     * @param bufferSize   number of values the ring buffer can hold.
+     * @param waitStrategy used to determine how to wait for new values to become available.
+     * @return a constructed ring buffer.
+     */
+    public static IntRingBuffer createMultiProducer(final int bufferSize, final WaitStrategy waitStrategy)
+    {
+        return create(ProducerType.MULTI, bufferSize, waitStrategy);
+    }
+
+    /**
+     * Create a new multiple producer IntRingBuffer using the default wait strategy {@link BlockingWaitStrategy}.
+     *
+     * @param bufferSize number of values the ring buffer can hold.
+     * @return a constructed ring buffer.
+     */
+    public static IntRingBuffer createMultiProducer(final int bufferSize)
+    {
+        return createMultiProducer(bufferSize, new BlockingWaitStrategy());
+    }
+
+    /**
+     * Get the value held for a sequence.
+     *
+     * @param sequence of the value.
+     * @return the value stored at <code>sequence</code>.
+     */
+    public int get(final long sequence)
+    {
+        return entries[PAD + ((int) sequence & indexMask)];
+    }
+
+    /**
+     * Set the value for a sequence previously claimed with {@link #next()}, prior to publishing it.
+     *
+     * @param sequence claimed sequence.
+     * @param value    to store.
+     */
+    public void set(final long sequence, final int value)
+    {
+        entries[PAD + ((int) sequence & indexMask)] = value;
+    }
+
+    /**
+     * Claim the next sequence, store <code>value</code> and publish it.
+     *
+     * @param value to publish.
+     */
+    public void put(final int value)
+    {
+        final long sequence = sequencer.next();
+        entries[PAD + ((int) sequence & indexMask)] = value;
+        sequencer.publish(sequence);
+    }
+
+    /**
+     * Attempt to publish <code>value</code> without blocking.
+     *
+     * @param value to publish.
+     * @return <code>true</code> if the value was published, <code>false</code> if there was insufficient capacity.
+     */
+    public boolean tryPut(final int value)
+    {
+        try
+        {
+            final long sequence = sequencer.tryNext();
+            entries[PAD + ((int) sequence & indexMask)] = value;
+            sequencer.publish(sequence);
+            return true;
+        }
+        catch (final InsufficientCapacityException e)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Publish a region of <code>values</code>, claiming up to a whole ring buffer's worth of sequences at a time.
+     *
+     * @param values to publish.
+     * @param offset of the first value to publish.
+     * @param length number of values to publish.
+     */
+    public void put(final int[] values, final int offset, final int length)
+    {
+        checkBatch(values.length, offset, length);
+
+        int from = offset;
+        int remaining = length;
+        while (remaining > 0)
+        {
+            final int batchSize = Math.min(remaining, bufferSize);
+            final long hi = sequencer.next(batchSize);
+            final long lo = hi - (batchSize - 1);
+
+            final int index = (int) lo & indexMask;
+            final int firstPart = Math.min(batchSize, bufferSize - index);
+            System.arraycopy(values, from, entries, PAD + index, firstPart);
+            System.arraycopy(values, from + firstPart, entries, PAD, batchSize - firstPart);
+
+            sequencer.publish(lo, hi);
+            from += batchSize;
+            remaining -= batchSize;
+        }
+    }
+
+    @Override
+    public IntEventProcessor newEventProcessor(final SequenceBarrier barrier, final IntHandler handler)
+    {
+        return new IntEventProcessor(this, barrier, handler);
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.primitive;
+
+import com.lmax.disruptor.AlertException;
+import com.lmax.disruptor.BatchStartAware;
+import com.lmax.disruptor.EventProcessor;
+import com.lmax.disruptor.ExceptionHandler;
+import com.lmax.disruptor.FatalExceptionHandler;
+import com.lmax.disruptor.LifecycleAware;
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.SequenceBarrier;
+import com.lmax.disruptor.Sequencer;
+import com.lmax.disruptor.TimeoutException;
+import com.lmax.disruptor.TimeoutHandler;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>Batching event processor for a {@link PrimitiveRingBuffer}.  Follows the same life cycle as
+ * {@link com.lmax.disruptor.BatchEventProcessor}, but each subclass reads values directly out of its ring
+ * buffer's array and passes them to a primitive handler, without going through a flyweight event.</p>
+ *
+ * <p>If the handler also implements {@link LifecycleAware}, {@link BatchStartAware} or {@link TimeoutHandler}
+ * it will be notified in the same way as for a {@link com.lmax.disruptor.BatchEventProcessor}.  Values passed to
+ * the {@link ExceptionHandler} are boxed.</p>
+ */
+public abstract class PrimitiveEventProcessor implements EventProcessor
+{
+    private static final int IDLE = 0;
+    private static final int HALTED = IDLE + 1;
+    private static final int RUNNING = HALTED + 1;
+
+    private final AtomicInteger running = new AtomicInteger(IDLE);
+    private ExceptionHandler<Object> exceptionHandler = new FatalExceptionHandler();
+    private final SequenceBarrier sequenceBarrier;
+    private final Object handler;
+    private final Sequence sequence = new Sequence(Sequencer.INITIAL_CURSOR_VALUE);
+    private final TimeoutHandler timeoutHandler;
+    private final BatchStartAware batchStartAware;
+
+    PrimitiveEventProcessor(final SequenceBarrier sequenceBarrier, final Object handler)
+    {
+        this.sequenceBarrier = sequenceBarrier;
+        this.handler = handler;
+
+        batchStartAware =
+            (handler instanceof BatchStartAware) ? (BatchStartAware) handler : null;
+        timeoutHandler =
+            (handler instanceof TimeoutHandler) ? (TimeoutHandler) handler : null;
+    }
+
+    /**
+     * Dispatch every value from <code>nextSequence</code> to <code>availableSequence</code> inclusive.
+     * Exceptions thrown by the handler must be passed to {@link #handleEventException(Throwable, long, Object)}.
+     */
+    abstract void processBatch(long nextSequence, long availableSequence);
+
+    @Override
+    public Sequence getSequence()
+    {
+        return sequence;
+    }
+
+    @Override
+    public void halt()
+    {
+        running.set(HALTED);
+        sequenceBarrier.alert();
+    }
+
+    @Override
+    public boolean isRunning()
+    {
+        return running.get() != IDLE;
+    }
+
+    /**
+     * Set a new {@link ExceptionHandler} for handling exceptions propagated out of the handler.
+     *
+     * @param exceptionHandler to replace the existing exceptionHandler.
+     */
+    public void setExceptionHandler(final ExceptionHandler<Object> exceptionHandler)
+    {
+        if (null == exceptionHandler)
+        {
+            throw new NullPointerException();
+        }
+
+        this.exceptionHandler = exceptionHandler;
+    }
+
+    /**
+     * It is ok to have another thread rerun this method after a halt().
+     *
+     * @throws IllegalStateException if this object instance is already running in a thread
+     */
+    @Override
+    public void run()
+    {
+        if (running.compareAndSet(IDLE, RUNNING))
+        {
+            sequenceBarrier.clearAlert();
+
+            notifyStart();
+            try
+            {
+                if (running.get() == RUNNING)
+                {
+                    processEvents();
+                }
+            }
+            finally
+            {
+                notifyShutdown();
+                running.set(IDLE);
+            }
+        }
+        else
+        {
+            if (running.get() == RUNNING)
+            {
+                throw new IllegalStateException("Thread is already running");
+            }
+            else
+            {
+                notifyStart();
+                notifyShutdown();
+            }
+        }
+    }
+
+    private void processEvents()
+    {
+        long nextSequence = sequence.get() + 1L;
+
+        while (true)
+        {
+            try
+            {
+                final long availableSequence = sequenceBarrier.waitFor(nextSequence);
+                if (availableSequence >= nextSequence)
+                {
+                    if (batchStartAware != null)
+                    {
+                        batchStartAware.onBatchStart(availableSequence - nextSequence + 1);
+                    }
+
+                    processBatch(nextSequence, availableSequence);
+                    sequence.set(availableSequence);
+                    nextSequence = availableSequence + 1;
+                }
+            }
+            catch (final TimeoutException e)
+            {
+                notifyTimeout(sequence.get());
+            }
+            catch (final AlertException ex)
+            {
+                if (running.get() != RUNNING)
+                {
+                    break;
+                }
+            }
+            catch (final Throwable ex)
+            {
+                exceptionHandler.handleEventException(ex, nextSequence, null);
+                sequence.set(nextSequence);
+                nextSequence++;
+            }
+        }
+    }
+
+    final void handleEventException(final Throwable ex, final long sequence, final Object value)
+    {
+        exceptionHandler.handleEventException(ex, sequence, value);
+    }
+
+    private void notifyTimeout(final long availableSequence)
+    {
+        try
+        {
+            if (timeoutHandler != null)
+            {
+                timeoutHandler.onTimeout(availableSequence);
+            }
+        }
+        catch (Throwable e)
+        {
+            exceptionHandler.handleEventException(e, availableSequence, null);
+        }
+    }
+
+    private void notifyStart()
+    {
+        if (handler instanceof LifecycleAware)
+        {
+            try
+            {
+                ((LifecycleAware) handler).onStart();
+            }
+            catch (final Throwable ex)
+            {
+                exceptionHandler.handleOnStartException(ex);
+            }
+        }
+    }
+
+    private void notifyShutdown()
+    {
+        if (handler instanceof LifecycleAware)
+        {
+            try
+            {
+                ((LifecycleAware) handler).onShutdown();
+            }
+            catch (final Throwable ex)
+            {
+                exceptionHandler.handleOnShutdownException(ex);
+            }
+        }
+    }
+}
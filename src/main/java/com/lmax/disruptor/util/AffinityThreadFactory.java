@@ -0,0 +1,112 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.util;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>A {@link ThreadFactory} that pins each thread it creates to the next of a set of CPUs, or sets of CPUs,
+ * before the thread runs its task.  The CPUs are handed out in turn and reused once they have all been given out.</p>
+ *
+ * <p>The {@link com.lmax.disruptor.dsl.Disruptor} starts one thread for each event processor, and each worker of a
+ * worker pool, in the order they were added, so passing this factory to it lays the processors out over the CPUs
+ * in pipeline order.  To keep a producer and its consumers on a shared cache, pin the producer with
+ * {@link ThreadAffinity#pinCurrentThread(int...)} and give this factory the remaining CPUs from
+ * {@link ThreadAffinity#cpusSharingCacheWith(int)}.</p>
+ *
+ * <p>Pinning is best effort, see {@link ThreadAffinity}.</p>
+ */
+public final class AffinityThreadFactory implements ThreadFactory
+{
+    private final ThreadFactory delegate;
+    private final int[][] cpuSets;
+    private final AtomicInteger nextCpuSet = new AtomicInteger();
+    private final AtomicInteger pinnedCount = new AtomicInteger();
+
+    /**
+     * Create a factory that pins each thread to a single CPU.
+     *
+     * @param delegate the factory that creates the threads.
+     * @param cpus     the ids of the CPUs to pin threads to, one per thread.
+     * @throws IllegalArgumentException if no CPUs are given or a CPU id is negative.
+     */
+    public AffinityThreadFactory(final ThreadFactory delegate, final int... cpus)
+    {
+        this(delegate, toCpuSets(cpus));
+    }
+
+    /**
+     * Create a factory that pins each thread to a set of CPUs.
+     *
+     * @param delegate the factory that creates the threads.
+     * @param cpuSets  the sets of CPU ids to pin threads to, one set per thread.
+     * @throws IllegalArgumentException if no CPU sets are given, a set is empty or a CPU id is negative.
+     */
+    public AffinityThreadFactory(final ThreadFactory delegate, final int[][] cpuSets)
+    {
+        if (0 == cpuSets.length)
+        {
+            throw new IllegalArgumentException("At least one CPU must be given");
+        }
+
+        this.cpuSets = new int[cpuSets.length][];
+        for (int i = 0; i < cpuSets.length; i++)
+        {
+            ThreadAffinity.formatCpuList(cpuSets[i]);
+            this.cpuSets[i] = cpuSets[i].clone();
+        }
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Thread newThread(final Runnable r)
+    {
+        final int[] cpus = cpuSets[(nextCpuSet.getAndIncrement() & Integer.MAX_VALUE) % cpuSets.length];
+        return delegate.newThread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                if (ThreadAffinity.pinCurrentThread(cpus))
+                {
+                    pinnedCount.incrementAndGet();
+                }
+                r.run();
+            }
+        });
+    }
+
+    /**
+     * @return the number of threads created by this factory that have been pinned so far, which is less than the
+     * number started if pinning is not supported or failed.
+     */
+    public int getPinnedCount()
+    {
+        return pinnedCount.get();
+    }
+
+    private static int[][] toCpuSets(final int[] cpus)
+    {
+        final int[][] cpuSets = new int[cpus.length][];
+        for (int i = 0; i < cpus.length; i++)
+        {
+            cpuSets[i] = new int[] {cpus[i]};
+        }
+
+        return cpuSets;
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * <p>Pins threads to CPUs so that busy spinning event processors are not migrated between cores or sockets.</p>
+ *
+ * <p>Only Linux is supported.  The calling thread's id is read from <code>/proc/thread-self</code> and its
+ * affinity is set with the <code>taskset</code> utility, so no native library needs to be loaded.  Pinning is
+ * best effort: on other platforms, or if <code>taskset</code> is not installed, threads are left unpinned.</p>
+ *
+ * @see AffinityThreadFactory
+ */
+public final class ThreadAffinity
+{
+    private static final Path THREAD_SELF = Paths.get("/proc/thread-self");
+    private static final Path CPU_ROOT = Paths.get("/sys/devices/system/cpu");
+
+    private ThreadAffinity()
+    {
+    }
+
+    /**
+     * @return <code>true</code> if threads can be pinned on this platform.
+     */
+    public static boolean isSupported()
+    {
+        return Files.isSymbolicLink(THREAD_SELF);
+    }
+
+    /**
+     * Pin the calling thread to a set of CPUs.
+     *
+     * @param cpus the ids of the CPUs the thread may run on.
+     * @return <code>true</code> if the thread was pinned, <code>false</code> if pinning is not supported or failed.
+     * @throws IllegalArgumentException if no CPUs are given or a CPU id is negative.
+     */
+    public static boolean pinCurrentThread(final int... cpus)
+    {
+        final String cpuList = formatCpuList(cpus);
+        if (!isSupported())
+        {
+            return false;
+        }
+
+        try
+        {
+            // /proc/thread-self链接到<pid>/task/<tid>
+            final String tid = Files.readSymbolicLink(THREAD_SELF).getFileName().toString();
+            final Process process = new ProcessBuilder("taskset", "-p", "-c", cpuList, tid)
+                .redirectErrorStream(true)
+                .start();
+            drain(process);
+            return 0 == process.waitFor();
+        }
+        catch (final IOException e)
+        {
+            return false;
+        }
+        catch (final InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * <p>Get the CPUs that share the last level cache with a CPU.</p>
+     *
+     * <p>Pinning a producer and the event processors that follow it to CPUs from this set keeps the events they
+     * exchange in a cache they all share, rather than moving them across sockets.</p>
+     *
+     * @param cpu the id of the CPU.
+     * @return the ids of the CPUs sharing its last level cache, in ascending order, including <code>cpu</code>
+     * itself.  Just <code>cpu</code> is returned if the cache topology is not known.
+     */
+    public static int[] cpusSharingCacheWith(final int cpu)
+    {
+        final Path cacheRoot = CPU_ROOT.resolve("cpu" + cpu).resolve("cache");
+        int highestLevel = -1;
+        int[] cpus = {cpu};
+        for (int index = 0; Files.isDirectory(cacheRoot.resolve("index" + index)); index++)
+        {
+            final Path cache = cacheRoot.resolve("index" + index);
+            try
+            {
+                final int level = Integer.parseInt(read(cache.resolve("level")));
+                if (level > highestLevel)
+                {
+                    highestLevel = level;
+                    cpus = parseCpuList(read(cache.resolve("shared_cpu_list")));
+                }
+            }
+            catch (final IOException | IllegalArgumentException e)
+            {
+                return new int[] {cpu};
+            }
+        }
+
+        return cpus;
+    }
+
+    /**
+     * Parse a Linux CPU list such as <code>0-3,8,10-11</code>.
+     *
+     * @param cpuList the list to parse.
+     * @return the ids of the listed CPUs, in ascending order.
+     * @throws IllegalArgumentException if the list can not be parsed.
+     */
+    static int[] parseCpuList(final String cpuList)
+    {
+        int[] cpus = new int[0];
+        for (final String range : cpuList.trim().split(","))
+        {
+            final int dash = range.indexOf('-');
+            final int first = Integer.parseInt(range.substring(0, -1 == dash ? range.length() : dash).trim());
+            final int last = -1 == dash ? first : Integer.parseInt(range.substring(dash + 1).trim());
+            if (first < 0 || last < first)
+            {
+                throw new IllegalArgumentException("Invalid CPU range: " + range);
+            }
+
+            final int offset = cpus.length;
+            cpus = Arrays.copyOf(cpus, offset + last - first + 1);
+            for (int i = first; i <= last; i++)
+            {
+                cpus[offset + i - first] = i;
+            }
+        }
+
+        Arrays.sort(cpus);
+        return cpus;
+    }
+
+    /**
+     * Format CPU ids as a Linux CPU list.
+     *
+     * @param cpus the ids of the CPUs.
+     * @return a comma separated list of the CPUs.
+     * @throws IllegalArgumentException if no CPUs are given or a CPU id is negative.
+     */
+    static String formatCpuList(final int... cpus)
+    {
+        if (0 == cpus.length)
+        {
+            throw new IllegalArgumentException("At least one CPU must be given");
+        }
+
+        final StringBuilder sb = new StringBuilder();
+        for (final int cpu : cpus)
+        {
+            if (cpu < 0)
+            {
+                throw new IllegalArgumentException("Invalid CPU: " + cpu);
+            }
+            if (sb.length() > 0)
+            {
+                sb.append(',');
+            }
+            sb.append(cpu);
+        }
+
+        return sb.toString();
+    }
+
+    private static String read(final Path path) throws IOException
+    {
+        return new String(Files.readAllBytes(path), StandardCharsets.US_ASCII).trim();
+    }
+
+    private static void drain(final Process process) throws IOException
+    {
+        final byte[] buffer = new byte[256];
+        while (-1 != process.getInputStream().read(buffer))
+        {
+            // taskset的输出无需处理
+        }
+    }
+}
@@ -19,10 +19,14 @@ import com.lmax.disruptor.EventProcessor;
 import com.lmax.disruptor.Sequence;
 import sun.misc.Unsafe;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Field;
 import java.security.AccessController;
 import java.security.PrivilegedExceptionAction;
 
+import static java.lang.invoke.MethodType.methodType;
+
 /**
  * Set of common functions used by the Disruptor
  */
@@ -123,6 +127,92 @@ public final class Util
         return THE_UNSAFE;
     }
 
+    // Unsafe.getAndAddLong和Unsafe.fullFence从Java 8开始才有，Java 7上退回到CAS循环和volatile写
+    private static final MethodHandle GET_AND_ADD_LONG_METHOD_HANDLE;
+    private static final MethodHandle FULL_FENCE_METHOD_HANDLE;
+    private static volatile int fence;
+
+    static
+    {
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+        MethodHandle getAndAddLong = null;
+        try
+        {
+            getAndAddLong = lookup.findVirtual(
+                Unsafe.class, "getAndAddLong", methodType(long.class, Object.class, long.class, long.class))
+                .bindTo(THE_UNSAFE);
+        }
+        catch (final Exception ignore)
+        {
+        }
+
+        MethodHandle fullFence = null;
+        try
+        {
+            fullFence = lookup.findVirtual(Unsafe.class, "fullFence", methodType(void.class)).bindTo(THE_UNSAFE);
+        }
+        catch (final Exception ignore)
+        {
+        }
+
+        GET_AND_ADD_LONG_METHOD_HANDLE = getAndAddLong;
+        FULL_FENCE_METHOD_HANDLE = fullFence;
+    }
+
+    /**
+     * Atomically add to a long field or off-heap address, with a hardware fetch-and-add on Java SE versions whose
+     * Unsafe supports it and a compare-and-swap loop otherwise.
+     *
+     * @param o      object holding the field, or <code>null</code> for an absolute address.
+     * @param offset of the field, or the absolute address.
+     * @param delta  the value to add.
+     * @return the value before the add.
+     */
+    public static long getAndAddLong(final Object o, final long offset, final long delta)
+    {
+        if (null != GET_AND_ADD_LONG_METHOD_HANDLE)
+        {
+            try
+            {
+                return (long) GET_AND_ADD_LONG_METHOD_HANDLE.invokeExact(o, offset, delta);
+            }
+            catch (final Throwable ignore)
+            {
+            }
+        }
+
+        long current;
+        do
+        {
+            current = THE_UNSAFE.getLongVolatile(o, offset);
+        }
+        while (!THE_UNSAFE.compareAndSwapLong(o, offset, current, current + delta));
+
+        return current;
+    }
+
+    /**
+     * Ensure that loads and stores before the fence are not reordered with loads and stores after it, with
+     * Unsafe.fullFence on Java SE versions that support it and a volatile write otherwise.
+     */
+    public static void fullFence()
+    {
+        if (null != FULL_FENCE_METHOD_HANDLE)
+        {
+            try
+            {
+                FULL_FENCE_METHOD_HANDLE.invokeExact();
+                return;
+            }
+            catch (final Throwable ignore)
+            {
+            }
+        }
+
+        fence = 0;
+    }
+
     /**
      * Calculate the log base 2 of the supplied integer, essentially reports the location
      * of the highest bit.
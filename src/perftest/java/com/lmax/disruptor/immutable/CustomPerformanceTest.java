@@ -3,17 +3,18 @@ package com.lmax.disruptor.immutable;
 import java.util.concurrent.locks.LockSupport;
 
 import com.lmax.disruptor.BatchEventProcessor;
-import com.lmax.disruptor.SingleProducerSequencer;
+import com.lmax.disruptor.RingBuffer;
 import com.lmax.disruptor.YieldingWaitStrategy;
+import com.lmax.disruptor.dsl.ProducerType;
 
 public class CustomPerformanceTest
 {
-    private final CustomRingBuffer<SimpleEvent> ringBuffer;
+    private final RingBuffer<SimpleEvent> ringBuffer;
 
     public CustomPerformanceTest()
     {
         ringBuffer =
-            new CustomRingBuffer<SimpleEvent>(new SingleProducerSequencer(Constants.SIZE, new YieldingWaitStrategy()));
+            RingBuffer.createReferencePassing(ProducerType.SINGLE, Constants.SIZE, new YieldingWaitStrategy());
     }
 
     public void run()
@@ -30,7 +31,9 @@ public class CustomPerformanceTest
 
     private void doRun() throws InterruptedException
     {
-        BatchEventProcessor<?> batchEventProcessor = ringBuffer.createHandler(new SimpleEventHandler());
+        BatchEventProcessor<SimpleEvent> batchEventProcessor =
+            new BatchEventProcessor<>(ringBuffer, ringBuffer.newBarrier(), new SimpleEventHandler());
+        ringBuffer.addGatingSequences(batchEventProcessor.getSequence());
 
         Thread t = new Thread(batchEventProcessor);
         t.start();
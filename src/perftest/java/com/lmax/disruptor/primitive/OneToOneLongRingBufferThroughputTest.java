@@ -0,0 +1,138 @@
+package com.lmax.disruptor.primitive;
+
+import com.lmax.disruptor.AbstractPerfTestDisruptor;
+import com.lmax.disruptor.BatchStartAware;
+import com.lmax.disruptor.PerfTestContext;
+import com.lmax.disruptor.YieldingWaitStrategy;
+import com.lmax.disruptor.support.PerfTestUtil;
+import com.lmax.disruptor.util.DaemonThreadFactory;
+import com.lmax.disruptor.util.PaddedLong;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.lmax.disruptor.support.PerfTestUtil.failIfNot;
+
+/**
+ * <pre>
+ * UniCast a series of longs between 1 publisher and 1 event processor, without event objects.
+ *
+ * +----+    +-----+
+ * | P1 |--->| EP1 |
+ * +----+    +-----+
+ *
+ * Compare with {@link com.lmax.disruptor.sequenced.OneToOneSequencedThroughputTest}.
+ * </pre>
+ */
+public final class OneToOneLongRingBufferThroughputTest extends AbstractPerfTestDisruptor
+{
+    private static final int BUFFER_SIZE = 1024 * 64;
+    private static final long ITERATIONS = 1000L * 1000L * 100L;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(DaemonThreadFactory.INSTANCE);
+    private final long expectedResult = PerfTestUtil.accumulatedAddition(ITERATIONS);
+
+    ///////////////////////////////////////////////////////////////////////////////////////////////
+
+    private final LongRingBuffer ringBuffer =
+        LongRingBuffer.createSingleProducer(BUFFER_SIZE, new YieldingWaitStrategy());
+    private final ValueAdditionLongHandler handler = new ValueAdditionLongHandler();
+    private final LongEventProcessor eventProcessor = ringBuffer.newEventProcessor(ringBuffer.newBarrier(), handler);
+
+    {
+        ringBuffer.addGatingSequences(eventProcessor.getSequence());
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    protected int getRequiredProcessorCount()
+    {
+        return 2;
+    }
+
+    @Override
+    protected PerfTestContext runDisruptorPass() throws InterruptedException
+    {
+        PerfTestContext perfTestContext = new PerfTestContext();
+        final CountDownLatch latch = new CountDownLatch(1);
+        long expectedCount = eventProcessor.getSequence().get() + ITERATIONS;
+        handler.reset(latch, expectedCount);
+        executor.submit(eventProcessor);
+        long start = System.currentTimeMillis();
+
+        final LongRingBuffer rb = ringBuffer;
+
+        for (long i = 0; i < ITERATIONS; i++)
+        {
+            rb.put(i);
+        }
+
+        latch.await();
+        perfTestContext.setDisruptorOps((ITERATIONS * 1000L) / (System.currentTimeMillis() - start));
+        perfTestContext.setBatchData(handler.getBatchesProcessed(), ITERATIONS);
+        waitForEventProcessorSequence(expectedCount);
+        eventProcessor.halt();
+
+        failIfNot(expectedResult, handler.getValue());
+
+        return perfTestContext;
+    }
+
+    private void waitForEventProcessorSequence(long expectedCount) throws InterruptedException
+    {
+        while (eventProcessor.getSequence().get() != expectedCount)
+        {
+            Thread.sleep(1);
+        }
+    }
+
+    public static void main(String[] args) throws Exception
+    {
+        OneToOneLongRingBufferThroughputTest test = new OneToOneLongRingBufferThroughputTest();
+        test.testImplementations();
+    }
+
+    private static final class ValueAdditionLongHandler implements LongHandler, BatchStartAware
+    {
+        private final PaddedLong value = new PaddedLong();
+        private final PaddedLong batchesProcessed = new PaddedLong();
+        private long count;
+        private CountDownLatch latch;
+
+        public long getValue()
+        {
+            return value.get();
+        }
+
+        public long getBatchesProcessed()
+        {
+            return batchesProcessed.get();
+        }
+
+        public void reset(final CountDownLatch latch, final long expectedCount)
+        {
+            value.set(0L);
+            this.latch = latch;
+            count = expectedCount;
+            batchesProcessed.set(0);
+        }
+
+        @Override
+        public void onEvent(final long event, final long sequence, final boolean endOfBatch)
+        {
+            value.set(value.get() + event);
+
+            if (count == sequence)
+            {
+                latch.countDown();
+            }
+        }
+
+        @Override
+        public void onBatchStart(long batchSize)
+        {
+            batchesProcessed.increment();
+        }
+    }
+}
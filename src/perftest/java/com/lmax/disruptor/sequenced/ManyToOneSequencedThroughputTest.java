@@ -0,0 +1,137 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.sequenced;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.lmax.disruptor.*;
+import com.lmax.disruptor.support.ValueAdditionEventHandler;
+import com.lmax.disruptor.support.ValuePublisher;
+import com.lmax.disruptor.support.ValueEvent;
+import com.lmax.disruptor.util.DaemonThreadFactory;
+
+/**
+ * <pre>
+ *
+ * Sequence a series of events from N publishers going to one event processor, once with the compare-and-set
+ * {@link MultiProducerSequencer} and once with the fetch-and-add {@link FetchAddMultiProducerSequencer}, for each
+ * publisher count given on the command line (1, 2, 4, 8 and 16 by default), to show how claims scale with the
+ * number of publishers.
+ *
+ * +-----+
+ * | P1  |------+
+ * +-----+      |
+ *   ...        v
+ * +-----+    +-----+
+ * | PN  |--->| EP1 |
+ * +-----+    +-----+
+ *
+ * P1  - Publisher 1
+ * PN  - Publisher N
+ * EP1 - EventProcessor 1
+ *
+ * </pre>
+ */
+public final class ManyToOneSequencedThroughputTest extends AbstractPerfTestDisruptor
+{
+    private static final int BUFFER_SIZE = 1024 * 64;
+    private static final long ITERATIONS = 1000L * 1000L * 100L;
+    private final int numPublishers;
+    private final ExecutorService executor;
+    private final CyclicBarrier cyclicBarrier;
+
+    ///////////////////////////////////////////////////////////////////////////////////////////////
+
+    private final RingBuffer<ValueEvent> ringBuffer;
+    private final ValueAdditionEventHandler handler = new ValueAdditionEventHandler();
+    private final BatchEventProcessor<ValueEvent> batchEventProcessor;
+    private final ValuePublisher[] valuePublishers;
+
+    private ManyToOneSequencedThroughputTest(final int numPublishers, final boolean fetchAdd)
+    {
+        this.numPublishers = numPublishers;
+        executor = Executors.newFixedThreadPool(numPublishers + 1, DaemonThreadFactory.INSTANCE);
+        cyclicBarrier = new CyclicBarrier(numPublishers + 1);
+        ringBuffer = fetchAdd ?
+            RingBuffer.createFetchAddMultiProducer(ValueEvent.EVENT_FACTORY, BUFFER_SIZE, new YieldingWaitStrategy()) :
+            RingBuffer.createMultiProducer(ValueEvent.EVENT_FACTORY, BUFFER_SIZE, new YieldingWaitStrategy());
+        batchEventProcessor = new BatchEventProcessor<ValueEvent>(ringBuffer, ringBuffer.newBarrier(), handler);
+
+        valuePublishers = new ValuePublisher[numPublishers];
+        for (int i = 0; i < numPublishers; i++)
+        {
+            valuePublishers[i] = new ValuePublisher(cyclicBarrier, ringBuffer, ITERATIONS / numPublishers);
+        }
+
+        ringBuffer.addGatingSequences(batchEventProcessor.getSequence());
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    protected int getRequiredProcessorCount()
+    {
+        return numPublishers + 1;
+    }
+
+    @Override
+    protected PerfTestContext runDisruptorPass() throws Exception
+    {
+        PerfTestContext perfTestContext = new PerfTestContext();
+        final CountDownLatch latch = new CountDownLatch(1);
+        handler.reset(latch, batchEventProcessor.getSequence().get() + ((ITERATIONS / numPublishers) * numPublishers));
+
+        Future<?>[] futures = new Future[numPublishers];
+        for (int i = 0; i < numPublishers; i++)
+        {
+            futures[i] = executor.submit(valuePublishers[i]);
+        }
+        executor.submit(batchEventProcessor);
+
+        long start = System.currentTimeMillis();
+        cyclicBarrier.await();
+
+        for (int i = 0; i < numPublishers; i++)
+        {
+            futures[i].get();
+        }
+
+        latch.await();
+
+        perfTestContext.setDisruptorOps((ITERATIONS * 1000L) / (System.currentTimeMillis() - start));
+        perfTestContext.setBatchData(handler.getBatchesProcessed(), ITERATIONS);
+        batchEventProcessor.halt();
+
+        return perfTestContext;
+    }
+
+    public static void main(String[] args) throws Exception
+    {
+        final String[] publisherCounts = args.length > 0 ? args : new String[] {"1", "2", "4", "8", "16"};
+        for (final String publisherCount : publisherCounts)
+        {
+            final int numPublishers = Integer.parseInt(publisherCount);
+            System.out.println("MultiProducerSequencer, publishers=" + numPublishers);
+            new ManyToOneSequencedThroughputTest(numPublishers, false).testImplementations();
+            System.out.println("FetchAddMultiProducerSequencer, publishers=" + numPublishers);
+            new ManyToOneSequencedThroughputTest(numPublishers, true).testImplementations();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.sequenced;
+
+import java.util.concurrent.CountDownLatch;
+
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.YieldingWaitStrategy;
+import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.ProducerType;
+import com.lmax.disruptor.support.HistogramLatencyRecorder;
+import com.lmax.disruptor.support.ValueEvent;
+import com.lmax.disruptor.util.DaemonThreadFactory;
+
+/**
+ * <pre>
+ *
+ * Traces the latency from publication to each stage of a three step pipeline, sampling
+ * one in every SAMPLE_INTERVAL events.
+ *
+ * +----+    +-----+    +-----+    +-----+
+ * | P1 |--->| EP1 |--->| EP2 |--->| EP3 |
+ * +----+    +-----+    +-----+    +-----+
+ *
+ * The latency reported for EP3 is end to end; the difference between consecutive stages
+ * is the time each one adds.
+ *
+ * </pre>
+ * <p>
+ * Note: <b>This test is only useful on a system using an invariant TSC in user space from the System.nanoTime() call.</b>
+ */
+public final class ThreeStagePipelineSequencedLatencyTracingTest
+{
+    private static final int BUFFER_SIZE = 1024 * 8;
+    private static final int SAMPLE_INTERVAL = 16;
+    private static final long ITERATIONS = 1000L * 1000L * 10L;
+    private static final long PAUSE_NANOS = 1000L;
+
+    private final HistogramLatencyRecorder recorder = new HistogramLatencyRecorder();
+    private final StageHandler[] stages = {new StageHandler(), new StageHandler(), new StageHandler()};
+
+    public void run() throws Exception
+    {
+        for (final StageHandler stage : stages)
+        {
+            recorder.addStage(stage);
+        }
+
+        final Disruptor<ValueEvent> disruptor = new Disruptor<>(
+            ValueEvent.EVENT_FACTORY, BUFFER_SIZE, DaemonThreadFactory.INSTANCE,
+            ProducerType.SINGLE, new YieldingWaitStrategy());
+        disruptor.enableLatencyTracing(SAMPLE_INTERVAL, recorder);
+        disruptor.handleEventsWith(stages[0]).then(stages[1]).then(stages[2]);
+        final RingBuffer<ValueEvent> ringBuffer = disruptor.start();
+
+        final int runs = 3;
+        for (int i = 0; i < runs; i++)
+        {
+            recorder.reset();
+            final CountDownLatch latch = new CountDownLatch(1);
+            stages[2].reset(latch, ITERATIONS);
+
+            for (long l = 0; l < ITERATIONS; l++)
+            {
+                final long t0 = System.nanoTime();
+                final long sequence = ringBuffer.next();
+                ringBuffer.get(sequence).setValue(l);
+                ringBuffer.publish(sequence);
+
+                while (PAUSE_NANOS > (System.nanoTime() - t0))
+                {
+                    Thread.yield();
+                }
+            }
+
+            latch.await();
+
+            System.out.format("%s run %d\n", getClass().getSimpleName(), Long.valueOf(i));
+            for (int s = 0; s < stages.length; s++)
+            {
+                recorder.print(stages[s], "EP" + (s + 1), System.out);
+            }
+        }
+
+        disruptor.halt();
+    }
+
+    public static void main(final String[] args) throws Exception
+    {
+        new ThreeStagePipelineSequencedLatencyTracingTest().run();
+    }
+
+    private static final class StageHandler implements EventHandler<ValueEvent>
+    {
+        private CountDownLatch latch;
+        private long count;
+        private long sum;
+
+        void reset(final CountDownLatch latch, final long count)
+        {
+            this.latch = latch;
+            this.count = count;
+        }
+
+        @Override
+        public void onEvent(final ValueEvent event, final long sequence, final boolean endOfBatch) throws Exception
+        {
+            sum += event.getValue();
+
+            if (null != latch && --count == 0)
+            {
+                latch.countDown();
+            }
+        }
+    }
+}
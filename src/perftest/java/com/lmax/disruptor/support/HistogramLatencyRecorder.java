@@ -0,0 +1,68 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.support;
+
+import java.io.PrintStream;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+
+import com.lmax.disruptor.LatencyRecorder;
+
+/**
+ * Records the sampled latencies of each stage in its own {@link Histogram}.  Stages are added before the run so that
+ * recording does not allocate, and each histogram is only written by the thread of its stage.
+ */
+public final class HistogramLatencyRecorder implements LatencyRecorder
+{
+    private final Map<Object, Histogram> histograms = new IdentityHashMap<>();
+
+    public Histogram addStage(final Object stage)
+    {
+        final Histogram histogram = new Histogram(10000000000L, 4);
+        histograms.put(stage, histogram);
+        return histogram;
+    }
+
+    @Override
+    public void recordLatency(final Object stage, final long sequence, final long latencyNanos)
+    {
+        histograms.get(stage).recordValue(latencyNanos);
+    }
+
+    public void reset()
+    {
+        for (final Histogram histogram : histograms.values())
+        {
+            histogram.reset();
+        }
+    }
+
+    public void print(final Object stage, final String name, final PrintStream out)
+    {
+        final Histogram histogram = histograms.get(stage);
+        out.format(
+            "%s count=%d mean=%.0fns p50=%dns p99=%dns p99.9=%dns max=%dns%n",
+            name,
+            Long.valueOf(histogram.getTotalCount()),
+            Double.valueOf(histogram.getMean()),
+            Long.valueOf(histogram.getValueAtPercentile(50.0)),
+            Long.valueOf(histogram.getValueAtPercentile(99.0)),
+            Long.valueOf(histogram.getValueAtPercentile(99.9)),
+            Long.valueOf(histogram.getMaxValue()));
+    }
+}
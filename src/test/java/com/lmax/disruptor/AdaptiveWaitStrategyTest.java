@@ -0,0 +1,91 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import static com.lmax.disruptor.support.WaitStrategyTestUtil.assertWaitForWithDelayOf;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.lmax.disruptor.support.DummySequenceBarrier;
+
+public class AdaptiveWaitStrategyTest
+{
+    @Test
+    public void shouldHandleImmediateSequenceChange() throws Exception
+    {
+        assertWaitForWithDelayOf(0, AdaptiveWaitStrategy.withLock(1, 1, MILLISECONDS));
+        assertWaitForWithDelayOf(0, AdaptiveWaitStrategy.withLiteLock(1, 1, MILLISECONDS));
+    }
+
+    @Test
+    public void shouldHandleSequenceChangeWithOneMillisecondDelay() throws Exception
+    {
+        assertWaitForWithDelayOf(1, AdaptiveWaitStrategy.withLock(1, 1, MILLISECONDS));
+        assertWaitForWithDelayOf(1, AdaptiveWaitStrategy.withLiteLock(1, 1, MILLISECONDS));
+    }
+
+    @Test
+    public void shouldHandleSequenceChangeWithTenMillisecondDelay() throws Exception
+    {
+        assertWaitForWithDelayOf(10, AdaptiveWaitStrategy.withLock(1, 1, MILLISECONDS));
+        assertWaitForWithDelayOf(10, AdaptiveWaitStrategy.withLiteLock(1, 1, MILLISECONDS));
+    }
+
+    @Test
+    public void shouldSpinLongerWhenWaitsAreShort() throws Exception
+    {
+        final long maxSpinNanos = MICROSECONDS.toNanos(50);
+
+        assertThat(AdaptiveWaitStrategy.spinBudgetNanos(0, maxSpinNanos), is(1000L));
+        assertThat(AdaptiveWaitStrategy.spinBudgetNanos(10000, maxSpinNanos), is(20000L));
+        assertThat(AdaptiveWaitStrategy.spinBudgetNanos(30000, maxSpinNanos), is(1000L));
+    }
+
+    @Test
+    public void shouldStopYieldingWhenWaitsOutlastBackoff() throws Exception
+    {
+        final long maxSpinNanos = MICROSECONDS.toNanos(50);
+        final long maxYieldNanos = MICROSECONDS.toNanos(500);
+
+        assertThat(AdaptiveWaitStrategy.yieldBudgetNanos(10000, maxSpinNanos, maxYieldNanos), is(maxYieldNanos));
+        assertThat(AdaptiveWaitStrategy.yieldBudgetNanos(200000, maxSpinNanos, maxYieldNanos), is(maxYieldNanos));
+        assertThat(AdaptiveWaitStrategy.yieldBudgetNanos(300000, maxSpinNanos, maxYieldNanos), is(0L));
+    }
+
+    @Test
+    public void shouldTrackAverageWaitOfCallingThread() throws Exception
+    {
+        final AdaptiveWaitStrategy waitStrategy = AdaptiveWaitStrategy.withLock(1, 1, MILLISECONDS);
+        final Sequence cursor = new Sequence(0);
+
+        for (int i = 0; i < 10; i++)
+        {
+            waitStrategy.waitFor(0, cursor, cursor, new DummySequenceBarrier());
+        }
+        assertThat(waitStrategy.getAverageWaitNanos(), is(0L));
+
+        for (int i = 0; i < 10; i++)
+        {
+            assertWaitForWithDelayOf(5, waitStrategy);
+        }
+        assertTrue(waitStrategy.getAverageWaitNanos() > MICROSECONDS.toNanos(500));
+    }
+}
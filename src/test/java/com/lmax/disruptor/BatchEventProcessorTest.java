@@ -301,6 +301,151 @@ public final class BatchEventProcessorTest
         assertThat(eventHandler.batchSizeToCountMap.get(0L), nullValue());
     }
 
+    @Test
+    public void shouldPassWholeBatchToBatchEventHandler() throws Exception
+    {
+        final List<long[]> batches = new ArrayList<long[]>();
+        final CountDownLatch latch = new CountDownLatch(1);
+        final BatchEventHandler<StubEvent> batchEventHandler = new BatchEventHandler<StubEvent>()
+        {
+            @Override
+            public void onBatch(final DataProvider<? extends StubEvent> events, final long lo, final long hi)
+            {
+                long sum = 0;
+                for (long sequence = lo; sequence <= hi; sequence++)
+                {
+                    sum += events.get(sequence).getValue();
+                }
+                batches.add(new long[]{lo, hi, sum});
+                latch.countDown();
+            }
+        };
+
+        final BatchEventProcessor<StubEvent> batchEventProcessor =
+            new BatchEventProcessor<StubEvent>(ringBuffer, sequenceBarrier, batchEventHandler);
+        ringBuffer.addGatingSequences(batchEventProcessor.getSequence());
+
+        for (int i = 1; i <= 3; i++)
+        {
+            final long sequence = ringBuffer.next();
+            ringBuffer.get(sequence).setValue(i);
+            ringBuffer.publish(sequence);
+        }
+
+        Thread thread = new Thread(batchEventProcessor);
+        thread.start();
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        batchEventProcessor.halt();
+        thread.join();
+
+        assertEquals(1, batches.size());
+        assertArrayEquals(new long[]{0L, 2L, 6L}, batches.get(0));
+        assertEquals(2L, batchEventProcessor.getSequence().get());
+    }
+
+    @Test
+    public void shouldReportLastSequenceOfFailedBatchAndContinue() throws Exception
+    {
+        final CountDownLatch latch = new CountDownLatch(2);
+        final List<Long> failedSequences = new ArrayList<Long>();
+        final BatchEventHandler<StubEvent> batchEventHandler = new BatchEventHandler<StubEvent>()
+        {
+            @Override
+            public void onBatch(final DataProvider<? extends StubEvent> events, final long lo, final long hi)
+            {
+                latch.countDown();
+                throw new IllegalStateException();
+            }
+        };
+
+        final BatchEventProcessor<StubEvent> batchEventProcessor =
+            new BatchEventProcessor<StubEvent>(ringBuffer, sequenceBarrier, batchEventHandler);
+        batchEventProcessor.setExceptionHandler(new LatchExceptionHandler(new CountDownLatch(0))
+        {
+            @Override
+            public void handleEventException(final Throwable ex, final long sequence, final StubEvent event)
+            {
+                failedSequences.add(sequence);
+            }
+        });
+        ringBuffer.addGatingSequences(batchEventProcessor.getSequence());
+
+        ringBuffer.publish(ringBuffer.next());
+        ringBuffer.publish(ringBuffer.next());
+
+        Thread thread = new Thread(batchEventProcessor);
+        thread.start();
+
+        while (batchEventProcessor.getSequence().get() != 1L)
+        {
+            Thread.yield();
+        }
+        ringBuffer.publish(ringBuffer.next());
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        batchEventProcessor.halt();
+        thread.join();
+
+        assertEquals(Arrays.asList(1L, 2L), failedSequences);
+    }
+
+    @Test
+    public void shouldLimitBatchSizeAndReportProgressAfterEachBatch() throws Exception
+    {
+        final List<Long> batchSizes = new ArrayList<Long>();
+        final List<Long> endOfBatchSequences = new ArrayList<Long>();
+        final CountDownLatch latch = new CountDownLatch(5);
+        final Sequence[] processorSequence = new Sequence[1];
+
+        final class RecordingEventHandler implements EventHandler<StubEvent>, BatchStartAware
+        {
+            @Override
+            public void onBatchStart(final long batchSize)
+            {
+                batchSizes.add(batchSize);
+            }
+
+            @Override
+            public void onEvent(final StubEvent event, final long sequence, final boolean endOfBatch)
+            {
+                if (endOfBatch)
+                {
+                    endOfBatchSequences.add(sequence);
+                }
+                assertEquals(sequence - sequence % 2 - 1, processorSequence[0].get());
+                latch.countDown();
+            }
+        }
+
+        final BatchEventProcessor<StubEvent> batchEventProcessor =
+            new BatchEventProcessor<StubEvent>(ringBuffer, sequenceBarrier, new RecordingEventHandler());
+        processorSequence[0] = batchEventProcessor.getSequence();
+        batchEventProcessor.setMaxBatchSize(2);
+        ringBuffer.addGatingSequences(batchEventProcessor.getSequence());
+
+        for (int i = 0; i < 5; i++)
+        {
+            ringBuffer.publish(ringBuffer.next());
+        }
+
+        Thread thread = new Thread(batchEventProcessor);
+        thread.start();
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        batchEventProcessor.halt();
+        thread.join();
+
+        assertEquals(Arrays.asList(2L, 2L, 1L), batchSizes);
+        assertEquals(Arrays.asList(1L, 3L, 4L), endOfBatchSequences);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNonPositiveMaxBatchSize()
+    {
+        new BatchEventProcessor<StubEvent>(ringBuffer, sequenceBarrier, new ExceptionEventHandler()).setMaxBatchSize(0);
+    }
+
     private static class DelegatingSequenceBarrier implements SequenceBarrier
     {
         private SequenceBarrier delegate;
@@ -0,0 +1,258 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.lmax.disruptor.dsl.ProducerType;
+import com.lmax.disruptor.support.StubEvent;
+
+public final class CooperativeEventProcessorTest
+{
+    private final ExecutorService scheduler = Executors.newSingleThreadExecutor();
+
+    @After
+    public void tearDown() throws Exception
+    {
+        scheduler.shutdown();
+        assertTrue(scheduler.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void shouldShareOneThreadBetweenRingBuffers() throws Exception
+    {
+        final CooperativeWaitStrategy firstWaitStrategy = new CooperativeWaitStrategy();
+        final CooperativeWaitStrategy secondWaitStrategy = new CooperativeWaitStrategy();
+        final RingBuffer<StubEvent> first = RingBuffer.create(ProducerType.SINGLE, StubEvent.EVENT_FACTORY, 8, firstWaitStrategy);
+        final RingBuffer<StubEvent> second = RingBuffer.create(ProducerType.MULTI, StubEvent.EVENT_FACTORY, 8, secondWaitStrategy);
+        final CountDownLatch firstLatch = new CountDownLatch(20);
+        final CountDownLatch secondLatch = new CountDownLatch(20);
+        final CooperativeEventProcessor<StubEvent> firstProcessor = start(first, firstWaitStrategy, firstLatch);
+        final CooperativeEventProcessor<StubEvent> secondProcessor = start(second, secondWaitStrategy, secondLatch);
+
+        for (int i = 0; i < 20; i++)
+        {
+            first.publishEvent(StubEvent.TRANSLATOR, i, "first");
+            second.publishEvent(StubEvent.TRANSLATOR, i, "second");
+        }
+
+        assertTrue(firstLatch.await(5, TimeUnit.SECONDS));
+        assertTrue(secondLatch.await(5, TimeUnit.SECONDS));
+        // 序号在整个批次处理完后才更新，晚于处理器中的倒数
+        assertTrue(waitForSequence(firstProcessor.getSequence(), 19L));
+        assertTrue(waitForSequence(secondProcessor.getSequence(), 19L));
+    }
+
+    @Test
+    public void shouldWakeProcessorsThatDependOnACooperativeProcessor() throws Exception
+    {
+        final CooperativeWaitStrategy waitStrategy = new CooperativeWaitStrategy();
+        final RingBuffer<StubEvent> ringBuffer =
+            RingBuffer.create(ProducerType.SINGLE, StubEvent.EVENT_FACTORY, 8, waitStrategy);
+        final CountDownLatch firstLatch = new CountDownLatch(10);
+        final CountDownLatch secondLatch = new CountDownLatch(10);
+        final CooperativeEventProcessor<StubEvent> firstProcessor =
+            new CooperativeEventProcessor<StubEvent>(ringBuffer, waitStrategy, scheduler, new LatchHandler(firstLatch));
+        final CooperativeEventProcessor<StubEvent> secondProcessor = new CooperativeEventProcessor<StubEvent>(
+            ringBuffer, waitStrategy, scheduler, new LatchHandler(secondLatch), firstProcessor.getSequence());
+        firstProcessor.setMaxBatchSize(3);
+        ringBuffer.addGatingSequences(secondProcessor.getSequence());
+        firstProcessor.run();
+        secondProcessor.run();
+
+        for (int i = 0; i < 10; i++)
+        {
+            ringBuffer.publishEvent(StubEvent.TRANSLATOR, i, "");
+        }
+
+        assertTrue(secondLatch.await(5, TimeUnit.SECONDS));
+        assertThat(firstLatch.getCount(), is(0L));
+    }
+
+    @Test
+    public void shouldNotifyShutdownWhenHaltedWhileParked() throws Exception
+    {
+        final CooperativeWaitStrategy waitStrategy = new CooperativeWaitStrategy();
+        final RingBuffer<StubEvent> ringBuffer =
+            RingBuffer.create(ProducerType.SINGLE, StubEvent.EVENT_FACTORY, 8, waitStrategy);
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final CountDownLatch shutdownLatch = new CountDownLatch(1);
+        final CooperativeEventProcessor<StubEvent> processor = new CooperativeEventProcessor<StubEvent>(
+            ringBuffer, waitStrategy, scheduler, new LifecycleHandler(startLatch, shutdownLatch));
+
+        processor.run();
+        assertTrue(startLatch.await(5, TimeUnit.SECONDS));
+        assertThat(waitStrategy.getProcessorCount(), is(1));
+
+        processor.halt();
+
+        assertTrue(shutdownLatch.await(5, TimeUnit.SECONDS));
+        while (processor.isRunning())
+        {
+            Thread.yield();
+        }
+        assertThat(waitStrategy.getProcessorCount(), is(0));
+    }
+
+    @Test
+    public void shouldHandleEverySingleEventPublishedWithGaps() throws Exception
+    {
+        final CooperativeWaitStrategy waitStrategy = new CooperativeWaitStrategy();
+        final RingBuffer<StubEvent> ringBuffer =
+            RingBuffer.create(ProducerType.SINGLE, StubEvent.EVENT_FACTORY, 8, waitStrategy);
+        final CooperativeEventProcessor<StubEvent> processor = new CooperativeEventProcessor<StubEvent>(
+            ringBuffer, waitStrategy, scheduler, new LatchHandler(new CountDownLatch(0)));
+        ringBuffer.addGatingSequences(processor.getSequence());
+        processor.run();
+
+        for (int i = 0; i < 2000; i++)
+        {
+            ringBuffer.publishEvent(StubEvent.TRANSLATOR, i, "");
+            // 每个事件之后不再发布，丢失的唤醒不会被下一次发布补上
+            assertTrue("event " + i + " was not handled", waitForSequence(processor.getSequence(), i));
+            if (0 != (i & 7))
+            {
+                LockSupport.parkNanos(i % 50 * 1000L);
+            }
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotStartTwice() throws Exception
+    {
+        final CooperativeWaitStrategy waitStrategy = new CooperativeWaitStrategy();
+        final RingBuffer<StubEvent> ringBuffer =
+            RingBuffer.create(ProducerType.SINGLE, StubEvent.EVENT_FACTORY, 8, waitStrategy);
+        final CooperativeEventProcessor<StubEvent> processor = new CooperativeEventProcessor<StubEvent>(
+            ringBuffer, waitStrategy, scheduler, new LatchHandler(new CountDownLatch(0)));
+
+        processor.run();
+        assertTrue(processor.isRunning());
+        processor.run();
+    }
+
+    @Test
+    public void shouldSkipEventThatThrowsAndCarryOn() throws Exception
+    {
+        final CooperativeWaitStrategy waitStrategy = new CooperativeWaitStrategy();
+        final RingBuffer<StubEvent> ringBuffer =
+            RingBuffer.create(ProducerType.SINGLE, StubEvent.EVENT_FACTORY, 8, waitStrategy);
+        final CountDownLatch latch = new CountDownLatch(2);
+        final CooperativeEventProcessor<StubEvent> processor = new CooperativeEventProcessor<StubEvent>(
+            ringBuffer, waitStrategy, scheduler, new EventHandler<StubEvent>()
+            {
+                @Override
+                public void onEvent(final StubEvent event, final long sequence, final boolean endOfBatch)
+                {
+                    if (sequence == 0)
+                    {
+                        throw new IllegalArgumentException();
+                    }
+                    latch.countDown();
+                }
+            });
+        processor.setExceptionHandler(new IgnoreExceptionHandler());
+        ringBuffer.addGatingSequences(processor.getSequence());
+        processor.run();
+
+        for (int i = 0; i < 3; i++)
+        {
+            ringBuffer.publishEvent(StubEvent.TRANSLATOR, i, "");
+        }
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(processor.isRunning());
+    }
+
+    private static boolean waitForSequence(final Sequence sequence, final long expected)
+    {
+        final long timeout = System.currentTimeMillis() + 5000;
+        while (sequence.get() < expected && System.currentTimeMillis() < timeout)
+        {
+            Thread.yield();
+        }
+
+        return sequence.get() == expected;
+    }
+
+    private CooperativeEventProcessor<StubEvent> start(
+        final RingBuffer<StubEvent> ringBuffer,
+        final CooperativeWaitStrategy waitStrategy,
+        final CountDownLatch latch)
+    {
+        final CooperativeEventProcessor<StubEvent> processor =
+            new CooperativeEventProcessor<StubEvent>(ringBuffer, waitStrategy, scheduler, new LatchHandler(latch));
+        ringBuffer.addGatingSequences(processor.getSequence());
+        processor.run();
+        return processor;
+    }
+
+    private static final class LatchHandler implements EventHandler<StubEvent>
+    {
+        private final CountDownLatch latch;
+
+        private LatchHandler(final CountDownLatch latch)
+        {
+            this.latch = latch;
+        }
+
+        @Override
+        public void onEvent(final StubEvent event, final long sequence, final boolean endOfBatch)
+        {
+            latch.countDown();
+        }
+    }
+
+    private static final class LifecycleHandler implements EventHandler<StubEvent>, LifecycleAware
+    {
+        private final CountDownLatch startLatch;
+        private final CountDownLatch shutdownLatch;
+
+        private LifecycleHandler(final CountDownLatch startLatch, final CountDownLatch shutdownLatch)
+        {
+            this.startLatch = startLatch;
+            this.shutdownLatch = shutdownLatch;
+        }
+
+        @Override
+        public void onEvent(final StubEvent event, final long sequence, final boolean endOfBatch)
+        {
+        }
+
+        @Override
+        public void onStart()
+        {
+            startLatch.countDown();
+        }
+
+        @Override
+        public void onShutdown()
+        {
+            shutdownLatch.countDown();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.lmax.disruptor.support.StubEvent;
+
+public final class EventPollerRunnerTest
+{
+    private final RingBuffer<StubEvent> first = RingBuffer.createSingleProducer(StubEvent.EVENT_FACTORY, 16);
+    private final RingBuffer<StubEvent> second = RingBuffer.createSingleProducer(StubEvent.EVENT_FACTORY, 16);
+    private final EventPollerRunner runner = new EventPollerRunner(new BackoffIdleStrategy());
+
+    @Test
+    public void shouldLimitEachPollerToItsWorkBudget() throws Exception
+    {
+        final List<String> handled = new ArrayList<String>();
+        final List<Boolean> endOfBatches = new ArrayList<Boolean>();
+        runner.add(newPoller(first), new RecordingHandler(handled, endOfBatches), 2);
+        runner.add(newPoller(second), new RecordingHandler(handled, new ArrayList<Boolean>()), 2);
+        publish(first, 5, "a");
+        publish(second, 1, "b");
+
+        assertThat(runner.doDutyCycle(), is(3));
+        assertThat(handled, is(Arrays.asList("a0", "a1", "b0")));
+        assertThat(endOfBatches, is(Arrays.asList(false, true)));
+
+        handled.clear();
+        assertThat(runner.doDutyCycle(), is(2));
+        assertThat(handled, is(Arrays.asList("a2", "a3")));
+
+        assertThat(runner.doDutyCycle(), is(1));
+        assertThat(runner.doDutyCycle(), is(0));
+    }
+
+    @Test
+    public void shouldRotateThePollerPolledFirst() throws Exception
+    {
+        final List<String> handled = new ArrayList<String>();
+        runner.add(newPoller(first), new RecordingHandler(handled, new ArrayList<Boolean>()), 1);
+        runner.add(newPoller(second), new RecordingHandler(handled, new ArrayList<Boolean>()), 1);
+        publish(first, 2, "a");
+        publish(second, 2, "b");
+
+        runner.doDutyCycle();
+        runner.doDutyCycle();
+
+        assertThat(handled, is(Arrays.asList("a0", "b0", "b1", "a1")));
+    }
+
+    @Test
+    public void shouldHandleEventsFromAllRingBuffersOnOneThread() throws Exception
+    {
+        final CountDownLatch latch = new CountDownLatch(40);
+        final EventHandler<StubEvent> handler = new EventHandler<StubEvent>()
+        {
+            @Override
+            public void onEvent(final StubEvent event, final long sequence, final boolean endOfBatch)
+            {
+                latch.countDown();
+            }
+        };
+        runner.add(newPoller(first), handler, 4);
+        runner.add(newPoller(second), handler, 4);
+        final Thread thread = new Thread(runner);
+        thread.start();
+
+        publish(first, 20, "a");
+        publish(second, 20, "b");
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        runner.halt();
+        thread.join();
+        assertFalse(runner.isRunning());
+    }
+
+    @Test
+    public void shouldSkipEventThatThrows() throws Exception
+    {
+        runner.setExceptionHandler(new IgnoreExceptionHandler());
+        final EventPoller<StubEvent> poller = newPoller(first);
+        runner.add(poller, new EventHandler<StubEvent>()
+        {
+            @Override
+            public void onEvent(final StubEvent event, final long sequence, final boolean endOfBatch)
+            {
+                throw new IllegalArgumentException();
+            }
+        }, 8);
+        publish(first, 3, "a");
+
+        assertThat(runner.doDutyCycle(), is(3));
+        assertThat(poller.getSequence().get(), is(2L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectEmptyWorkBudget() throws Exception
+    {
+        runner.add(newPoller(first), new RecordingHandler(new ArrayList<String>(), new ArrayList<Boolean>()), 0);
+    }
+
+    private static EventPoller<StubEvent> newPoller(final RingBuffer<StubEvent> ringBuffer)
+    {
+        final EventPoller<StubEvent> poller = ringBuffer.newPoller();
+        ringBuffer.addGatingSequences(poller.getSequence());
+        return poller;
+    }
+
+    private static void publish(final RingBuffer<StubEvent> ringBuffer, final int count, final String name)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            ringBuffer.publishEvent(StubEvent.TRANSLATOR, i, name + i);
+        }
+    }
+
+    private static final class RecordingHandler implements EventHandler<StubEvent>
+    {
+        private final List<String> handled;
+        private final List<Boolean> endOfBatches;
+
+        private RecordingHandler(final List<String> handled, final List<Boolean> endOfBatches)
+        {
+            this.handled = handled;
+            this.endOfBatches = endOfBatches;
+        }
+
+        @Override
+        public void onEvent(final StubEvent event, final long sequence, final boolean endOfBatch)
+        {
+            handled.add(event.getTestString());
+            endOfBatches.add(endOfBatch);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.lmax.disruptor.support.StubEvent;
+
+public final class FanInEventProcessorTest
+{
+    private static final OrderingKeyExtractor<StubEvent> BY_VALUE = new OrderingKeyExtractor<StubEvent>()
+    {
+        @Override
+        public long getOrderingKey(final StubEvent event)
+        {
+            return event.getValue();
+        }
+    };
+
+    @SuppressWarnings("unchecked")
+    private final RingBuffer<StubEvent>[] ringBuffers = new RingBuffer[]
+    {
+        RingBuffer.createSingleProducer(StubEvent.EVENT_FACTORY, 16),
+        RingBuffer.createSingleProducer(StubEvent.EVENT_FACTORY, 16)
+    };
+    private final List<String> handled = new ArrayList<String>();
+    private final List<Boolean> endOfBatches = new ArrayList<Boolean>();
+
+    @Test
+    public void shouldInterleaveRingBuffersInBatches() throws Exception
+    {
+        final FanInEventProcessor<StubEvent> processor = newProcessor(null);
+        processor.setMaxBatchSize(2);
+        publish(0, "a", 0, 1, 2);
+        publish(1, "b", 0);
+
+        assertThat(processor.processAvailable(), is(3));
+        assertThat(handled, is(Arrays.asList("a0", "a1", "b0")));
+        assertThat(endOfBatches, is(Arrays.asList(false, true, true)));
+        assertThat(processor.getSequences()[0].get(), is(1L));
+        assertThat(processor.getSequences()[1].get(), is(0L));
+
+        handled.clear();
+        publish(1, "b", 1);
+        assertThat(processor.processAvailable(), is(2));
+        assertThat(handled, is(Arrays.asList("b1", "a2")));
+        assertThat(processor.processAvailable(), is(0));
+    }
+
+    @Test
+    public void shouldMergeRingBuffersInKeyOrder() throws Exception
+    {
+        final FanInEventProcessor<StubEvent> processor = newProcessor(BY_VALUE);
+        publish(0, "a", 1, 4, 5);
+        publish(1, "b", 2, 3, 5, 6);
+
+        assertThat(processor.processAvailable(), is(7));
+        assertThat(handled, is(Arrays.asList("a1", "b2", "b3", "a4", "a5", "b5", "b6")));
+        assertThat(endOfBatches, is(Arrays.asList(false, false, false, false, false, false, true)));
+        assertThat(processor.getSequences()[0].get(), is(2L));
+        assertThat(processor.getSequences()[1].get(), is(3L));
+    }
+
+    @Test
+    public void shouldLimitEachRingBufferToMaxBatchSizeWhenMerging() throws Exception
+    {
+        final FanInEventProcessor<StubEvent> processor = newProcessor(BY_VALUE);
+        processor.setMaxBatchSize(1);
+        publish(0, "a", 1, 2);
+        publish(1, "b", 3);
+
+        assertThat(processor.processAvailable(), is(2));
+        assertThat(handled, is(Arrays.asList("a1", "b3")));
+        assertThat(processor.processAvailable(), is(1));
+        assertThat(handled, is(Arrays.asList("a1", "b3", "a2")));
+    }
+
+    @Test
+    public void shouldSkipEventThatThrows() throws Exception
+    {
+        final FanInEventProcessor<StubEvent> processor = new FanInEventProcessor<StubEvent>(
+            ringBuffers, new EventHandler<StubEvent>()
+            {
+                @Override
+                public void onEvent(final StubEvent event, final long sequence, final boolean endOfBatch)
+                {
+                    throw new IllegalArgumentException();
+                }
+            }, new BackoffIdleStrategy());
+        processor.setExceptionHandler(new IgnoreExceptionHandler());
+        publish(0, "a", 0, 1);
+
+        assertThat(processor.processAvailable(), is(2));
+        assertThat(processor.getSequences()[0].get(), is(1L));
+    }
+
+    @Test
+    public void shouldHandleEventsFromAllRingBuffersOnOneThread() throws Exception
+    {
+        final CountDownLatch latch = new CountDownLatch(40);
+        final FanInEventProcessor<StubEvent> processor = new FanInEventProcessor<StubEvent>(
+            ringBuffers, new EventHandler<StubEvent>()
+            {
+                @Override
+                public void onEvent(final StubEvent event, final long sequence, final boolean endOfBatch)
+                {
+                    latch.countDown();
+                }
+            }, new BackoffIdleStrategy(), BY_VALUE);
+        addGatingSequences(processor);
+        final Thread thread = new Thread(processor);
+        thread.start();
+
+        for (int i = 0; i < 20; i++)
+        {
+            publish(0, "a", i);
+            publish(1, "b", i);
+        }
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        processor.halt();
+        thread.join();
+        assertFalse(processor.isRunning());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRequireARingBuffer() throws Exception
+    {
+        @SuppressWarnings("unchecked")
+        final RingBuffer<StubEvent>[] none = new RingBuffer[0];
+        new FanInEventProcessor<StubEvent>(none, new RecordingHandler(), new BackoffIdleStrategy());
+    }
+
+    private FanInEventProcessor<StubEvent> newProcessor(final OrderingKeyExtractor<StubEvent> orderingKeyExtractor)
+    {
+        final FanInEventProcessor<StubEvent> processor = new FanInEventProcessor<StubEvent>(
+            ringBuffers, new RecordingHandler(), new BackoffIdleStrategy(), orderingKeyExtractor);
+        addGatingSequences(processor);
+        return processor;
+    }
+
+    private void addGatingSequences(final FanInEventProcessor<StubEvent> processor)
+    {
+        for (int i = 0; i < ringBuffers.length; i++)
+        {
+            ringBuffers[i].addGatingSequences(processor.getSequences()[i]);
+        }
+    }
+
+    private void publish(final int ringBuffer, final String name, final int... values)
+    {
+        for (final int value : values)
+        {
+            ringBuffers[ringBuffer].publishEvent(StubEvent.TRANSLATOR, value, name + value);
+        }
+    }
+
+    private final class RecordingHandler implements EventHandler<StubEvent>
+    {
+        @Override
+        public void onEvent(final StubEvent event, final long sequence, final boolean endOfBatch)
+        {
+            handled.add(event.getTestString());
+            endOfBatches.add(endOfBatch);
+        }
+    }
+}
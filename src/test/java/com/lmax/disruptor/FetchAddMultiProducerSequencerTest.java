@@ -0,0 +1,133 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.BitSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class FetchAddMultiProducerSequencerTest
+{
+    private static final int BUFFER_SIZE = 16;
+
+    private final Sequencer sequencer = new FetchAddMultiProducerSequencer(BUFFER_SIZE, new BlockingWaitStrategy());
+    private final Sequence gatingSequence = new Sequence();
+
+    @Test
+    public void shouldClaimConsecutiveSequences() throws Exception
+    {
+        assertThat(sequencer.next(), is(0L));
+        assertThat(sequencer.next(4), is(4L));
+        assertThat(sequencer.getCursor(), is(4L));
+    }
+
+    @Test
+    public void shouldHoldUpPublisherUntilGatingSequencePassesWrapPoint() throws Exception
+    {
+        sequencer.addGatingSequences(gatingSequence);
+        final long sequence = sequencer.next(BUFFER_SIZE);
+        sequencer.publish(sequence - (BUFFER_SIZE - 1), sequence);
+
+        final CountDownLatch waiting = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(1);
+        final Thread publisher = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                waiting.countDown();
+                sequencer.publish(sequencer.next());
+                done.countDown();
+            }
+        });
+        publisher.start();
+
+        assertTrue(waiting.await(2, TimeUnit.SECONDS));
+        assertFalse(done.await(10, TimeUnit.MILLISECONDS));
+
+        gatingSequence.set(0);
+
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        assertThat(sequencer.getHighestPublishedSequence(1, sequencer.getCursor()), is((long) BUFFER_SIZE));
+    }
+
+    @Test(expected = InsufficientCapacityException.class)
+    public void shouldNotOverClaimWithTryNext() throws Exception
+    {
+        sequencer.addGatingSequences(gatingSequence);
+        sequencer.next(BUFFER_SIZE);
+
+        sequencer.tryNext();
+    }
+
+    @Test
+    public void shouldClaimEachSequenceExactlyOnceAcrossPublishers() throws Exception
+    {
+        final int publisherCount = 4;
+        final int claimsPerPublisher = 10000;
+        final Sequencer sequencer = new FetchAddMultiProducerSequencer(1024, new BlockingWaitStrategy());
+        final BitSet claimed = new BitSet();
+        final CyclicBarrier start = new CyclicBarrier(publisherCount);
+        final Thread[] publishers = new Thread[publisherCount];
+
+        for (int i = 0; i < publisherCount; i++)
+        {
+            publishers[i] = new Thread(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        start.await();
+                        for (int j = 0; j < claimsPerPublisher; j++)
+                        {
+                            final long sequence = sequencer.next();
+                            synchronized (claimed)
+                            {
+                                assertFalse(claimed.get((int) sequence));
+                                claimed.set((int) sequence);
+                            }
+                            sequencer.publish(sequence);
+                        }
+                    }
+                    catch (final Exception e)
+                    {
+                        throw new RuntimeException(e);
+                    }
+                }
+            });
+            publishers[i].start();
+        }
+
+        for (final Thread publisher : publishers)
+        {
+            publisher.join();
+        }
+
+        final long last = publisherCount * claimsPerPublisher - 1;
+        assertThat(sequencer.getCursor(), is(last));
+        assertThat(claimed.cardinality(), is(publisherCount * claimsPerPublisher));
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.lmax.disruptor.support.StubEvent;
+
+public class LatencyTracerTest
+{
+    private final RecordingLatencyRecorder recorder = new RecordingLatencyRecorder();
+    private final LatencyTracer tracer = new LatencyTracer(16, 4, recorder);
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectSampleIntervalThatIsNotAPowerOfTwo() throws Exception
+    {
+        new LatencyTracer(16, 3, recorder);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectTracerOfDifferentSizeToRingBuffer() throws Exception
+    {
+        RingBuffer.createSingleProducer(StubEvent.EVENT_FACTORY, 32).setLatencyTracer(tracer);
+    }
+
+    @Test
+    public void shouldOnlySampleOneInEveryInterval() throws Exception
+    {
+        assertTrue(tracer.isSampled(0));
+        assertFalse(tracer.isSampled(1));
+        assertFalse(tracer.isSampled(3));
+        assertTrue(tracer.isSampled(4));
+    }
+
+    @Test
+    public void shouldRecordSampledSequencesPerStage() throws Exception
+    {
+        final Object stage1 = "stage1";
+        final Object stage2 = "stage2";
+
+        tracer.stamp(1, 9);
+        for (long sequence = 1; sequence <= 9; sequence++)
+        {
+            tracer.record(stage1, sequence);
+            tracer.record(stage2, sequence);
+        }
+
+        assertThat(recorder.stages, is(asList(stage1, stage2, stage1, stage2)));
+        assertThat(recorder.sequences, is(asList(4L, 4L, 8L, 8L)));
+        for (final long latencyNanos : recorder.latencies)
+        {
+            assertTrue(latencyNanos >= 0);
+        }
+    }
+
+    @Test
+    public void shouldStampEventsPublishedThroughTheRingBuffer() throws Exception
+    {
+        final RingBuffer<StubEvent> ringBuffer = RingBuffer.createSingleProducer(StubEvent.EVENT_FACTORY, 16);
+        ringBuffer.setLatencyTracer(tracer);
+
+        final long before = System.nanoTime();
+        ringBuffer.publish(ringBuffer.next());
+        ringBuffer.publishEvent(StubEvent.TRANSLATOR, 1, "");
+
+        tracer.record(this, 0);
+        tracer.record(this, 1);
+        assertThat(recorder.sequences, is(asList(0L)));
+        assertTrue(recorder.latencies.get(0) >= 0);
+        assertTrue(recorder.latencies.get(0) <= System.nanoTime() - before);
+    }
+
+    @Test
+    public void shouldReportLatencyOnceDelegateHasHandledEvent() throws Exception
+    {
+        final List<Long> handled = new ArrayList<>();
+        final EventHandler<StubEvent> delegate = new EventHandler<StubEvent>()
+        {
+            @Override
+            public void onEvent(final StubEvent event, final long sequence, final boolean endOfBatch)
+            {
+                handled.add(sequence);
+                assertThat(recorder.sequences.size(), is(0));
+            }
+        };
+        final TracingEventHandler<StubEvent> tracingHandler = new TracingEventHandler<>(tracer, delegate);
+
+        tracer.stamp(0);
+        tracingHandler.onEvent(new StubEvent(0), 0, true);
+
+        assertThat(handled, is(asList(0L)));
+        assertThat(recorder.stages, is(asList((Object) delegate)));
+    }
+
+    private static final class RecordingLatencyRecorder implements LatencyRecorder
+    {
+        private final List<Object> stages = new ArrayList<>();
+        private final List<Long> sequences = new ArrayList<>();
+        private final List<Long> latencies = new ArrayList<>();
+
+        @Override
+        public void recordLatency(final Object stage, final long sequence, final long latencyNanos)
+        {
+            stages.add(stage);
+            sequences.add(sequence);
+            latencies.add(latencyNanos);
+        }
+    }
+}
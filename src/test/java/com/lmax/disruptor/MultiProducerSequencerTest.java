@@ -38,4 +38,53 @@ public class MultiProducerSequencerTest
         assertThat(publisher.isAvailable(5), is(true));
         assertThat(publisher.isAvailable(6), is(false));
     }
+
+    @Test
+    public void shouldReturnSequenceBeforeFirstUnpublishedSlot() throws Exception
+    {
+        publisher.next(6);
+        publisher.publish(0, 2);
+        publisher.publish(4, 5);
+
+        assertThat(publisher.getHighestPublishedSequence(0, 5), is(2L));
+        assertThat(publisher.getHighestPublishedSequence(3, 5), is(2L));
+
+        publisher.publish(3);
+
+        assertThat(publisher.getHighestPublishedSequence(0, 5), is(5L));
+        assertThat(publisher.getHighestPublishedSequence(3, 4), is(4L));
+    }
+
+    @Test
+    public void shouldScanPublishedSlotsAcrossTheWrapPoint() throws Exception
+    {
+        final Sequencer sequencer = new MultiProducerSequencer(4, new BlockingWaitStrategy());
+        final Sequence consumer = new Sequence();
+        sequencer.addGatingSequences(consumer);
+
+        sequencer.next(4);
+        sequencer.publish(0, 3);
+        consumer.set(1);
+        sequencer.next(2);
+        sequencer.publish(4);
+
+        assertThat(sequencer.getHighestPublishedSequence(2, 5), is(4L));
+
+        sequencer.publish(5);
+
+        assertThat(sequencer.getHighestPublishedSequence(2, 5), is(5L));
+    }
+
+    @Test
+    public void shouldNotTrustPreviouslyScannedSlotsAfterClaim() throws Exception
+    {
+        publisher.next(4);
+        publisher.publish(0, 3);
+        assertThat(publisher.getHighestPublishedSequence(0, 3), is(3L));
+
+        publisher.claim(1);
+
+        assertThat(publisher.getHighestPublishedSequence(2, 3), is(3L));
+        assertThat(publisher.isAvailable(2), is(true));
+    }
 }
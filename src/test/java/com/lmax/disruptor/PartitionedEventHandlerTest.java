@@ -0,0 +1,136 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.lmax.disruptor.support.LongEvent;
+
+public class PartitionedEventHandlerTest
+{
+    private static final PartitionKeyExtractor<LongEvent> KEY_EXTRACTOR = new PartitionKeyExtractor<LongEvent>()
+    {
+        @Override
+        public Object getPartitionKey(final LongEvent event)
+        {
+            return event.get() % 2;
+        }
+    };
+
+    private final RingBuffer<LongEvent> ringBuffer = RingBuffer.createSingleProducer(LongEvent.FACTORY, 16);
+
+    @Test
+    public void shouldOnlyHandleEventsInOwnPartition() throws Exception
+    {
+        final RecordingHandler recorder = new RecordingHandler();
+        final PartitionedEventHandler<LongEvent> handler =
+            new PartitionedEventHandler<>(ringBuffer, KEY_EXTRACTOR, recorder, 1, 2);
+
+        dispatchBatch(handler, 0, 1, 2, 3, 5, 6);
+
+        assertThat(recorder.sequences, is(Arrays.asList(1L, 3L, 4L)));
+    }
+
+    @Test
+    public void shouldFlagLastEventOfOwnPartitionAsEndOfBatch() throws Exception
+    {
+        final RecordingHandler recorder = new RecordingHandler();
+        final PartitionedEventHandler<LongEvent> handler =
+            new PartitionedEventHandler<>(ringBuffer, KEY_EXTRACTOR, recorder, 0, 2);
+
+        dispatchBatch(handler, 0, 2, 1, 4, 3, 5);
+
+        assertThat(recorder.sequences, is(Arrays.asList(0L, 1L, 3L)));
+        assertThat(recorder.endOfBatches, is(Arrays.asList(false, false, true)));
+    }
+
+    @Test
+    public void shouldTellBatchStartAwareDelegateItsPartitionBatchSize() throws Exception
+    {
+        final RecordingHandler recorder = new RecordingHandler();
+        final PartitionedEventHandler<LongEvent> handler =
+            new PartitionedEventHandler<>(ringBuffer, KEY_EXTRACTOR, recorder, 1, 2);
+
+        dispatchBatch(handler, 1, 2, 3);
+        dispatchBatch(handler, 4, 6);
+        dispatchBatch(handler, 7);
+
+        assertThat(recorder.batchSizes, is(Arrays.asList(2L, 1L)));
+        assertThat(recorder.endOfBatches, is(Arrays.asList(false, true, true)));
+    }
+
+    @Test
+    public void shouldAssignEveryKeyToAValidPartition() throws Exception
+    {
+        final Object[] keys = {null, "a", -1, Integer.MIN_VALUE, Long.MAX_VALUE};
+        for (final Object key : keys)
+        {
+            final int partition = PartitionedEventHandler.partitionFor(key, 3);
+            assertTrue(partition >= 0 && partition < 3);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectPartitionOutOfRange() throws Exception
+    {
+        new PartitionedEventHandler<>(ringBuffer, KEY_EXTRACTOR, new RecordingHandler(), 2, 2);
+    }
+
+    private void dispatchBatch(final EventHandler<LongEvent> handler, final long... values) throws Exception
+    {
+        final long hi = ringBuffer.next(values.length);
+        final long lo = hi - values.length + 1;
+        for (int i = 0; i < values.length; i++)
+        {
+            ringBuffer.get(lo + i).set(values[i]);
+        }
+        ringBuffer.publish(lo, hi);
+
+        ((BatchStartAware) handler).onBatchStart(values.length);
+        for (long sequence = lo; sequence <= hi; sequence++)
+        {
+            handler.onEvent(ringBuffer.get(sequence), sequence, sequence == hi);
+        }
+    }
+
+    private static final class RecordingHandler implements EventHandler<LongEvent>, BatchStartAware
+    {
+        private final List<Long> sequences = new ArrayList<>();
+        private final List<Boolean> endOfBatches = new ArrayList<>();
+        private final List<Long> batchSizes = new ArrayList<>();
+
+        @Override
+        public void onEvent(final LongEvent event, final long sequence, final boolean endOfBatch)
+        {
+            sequences.add(sequence);
+            endOfBatches.add(endOfBatch);
+        }
+
+        @Override
+        public void onBatchStart(final long batchSize)
+        {
+            batchSizes.add(batchSize);
+        }
+    }
+}
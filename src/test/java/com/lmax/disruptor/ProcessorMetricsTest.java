@@ -0,0 +1,171 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.lmax.disruptor.support.StubEvent;
+
+public class ProcessorMetricsTest
+{
+    private final RingBuffer<StubEvent> ringBuffer = RingBuffer.createSingleProducer(StubEvent.EVENT_FACTORY, 16);
+
+    @Test
+    public void shouldNotRecordMetricsUnlessEnabled() throws Exception
+    {
+        final BatchEventProcessor<StubEvent> processor =
+            new BatchEventProcessor<>(ringBuffer, ringBuffer.newBarrier(), new CountingHandler(new CountDownLatch(0)));
+
+        assertNull(processor.getMetrics());
+        assertSame(processor.enableMetrics(), processor.enableMetrics());
+    }
+
+    @Test
+    public void shouldRecordBatchesOfBatchEventProcessor() throws Exception
+    {
+        final CountDownLatch latch = new CountDownLatch(10);
+        final BatchEventProcessor<StubEvent> processor =
+            new BatchEventProcessor<>(ringBuffer, ringBuffer.newBarrier(), new CountingHandler(latch));
+        ringBuffer.addGatingSequences(processor.getSequence());
+        final ProcessorMetrics metrics = processor.enableMetrics();
+
+        publish(10);
+        assertThat(metrics.getLag(), is(10L));
+
+        final Thread thread = new Thread(processor);
+        thread.start();
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        awaitEventCount(metrics, 10);
+
+        assertThat(metrics.getEventCount(), is(10L));
+        assertThat(metrics.getBatchCount(), is(1L));
+        assertThat(metrics.getBatchSizeCount(3), is(1L));
+        assertThat(metrics.getLag(), is(0L));
+
+        // let the processor block before publishing
+        Thread.sleep(50);
+        publish(1);
+        awaitEventCount(metrics, 11);
+
+        processor.halt();
+        thread.join();
+
+        assertThat(metrics.getEventCount(), is(11L));
+        assertThat(metrics.getBatchSizeCount(0), is(1L));
+        assertThat(metrics.getAverageBatchSize(), is(5.5));
+        assertThat(metrics.getWaitCount(), is(1L));
+    }
+
+    @Test
+    public void shouldRecordClaimsAndEventsOfWorkProcessor() throws Exception
+    {
+        final CountDownLatch latch = new CountDownLatch(8);
+        final WorkProcessor<StubEvent> processor = new WorkProcessor<>(
+            ringBuffer, ringBuffer.newBarrier(), new CountingHandler(latch), new FatalExceptionHandler(),
+            new Sequence(Sequencer.INITIAL_CURSOR_VALUE));
+        processor.setClaimBatchSize(4);
+        ringBuffer.addGatingSequences(processor.getSequence());
+        final ProcessorMetrics metrics = processor.enableMetrics();
+
+        publish(8);
+
+        final Thread thread = new Thread(processor);
+        thread.start();
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+
+        processor.halt();
+        thread.join();
+
+        assertThat(metrics.getEventCount(), is(8L));
+        assertTrue(metrics.getBatchSizeCount(2) >= 2);
+    }
+
+    @Test
+    public void shouldRecordPollsOfEventPoller() throws Exception
+    {
+        final EventPoller<StubEvent> poller = ringBuffer.newPoller();
+        ringBuffer.addGatingSequences(poller.getSequence());
+        final ProcessorMetrics metrics = poller.enableMetrics();
+        final EventPoller.Handler<StubEvent> handler = new EventPoller.Handler<StubEvent>()
+        {
+            @Override
+            public boolean onEvent(final StubEvent event, final long sequence, final boolean endOfBatch)
+            {
+                return true;
+            }
+        };
+
+        assertThat(poller.poll(handler), is(EventPoller.PollState.IDLE));
+        publish(3);
+        assertThat(poller.poll(handler), is(EventPoller.PollState.PROCESSING));
+
+        final long[] histogram = new long[ProcessorMetrics.BATCH_SIZE_BUCKETS];
+        metrics.getBatchSizeHistogram(histogram);
+
+        assertThat(metrics.getWaitCount(), is(1L));
+        assertThat(metrics.getEventCount(), is(3L));
+        assertThat(metrics.getBatchCount(), is(1L));
+        assertThat(histogram[1], is(1L));
+        assertThat(metrics.getLag(), is(0L));
+    }
+
+    private void publish(final int count)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            ringBuffer.publish(ringBuffer.next());
+        }
+    }
+
+    private static void awaitEventCount(final ProcessorMetrics metrics, final long eventCount) throws InterruptedException
+    {
+        while (metrics.getEventCount() < eventCount)
+        {
+            Thread.sleep(1);
+        }
+    }
+
+    private static final class CountingHandler implements EventHandler<StubEvent>, WorkHandler<StubEvent>
+    {
+        private final CountDownLatch latch;
+
+        CountingHandler(final CountDownLatch latch)
+        {
+            this.latch = latch;
+        }
+
+        @Override
+        public void onEvent(final StubEvent event, final long sequence, final boolean endOfBatch)
+        {
+            latch.countDown();
+        }
+
+        @Override
+        public void onEvent(final StubEvent event)
+        {
+            latch.countDown();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class ProducerWaitStrategyTest
+{
+    private static final int BUFFER_SIZE = 4;
+
+    @Test
+    public void shouldWaitForCapacityWithBusySpin() throws Exception
+    {
+        assertPublisherWaitsForCapacity(new SingleProducerSequencer(
+            BUFFER_SIZE, new BlockingWaitStrategy(), new BusySpinProducerWaitStrategy()));
+    }
+
+    @Test
+    public void shouldWaitForCapacityWithYielding() throws Exception
+    {
+        assertPublisherWaitsForCapacity(new MultiProducerSequencer(
+            BUFFER_SIZE, new BlockingWaitStrategy(), new YieldingProducerWaitStrategy()));
+    }
+
+    @Test
+    public void shouldWaitForCapacityWithParkingBackoff() throws Exception
+    {
+        assertPublisherWaitsForCapacity(new FetchAddMultiProducerSequencer(
+            BUFFER_SIZE, new BlockingWaitStrategy(), new ParkingProducerWaitStrategy(1000, 1000000)));
+    }
+
+    @Test
+    public void shouldWaitForCapacityWithBlocking() throws Exception
+    {
+        assertPublisherWaitsForCapacity(new MultiProducerSequencer(
+            BUFFER_SIZE, new BlockingWaitStrategy(), new BlockingProducerWaitStrategy(1, TimeUnit.SECONDS)));
+    }
+
+    @Test
+    public void shouldWakeBlockedPublisherWhenConsumerAsksForNextBatch() throws Exception
+    {
+        final Sequencer sequencer = new SingleProducerSequencer(
+            BUFFER_SIZE, new BlockingWaitStrategy(), new BlockingProducerWaitStrategy(1, TimeUnit.HOURS));
+        final Sequence consumer = new Sequence();
+        final SequenceBarrier barrier = sequencer.newBarrier();
+        sequencer.addGatingSequences(consumer);
+        sequencer.publish(sequencer.next(BUFFER_SIZE));
+
+        final CountDownLatch done = startPublisher(sequencer);
+        assertFalse(done.await(10, TimeUnit.MILLISECONDS));
+
+        consumer.set(0);
+        barrier.waitFor(1);
+
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void shouldNotRecordGatingWhenCapacityIsAvailable() throws Exception
+    {
+        final SingleProducerSequencer sequencer = new SingleProducerSequencer(BUFFER_SIZE, new BlockingWaitStrategy());
+        sequencer.addGatingSequences(new Sequence());
+
+        sequencer.publish(sequencer.next(BUFFER_SIZE));
+
+        assertThat(sequencer.getGatedCount(), is(0L));
+        assertThat(sequencer.getGatedNanos(), is(0L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectMaxParkLessThanMinPark() throws Exception
+    {
+        new ParkingProducerWaitStrategy(10, 1);
+    }
+
+    private static void assertPublisherWaitsForCapacity(final AbstractSequencer sequencer) throws Exception
+    {
+        final Sequence consumer = new Sequence();
+        sequencer.addGatingSequences(consumer);
+        sequencer.publish(sequencer.next(BUFFER_SIZE));
+
+        final CountDownLatch done = startPublisher(sequencer);
+        assertFalse(done.await(10, TimeUnit.MILLISECONDS));
+
+        consumer.set(0);
+
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        assertThat(sequencer.getCursor(), is((long) BUFFER_SIZE));
+        assertThat(sequencer.getGatedCount(), is(1L));
+        assertTrue(sequencer.getGatedNanos() > 0);
+    }
+
+    private static CountDownLatch startPublisher(final Sequencer sequencer)
+    {
+        final CountDownLatch done = new CountDownLatch(1);
+        final Thread publisher = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                sequencer.publish(sequencer.next());
+                done.countDown();
+            }
+        });
+        publisher.setDaemon(true);
+        publisher.start();
+
+        return done;
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.lmax.disruptor.dsl.ProducerType;
+import com.lmax.disruptor.support.StubEvent;
+
+public class RingBufferReferencePassingTest
+{
+    private final Sequence gatingSequence = new Sequence();
+
+    @Test
+    public void shouldNotPreallocateEvents() throws Exception
+    {
+        final RingBuffer<StubEvent> ringBuffer =
+            RingBuffer.createReferencePassing(ProducerType.SINGLE, 4, new BlockingWaitStrategy());
+
+        assertTrue(ringBuffer.isReferencePassing());
+        for (long sequence = 0; sequence < 4; sequence++)
+        {
+            assertThat(ringBuffer.get(sequence), is(nullValue()));
+        }
+    }
+
+    @Test
+    public void shouldPassPublishedReferences() throws Exception
+    {
+        final RingBuffer<StubEvent> ringBuffer =
+            RingBuffer.createReferencePassing(ProducerType.MULTI, 4, new BlockingWaitStrategy());
+        final SequenceBarrier barrier = ringBuffer.newBarrier();
+        final StubEvent first = new StubEvent(1);
+        final StubEvent second = new StubEvent(2);
+
+        ringBuffer.put(first);
+        final long sequence = ringBuffer.next();
+        ringBuffer.set(sequence, second);
+        ringBuffer.publish(sequence);
+
+        assertThat(barrier.waitFor(0), is(1L));
+        assertSame(first, ringBuffer.get(0));
+        assertSame(second, ringBuffer.get(1));
+    }
+
+    @Test
+    public void shouldPutBatchOfReferences() throws Exception
+    {
+        final RingBuffer<StubEvent> ringBuffer =
+            RingBuffer.createReferencePassing(ProducerType.SINGLE, 4, new BlockingWaitStrategy());
+        final StubEvent[] events = {new StubEvent(0), new StubEvent(1), new StubEvent(2), new StubEvent(3)};
+
+        ringBuffer.put(events, 1, 3);
+
+        assertThat(ringBuffer.getCursor(), is(2L));
+        for (int i = 0; i < 3; i++)
+        {
+            assertSame(events[i + 1], ringBuffer.get(i));
+        }
+    }
+
+    @Test
+    public void shouldNotPutWhenFull() throws Exception
+    {
+        final RingBuffer<StubEvent> ringBuffer =
+            RingBuffer.createReferencePassing(ProducerType.SINGLE, 4, new BlockingWaitStrategy());
+        ringBuffer.addGatingSequences(gatingSequence);
+
+        for (int i = 0; i < 4; i++)
+        {
+            assertTrue(ringBuffer.tryPut(new StubEvent(i)));
+        }
+        assertFalse(ringBuffer.tryPut(new StubEvent(4)));
+
+        gatingSequence.set(0);
+        final StubEvent event = new StubEvent(4);
+        assertTrue(ringBuffer.tryPut(event));
+        assertSame(event, ringBuffer.get(4));
+    }
+
+    @Test
+    public void shouldReleaseHandledReference() throws Exception
+    {
+        final RingBuffer<StubEvent> ringBuffer =
+            RingBuffer.createReferencePassing(ProducerType.SINGLE, 4, new BlockingWaitStrategy());
+        ringBuffer.put(new StubEvent(0));
+
+        ringBuffer.release(0);
+
+        assertThat(ringBuffer.get(0), is(nullValue()));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotPutToPreallocatedRingBuffer() throws Exception
+    {
+        final RingBuffer<StubEvent> ringBuffer = RingBuffer.createSingleProducer(StubEvent.EVENT_FACTORY, 4);
+
+        assertFalse(ringBuffer.isReferencePassing());
+        ringBuffer.put(new StubEvent(0));
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import com.lmax.disruptor.support.StubEvent;
+
+public class RingBufferResizeTest
+{
+    private final Sequence gatingSequence = new Sequence();
+
+    @Test
+    public void shouldGrowSingleProducerRingBuffer() throws Exception
+    {
+        final RingBuffer<StubEvent> ringBuffer = RingBuffer.createSingleProducer(StubEvent.EVENT_FACTORY, 4);
+        publish(ringBuffer, 6);
+        ringBuffer.addGatingSequences(gatingSequence);
+        final StubEvent retained = ringBuffer.get(0);
+
+        ringBuffer.resize(16);
+
+        assertThat(ringBuffer.getBufferSize(), is(16));
+        assertThat(ringBuffer.remainingCapacity(), is(16L));
+        assertSame(retained, ringBuffer.get(0));
+        assertNotSame(retained, ringBuffer.get(4));
+
+        publish(ringBuffer, 16);
+        assertFalse(ringBuffer.hasAvailableCapacity(1));
+        for (long sequence = 6; sequence < 22; sequence++)
+        {
+            assertThat(ringBuffer.get(sequence).getValue(), is((int) sequence));
+        }
+    }
+
+    @Test
+    public void shouldShrinkMultiProducerRingBuffer() throws Exception
+    {
+        assertShrinks(RingBuffer.createMultiProducer(StubEvent.EVENT_FACTORY, 16));
+    }
+
+    @Test
+    public void shouldShrinkFetchAddMultiProducerRingBuffer() throws Exception
+    {
+        assertShrinks(RingBuffer.createFetchAddMultiProducer(StubEvent.EVENT_FACTORY, 16, new BlockingWaitStrategy()));
+    }
+
+    @Test
+    public void shouldNotResizeWhilePublishedEventsAreUnhandled() throws Exception
+    {
+        final RingBuffer<StubEvent> ringBuffer = RingBuffer.createSingleProducer(StubEvent.EVENT_FACTORY, 16);
+        ringBuffer.addGatingSequences(gatingSequence);
+        publish(ringBuffer, 3);
+        gatingSequence.set(1);
+
+        assertResizeFails(ringBuffer);
+        gatingSequence.set(2);
+        ringBuffer.resize(4);
+    }
+
+    @Test
+    public void shouldNotResizeWhileClaimedSequencesAreUnpublished() throws Exception
+    {
+        final RingBuffer<StubEvent> singleProducer = RingBuffer.createSingleProducer(StubEvent.EVENT_FACTORY, 16);
+        singleProducer.next();
+        assertResizeFails(singleProducer);
+
+        final RingBuffer<StubEvent> multiProducer = RingBuffer.createMultiProducer(StubEvent.EVENT_FACTORY, 16);
+        final long first = multiProducer.next();
+        multiProducer.publish(multiProducer.next());
+        assertResizeFails(multiProducer);
+        multiProducer.publish(first);
+        multiProducer.resize(4);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectSizeThatIsNotAPowerOfTwo() throws Exception
+    {
+        RingBuffer.createSingleProducer(StubEvent.EVENT_FACTORY, 16).resize(12);
+    }
+
+    private void assertShrinks(final RingBuffer<StubEvent> ringBuffer) throws Exception
+    {
+        ringBuffer.addGatingSequences(gatingSequence);
+        publish(ringBuffer, 11);
+        gatingSequence.set(ringBuffer.getCursor());
+
+        ringBuffer.resize(4);
+
+        assertThat(ringBuffer.getBufferSize(), is(4));
+        for (long sequence = 7; sequence <= 10; sequence++)
+        {
+            assertTrue(ringBuffer.isPublished(sequence));
+        }
+        assertFalse(ringBuffer.isPublished(11));
+
+        publish(ringBuffer, 4);
+        assertFalse(ringBuffer.hasAvailableCapacity(1));
+        try
+        {
+            ringBuffer.tryNext();
+            fail("Should not have capacity beyond the new size");
+        }
+        catch (final InsufficientCapacityException e)
+        {
+            // expected
+        }
+
+        final SequenceBarrier barrier = ringBuffer.newBarrier();
+        assertThat(barrier.waitFor(11), is(14L));
+        for (long sequence = 11; sequence <= 14; sequence++)
+        {
+            assertThat(ringBuffer.get(sequence).getValue(), is((int) sequence));
+        }
+    }
+
+    private static void assertResizeFails(final RingBuffer<StubEvent> ringBuffer)
+    {
+        try
+        {
+            ringBuffer.resize(4);
+            fail("Should not resize");
+        }
+        catch (final IllegalStateException e)
+        {
+            assertThat(ringBuffer.getBufferSize(), is(16));
+        }
+    }
+
+    private static void publish(final RingBuffer<StubEvent> ringBuffer, final int count)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            final long sequence = ringBuffer.next();
+            ringBuffer.get(sequence).setValue((int) sequence);
+            ringBuffer.publish(sequence);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import static com.lmax.disruptor.support.WaitStrategyTestUtil.assertWaitForWithDelayOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import com.lmax.disruptor.support.StubEvent;
+
+public class SignalElidingBlockingWaitStrategyTest
+{
+    private final SignalElidingBlockingWaitStrategy waitStrategy = new SignalElidingBlockingWaitStrategy();
+
+    @Test
+    public void shouldHandleImmediateSequenceChange() throws Exception
+    {
+        assertWaitForWithDelayOf(0, waitStrategy);
+    }
+
+    @Test
+    public void shouldHandleSequenceChangeWithOneMillisecondDelay() throws Exception
+    {
+        assertWaitForWithDelayOf(1, waitStrategy);
+    }
+
+    @Test
+    public void shouldHandleSequenceChangeWithTenMillisecondDelay() throws Exception
+    {
+        assertWaitForWithDelayOf(10, waitStrategy);
+    }
+
+    @Test
+    public void shouldCountSleepingConsumersUntilSignalled() throws Exception
+    {
+        final RingBuffer<StubEvent> ringBuffer = RingBuffer.createSingleProducer(StubEvent.EVENT_FACTORY, 4, waitStrategy);
+        final SequenceBarrier barrier = ringBuffer.newBarrier();
+        final CountDownLatch done = new CountDownLatch(1);
+        final Thread consumer = startConsumer(barrier, done, new AtomicReference<Throwable>());
+
+        awaitSleepers(1);
+
+        ringBuffer.publish(ringBuffer.next());
+
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        consumer.join();
+        assertThat(waitStrategy.getSleeperCount(), is(0));
+    }
+
+    @Test
+    public void shouldWakeSleepingConsumerWhenBarrierIsAlerted() throws Exception
+    {
+        final RingBuffer<StubEvent> ringBuffer = RingBuffer.createSingleProducer(StubEvent.EVENT_FACTORY, 4, waitStrategy);
+        final SequenceBarrier barrier = ringBuffer.newBarrier();
+        final CountDownLatch done = new CountDownLatch(1);
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        final Thread consumer = startConsumer(barrier, done, error);
+
+        awaitSleepers(1);
+
+        barrier.alert();
+
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        consumer.join();
+        assertTrue(error.get() instanceof AlertException);
+        assertThat(waitStrategy.getSleeperCount(), is(0));
+    }
+
+    private Thread startConsumer(final SequenceBarrier barrier, final CountDownLatch done, final AtomicReference<Throwable> error)
+    {
+        final Thread thread = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    barrier.waitFor(0);
+                }
+                catch (final Throwable e)
+                {
+                    error.set(e);
+                }
+                done.countDown();
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private void awaitSleepers(final int sleeperCount) throws InterruptedException
+    {
+        while (waitStrategy.getSleeperCount() < sleeperCount)
+        {
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import static com.lmax.disruptor.support.WaitStrategyTestUtil.assertWaitForWithDelayOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import com.lmax.disruptor.support.DummySequenceBarrier;
+import com.lmax.disruptor.support.StubEvent;
+
+public class TargetedWakeupWaitStrategyTest
+{
+    private final TargetedWakeupWaitStrategy waitStrategy = new TargetedWakeupWaitStrategy(10, TimeUnit.SECONDS);
+
+    @Test
+    public void shouldHandleImmediateSequenceChange() throws Exception
+    {
+        assertWaitForWithDelayOf(0, waitStrategy);
+    }
+
+    @Test
+    public void shouldHandleSequenceChangeWithOneMillisecondDelay() throws Exception
+    {
+        assertWaitForWithDelayOf(1, waitStrategy);
+    }
+
+    @Test
+    public void shouldHandleSequenceChangeWithTenMillisecondDelay() throws Exception
+    {
+        assertWaitForWithDelayOf(10, waitStrategy);
+    }
+
+    @Test
+    public void shouldOnlyWakeWaiterOncePublishedSequenceReachesDependentStage() throws Exception
+    {
+        final Sequence cursor = new Sequence(-1);
+        final Sequence upstreamSequence = new Sequence(-1);
+        final CountDownLatch done = new CountDownLatch(1);
+        final Thread downstream = startWaiter(0, cursor, upstreamSequence, new DummySequenceBarrier(), done, null);
+
+        awaitParked(1);
+
+        cursor.set(0);
+        waitStrategy.signalAllWhenBlocking();
+        assertFalse(done.await(50, TimeUnit.MILLISECONDS));
+
+        // 上游处理完事件后回到等待，唤醒下游
+        upstreamSequence.set(0);
+        waitStrategy.waitFor(0, cursor, cursor, new DummySequenceBarrier());
+
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        downstream.join();
+        assertThat(waitStrategy.getWaiterCount(), is(0));
+    }
+
+    @Test
+    public void shouldWakeWaiterWhenBarrierIsAlerted() throws Exception
+    {
+        final RingBuffer<StubEvent> ringBuffer = RingBuffer.createSingleProducer(StubEvent.EVENT_FACTORY, 4, waitStrategy);
+        final SequenceBarrier barrier = ringBuffer.newBarrier();
+        final CountDownLatch done = new CountDownLatch(1);
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        final Sequence cursor = new Sequence(-1);
+        final Thread waiter = startWaiter(0, cursor, cursor, barrier, done, error);
+
+        awaitParked(1);
+
+        barrier.alert();
+
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        waiter.join();
+        assertTrue(error.get() instanceof AlertException);
+    }
+
+    private Thread startWaiter(
+        final long sequence,
+        final Sequence cursor,
+        final Sequence dependentSequence,
+        final SequenceBarrier barrier,
+        final CountDownLatch done,
+        final AtomicReference<Throwable> error)
+    {
+        final Thread thread = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    waitStrategy.waitFor(sequence, cursor, dependentSequence, barrier);
+                }
+                catch (final Throwable e)
+                {
+                    if (null != error)
+                    {
+                        error.set(e);
+                    }
+                }
+                done.countDown();
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private void awaitParked(final int waiterCount) throws InterruptedException
+    {
+        while (waitStrategy.getWaiterCount() < waiterCount)
+        {
+            Thread.sleep(1);
+        }
+    }
+}
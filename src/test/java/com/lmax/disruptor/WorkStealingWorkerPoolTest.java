@@ -0,0 +1,261 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import com.lmax.disruptor.util.DaemonThreadFactory;
+import com.lmax.disruptor.util.ThreadHints;
+import com.lmax.disruptor.util.Util;
+
+public class WorkStealingWorkerPoolTest
+{
+    private final RingBuffer<AtomicLong> ringBuffer =
+        RingBuffer.createMultiProducer(new AtomicLongEventFactory(), 1024, new BlockingWaitStrategy());
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void shouldProcessEachMessageByOnlyOneWorker() throws Exception
+    {
+        final CountingWorkHandler[] handlers = {new CountingWorkHandler(), new CountingWorkHandler(), new CountingWorkHandler()};
+        final WorkStealingWorkerPool<AtomicLong> pool = new WorkStealingWorkerPool<AtomicLong>(
+            ringBuffer, ringBuffer.newBarrier(), new FatalExceptionHandler(), 4, handlers);
+        ringBuffer.addGatingSequences(pool.getWorkerSequences());
+        pool.start(Executors.newCachedThreadPool(DaemonThreadFactory.INSTANCE));
+
+        final int messages = 10000;
+        for (int i = 0; i < messages; i++)
+        {
+            long sequence = ringBuffer.next();
+            ringBuffer.get(sequence).set(0);
+            ringBuffer.publish(sequence);
+        }
+
+        pool.drainAndHalt();
+
+        for (int i = messages - ringBuffer.getBufferSize(); i < messages; i++)
+        {
+            assertThat(ringBuffer.get(i).get(), is(1L));
+        }
+        assertThat(handlers[0].count + handlers[1].count + handlers[2].count, is((long) messages));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void shouldKeepWorkersGatedWhileWrappingSmallRingBuffer() throws Exception
+    {
+        final RingBuffer<AtomicLong> ringBuffer =
+            RingBuffer.createSingleProducer(new AtomicLongEventFactory(), 16, new BlockingWaitStrategy());
+        final CountingWorkHandler[] handlers = {new CountingWorkHandler(), new CountingWorkHandler(), new CountingWorkHandler()};
+        final WorkStealingWorkerPool<AtomicLong> pool = new WorkStealingWorkerPool<AtomicLong>(
+            ringBuffer, ringBuffer.newBarrier(), new FatalExceptionHandler(), 2, handlers);
+        ringBuffer.addGatingSequences(pool.getWorkerSequences());
+        pool.start(Executors.newCachedThreadPool(DaemonThreadFactory.INSTANCE));
+
+        final int messages = 100000;
+        for (int i = 0; i < messages; i++)
+        {
+            long sequence = ringBuffer.next();
+            ringBuffer.get(sequence).set(0);
+            ringBuffer.publish(sequence);
+        }
+
+        pool.drainAndHalt();
+
+        assertThat(handlers[0].count + handlers[1].count + handlers[2].count, is((long) messages));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void shouldStealWorkQueuedBehindBlockedWorker() throws Exception
+    {
+        final SlowEvent slowEvent = new SlowEvent();
+        final SlowFirstEventWorkHandler[] handlers = {new SlowFirstEventWorkHandler(slowEvent), new SlowFirstEventWorkHandler(slowEvent)};
+        final WorkStealingWorkerPool<AtomicLong> pool = new WorkStealingWorkerPool<AtomicLong>(
+            ringBuffer, ringBuffer.newBarrier(), new FatalExceptionHandler(), 1, handlers);
+        ringBuffer.addGatingSequences(pool.getWorkerSequences());
+        pool.start(Executors.newCachedThreadPool(DaemonThreadFactory.INSTANCE));
+
+        for (int i = 0; i < 10; i++)
+        {
+            ringBuffer.publish(ringBuffer.next());
+        }
+
+        assertTrue(slowEvent.started.await(2, TimeUnit.SECONDS));
+        final long timeout = System.currentTimeMillis() + 2000;
+        while (handlers[0].count + handlers[1].count < 9 && System.currentTimeMillis() < timeout)
+        {
+            Thread.sleep(1);
+        }
+        assertThat(handlers[0].count + handlers[1].count, is(9L));
+        assertTrue(Util.getMinimumSequence(pool.getWorkerSequences()) < 9L);
+
+        slowEvent.release.countDown();
+        pool.drainAndHalt();
+
+        for (int i = 0; i < 10; i++)
+        {
+            assertThat(ringBuffer.get(i).get(), is(1L));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void shouldListQueueSequencesBeforeWorkerSequences() throws Exception
+    {
+        final WorkStealingWorkerPool<AtomicLong> pool = new WorkStealingWorkerPool<AtomicLong>(
+            ringBuffer, ringBuffer.newBarrier(), new FatalExceptionHandler(), 2,
+            new CountingWorkHandler(), new CountingWorkHandler());
+        pool.start(Executors.newCachedThreadPool(DaemonThreadFactory.INSTANCE));
+        final Sequence[] sequences = pool.getWorkerSequences();
+        pool.halt();
+
+        // 队列序号记录块的起始位置，两个worker的块相隔blockSize
+        assertThat(sequences[0].get(), is(-1L));
+        assertThat(sequences[1].get(), is(1L));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void shouldNotOverwriteEventsWhileStealingFromSmallRingBuffer() throws Exception
+    {
+        final RingBuffer<AtomicLong> ringBuffer =
+            RingBuffer.createSingleProducer(new AtomicLongEventFactory(), 4, new YieldingWaitStrategy());
+        final int messages = 200000;
+        final AtomicIntegerArray handled = new AtomicIntegerArray(messages);
+        final AtomicBoolean overwritten = new AtomicBoolean(false);
+        final CheckingWorkHandler[] handlers = {
+            new CheckingWorkHandler(handled, overwritten, 0),
+            new CheckingWorkHandler(handled, overwritten, 0),
+            new CheckingWorkHandler(handled, overwritten, 20),
+            new CheckingWorkHandler(handled, overwritten, 200)};
+        final WorkStealingWorkerPool<AtomicLong> pool = new WorkStealingWorkerPool<AtomicLong>(
+            ringBuffer, ringBuffer.newBarrier(), new FatalExceptionHandler(), 1, handlers);
+        ringBuffer.addGatingSequences(pool.getWorkerSequences());
+        pool.start(Executors.newCachedThreadPool(DaemonThreadFactory.INSTANCE));
+
+        for (int i = 0; i < messages; i++)
+        {
+            long sequence = ringBuffer.next();
+            ringBuffer.get(sequence).set(i);
+            ringBuffer.publish(sequence);
+        }
+
+        pool.drainAndHalt();
+
+        assertFalse(overwritten.get());
+        for (int i = 0; i < messages; i++)
+        {
+            assertThat(handled.get(i), is(1));
+        }
+    }
+
+    private static class CountingWorkHandler implements WorkHandler<AtomicLong>
+    {
+        private volatile long count;
+
+        @Override
+        public void onEvent(final AtomicLong event) throws Exception
+        {
+            event.incrementAndGet();
+            count++;
+        }
+    }
+
+    private static final class SlowEvent
+    {
+        private final AtomicBoolean taken = new AtomicBoolean(false);
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+    }
+
+    private static class SlowFirstEventWorkHandler implements WorkHandler<AtomicLong>
+    {
+        private final SlowEvent slowEvent;
+        private volatile long count;
+
+        SlowFirstEventWorkHandler(final SlowEvent slowEvent)
+        {
+            this.slowEvent = slowEvent;
+        }
+
+        @Override
+        public void onEvent(final AtomicLong event) throws Exception
+        {
+            if (slowEvent.taken.compareAndSet(false, true))
+            {
+                slowEvent.started.countDown();
+                slowEvent.release.await();
+            }
+            else
+            {
+                count++;
+            }
+            event.incrementAndGet();
+        }
+    }
+
+    private static class CheckingWorkHandler implements WorkHandler<AtomicLong>
+    {
+        private final AtomicIntegerArray handled;
+        private final AtomicBoolean overwritten;
+        private final int spins;
+
+        CheckingWorkHandler(final AtomicIntegerArray handled, final AtomicBoolean overwritten, final int spins)
+        {
+            this.handled = handled;
+            this.overwritten = overwritten;
+            this.spins = spins;
+        }
+
+        @Override
+        public void onEvent(final AtomicLong event) throws Exception
+        {
+            final long value = event.get();
+            // 处理耗时不均，让空闲的worker去窃取块
+            for (int i = 0; i < spins; i++)
+            {
+                ThreadHints.onSpinWait();
+            }
+            if (event.get() != value)
+            {
+                overwritten.set(true);
+            }
+            handled.incrementAndGet((int) value);
+        }
+    }
+
+    private static class AtomicLongEventFactory implements EventFactory<AtomicLong>
+    {
+        @Override
+        public AtomicLong newInstance()
+        {
+            return new AtomicLong(0);
+        }
+    }
+}
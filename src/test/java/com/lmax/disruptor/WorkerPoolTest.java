@@ -56,6 +56,68 @@ public class WorkerPoolTest
         assertThat(ringBuffer.get(1).get(), is(0L));
     }
 
+    @SuppressWarnings("unchecked")
+    @Test
+    public void shouldProcessEachMessageOnceWhenClaimingFixedBlocks() throws Exception
+    {
+        WorkerPool<AtomicLong> pool = new WorkerPool<AtomicLong>(
+            new AtomicLongEventFactory(), new FatalExceptionHandler(),
+            new AtomicLongWorkHandler(), new AtomicLongWorkHandler(), new AtomicLongWorkHandler());
+        pool.setClaimBatchSize(8);
+
+        assertEachMessageProcessedOnce(pool);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void shouldProcessEachMessageOnceWhenClaimingAdaptiveBlocks() throws Exception
+    {
+        WorkerPool<AtomicLong> pool = new WorkerPool<AtomicLong>(
+            new AtomicLongEventFactory(), new FatalExceptionHandler(),
+            new AtomicLongWorkHandler(), new AtomicLongWorkHandler(), new AtomicLongWorkHandler());
+        pool.setAdaptiveClaimBatchSize(64);
+
+        assertEachMessageProcessedOnce(pool);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotAllowClaimBatchSizeToChangeOnceStarted() throws Exception
+    {
+        WorkerPool<AtomicLong> pool = new WorkerPool<AtomicLong>(
+            new AtomicLongEventFactory(), new FatalExceptionHandler(), new AtomicLongWorkHandler());
+        pool.start(Executors.newCachedThreadPool(DaemonThreadFactory.INSTANCE));
+
+        try
+        {
+            pool.setClaimBatchSize(8);
+        }
+        finally
+        {
+            pool.halt();
+        }
+    }
+
+    private static void assertEachMessageProcessedOnce(final WorkerPool<AtomicLong> pool)
+    {
+        final int messages = 10000;
+        RingBuffer<AtomicLong> ringBuffer = pool.start(Executors.newCachedThreadPool(DaemonThreadFactory.INSTANCE));
+
+        for (int i = 0; i < messages; i++)
+        {
+            long sequence = ringBuffer.next();
+            ringBuffer.get(sequence).set(0);
+            ringBuffer.publish(sequence);
+        }
+
+        pool.drainAndHalt();
+
+        for (int i = messages - ringBuffer.getBufferSize(); i < messages; i++)
+        {
+            assertThat(ringBuffer.get(i).get(), is(1L));
+        }
+    }
+
     private static class AtomicLongWorkHandler implements WorkHandler<AtomicLong>
     {
         @Override
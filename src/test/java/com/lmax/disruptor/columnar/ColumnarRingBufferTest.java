@@ -0,0 +1,157 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.columnar;
+
+import com.lmax.disruptor.BatchEventProcessor;
+import com.lmax.disruptor.EventFactory;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.SingleProducerSequencer;
+import com.lmax.disruptor.YieldingWaitStrategy;
+import com.lmax.disruptor.util.DaemonThreadFactory;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class ColumnarRingBufferTest
+{
+    @Test
+    public void shouldReadAndWriteColumnsThroughFlyweight() throws Exception
+    {
+        final ColumnarRingBuffer<TradeEvent> ringBuffer = ColumnarRingBuffer.createSingleProducer(
+            TradeEvent.FACTORY, TradeEvent.LAYOUT, 4, new YieldingWaitStrategy());
+        final TradeEvent event = ringBuffer.newEvent();
+
+        for (long i = 0; i < 6; i++)
+        {
+            final long sequence = ringBuffer.next();
+            ringBuffer.get(event, sequence).set(100 + i, (int) i, i / 2.0);
+            ringBuffer.publish(sequence);
+        }
+
+        assertThat(ringBuffer.get(event, 5).getPrice(), is(105L));
+        assertThat(event.getQuantity(), is(5));
+        assertThat(event.getSequence(), is(5L));
+        assertThat(ringBuffer.getLong(TradeEvent.PRICE, 4), is(104L));
+        assertThat(ringBuffer.getDouble(TradeEvent.RATE, 3), is(1.5));
+
+        ringBuffer.setInt(TradeEvent.QUANTITY, 3, 42);
+        assertThat(ringBuffer.get(event, 7).getQuantity(), is(42));
+    }
+
+    @Test
+    public void shouldProcessEventsWithBatchEventProcessor() throws Exception
+    {
+        final ColumnarRingBuffer<TradeEvent> ringBuffer = ColumnarRingBuffer.createMultiProducer(
+            TradeEvent.FACTORY, TradeEvent.LAYOUT, 8, new YieldingWaitStrategy());
+        final CountDownLatch latch = new CountDownLatch(1);
+        final long[] notional = new long[1];
+
+        final BatchEventProcessor<TradeEvent> processor = ringBuffer.newBatchEventProcessor(
+            ringBuffer.newBarrier(),
+            new EventHandler<TradeEvent>()
+            {
+                @Override
+                public void onEvent(final TradeEvent event, final long sequence, final boolean endOfBatch)
+                {
+                    notional[0] += event.getPrice() * event.getQuantity();
+                    if (sequence == 99)
+                    {
+                        latch.countDown();
+                    }
+                }
+            });
+        ringBuffer.addGatingSequences(processor.getSequence());
+
+        final Thread thread = DaemonThreadFactory.INSTANCE.newThread(processor);
+        thread.start();
+
+        final TradeEvent event = ringBuffer.newEvent();
+        long expected = 0;
+        for (int i = 0; i < 100; i++)
+        {
+            final long sequence = ringBuffer.next();
+            ringBuffer.get(event, sequence).set(i, 2, 0.0);
+            ringBuffer.publish(sequence);
+            expected += i * 2;
+        }
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        processor.halt();
+        thread.join();
+
+        assertThat(notional[0], is(expected));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotAllowColumnsToBeAddedOnceInUse() throws Exception
+    {
+        final ColumnLayout layout = new ColumnLayout();
+        layout.longColumn("value");
+        new ColumnarRingBuffer<>(TradeEvent.FACTORY, layout, new SingleProducerSequencer(4, new YieldingWaitStrategy()));
+
+        layout.intColumn("late");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotAllowFlyweightFromAnotherRingBuffer() throws Exception
+    {
+        final ColumnarRingBuffer<TradeEvent> first = ColumnarRingBuffer.createSingleProducer(
+            TradeEvent.FACTORY, TradeEvent.LAYOUT, 4, new YieldingWaitStrategy());
+        final ColumnarRingBuffer<TradeEvent> second = ColumnarRingBuffer.createSingleProducer(
+            TradeEvent.FACTORY, TradeEvent.LAYOUT, 4, new YieldingWaitStrategy());
+
+        second.get(first.newEvent(), 0);
+    }
+
+    private static final class TradeEvent extends ColumnarEvent
+    {
+        static final ColumnLayout LAYOUT = new ColumnLayout();
+        static final LongColumn PRICE = LAYOUT.longColumn("price");
+        static final IntColumn QUANTITY = LAYOUT.intColumn("quantity");
+        static final DoubleColumn RATE = LAYOUT.doubleColumn("rate");
+
+        static final EventFactory<TradeEvent> FACTORY = new EventFactory<TradeEvent>()
+        {
+            @Override
+            public TradeEvent newInstance()
+            {
+                return new TradeEvent();
+            }
+        };
+
+        long getPrice()
+        {
+            return getLong(PRICE);
+        }
+
+        int getQuantity()
+        {
+            return getInt(QUANTITY);
+        }
+
+        void set(final long price, final int quantity, final double rate)
+        {
+            setLong(PRICE, price);
+            setInt(QUANTITY, quantity);
+            setDouble(RATE, rate);
+        }
+    }
+}
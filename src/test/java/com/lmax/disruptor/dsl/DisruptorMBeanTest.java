@@ -0,0 +1,125 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.dsl;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.dsl.stubs.EventHandlerStub;
+import com.lmax.disruptor.dsl.stubs.StubThreadFactory;
+import com.lmax.disruptor.support.TestEvent;
+
+public class DisruptorMBeanTest
+{
+    private final MBeanServer mBeanServer = MBeanServerFactory.newMBeanServer();
+    private final StubThreadFactory threadFactory = new StubThreadFactory();
+    private final Disruptor<TestEvent> disruptor = new Disruptor<>(
+        TestEvent.EVENT_FACTORY, 16, threadFactory, ProducerType.SINGLE, new BlockingWaitStrategy());
+
+    @After
+    public void tearDown() throws Exception
+    {
+        disruptor.halt();
+        disruptor.unregisterMBeans();
+        threadFactory.joinAllThreads();
+    }
+
+    @Test
+    public void shouldExposeRingBufferAndConsumers() throws Exception
+    {
+        final CountDownLatch latch = new CountDownLatch(2);
+        final EventHandler<TestEvent> first = new EventHandlerStub<>(latch);
+        final EventHandler<TestEvent> second = new EventHandlerStub<>(latch);
+        disruptor.handleEventsWith(first).then(second);
+        disruptor.enableMetrics();
+        disruptor.registerMBeans(mBeanServer, "test");
+
+        final ObjectName disruptorName = new ObjectName("com.lmax.disruptor:type=Disruptor,name=\"test\"");
+        final ObjectName firstName = new ObjectName("com.lmax.disruptor:type=Consumer,disruptor=\"test\",index=0");
+        final ObjectName secondName = new ObjectName("com.lmax.disruptor:type=Consumer,disruptor=\"test\",index=1");
+
+        assertThat((Long) mBeanServer.getAttribute(disruptorName, "BufferSize"), is(16L));
+        assertThat((Integer) mBeanServer.getAttribute(disruptorName, "ConsumerCount"), is(2));
+        assertThat((Boolean) mBeanServer.getAttribute(firstName, "EndOfChain"), is(false));
+        assertThat((Boolean) mBeanServer.getAttribute(secondName, "EndOfChain"), is(true));
+
+        final RingBuffer<TestEvent> ringBuffer = disruptor.start();
+        ringBuffer.publish(ringBuffer.next());
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        awaitSequence(secondName, 0L);
+
+        assertThat((Long) mBeanServer.getAttribute(disruptorName, "Cursor"), is(0L));
+        assertThat((Long) mBeanServer.getAttribute(disruptorName, "RemainingCapacity"), is(16L));
+        assertThat((Boolean) mBeanServer.getAttribute(disruptorName, "Backlogged"), is(false));
+        assertThat((Long) mBeanServer.getAttribute(secondName, "Lag"), is(0L));
+        assertThat((Long) mBeanServer.getAttribute(firstName, "Sequence"), is(0L));
+        assertThat((Boolean) mBeanServer.getAttribute(firstName, "Running"), is(true));
+    }
+
+    @Test
+    public void shouldReportMissingMetricsAsMinusOne() throws Exception
+    {
+        disruptor.handleEventsWith(new EventHandlerStub<TestEvent>(new CountDownLatch(1)));
+        disruptor.registerMBeans(mBeanServer, "test");
+
+        final ObjectName consumerName = new ObjectName("com.lmax.disruptor:type=Consumer,disruptor=\"test\",index=0");
+
+        assertThat((Long) mBeanServer.getAttribute(consumerName, "EventCount"), is(-1L));
+    }
+
+    @Test
+    public void shouldUnregisterMBeans() throws Exception
+    {
+        disruptor.handleEventsWith(new EventHandlerStub<TestEvent>(new CountDownLatch(1)));
+        disruptor.registerMBeans(mBeanServer, "test");
+        assertThat(mBeanServer.queryNames(new ObjectName("com.lmax.disruptor:*"), null).size(), is(2));
+
+        disruptor.unregisterMBeans();
+
+        assertFalse(mBeanServer.isRegistered(new ObjectName("com.lmax.disruptor:type=Disruptor,name=\"test\"")));
+        assertThat(mBeanServer.queryNames(new ObjectName("com.lmax.disruptor:*"), null).size(), is(0));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotRegisterMBeansTwice() throws Exception
+    {
+        disruptor.registerMBeans(mBeanServer, "test");
+        disruptor.registerMBeans(mBeanServer, "other");
+    }
+
+    private void awaitSequence(final ObjectName consumerName, final long sequence) throws Exception
+    {
+        while ((Long) mBeanServer.getAttribute(consumerName, "Sequence") < sequence)
+        {
+            Thread.sleep(1);
+        }
+    }
+}
@@ -16,6 +16,7 @@
 package com.lmax.disruptor.dsl;
 
 import com.lmax.disruptor.BatchEventProcessor;
+import com.lmax.disruptor.BatchStartAware;
 import com.lmax.disruptor.BlockingWaitStrategy;
 import com.lmax.disruptor.EventHandler;
 import com.lmax.disruptor.EventProcessor;
@@ -23,6 +24,8 @@ import com.lmax.disruptor.EventTranslator;
 import com.lmax.disruptor.EventTranslatorOneArg;
 import com.lmax.disruptor.ExceptionHandler;
 import com.lmax.disruptor.FatalExceptionHandler;
+import com.lmax.disruptor.LatencyRecorder;
+import com.lmax.disruptor.PartitionKeyExtractor;
 import com.lmax.disruptor.RingBuffer;
 import com.lmax.disruptor.Sequence;
 import com.lmax.disruptor.SequenceBarrier;
@@ -36,14 +39,19 @@ import com.lmax.disruptor.dsl.stubs.StubExceptionHandler;
 import com.lmax.disruptor.dsl.stubs.StubPublisher;
 import com.lmax.disruptor.dsl.stubs.StubThreadFactory;
 import com.lmax.disruptor.dsl.stubs.TestWorkHandler;
+import com.lmax.disruptor.support.LongEvent;
 import com.lmax.disruptor.support.TestEvent;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
@@ -487,6 +495,43 @@ public class DisruptorTest
         waitFor(reference);
     }
 
+    @Test
+    public void shouldLimitTheBatchSizeForAEventProcessor()
+        throws Exception
+    {
+        final List<Long> batchSizes = new CopyOnWriteArrayList<Long>();
+        final CountDownLatch countDownLatch = new CountDownLatch(3);
+
+        final class BatchSizeRecordingEventHandler implements EventHandler<TestEvent>, BatchStartAware
+        {
+            @Override
+            public void onBatchStart(final long batchSize)
+            {
+                batchSizes.add(batchSize);
+            }
+
+            @Override
+            public void onEvent(final TestEvent event, final long sequence, final boolean endOfBatch)
+            {
+                countDownLatch.countDown();
+            }
+        }
+
+        final BatchSizeRecordingEventHandler eventHandler = new BatchSizeRecordingEventHandler();
+        disruptor.handleEventsWith(eventHandler);
+        disruptor.setMaxBatchSize(eventHandler, 2);
+
+        final RingBuffer<TestEvent> ringBuffer = disruptor.getRingBuffer();
+        for (int i = 0; i < 3; i++)
+        {
+            ringBuffer.publish(ringBuffer.next());
+        }
+        disruptor.start();
+
+        assertTrue(countDownLatch.await(TIMEOUT_IN_SECONDS, TimeUnit.SECONDS));
+        assertThat(batchSizes, equalTo(Arrays.asList(2L, 1L)));
+    }
+
     @Test(expected = IllegalStateException.class)
     public void shouldThrowExceptionWhenAddingEventProcessorsAfterTheProducerBarrierHasBeenCreated()
         throws Exception
@@ -550,6 +595,202 @@ public class DisruptorTest
         assertThat(executor.getExecutionCount(), equalTo(2));
     }
 
+    @Test
+    public void shouldSplitEventsBetweenPartitionedHandlersByKey() throws Exception
+    {
+        final Disruptor<LongEvent> longDisruptor = new Disruptor<LongEvent>(
+            LongEvent.FACTORY, 8, executor, ProducerType.SINGLE, new BlockingWaitStrategy());
+        final PartitionKeyExtractor<LongEvent> keyExtractor = new PartitionKeyExtractor<LongEvent>()
+        {
+            @Override
+            public Object getPartitionKey(final LongEvent event)
+            {
+                return event.get() % 2;
+            }
+        };
+        final class ValueCollectingHandler implements EventHandler<LongEvent>
+        {
+            private final List<Long> values;
+
+            ValueCollectingHandler(final List<Long> values)
+            {
+                this.values = values;
+            }
+
+            @Override
+            public void onEvent(final LongEvent event, final long sequence, final boolean endOfBatch)
+            {
+                values.add(event.get());
+            }
+        }
+
+        final List<Long> evenValues = new CopyOnWriteArrayList<>();
+        final List<Long> oddValues = new CopyOnWriteArrayList<>();
+        final EventHandler<LongEvent> evenHandler = new ValueCollectingHandler(evenValues);
+        final EventHandler<LongEvent> oddHandler = new ValueCollectingHandler(oddValues);
+        final CountDownLatch countDownLatch = new CountDownLatch(20);
+
+        longDisruptor.handleEventsWithPartitioned(keyExtractor, evenHandler, oddHandler);
+        longDisruptor.after(evenHandler, oddHandler).then(new EventHandlerStub<LongEvent>(countDownLatch));
+
+        final RingBuffer<LongEvent> longRingBuffer = longDisruptor.start();
+        try
+        {
+            for (long i = 0; i < 20; i++)
+            {
+                final long sequence = longRingBuffer.next();
+                longRingBuffer.get(sequence).set(i);
+                longRingBuffer.publish(sequence);
+            }
+
+            assertTrue(countDownLatch.await(5, TimeUnit.SECONDS));
+            assertThat(evenValues, is(Arrays.asList(0L, 2L, 4L, 6L, 8L, 10L, 12L, 14L, 16L, 18L)));
+            assertThat(oddValues, is(Arrays.asList(1L, 3L, 5L, 7L, 9L, 11L, 13L, 15L, 17L, 19L)));
+        }
+        finally
+        {
+            longDisruptor.halt();
+        }
+    }
+
+    @Test
+    public void shouldTraceOnlyTheEventsOfEachPartition() throws Exception
+    {
+        final Disruptor<LongEvent> longDisruptor = new Disruptor<LongEvent>(
+            LongEvent.FACTORY, 8, executor, ProducerType.SINGLE, new BlockingWaitStrategy());
+        final List<Object> stages = new CopyOnWriteArrayList<>();
+        longDisruptor.enableLatencyTracing(2, new LatencyRecorder()
+        {
+            @Override
+            public void recordLatency(final Object stage, final long sequence, final long latencyNanos)
+            {
+                stages.add(stage);
+            }
+        });
+        final PartitionKeyExtractor<LongEvent> keyExtractor = new PartitionKeyExtractor<LongEvent>()
+        {
+            @Override
+            public Object getPartitionKey(final LongEvent event)
+            {
+                return event.get() % 2;
+            }
+        };
+
+        final EventHandler<LongEvent> evenHandler = new EventHandlerStub<LongEvent>(new CountDownLatch(4));
+        final EventHandler<LongEvent> oddHandler = new EventHandlerStub<LongEvent>(new CountDownLatch(4));
+        final CountDownLatch countDownLatch = new CountDownLatch(8);
+        longDisruptor.handleEventsWithPartitioned(keyExtractor, evenHandler, oddHandler);
+        longDisruptor.after(evenHandler, oddHandler).then(new EventHandlerStub<LongEvent>(countDownLatch));
+
+        final RingBuffer<LongEvent> longRingBuffer = longDisruptor.start();
+        try
+        {
+            for (long i = 0; i < 8; i++)
+            {
+                final long sequence = longRingBuffer.next();
+                longRingBuffer.get(sequence).set(i);
+                longRingBuffer.publish(sequence);
+            }
+
+            assertTrue(countDownLatch.await(5, TimeUnit.SECONDS));
+            // 采样的都是偶数序号，只落在偶数分区
+            assertThat(Collections.frequency(stages, evenHandler), is(4));
+            assertThat(Collections.frequency(stages, oddHandler), is(0));
+        }
+        finally
+        {
+            longDisruptor.halt();
+        }
+    }
+
+    @Test
+    public void shouldTraceLatencyOfEachStageWhenEnabled() throws Exception
+    {
+        final List<Object> stages = new CopyOnWriteArrayList<>();
+        final CountDownLatch recordedLatch = new CountDownLatch(4);
+        disruptor.enableLatencyTracing(2, new LatencyRecorder()
+        {
+            @Override
+            public void recordLatency(final Object stage, final long sequence, final long latencyNanos)
+            {
+                stages.add(stage);
+                recordedLatch.countDown();
+            }
+        });
+
+        final EventHandler<TestEvent> first = new EventHandlerStub<TestEvent>(new CountDownLatch(4));
+        final EventHandler<TestEvent> second = new EventHandlerStub<TestEvent>(new CountDownLatch(4));
+        disruptor.handleEventsWith(first).then(second);
+
+        for (int i = 0; i < 4; i++)
+        {
+            publishEvent();
+        }
+
+        assertTrue(recordedLatch.await(5, TimeUnit.SECONDS));
+        assertNotNull(disruptor.getRingBuffer().getLatencyTracer());
+        assertThat(stages.size(), is(4));
+        assertThat(Collections.frequency(stages, first), is(2));
+        assertThat(Collections.frequency(stages, second), is(2));
+    }
+
+    @Test
+    public void shouldKeepHandlingEventsAfterResizing() throws Exception
+    {
+        final CountDownLatch firstLatch = new CountDownLatch(4);
+        final CountDownLatch secondLatch = new CountDownLatch(12);
+        disruptor.handleEventsWith(new EventHandlerStub<TestEvent>(firstLatch))
+            .then(new EventHandlerStub<TestEvent>(secondLatch));
+
+        for (int i = 0; i < 4; i++)
+        {
+            publishEvent();
+        }
+        assertTrue(firstLatch.await(5, TimeUnit.SECONDS));
+
+        disruptor.resize(32, 5, TimeUnit.SECONDS);
+        assertThat(disruptor.getBufferSize(), is(32L));
+
+        for (int i = 0; i < 8; i++)
+        {
+            publishEvent();
+        }
+        assertTrue(secondLatch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void shouldPassPublishedReferencesToHandlers() throws Exception
+    {
+        disruptor = new Disruptor<TestEvent>(4, executor, ProducerType.SINGLE, new BlockingWaitStrategy());
+        final List<TestEvent> handled = new CopyOnWriteArrayList<TestEvent>();
+        final CountDownLatch latch = new CountDownLatch(6);
+        disruptor.handleEventsWith(new EventHandler<TestEvent>()
+        {
+            @Override
+            public void onEvent(final TestEvent event, final long sequence, final boolean endOfBatch)
+            {
+                handled.add(event);
+            }
+        }).then(new EventHandlerStub<TestEvent>(latch));
+        final RingBuffer<TestEvent> ringBuffer = disruptor.start();
+
+        final List<TestEvent> published = new ArrayList<TestEvent>();
+        for (int i = 0; i < 6; i++)
+        {
+            final TestEvent event = new TestEvent();
+            published.add(event);
+            disruptor.put(event);
+        }
+
+        assertTrue(latch.await(TIMEOUT_IN_SECONDS, SECONDS));
+        assertTrue(ringBuffer.isReferencePassing());
+        assertEquals(published.size(), handled.size());
+        for (int i = 0; i < published.size(); i++)
+        {
+            assertSame(published.get(i), handled.get(i));
+        }
+    }
+
     @Test
     public void shouldSupportCustomProcessorsAndHandlersAsDependencies() throws Exception
     {
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.offheap;
+
+import com.lmax.disruptor.BatchEventProcessor;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.YieldingWaitStrategy;
+import com.lmax.disruptor.dsl.ProducerType;
+import com.lmax.disruptor.util.DaemonThreadFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class MappedRingBufferFileTest
+{
+    private File file;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        file = File.createTempFile("ring", ".dat");
+        assertTrue(file.delete());
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        file.delete();
+    }
+
+    @Test
+    public void shouldRecoverPublishedEventsAfterReopening() throws Exception
+    {
+        MappedRingBufferFile ringBufferFile = open(ProducerType.SINGLE);
+        publish(ringBufferFile.getRingBuffer(), 0, 5);
+        ringBufferFile.close();
+
+        ringBufferFile = open(ProducerType.SINGLE);
+        assertThat(ringBufferFile.getRingBuffer().getCursor(), is(4L));
+        assertThat(ringBufferFile.getConsumerSequence(0).get(), is(-1L));
+
+        assertThat(consume(ringBufferFile, 5), is(values(0, 5)));
+        ringBufferFile.close();
+    }
+
+    @Test
+    public void shouldResumeConsumerFromPersistedSequence() throws Exception
+    {
+        MappedRingBufferFile ringBufferFile = open(ProducerType.MULTI);
+        publish(ringBufferFile.getRingBuffer(), 0, 5);
+        assertThat(consume(ringBufferFile, 5), is(values(0, 5)));
+        publish(ringBufferFile.getRingBuffer(), 5, 3);
+        ringBufferFile.close();
+
+        ringBufferFile = open(ProducerType.MULTI);
+        assertThat(ringBufferFile.getConsumerSequence(0).get(), is(4L));
+        assertThat(ringBufferFile.getRingBuffer().getCursor(), is(7L));
+
+        assertThat(consume(ringBufferFile, 3), is(values(5, 3)));
+        publish(ringBufferFile.getRingBuffer(), 8, 1);
+        assertThat(consume(ringBufferFile, 1), is(values(8, 1)));
+        ringBufferFile.close();
+    }
+
+    @Test
+    public void shouldIgnoreEventsNotContiguouslyPublished() throws Exception
+    {
+        MappedRingBufferFile ringBufferFile = open(ProducerType.MULTI);
+        final OffHeapRingBuffer ringBuffer = ringBufferFile.getRingBuffer();
+        publish(ringBuffer, 0, 2);
+        final long unpublished = ringBuffer.next();
+        final long published = ringBuffer.next();
+        ringBuffer.publish(published);
+        assertThat(unpublished, is(2L));
+        ringBufferFile.close();
+
+        ringBufferFile = open(ProducerType.MULTI);
+        assertThat(ringBufferFile.getRingBuffer().getCursor(), is(1L));
+        ringBufferFile.close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectFileCreatedWithDifferentParameters() throws Exception
+    {
+        open(ProducerType.SINGLE).close();
+
+        MappedRingBufferFile.open(file, 16, 16, 1, ProducerType.SINGLE, new YieldingWaitStrategy());
+    }
+
+    private MappedRingBufferFile open(final ProducerType producerType) throws Exception
+    {
+        return MappedRingBufferFile.open(file, 16, 8, 1, producerType, new YieldingWaitStrategy());
+    }
+
+    private static void publish(final OffHeapRingBuffer ringBuffer, final long firstValue, final int count)
+    {
+        final OffHeapEvent event = ringBuffer.newEvent();
+        for (int i = 0; i < count; i++)
+        {
+            final long sequence = ringBuffer.next();
+            ringBuffer.get(event, sequence).putLong(0, firstValue + i);
+            ringBuffer.publish(sequence);
+        }
+    }
+
+    private static List<Long> consume(final MappedRingBufferFile ringBufferFile, final int count) throws Exception
+    {
+        final List<Long> values = new ArrayList<Long>();
+        final CountDownLatch latch = new CountDownLatch(count);
+        final BatchEventProcessor<OffHeapEvent> processor = ringBufferFile.newBatchEventProcessor(
+            0,
+            ringBufferFile.getRingBuffer().newBarrier(),
+            new EventHandler<OffHeapEvent>()
+            {
+                @Override
+                public void onEvent(final OffHeapEvent event, final long sequence, final boolean endOfBatch)
+                {
+                    values.add(event.getLong(0));
+                    latch.countDown();
+                }
+            });
+
+        final Thread thread = DaemonThreadFactory.INSTANCE.newThread(processor);
+        thread.start();
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        while (processor.getSequence().get() < ringBufferFile.getRingBuffer().getCursor())
+        {
+            Thread.yield();
+        }
+        processor.halt();
+        thread.join();
+
+        return values;
+    }
+
+    private static List<Long> values(final long firstValue, final int count)
+    {
+        final List<Long> values = new ArrayList<Long>();
+        for (int i = 0; i < count; i++)
+        {
+            values.add(firstValue + i);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.offheap;
+
+import com.lmax.disruptor.BatchEventProcessor;
+import com.lmax.disruptor.BusySpinWaitStrategy;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.EventPoller;
+import com.lmax.disruptor.YieldingWaitStrategy;
+import com.lmax.disruptor.dsl.OffHeapDisruptor;
+import com.lmax.disruptor.util.DaemonThreadFactory;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class OffHeapRingBufferTest
+{
+    @Test
+    public void shouldReadBackValuesWrittenThroughFlyweight() throws Exception
+    {
+        final OffHeapRingBuffer ringBuffer = OffHeapRingBuffer.createSingleProducer(4, 32, new BusySpinWaitStrategy());
+        final OffHeapEvent event = ringBuffer.newEvent();
+
+        for (int i = 0; i < 6; i++)
+        {
+            final long sequence = ringBuffer.next();
+            ringBuffer.get(event, sequence).putLong(0, sequence * 10);
+            event.putInt(8, i);
+            event.putDouble(16, i + 0.5);
+            ringBuffer.publish(sequence);
+        }
+
+        final OffHeapEvent reader = ringBuffer.newEvent();
+        for (long sequence = 2; sequence < 6; sequence++)
+        {
+            reader.get(sequence);
+            assertThat(reader.getLong(0), is(sequence * 10));
+            assertThat(reader.getInt(8), is((int) sequence));
+            assertThat(reader.getDouble(16), is(sequence + 0.5));
+        }
+    }
+
+    @Test
+    public void shouldCopyBytesIntoSlot() throws Exception
+    {
+        final OffHeapRingBuffer ringBuffer = OffHeapRingBuffer.createMultiProducer(8, 16, new BusySpinWaitStrategy());
+        final EventPoller<OffHeapEvent> poller = ringBuffer.newPoller();
+        ringBuffer.addGatingSequences(poller.getSequence());
+
+        ringBuffer.put(new byte[]{1, 2, 3, 4, 5});
+
+        final byte[] read = new byte[5];
+        poller.poll(new EventPoller.Handler<OffHeapEvent>()
+        {
+            @Override
+            public boolean onEvent(final OffHeapEvent event, final long sequence, final boolean endOfBatch)
+            {
+                event.getBytes(0, read, 0, read.length);
+                return false;
+            }
+        });
+
+        assertThat(read[0], is((byte) 1));
+        assertThat(read[4], is((byte) 5));
+        assertThat(poller.getSequence().get(), is(0L));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void shouldNotWritePastEndOfSlot() throws Exception
+    {
+        final OffHeapRingBuffer ringBuffer = OffHeapRingBuffer.createSingleProducer(4, 16, new BusySpinWaitStrategy());
+
+        ringBuffer.newEvent().get(0).putLong(12, 1L);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void shouldNotPutMoreThanEntrySize() throws Exception
+    {
+        final OffHeapRingBuffer ringBuffer = OffHeapRingBuffer.createSingleProducer(4, 16, new BusySpinWaitStrategy());
+
+        ringBuffer.put(new byte[17]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectEntrySizeNotMultipleOfEight() throws Exception
+    {
+        OffHeapRingBuffer.createSingleProducer(4, 12, new BusySpinWaitStrategy());
+    }
+
+    @Test
+    public void shouldProcessEventsWithBatchEventProcessor() throws Exception
+    {
+        final int count = 1000;
+        final OffHeapRingBuffer ringBuffer = OffHeapRingBuffer.createMultiProducer(64, 8, new YieldingWaitStrategy());
+        final CountDownLatch latch = new CountDownLatch(1);
+        final long[] total = new long[1];
+        final BatchEventProcessor<OffHeapEvent> processor = ringBuffer.newBatchEventProcessor(
+            ringBuffer.newBarrier(),
+            new EventHandler<OffHeapEvent>()
+            {
+                @Override
+                public void onEvent(final OffHeapEvent event, final long sequence, final boolean endOfBatch)
+                {
+                    total[0] += event.getLong(0);
+                    if (sequence == count - 1)
+                    {
+                        latch.countDown();
+                    }
+                }
+            });
+        ringBuffer.addGatingSequences(processor.getSequence());
+
+        final Thread thread = DaemonThreadFactory.INSTANCE.newThread(processor);
+        thread.start();
+
+        final OffHeapEvent event = ringBuffer.newEvent();
+        for (long i = 0; i < count; i++)
+        {
+            final long sequence = ringBuffer.next();
+            ringBuffer.get(event, sequence).putLong(0, i);
+            ringBuffer.publish(sequence);
+        }
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        processor.halt();
+        thread.join();
+
+        assertThat(total[0], is((long) count * (count - 1) / 2));
+    }
+
+    @Test
+    public void shouldChainHandlersThroughDsl() throws Exception
+    {
+        final OffHeapDisruptor disruptor = new OffHeapDisruptor(16, 8, DaemonThreadFactory.INSTANCE);
+        final CountDownLatch latch = new CountDownLatch(1);
+        final long[] doubled = new long[4];
+
+        disruptor
+            .handleEventsWith(
+                new EventHandler<OffHeapEvent>()
+                {
+                    @Override
+                    public void onEvent(final OffHeapEvent event, final long sequence, final boolean endOfBatch)
+                    {
+                        event.putLong(0, event.getLong(0) * 2);
+                    }
+                })
+            .then(
+                new EventHandler<OffHeapEvent>()
+                {
+                    @Override
+                    public void onEvent(final OffHeapEvent event, final long sequence, final boolean endOfBatch)
+                    {
+                        doubled[(int) sequence] = event.getLong(0);
+                        if (sequence == doubled.length - 1)
+                        {
+                            latch.countDown();
+                        }
+                    }
+                });
+
+        final OffHeapRingBuffer ringBuffer = disruptor.start();
+        final OffHeapEvent event = ringBuffer.newEvent();
+        for (long i = 0; i < doubled.length; i++)
+        {
+            final long sequence = ringBuffer.next();
+            ringBuffer.get(event, sequence).putLong(0, i + 1);
+            ringBuffer.publish(sequence);
+        }
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        disruptor.shutdown(5, TimeUnit.SECONDS);
+
+        assertThat(doubled[0], is(2L));
+        assertThat(doubled[3], is(8L));
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.primitive;
+
+import com.lmax.disruptor.ExceptionHandler;
+import com.lmax.disruptor.YieldingWaitStrategy;
+import com.lmax.disruptor.dsl.PrimitiveDisruptor;
+import com.lmax.disruptor.util.DaemonThreadFactory;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class LongRingBufferTest
+{
+    @Test
+    public void shouldPublishBatchWrappingAroundTheBuffer() throws Exception
+    {
+        final LongRingBuffer ringBuffer = LongRingBuffer.createSingleProducer(8, new YieldingWaitStrategy());
+        for (int i = 0; i < 5; i++)
+        {
+            ringBuffer.put(-1L);
+        }
+
+        ringBuffer.put(new long[]{0, 10, 20, 30, 40, 50, 60}, 1, 5);
+
+        assertThat(ringBuffer.getCursor(), is(9L));
+        for (long sequence = 5; sequence <= 9; sequence++)
+        {
+            assertThat(ringBuffer.get(sequence), is((sequence - 4) * 10));
+        }
+    }
+
+    @Test
+    public void shouldPublishBatchLargerThanBuffer() throws Exception
+    {
+        final LongRingBuffer ringBuffer = LongRingBuffer.createMultiProducer(4, new YieldingWaitStrategy());
+        final long[] values = new long[100];
+        for (int i = 0; i < values.length; i++)
+        {
+            values[i] = i;
+        }
+
+        final long[] sum = new long[1];
+        final CountDownLatch latch = new CountDownLatch(1);
+        final LongEventProcessor processor = ringBuffer.newEventProcessor(
+            ringBuffer.newBarrier(),
+            new LongHandler()
+            {
+                @Override
+                public void onEvent(final long value, final long sequence, final boolean endOfBatch)
+                {
+                    sum[0] += value;
+                    if (sequence == values.length - 1)
+                    {
+                        latch.countDown();
+                    }
+                }
+            });
+        ringBuffer.addGatingSequences(processor.getSequence());
+
+        final Thread thread = DaemonThreadFactory.INSTANCE.newThread(processor);
+        thread.start();
+
+        ringBuffer.put(values, 0, values.length);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        processor.halt();
+        thread.join();
+
+        assertThat(sum[0], is(99L * 100L / 2));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void shouldRejectBatchOutsideOfArray() throws Exception
+    {
+        LongRingBuffer.createSingleProducer(4, new YieldingWaitStrategy()).put(new long[4], 2, 3);
+    }
+
+    @Test
+    public void shouldNotPutWhenFull() throws Exception
+    {
+        final IntRingBuffer ringBuffer = IntRingBuffer.createSingleProducer(2, new YieldingWaitStrategy());
+        ringBuffer.addGatingSequences(ringBuffer.newEventProcessor(ringBuffer.newBarrier(), null).getSequence());
+
+        assertTrue(ringBuffer.tryPut(1));
+        assertTrue(ringBuffer.tryPut(2));
+        assertThat(ringBuffer.tryPut(3), is(false));
+        assertThat(ringBuffer.get(1), is(2));
+    }
+
+    @Test
+    public void shouldPassExceptionsToExceptionHandlerAndContinue() throws Exception
+    {
+        final DoubleRingBuffer ringBuffer = DoubleRingBuffer.createSingleProducer(8, new YieldingWaitStrategy());
+        final CountDownLatch latch = new CountDownLatch(1);
+        final Object[] failed = new Object[1];
+
+        final PrimitiveDisruptor<DoubleHandler> disruptor =
+            new PrimitiveDisruptor<DoubleHandler>(ringBuffer, DaemonThreadFactory.INSTANCE);
+        disruptor.setDefaultExceptionHandler(new ExceptionHandler<Object>()
+        {
+            @Override
+            public void handleEventException(final Throwable ex, final long sequence, final Object event)
+            {
+                failed[0] = event;
+            }
+
+            @Override
+            public void handleOnStartException(final Throwable ex)
+            {
+            }
+
+            @Override
+            public void handleOnShutdownException(final Throwable ex)
+            {
+            }
+        });
+        disruptor.handleEventsWith(
+            new DoubleHandler()
+            {
+                @Override
+                public void onEvent(final double value, final long sequence, final boolean endOfBatch)
+                {
+                    if (value < 0)
+                    {
+                        throw new IllegalArgumentException();
+                    }
+                    if (sequence == 1)
+                    {
+                        latch.countDown();
+                    }
+                }
+            });
+        disruptor.start();
+
+        ringBuffer.put(-0.5);
+        ringBuffer.put(1.5);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        disruptor.shutdown(5, TimeUnit.SECONDS);
+
+        assertThat(failed[0], is((Object) (-0.5)));
+    }
+
+    @Test
+    public void shouldChainHandlersThroughDsl() throws Exception
+    {
+        final LongRingBuffer ringBuffer = LongRingBuffer.createMultiProducer(16, new YieldingWaitStrategy());
+        final PrimitiveDisruptor<LongHandler> disruptor =
+            new PrimitiveDisruptor<LongHandler>(ringBuffer, DaemonThreadFactory.INSTANCE);
+        final long[] firstSeen = new long[1];
+        final long[] secondSeen = new long[1];
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        final LongHandler first = new LongHandler()
+        {
+            @Override
+            public void onEvent(final long value, final long sequence, final boolean endOfBatch)
+            {
+                firstSeen[0] = sequence;
+            }
+        };
+        disruptor.handleEventsWith(first);
+        disruptor.after(first).then(
+            new LongHandler()
+            {
+                @Override
+                public void onEvent(final long value, final long sequence, final boolean endOfBatch)
+                {
+                    assertTrue(firstSeen[0] >= sequence);
+                    secondSeen[0] = sequence;
+                    if (sequence == 9)
+                    {
+                        latch.countDown();
+                    }
+                }
+            });
+        disruptor.start();
+
+        for (long i = 0; i < 10; i++)
+        {
+            ringBuffer.put(i);
+        }
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        disruptor.shutdown(5, TimeUnit.SECONDS);
+
+        assertThat(disruptor.getSequenceValueFor(first), is(9L));
+        assertThat(secondSeen[0], is(9L));
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2020 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+public final class ThreadAffinityTest
+{
+    @Test
+    public void shouldParseCpuList()
+    {
+        Assert.assertArrayEquals(new int[] {0, 1, 2, 3, 8, 10, 11}, ThreadAffinity.parseCpuList("8,0-3,10-11\n"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectInvalidCpuRange()
+    {
+        ThreadAffinity.parseCpuList("3-1");
+    }
+
+    @Test
+    public void shouldFormatCpuList()
+    {
+        Assert.assertEquals("2,5,6", ThreadAffinity.formatCpuList(2, 5, 6));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNegativeCpu()
+    {
+        new AffinityThreadFactory(DaemonThreadFactory.INSTANCE, 0, -1);
+    }
+
+    @Test
+    public void shouldIncludeCpuInCpusSharingItsCache()
+    {
+        boolean found = false;
+        for (final int cpu : ThreadAffinity.cpusSharingCacheWith(0))
+        {
+            found |= 0 == cpu;
+        }
+
+        Assert.assertTrue(found);
+    }
+
+    @Test
+    public void shouldPinThreadToRequestedCpu() throws Exception
+    {
+        Assume.assumeTrue("Thread affinity is not supported", ThreadAffinity.isSupported());
+
+        final int cpu = 0;
+        final AffinityThreadFactory threadFactory = new AffinityThreadFactory(DaemonThreadFactory.INSTANCE, cpu);
+        final CountDownLatch latch = new CountDownLatch(1);
+        final String[] affinityMask = new String[1];
+
+        final Thread thread = threadFactory.newThread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                affinityMask[0] = readAffinityMask();
+                latch.countDown();
+            }
+        });
+        thread.start();
+
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        thread.join();
+        Assume.assumeTrue("taskset is not available", null != affinityMask[0]);
+
+        Assert.assertEquals(1, threadFactory.getPinnedCount());
+        Assert.assertEquals(Long.toHexString(1L << cpu), affinityMask[0]);
+    }
+
+    /**
+     * Read back the affinity mask of the calling thread with <code>taskset -p</code>.
+     *
+     * @return the mask in hex, or <code>null</code> if <code>taskset</code> could not be run.
+     */
+    private static String readAffinityMask()
+    {
+        try
+        {
+            final String tid = Files.readSymbolicLink(Paths.get("/proc/thread-self")).getFileName().toString();
+            final Process process = new ProcessBuilder("taskset", "-p", tid).redirectErrorStream(true).start();
+            final String output;
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream())))
+            {
+                output = reader.readLine();
+            }
+
+            // 输出形如 "pid 123's current affinity mask: 1"
+            if (0 != process.waitFor() || null == output)
+            {
+                return null;
+            }
+
+            return output.substring(output.lastIndexOf(':') + 1).trim();
+        }
+        catch (final IOException | InterruptedException e)
+        {
+            return null;
+        }
+    }
+}
@@ -16,6 +16,7 @@
 package com.lmax.disruptor.util;
 
 import com.lmax.disruptor.Sequence;
+import sun.misc.Unsafe;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -52,4 +53,31 @@ public final class UtilTest
 
         Assert.assertEquals(Long.MAX_VALUE, Util.getMinimumSequence(sequences));
     }
+
+    @Test
+    public void shouldAddToSequence()
+    {
+        final Sequence sequence = new Sequence(5L);
+
+        Assert.assertEquals(8L, sequence.addAndGet(3L));
+        Assert.assertEquals(9L, sequence.incrementAndGet());
+    }
+
+    @Test
+    public void shouldAddToOffHeapAddress()
+    {
+        final Unsafe unsafe = Util.getUnsafe();
+        final long address = unsafe.allocateMemory(8);
+        try
+        {
+            unsafe.putLongVolatile(null, address, 10L);
+
+            Assert.assertEquals(10L, Util.getAndAddLong(null, address, 5L));
+            Assert.assertEquals(15L, unsafe.getLongVolatile(null, address));
+        }
+        finally
+        {
+            unsafe.freeMemory(address);
+        }
+    }
 }